@@ -0,0 +1,69 @@
+package com.byteliberi.demo.benchmark;
+
+import com.byteliberi.demo.producer.api.StringProducer;
+import com.byteliberi.demo.stats.api.WindowSnapshot;
+import com.byteliberi.demo.stats.impl.StreamStatisticsConsumer;
+
+import java.lang.reflect.Field;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Measures how many strings per second the stream statistics consumer can absorb,
+ * feeding it producer-like strings (8-16 alphanumeric characters) directly.
+ * <p>
+ * Usage: {@code AggregationBenchmark [strings per iteration] [iterations]}
+ */
+public final class AggregationBenchmark {
+
+    private static final String ALPHANUMERIC_CHARS = "ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789";
+
+    /** Keeps results observable so the JIT cannot discard the loop. */
+    static volatile long blackhole;
+
+    private AggregationBenchmark() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        int count = args.length > 0 ? Integer.parseInt(args[0]) : 10_000_000;
+        int iterations = args.length > 1 ? Integer.parseInt(args[1]) : 5;
+
+        String[] values = new String[1 << 16];
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        for (int i = 0; i < values.length; i++) {
+            char[] chars = new char[8 + random.nextInt(9)];
+            for (int c = 0; c < chars.length; c++) {
+                chars[c] = ALPHANUMERIC_CHARS.charAt(random.nextInt(ALPHANUMERIC_CHARS.length()));
+            }
+            values[i] = new String(chars);
+        }
+
+        StreamStatisticsConsumer consumer = new StreamStatisticsConsumer();
+        // The component gets its producer from Declarative Services; outside a framework, inject a no-op one
+        Field producer = StreamStatisticsConsumer.class.getDeclaredField("stringProducer");
+        producer.setAccessible(true);
+        producer.set(consumer, new StringProducer() {
+            @Override
+            public void addListener(StringListener listener) {
+            }
+
+            @Override
+            public void removeListener(StringListener listener) {
+            }
+        });
+        consumer.activate(Map.of("sliding.slide.ms", "1000"));
+
+        for (int i = 0; i <= iterations; i++) {
+            long start = System.nanoTime();
+            for (int n = 0; n < count; n++) {
+                consumer.onStringGenerated(values[n & (values.length - 1)]);
+            }
+            double seconds = (System.nanoTime() - start) / 1e9;
+            WindowSnapshot window = consumer.getSlidingWindow();
+            blackhole = window.getCount();
+            System.out.printf("%s %.2f M strings/s, sliding window top prefixes %s%n",
+                    i == 0 ? "warm-up" : "iteration " + i, count / seconds / 1e6, window.getTopPrefixes());
+        }
+        consumer.deactivate();
+    }
+}
@@ -0,0 +1,100 @@
+package com.byteliberi.demo.benchmark;
+
+import com.byteliberi.demo.bridge.exporter.impl.BridgeExporter;
+import com.byteliberi.demo.bridge.importer.impl.BridgeImporter;
+import com.byteliberi.demo.bridge.protocol.ConnectionStats;
+import com.byteliberi.demo.producer.api.StringProducer;
+
+import java.lang.reflect.Field;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Measures bridge throughput per connection over loopback TCP: an exporter streams
+ * producer-like strings to an importer in the same JVM, uncompressed and deflated.
+ * With several connections the exporter sends every string over each of them.
+ * <p>
+ * Usage: {@code BridgeBenchmark [strings per iteration] [iterations] [connections]}
+ */
+public final class BridgeBenchmark {
+
+    private static final String ALPHANUMERIC_CHARS = "ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789";
+    private static final int IN_FLIGHT = 32_768;
+
+    private BridgeBenchmark() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        int count = args.length > 0 ? Integer.parseInt(args[0]) : 2_000_000;
+        int iterations = args.length > 1 ? Integer.parseInt(args[1]) : 5;
+        int connections = args.length > 2 ? Integer.parseInt(args[2]) : 1;
+
+        String[] values = new String[1 << 16];
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        for (int i = 0; i < values.length; i++) {
+            char[] chars = new char[8 + random.nextInt(9)];
+            for (int c = 0; c < chars.length; c++) {
+                chars[c] = ALPHANUMERIC_CHARS.charAt(random.nextInt(ALPHANUMERIC_CHARS.length()));
+            }
+            values[i] = new String(chars);
+        }
+
+        for (String compression : new String[] {"none", "deflate"}) {
+            BridgeImporter importer = new BridgeImporter();
+            importer.activate(Map.of("port", 0));
+            AtomicLong received = new AtomicLong();
+            importer.addListener(value -> received.incrementAndGet());
+            String target = "localhost:" + importer.getLocalPort();
+            String[] targets = new String[connections];
+            Arrays.fill(targets, target);
+            BridgeExporter exporter = newExporter();
+            exporter.activate(Map.of("targets", targets, "compression", compression));
+
+            for (int i = 0; i <= iterations; i++) {
+                long base = received.get();
+                long start = System.nanoTime();
+                for (int n = 0; n < count; n++) {
+                    // Stay within the exporter queues so the figure is delivered, not dropped, strings
+                    if ((n & 1023) == 0) {
+                        while ((long) n * connections - (received.get() - base) > IN_FLIGHT * connections) {
+                            Thread.onSpinWait();
+                        }
+                    }
+                    exporter.onStringGenerated(values[n & (values.length - 1)]);
+                }
+                while (received.get() - base < (long) count * connections - exporter.getDroppedCount()) {
+                    Thread.onSpinWait();
+                }
+                double seconds = (System.nanoTime() - start) / 1e9;
+                System.out.printf("compression=%-7s %s %.2f M strings/s per connection%n", compression,
+                        i == 0 ? "warm-up    " : "iteration " + i, count / seconds / 1e6);
+            }
+            for (ConnectionStats stats : importer.getConnectionStats()) {
+                System.out.printf("  %s, %.1f body bytes per wire byte%n",
+                        stats, (double) stats.getBodyBytes() / stats.getWireBytes());
+            }
+            System.out.printf("  dropped by full exporter queues: %d%n", exporter.getDroppedCount());
+            exporter.deactivate();
+            importer.deactivate();
+        }
+    }
+
+    private static BridgeExporter newExporter() throws ReflectiveOperationException {
+        BridgeExporter exporter = new BridgeExporter();
+        // The component gets its producer from Declarative Services; outside a framework, inject a no-op one
+        Field producer = BridgeExporter.class.getDeclaredField("stringProducer");
+        producer.setAccessible(true);
+        producer.set(exporter, new StringProducer() {
+            @Override
+            public void addListener(StringListener listener) {
+            }
+
+            @Override
+            public void removeListener(StringListener listener) {
+            }
+        });
+        return exporter;
+    }
+}
@@ -0,0 +1,114 @@
+package com.byteliberi.demo.benchmark;
+
+import com.byteliberi.demo.producer.api.StringProducer;
+import com.byteliberi.demo.writer.impl.FileStringWriter;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.reflect.Field;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.logging.Handler;
+import java.util.logging.LogManager;
+import java.util.logging.Logger;
+import java.util.logging.SimpleFormatter;
+import java.util.logging.StreamHandler;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Measures file creation throughput of the file writer in one-file-per-string mode: the
+ * flat directory, hashed and time-bucketed subdirectories, and several writer threads.
+ * Besides the rate it reports how many files were really created, since flat names collide
+ * within a millisecond, and how many entries the largest directory ended up with.
+ * <p>
+ * Usage: {@code FileCreateBenchmark [strings per run] [writer threads]}
+ */
+public final class FileCreateBenchmark {
+
+    private FileCreateBenchmark() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        int count = args.length > 0 ? Integer.parseInt(args[0]) : 200_000;
+        int threads = args.length > 1 ? Integer.parseInt(args[1]) : 4;
+        discardLogOutput();
+
+        String[][] runs = {{"flat", "1"}, {"hash", "1"}, {"hash", Integer.toString(threads)},
+                {"time", Integer.toString(threads)}};
+        for (String[] run : runs) {
+            Path directory = Files.createTempDirectory("osgi-demo-files");
+            FileStringWriter writer = newWriter();
+            Map<String, Object> properties = new HashMap<>();
+            properties.put("output.dir", directory.toString());
+            properties.put("text.layout", run[0]);
+            properties.put("text.writer.threads", Integer.parseInt(run[1]));
+            properties.put("log.sample.every", 0);
+            properties.put("partition.report.interval.s", 0);
+            writer.activate(properties);
+            long start = System.nanoTime();
+            for (int n = 0; n < count; n++) {
+                writer.onStringGenerated("value-" + n);
+            }
+            writer.deactivate(); // waits for the writer threads to drain
+            double seconds = (System.nanoTime() - start) / 1e9;
+            List<Long> sizes = directorySizes(directory);
+            System.out.printf("layout=%-4s threads=%-2s %8.0f strings/s  %7d files created  largest directory %7d entries%n",
+                    run[0], run[1], count / seconds, sizes.stream().mapToLong(Long::longValue).sum()
+                            - sizes.size() + 1, sizes.stream().mapToLong(Long::longValue).max().orElse(0));
+            delete(directory);
+        }
+    }
+
+    /**
+     * @return the number of entries, files and subdirectories, of every directory in the tree
+     */
+    private static List<Long> directorySizes(Path root) throws IOException {
+        try (Stream<Path> tree = Files.walk(root)) {
+            return tree.filter(Files::isDirectory).map(directory -> {
+                try (Stream<Path> entries = Files.list(directory)) {
+                    return entries.count();
+                } catch (IOException e) {
+                    throw new IllegalStateException(e);
+                }
+            }).collect(Collectors.toList());
+        }
+    }
+
+    private static FileStringWriter newWriter() throws ReflectiveOperationException {
+        FileStringWriter writer = new FileStringWriter();
+        // The component gets its producer from Declarative Services; outside a framework, inject a no-op one
+        Field producer = FileStringWriter.class.getDeclaredField("stringProducer");
+        producer.setAccessible(true);
+        producer.set(writer, new StringProducer() {
+            @Override
+            public void addListener(StringListener listener) {
+            }
+
+            @Override
+            public void removeListener(StringListener listener) {
+            }
+        });
+        return writer;
+    }
+
+    private static void discardLogOutput() {
+        Logger root = LogManager.getLogManager().getLogger("");
+        for (Handler handler : root.getHandlers()) {
+            root.removeHandler(handler);
+        }
+        root.addHandler(new StreamHandler(OutputStream.nullOutputStream(), new SimpleFormatter()));
+    }
+
+    private static void delete(Path directory) throws IOException {
+        try (Stream<Path> files = Files.walk(directory)) {
+            for (Path path : (Iterable<Path>) files.sorted(Comparator.reverseOrder())::iterator) {
+                Files.delete(path);
+            }
+        }
+    }
+}
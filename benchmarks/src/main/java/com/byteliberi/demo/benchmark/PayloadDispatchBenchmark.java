@@ -0,0 +1,141 @@
+package com.byteliberi.demo.benchmark;
+
+import com.byteliberi.demo.producer.api.StringProducer;
+import com.byteliberi.demo.producer.impl.RandomStringProducer;
+import com.byteliberi.demo.ring.RingWriter;
+import com.byteliberi.demo.ring.impl.RingPublisher;
+
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+import java.lang.reflect.Field;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Handler;
+import java.util.logging.LogManager;
+import java.util.logging.Logger;
+import java.util.logging.SimpleFormatter;
+import java.util.logging.StreamHandler;
+
+/**
+ * Measures what delivering a string to the shared-memory ring costs the producer thread, in heap
+ * allocation and CPU time per string, when the ring is fed by a plain string listener and when
+ * it is fed by the {@link RingPublisher}, which registers as a payload listener. The producer
+ * generates into its off-heap slab as fast as it can, so the payload path copies slab bytes
+ * straight into the ring while the string path decodes and re-encodes every string.
+ * <p>
+ * A run with a payload listener that only counts gives the producer's own cost per string;
+ * the difference to it is what delivery to the ring adds.
+ * <p>
+ * Usage: {@code PayloadDispatchBenchmark [seconds per run] [iterations]}
+ */
+public final class PayloadDispatchBenchmark {
+
+    private PayloadDispatchBenchmark() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        int seconds = args.length > 0 ? Integer.parseInt(args[0]) : 2;
+        int iterations = args.length > 1 ? Integer.parseInt(args[1]) : 5;
+        discardLogOutput();
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        Path directory = Files.createTempDirectory("osgi-demo-payload");
+
+        for (String mode : new String[] {"counting", "string", "payload"}) {
+            double bestAllocated = Double.MAX_VALUE;
+            double bestCpu = Double.MAX_VALUE;
+            long delivered = 0;
+            for (int i = 0; i <= iterations; i++) {
+                Path ring = directory.resolve("strings-" + i + "-" + mode + ".ring");
+                RandomStringProducer producer = new RandomStringProducer();
+                Map<String, Object> properties = new HashMap<>();
+                properties.put("profile", "constant");
+                properties.put("profile.rate", 1e9);
+                properties.put("slab.enabled", true);
+                properties.put("log.sample.every", 0);
+                properties.put("log.summary.interval.s", 0);
+                producer.activate(properties);
+                if (!producer.awaitReady(30, TimeUnit.SECONDS)) {
+                    throw new IllegalStateException("Producer did not become ready");
+                }
+
+                AtomicLong counted = new AtomicLong();
+                RingPublisher publisher = null;
+                RingWriter writer = null;
+                if (mode.equals("counting")) {
+                    producer.addPayloadListener(payload -> counted.incrementAndGet());
+                } else if (mode.equals("payload")) {
+                    publisher = newPublisher(producer);
+                    publisher.activate(Map.of("ring.file", ring.toString()));
+                } else {
+                    writer = RingWriter.open(ring, 4 * 1024 * 1024, 5000);
+                    producer.addListener(writer::offer);
+                }
+                Thread producerThread = findThread("RandomStringProducer");
+                long allocatedStart = threads.getThreadAllocatedBytes(producerThread.getId());
+                long cpuStart = threads.getThreadCpuTime(producerThread.getId());
+                long countStart = delivered(counted, publisher, writer);
+                Thread.sleep(TimeUnit.SECONDS.toMillis(seconds));
+                long allocated = threads.getThreadAllocatedBytes(producerThread.getId()) - allocatedStart;
+                long cpu = threads.getThreadCpuTime(producerThread.getId()) - cpuStart;
+                long count = delivered(counted, publisher, writer) - countStart;
+                producer.deactivate();
+                if (publisher != null) {
+                    publisher.deactivate();
+                } else if (writer != null) {
+                    writer.close();
+                }
+                Files.deleteIfExists(ring);
+                if (i > 0 && count > 0) { // the first round is warm-up
+                    bestAllocated = Math.min(bestAllocated, (double) allocated / count);
+                    bestCpu = Math.min(bestCpu, (double) cpu / count);
+                    delivered = Math.max(delivered, count / seconds);
+                }
+            }
+            System.out.printf("%-8s listener %8.1f bytes allocated/string %6.0f ns CPU/string %10d strings/s%n",
+                    mode, bestAllocated, bestCpu, delivered);
+        }
+        Files.deleteIfExists(directory);
+    }
+
+    private static long delivered(AtomicLong counted, RingPublisher publisher, RingWriter writer)
+            throws ReflectiveOperationException {
+        if (publisher == null && writer == null) {
+            return counted.get();
+        }
+        if (writer != null) {
+            return writer.getWrittenCount();
+        }
+        Field field = RingPublisher.class.getDeclaredField("writer");
+        field.setAccessible(true);
+        return ((RingWriter) field.get(publisher)).getWrittenCount();
+    }
+
+    private static RingPublisher newPublisher(StringProducer producer) throws ReflectiveOperationException {
+        RingPublisher publisher = new RingPublisher();
+        Field field = RingPublisher.class.getDeclaredField("stringProducer");
+        field.setAccessible(true);
+        field.set(publisher, producer);
+        return publisher;
+    }
+
+    private static Thread findThread(String name) {
+        for (Thread thread : Thread.getAllStackTraces().keySet()) {
+            if (thread.getName().equals(name)) {
+                return thread;
+            }
+        }
+        throw new IllegalStateException("No thread named " + name);
+    }
+
+    private static void discardLogOutput() {
+        Logger root = LogManager.getLogManager().getLogger("");
+        for (Handler handler : root.getHandlers()) {
+            root.removeHandler(handler);
+        }
+        root.addHandler(new StreamHandler(OutputStream.nullOutputStream(), new SimpleFormatter()));
+    }
+}
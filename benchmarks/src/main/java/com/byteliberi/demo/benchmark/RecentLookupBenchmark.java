@@ -0,0 +1,124 @@
+package com.byteliberi.demo.benchmark;
+
+import com.byteliberi.demo.producer.api.StringProducer;
+import com.byteliberi.demo.recent.impl.RecentStringsCache;
+
+import java.io.OutputStream;
+import java.lang.reflect.Field;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.logging.Handler;
+import java.util.logging.LogManager;
+import java.util.logging.Logger;
+import java.util.logging.SimpleFormatter;
+import java.util.logging.StreamHandler;
+
+/**
+ * Measures lookup latency of the recent-strings cache once it is full of strings shaped like
+ * the Random Producer's: exact lookups of retained and of unknown strings, prefix lookups of
+ * one, two and four characters, and time-range lookups, plus the insert rate while evicting.
+ * <p>
+ * Usage: {@code RecentLookupBenchmark [cache capacity] [lookups per kind]}
+ */
+public final class RecentLookupBenchmark {
+
+    private static final String ALPHANUMERIC_CHARS = "ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789";
+
+    private RecentLookupBenchmark() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        int capacity = args.length > 0 ? Integer.parseInt(args[0]) : 100_000;
+        int lookups = args.length > 1 ? Integer.parseInt(args[1]) : 100_000;
+        discardLogOutput();
+
+        RecentStringsCache cache = newCache();
+        Map<String, Object> properties = new HashMap<>();
+        properties.put("cache.capacity", capacity);
+        properties.put("cache.max.bytes", Long.MAX_VALUE);
+        cache.activate(properties);
+
+        Random random = new Random(7);
+        String[] retained = new String[capacity];
+        long start = System.nanoTime();
+        for (int n = 0; n < capacity * 3; n++) {
+            String value = randomString(random);
+            cache.onStringGenerated(value);
+            if (n >= capacity * 2) {
+                retained[n - capacity * 2] = value;
+            }
+        }
+        System.out.printf("insert            %8.0f ns/string (%d strings, %d retained)%n",
+                (System.nanoTime() - start) / (capacity * 3.0), capacity * 3, cache.size());
+
+        long now = System.currentTimeMillis();
+        long[] latencies = new long[lookups];
+        for (int round = 0; round < 2; round++) { // the first round warms up
+            boolean report = round == 1;
+            measure("find (hit)", report, latencies, i -> cache.find(retained[random.nextInt(capacity)]));
+            measure("find (miss)", report, latencies, i -> cache.find(randomString(random)));
+            measure("prefix 1 char", report, latencies, i -> cache.findByPrefix(randomString(random).substring(0, 1), 10));
+            measure("prefix 2 chars", report, latencies, i -> cache.findByPrefix(randomString(random).substring(0, 2), 10));
+            measure("prefix 4 chars", report, latencies, i -> cache.findByPrefix(randomString(random).substring(0, 4), 10));
+            measure("last 100 ms", report, latencies, i -> cache.findBetween(now - 100, now + 1, 10));
+        }
+        cache.deactivate();
+    }
+
+    private interface Lookup {
+        Object run(int i);
+    }
+
+    private static void measure(String name, boolean report, long[] latencies, Lookup lookup) {
+        int found = 0;
+        for (int i = 0; i < latencies.length; i++) {
+            long start = System.nanoTime();
+            Object result = lookup.run(i);
+            latencies[i] = System.nanoTime() - start;
+            if (result != null) {
+                found++;
+            }
+        }
+        if (report) {
+            Arrays.sort(latencies);
+            System.out.printf("%-16s  p50 %6.2f us  p99 %6.2f us  max %8.2f us%s%n", name,
+                    latencies[latencies.length / 2] / 1e3, latencies[latencies.length * 99 / 100] / 1e3,
+                    latencies[latencies.length - 1] / 1e3, name.startsWith("find") ? "  (" + found + " found)" : "");
+        }
+    }
+
+    private static String randomString(Random random) {
+        char[] chars = new char[8 + random.nextInt(9)];
+        for (int i = 0; i < chars.length; i++) {
+            chars[i] = ALPHANUMERIC_CHARS.charAt(random.nextInt(ALPHANUMERIC_CHARS.length()));
+        }
+        return new String(chars);
+    }
+
+    private static RecentStringsCache newCache() throws ReflectiveOperationException {
+        RecentStringsCache cache = new RecentStringsCache();
+        // The component gets its producer from Declarative Services; outside a framework, inject a no-op one
+        Field producer = RecentStringsCache.class.getDeclaredField("stringProducer");
+        producer.setAccessible(true);
+        producer.set(cache, new StringProducer() {
+            @Override
+            public void addListener(StringListener listener) {
+            }
+
+            @Override
+            public void removeListener(StringListener listener) {
+            }
+        });
+        return cache;
+    }
+
+    private static void discardLogOutput() {
+        Logger root = LogManager.getLogManager().getLogger("");
+        for (Handler handler : root.getHandlers()) {
+            root.removeHandler(handler);
+        }
+        root.addHandler(new StreamHandler(OutputStream.nullOutputStream(), new SimpleFormatter()));
+    }
+}
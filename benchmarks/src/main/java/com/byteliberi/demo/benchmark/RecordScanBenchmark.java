@@ -0,0 +1,96 @@
+package com.byteliberi.demo.benchmark;
+
+import com.byteliberi.demo.writer.record.RecordFormat;
+import com.byteliberi.demo.writer.record.RecordReader;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.zip.CRC32C;
+
+/**
+ * Measures sequential scan throughput of {@link RecordReader} over one segment,
+ * with and without checksum verification.
+ * <p>
+ * Usage: {@code RecordScanBenchmark [segment MiB] [payload bytes] [iterations]}
+ */
+public final class RecordScanBenchmark {
+
+    /** Keeps scan results observable so the JIT cannot discard the loop. */
+    static volatile long blackhole;
+
+    private RecordScanBenchmark() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        int segmentMiB = args.length > 0 ? Integer.parseInt(args[0]) : 512;
+        int payloadSize = args.length > 1 ? Integer.parseInt(args[1]) : 12;
+        int iterations = args.length > 2 ? Integer.parseInt(args[2]) : 5;
+
+        Path directory = Files.createTempDirectory("osgi-demo-records");
+        Path segment = directory.resolve("segment_00000000000000000001" + RecordFormat.SEGMENT_SUFFIX);
+        try {
+            long records = writeSegment(segment, (long) segmentMiB * 1024 * 1024, payloadSize);
+            long bytes = Files.size(segment);
+            System.out.printf("segment: %d records, %.1f MiB, %d-byte payloads%n",
+                    records, bytes / 1048576.0, payloadSize);
+
+            for (boolean verify : new boolean[] {true, false}) {
+                scan(segment, verify); // warm-up: page cache, JIT
+                double best = 0;
+                for (int i = 0; i < iterations; i++) {
+                    long start = System.nanoTime();
+                    blackhole = scan(segment, verify);
+                    double seconds = (System.nanoTime() - start) / 1e9;
+                    best = Math.max(best, bytes / seconds);
+                }
+                System.out.printf("verify=%-5s best %.2f GB/s, %.1f M records/s%n",
+                        verify, best / 1e9, best / bytes * records / 1e6);
+            }
+        } finally {
+            Files.deleteIfExists(segment);
+            Files.deleteIfExists(directory);
+        }
+    }
+
+    private static long scan(Path segment, boolean verify) throws IOException {
+        long sum = 0;
+        try (RecordReader reader = RecordReader.open(segment, verify)) {
+            while (reader.next()) {
+                ByteBuffer payload = reader.payload();
+                sum += reader.sequence() + payload.get(payload.position());
+            }
+            if (reader.tailState() != RecordReader.TailState.CLEAN) {
+                throw new IllegalStateException("Unexpected tail " + reader.tailState());
+            }
+        }
+        return sum;
+    }
+
+    private static long writeSegment(Path segment, long targetSize, int payloadSize) throws IOException {
+        byte[] payloadBytes = new byte[payloadSize];
+        ThreadLocalRandom.current().nextBytes(payloadBytes);
+        ByteBuffer payload = ByteBuffer.wrap(payloadBytes);
+        ByteBuffer buffer = ByteBuffer.allocateDirect(1024 * 1024);
+        CRC32C crc = new CRC32C();
+        long written = 0;
+        long sequence = 0;
+        try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE)) {
+            while (written < targetSize) {
+                buffer.clear();
+                while (buffer.remaining() >= RecordFormat.HEADER_SIZE + payloadSize && written < targetSize) {
+                    written += RecordFormat.encode(buffer, ++sequence, System.currentTimeMillis(), payload, crc);
+                }
+                buffer.flip();
+                while (buffer.hasRemaining()) {
+                    channel.write(buffer);
+                }
+            }
+        }
+        return sequence;
+    }
+}
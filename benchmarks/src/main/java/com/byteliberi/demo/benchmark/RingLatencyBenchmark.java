@@ -0,0 +1,106 @@
+package com.byteliberi.demo.benchmark;
+
+import com.byteliberi.demo.ring.RingReader;
+import com.byteliberi.demo.ring.RingWriter;
+import com.byteliberi.demo.ring.WaitStrategy;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Measures one-way latency of the shared-memory ring between two JVMs on the same host.
+ * This process writes {@link System#nanoTime()} stamps at a steady rate; a reader process
+ * started with the same class path receives them with each {@link WaitStrategy} and reports
+ * latency percentiles. Both sides read the same monotonic clock, so the stamps compare directly.
+ * <p>
+ * Usage: {@code RingLatencyBenchmark [messages] [messages per second]}
+ */
+public final class RingLatencyBenchmark {
+
+    private static final String END = "end";
+    private static final String READER = "--reader";
+
+    private RingLatencyBenchmark() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        if (args.length > 0 && READER.equals(args[0])) {
+            read(Paths.get(args[1]), WaitStrategy.valueOf(args[2]), Integer.parseInt(args[3]));
+            return;
+        }
+        int count = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        int rate = args.length > 1 ? Integer.parseInt(args[1]) : 100_000;
+        long intervalNanos = TimeUnit.SECONDS.toNanos(1) / rate;
+
+        Path directory = Files.createTempDirectory("ring-benchmark");
+        for (WaitStrategy strategy : WaitStrategy.values()) {
+            Path file = directory.resolve(strategy.name().toLowerCase() + ".ring");
+            try (RingWriter writer = RingWriter.open(file, 1 << 20, 5000)) {
+                Process reader = new ProcessBuilder(
+                        Paths.get(System.getProperty("java.home"), "bin", "java").toString(),
+                        "-cp", System.getProperty("java.class.path"),
+                        RingLatencyBenchmark.class.getName(), READER, file.toString(), strategy.name(),
+                        Integer.toString(count))
+                        .inheritIO()
+                        .start();
+                Path cursor = file.resolveSibling(file.getFileName() + ".reader.cursor");
+                while (!Files.exists(cursor)) {
+                    Thread.sleep(10);
+                }
+                long next = System.nanoTime();
+                for (int i = 0; i < count; i++) {
+                    // Parks rather than spins, so a spinning reader keeps its core even on a small host
+                    for (long now = System.nanoTime(); now < next; now = System.nanoTime()) {
+                        LockSupport.parkNanos(next - now);
+                    }
+                    next += intervalNanos;
+                    writer.offer(Long.toString(System.nanoTime()));
+                }
+                writer.offer(END);
+                reader.waitFor();
+                System.out.printf("  %d written at %d/s, %d dropped%n", writer.getWrittenCount(), rate,
+                        writer.getDroppedCount());
+            }
+            Files.deleteIfExists(file);
+        }
+        Files.deleteIfExists(directory);
+    }
+
+    private static void read(Path file, WaitStrategy strategy, int count) throws Exception {
+        long[] latencies = new long[count];
+        int[] received = {0};
+        boolean[] done = {false};
+        try (RingReader reader = RingReader.open(file, "reader", strategy)) {
+            long cpuStart = ProcessHandle.current().info().totalCpuDuration().map(d -> d.toNanos()).orElse(0L);
+            long start = System.nanoTime();
+            while (!done[0]) {
+                reader.read(value -> {
+                    long now = System.nanoTime();
+                    if (END.equals(value)) {
+                        done[0] = true;
+                    } else if (received[0] < latencies.length) {
+                        latencies[received[0]++] = now - Long.parseLong(value);
+                    }
+                }, 256, TimeUnit.SECONDS.toNanos(1));
+            }
+            double seconds = (System.nanoTime() - start) / 1e9;
+            long cpu = ProcessHandle.current().info().totalCpuDuration().map(d -> d.toNanos()).orElse(0L) - cpuStart;
+            // The first tenth warms up both JVMs
+            long[] measured = Arrays.copyOfRange(latencies, received[0] / 10, received[0]);
+            Arrays.sort(measured);
+            System.out.printf("wait=%-14s p50 %6.1f us  p99 %6.1f us  p99.9 %7.1f us  max %8.1f us  reader CPU %3.0f%%"
+                            + "  (%d received, %d laps)%n",
+                    strategy, percentile(measured, 0.50), percentile(measured, 0.99), percentile(measured, 0.999),
+                    measured[measured.length - 1] / 1e3, 100.0 * cpu / (seconds * 1e9), received[0],
+                    reader.getLapCount());
+        }
+    }
+
+    private static double percentile(long[] sorted, double fraction) {
+        return sorted[Math.min(sorted.length - 1, (int) (sorted.length * fraction))] / 1e3;
+    }
+}
@@ -0,0 +1,214 @@
+package com.byteliberi.demo.benchmark;
+
+import org.osgi.framework.Bundle;
+import org.osgi.framework.BundleContext;
+import org.osgi.framework.BundleException;
+import org.osgi.framework.Constants;
+import org.osgi.framework.launch.Framework;
+import org.osgi.framework.launch.FrameworkFactory;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.ServiceLoader;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Handler;
+import java.util.logging.Level;
+import java.util.logging.LogRecord;
+import java.util.logging.Logger;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Measures the time from framework start to the first string delivered by each consumer.
+ * <p>
+ * Every iteration boots a fresh embedded Felix framework with a clean storage area,
+ * installs SCR and the demo bundles, and watches the bundles' log records for their
+ * "ready" and "first string delivered" messages.
+ * <p>
+ * Usage, after {@code mvn package}:
+ * <pre>
+ * java -cp "benchmarks/target/benchmarks-1.0.0-SNAPSHOT.jar:benchmarks/target/lib/*" \
+ *     com.byteliberi.demo.benchmark.StartupBenchmark [iterations] [bundle directory]
+ * </pre>
+ */
+public final class StartupBenchmark {
+
+    private static final String PRODUCER_LOGGER = "com.byteliberi.demo.producer.impl.RandomStringProducer";
+    private static final String WRITER_LOGGER = "com.byteliberi.demo.writer.impl.FileStringWriter";
+    private static final String SYSLOG_LOGGER = "com.byteliberi.demo.syslog.impl.SyslogStringSender";
+    private static final List<String> MILESTONES = List.of(
+            "framework started", "bundles started", "producer ready", "file-writer ready",
+            "file-writer first delivery", "syslog-sender first delivery");
+    private static final long TIMEOUT_SECONDS = 30;
+
+    private StartupBenchmark() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        int iterations = args.length > 0 ? Integer.parseInt(args[0]) : 5;
+        Path bundleDir = Paths.get(args.length > 1 ? args[1] : "benchmarks/target/bundles");
+        List<Path> bundles = listBundles(bundleDir);
+        if (bundles.isEmpty()) {
+            System.err.println("No bundles found in " + bundleDir.toAbsolutePath() + ", run 'mvn package' first");
+            System.exit(1);
+        }
+
+        // Keep the console quiet; the milestone handlers below still see INFO records
+        for (Handler handler : Logger.getLogger("").getHandlers()) {
+            handler.setLevel(Level.WARNING);
+        }
+
+        Map<String, List<Long>> results = new HashMap<>();
+        for (int i = 1; i <= iterations; i++) {
+            Map<String, Long> run = runOnce(bundles);
+            System.out.printf("run %d: %s%n", i, format(run));
+            run.forEach((milestone, micros) -> results.computeIfAbsent(milestone, k -> new ArrayList<>()).add(micros));
+        }
+
+        System.out.println();
+        System.out.printf("%-30s %10s %10s %10s%n", "milestone (ms since start)", "min", "median", "max");
+        for (String milestone : MILESTONES) {
+            List<Long> values = results.getOrDefault(milestone, List.of());
+            if (values.isEmpty()) {
+                System.out.printf("%-30s %10s%n", milestone, "n/a");
+                continue;
+            }
+            values.sort(Comparator.naturalOrder());
+            System.out.printf("%-30s %10.1f %10.1f %10.1f%n", milestone,
+                    values.get(0) / 1000.0, values.get(values.size() / 2) / 1000.0,
+                    values.get(values.size() - 1) / 1000.0);
+        }
+    }
+
+    /**
+     * Boots a framework, waits for every milestone and shuts it down.
+     * @return microseconds from framework start to each milestone reached
+     */
+    private static Map<String, Long> runOnce(List<Path> bundles) throws Exception {
+        Map<String, Long> milestones = new ConcurrentHashMap<>();
+        CountDownLatch remaining = new CountDownLatch(4);
+        long start = System.nanoTime();
+
+        List<Attached> handlers = List.of(
+                attach(PRODUCER_LOGGER, "Random string producer ready", "producer ready", start, milestones, remaining),
+                attach(WRITER_LOGGER, "File writer ready", "file-writer ready", start, milestones, remaining),
+                attach(WRITER_LOGGER, "First string delivered", "file-writer first delivery", start, milestones, remaining),
+                attach(SYSLOG_LOGGER, "First string delivered", "syslog-sender first delivery", start, milestones, remaining));
+
+        Path storage = Files.createTempDirectory("osgi-demo-startup");
+        Map<String, String> config = new HashMap<>();
+        config.put(Constants.FRAMEWORK_STORAGE, storage.toString());
+        config.put(Constants.FRAMEWORK_STORAGE_CLEAN, Constants.FRAMEWORK_STORAGE_CLEAN_ONFIRSTINIT);
+
+        Framework framework = ServiceLoader.load(FrameworkFactory.class).iterator().next().newFramework(config);
+        try {
+            framework.start();
+            milestones.put("framework started", elapsedMicros(start));
+
+            BundleContext context = framework.getBundleContext();
+            List<Bundle> installed = new ArrayList<>();
+            for (Path bundle : bundles) {
+                installed.add(context.installBundle(bundle.toUri().toString()));
+            }
+            for (Bundle bundle : installed) {
+                bundle.start();
+            }
+            milestones.put("bundles started", elapsedMicros(start));
+
+            if (!remaining.await(TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+                System.err.println("Timed out waiting for milestones, reached: " + milestones.keySet());
+            }
+        } finally {
+            stop(framework);
+            handlers.forEach(Attached::detach);
+            deleteRecursively(storage);
+        }
+        return milestones;
+    }
+
+    private static Attached attach(String loggerName, String prefix, String milestone, long start,
+                                   Map<String, Long> milestones, CountDownLatch remaining) {
+        Logger logger = Logger.getLogger(loggerName);
+        Handler handler = new Handler() {
+            @Override
+            public void publish(LogRecord record) {
+                String message = record.getMessage();
+                if (message != null && message.startsWith(prefix)
+                        && milestones.putIfAbsent(milestone, elapsedMicros(start)) == null) {
+                    remaining.countDown();
+                }
+            }
+
+            @Override
+            public void flush() {
+            }
+
+            @Override
+            public void close() {
+            }
+        };
+        logger.addHandler(handler);
+        return new Attached(logger, handler);
+    }
+
+    private static void stop(Framework framework) throws BundleException, InterruptedException {
+        framework.stop();
+        framework.waitForStop(TimeUnit.SECONDS.toMillis(TIMEOUT_SECONDS));
+    }
+
+    private static long elapsedMicros(long start) {
+        return TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - start);
+    }
+
+    private static String format(Map<String, Long> run) {
+        return MILESTONES.stream()
+                .filter(run::containsKey)
+                .map(m -> m + "=" + String.format("%.1fms", run.get(m) / 1000.0))
+                .collect(Collectors.joining(", "));
+    }
+
+    /**
+     * Lists the bundle jars; all are installed before any is started, so order does not matter.
+     */
+    private static List<Path> listBundles(Path directory) throws IOException {
+        if (!Files.isDirectory(directory)) {
+            return List.of();
+        }
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(p -> p.toString().endsWith(".jar"))
+                    .sorted()
+                    .collect(Collectors.toList());
+        }
+    }
+
+    private static void deleteRecursively(Path root) throws IOException {
+        try (Stream<Path> files = Files.walk(root)) {
+            for (Path path : files.sorted(Comparator.reverseOrder()).toArray(Path[]::new)) {
+                Files.deleteIfExists(path);
+            }
+        }
+    }
+
+    private static final class Attached {
+        private final Logger logger;
+        private final Handler handler;
+
+        Attached(Logger logger, Handler handler) {
+            this.logger = logger;
+            this.handler = handler;
+        }
+
+        void detach() {
+            logger.removeHandler(handler);
+        }
+    }
+}
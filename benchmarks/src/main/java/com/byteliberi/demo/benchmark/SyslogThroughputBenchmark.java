@@ -0,0 +1,105 @@
+package com.byteliberi.demo.benchmark;
+
+import com.byteliberi.demo.producer.api.StringProducer;
+import com.byteliberi.demo.syslog.impl.SyslogStringSender;
+import com.byteliberi.demo.syslog.sink.SyslogSink;
+
+import java.io.OutputStream;
+import java.lang.reflect.Field;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import java.util.logging.Handler;
+import java.util.logging.LogManager;
+import java.util.logging.Logger;
+import java.util.logging.SimpleFormatter;
+import java.util.logging.StreamHandler;
+
+/**
+ * Measures what the syslog sender really delivers, over UDP and over TCP, to an in-process
+ * {@link SyslogSink} on loopback. For each protocol it offers a number of strings, optionally
+ * paced to a target rate, and reports how many the sender dropped because its queue was full,
+ * how many it sent, and how many of those the sink received in the expected format; on UDP the
+ * difference between sent and received is what the network stack discarded.
+ * <p>
+ * Usage: {@code SyslogThroughputBenchmark [strings per run] [strings per second, 0 for as fast as possible] [sink parser threads]}
+ */
+public final class SyslogThroughputBenchmark {
+
+    private SyslogThroughputBenchmark() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        int count = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        long rate = args.length > 1 ? Long.parseLong(args[1]) : 0;
+        int parserThreads = args.length > 2 ? Integer.parseInt(args[2]) : 2;
+        discardLogOutput();
+
+        for (String protocol : new String[] {"udp", "tcp"}) {
+            try (SyslogSink sink = SyslogSink.start(parserThreads)) {
+                SyslogStringSender sender = newSender();
+                Map<String, Object> properties = new HashMap<>();
+                properties.put("endpoints", protocol.equals("udp") ? sink.getUdpEndpoint() : sink.getTcpEndpoint());
+                properties.put("queue.capacity", 65_536);
+                properties.put("log.sample.every", 0);
+                properties.put("log.summary.interval.s", 0);
+                sender.activate(properties);
+                if (!sender.awaitReady(30, TimeUnit.SECONDS)) {
+                    throw new IllegalStateException("Syslog sender did not connect");
+                }
+
+                long intervalNanos = rate > 0 ? TimeUnit.SECONDS.toNanos(1) / rate : 0;
+                long start = System.nanoTime();
+                for (int n = 0; n < count; n++) {
+                    if (intervalNanos > 0) {
+                        long due = start + n * intervalNanos;
+                        long wait = due - System.nanoTime();
+                        if (wait > 0) {
+                            LockSupport.parkNanos(wait);
+                        }
+                    }
+                    sender.onStringGenerated("Benchmark" + n);
+                }
+                double offerSeconds = (System.nanoTime() - start) / 1e9;
+                long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(30);
+                while (sender.getSentCount() + sender.getDroppedCount() < count && System.nanoTime() < deadline) {
+                    Thread.sleep(1);
+                }
+                double sendSeconds = (System.nanoTime() - start) / 1e9;
+                sink.awaitQuiet(200, 30_000);
+                long dropped = sender.getDroppedCount();
+                SyslogSink.Report report = sink.report(sender.getSentCount());
+                sender.deactivate();
+
+                System.out.printf("%s offered %8.0f/s  sent %8.0f/s  dropped by sender %7d  %s%n", protocol,
+                        count / offerSeconds, report.getSent() / sendSeconds, dropped, report);
+            }
+        }
+    }
+
+    private static SyslogStringSender newSender() throws ReflectiveOperationException {
+        SyslogStringSender sender = new SyslogStringSender();
+        // The component gets its producer from Declarative Services; outside a framework, inject a no-op one
+        Field producer = SyslogStringSender.class.getDeclaredField("stringProducer");
+        producer.setAccessible(true);
+        producer.set(sender, new StringProducer() {
+            @Override
+            public void addListener(StringListener listener) {
+            }
+
+            @Override
+            public void removeListener(StringListener listener) {
+            }
+        });
+        return sender;
+    }
+
+    private static void discardLogOutput() {
+        Logger root = LogManager.getLogManager().getLogger("");
+        for (Handler handler : root.getHandlers()) {
+            root.removeHandler(handler);
+        }
+        root.addHandler(new StreamHandler(OutputStream.nullOutputStream(), new SimpleFormatter()));
+    }
+}
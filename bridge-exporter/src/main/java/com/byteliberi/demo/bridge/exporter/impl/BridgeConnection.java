@@ -0,0 +1,260 @@
+package com.byteliberi.demo.bridge.exporter.impl;
+
+import com.byteliberi.demo.bridge.protocol.ConnectionStats;
+import com.byteliberi.demo.bridge.protocol.FrameDecoder;
+import com.byteliberi.demo.bridge.protocol.FrameEncoder;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.StandardSocketOptions;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.SocketChannel;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Logger;
+
+/**
+ * Streams strings to one importer over a non-blocking socket, on its own thread.
+ * <p>
+ * Strings wait in a bounded queue; the producer thread never touches the socket, and when
+ * the queue is full new strings are dropped and counted. The connection thread batches up to
+ * {@code batchSize} strings, waiting at most {@code lingerMs} for a batch to fill, and only
+ * sends while it holds credit from the importer. A lost connection is re-established with an
+ * exponentially growing back-off; the frame being written when it broke is lost.
+ */
+class BridgeConnection {
+
+    private static final Logger LOGGER = Logger.getLogger(BridgeConnection.class.getName());
+    private static final long MAX_BACKOFF_MS = 30_000;
+    private static final long POLL_MS = 100;
+
+    /**
+     * Connection state, as reported in the statistics.
+     */
+    enum State {
+        CONNECTING,
+        UP,
+        DOWN
+    }
+
+    private final String host;
+    private final int port;
+    private final BlockingQueue<String> queue;
+    private final int batchSize;
+    private final long lingerNanos;
+    private final boolean compress;
+    private final long baseBackoffMs;
+    private final ConnectionStats.Counters counters = new ConnectionStats.Counters();
+    private final AtomicLong dropped = new AtomicLong();
+    private volatile State state = State.CONNECTING;
+    private volatile boolean running;
+    private Thread thread;
+    private int credits;
+
+    BridgeConnection(String host, int port, int queueCapacity, int batchSize, long lingerMs,
+                     boolean compress, long baseBackoffMs) {
+        this.host = host;
+        this.port = port;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.batchSize = Math.max(1, batchSize);
+        this.lingerNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(0, lingerMs));
+        this.compress = compress;
+        this.baseBackoffMs = Math.max(1, baseBackoffMs);
+    }
+
+    /**
+     * Parses a target of the form {@code host:port}.
+     */
+    static BridgeConnection parse(String target, int queueCapacity, int batchSize, long lingerMs,
+                                  boolean compress, long baseBackoffMs) {
+        int colon = target.lastIndexOf(':');
+        if (colon <= 0 || colon == target.length() - 1) {
+            throw new IllegalArgumentException("Bridge target must be host:port: " + target);
+        }
+        int port = Integer.parseInt(target.substring(colon + 1));
+        if (port <= 0 || port > 65535) {
+            throw new IllegalArgumentException("Invalid port in bridge target: " + target);
+        }
+        return new BridgeConnection(target.substring(0, colon), port, queueCapacity, batchSize, lingerMs,
+                compress, baseBackoffMs);
+    }
+
+    void start() {
+        running = true;
+        thread = new Thread(this::run, "BridgeExporter-" + this);
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /**
+     * Stops the connection thread; strings still queued are discarded.
+     */
+    void stop() {
+        running = false;
+        if (thread != null) {
+            thread.interrupt();
+            try {
+                thread.join(1000);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        int discarded = queue.size();
+        queue.clear();
+        if (discarded > 0) {
+            LOGGER.warning("Discarded " + discarded + " unsent string(s) for " + this);
+        }
+    }
+
+    /**
+     * Queues a string without blocking.
+     * @return {@code false} if the queue is full and the string was dropped
+     */
+    boolean offer(String value) {
+        if (queue.offer(value)) {
+            return true;
+        }
+        dropped.incrementAndGet();
+        return false;
+    }
+
+    State getState() {
+        return state;
+    }
+
+    long getDroppedCount() {
+        return dropped.get();
+    }
+
+    ConnectionStats getStats() {
+        return counters.snapshot(toString(), state.name());
+    }
+
+    private void run() {
+        FrameEncoder encoder = new FrameEncoder(compress);
+        FrameDecoder decoder = new FrameDecoder();
+        long backoffMs = baseBackoffMs;
+        try {
+            while (running) {
+                try (SocketChannel channel = SocketChannel.open(); Selector selector = Selector.open()) {
+                    state = State.CONNECTING;
+                    channel.connect(new InetSocketAddress(host, port));
+                    channel.setOption(StandardSocketOptions.TCP_NODELAY, true);
+                    channel.configureBlocking(false);
+                    SelectionKey key = channel.register(selector, SelectionKey.OP_READ);
+                    credits = 0;
+                    state = State.UP;
+                    counters.connected();
+                    backoffMs = baseBackoffMs;
+                    LOGGER.info("Bridge connection " + this + " is up");
+                    stream(channel, selector, key, encoder, decoder);
+                } catch (IOException e) {
+                    if (!running) {
+                        break;
+                    }
+                    if (state != State.DOWN) {
+                        LOGGER.warning("Bridge connection " + this + " failed, retrying in " + backoffMs + " ms: "
+                                + e.getMessage());
+                    }
+                    state = State.DOWN;
+                    decoder = resetDecoder(decoder);
+                    Thread.sleep(backoffMs);
+                    backoffMs = Math.min(MAX_BACKOFF_MS, backoffMs * 2);
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            encoder.close();
+            decoder.close();
+            state = State.DOWN;
+        }
+    }
+
+    private void stream(SocketChannel channel, Selector selector, SelectionKey key,
+                        FrameEncoder encoder, FrameDecoder decoder) throws IOException, InterruptedException {
+        FrameDecoder.Handler creditHandler = new FrameDecoder.Handler() {
+            @Override
+            public void onString(String value) {
+            }
+
+            @Override
+            public void onBatchEnd(int count, int wireBytes, int bodyBytes) {
+            }
+
+            @Override
+            public void onCredit(int frames) {
+                credits += frames;
+            }
+        };
+        ByteBuffer frame = null;
+        while (running) {
+            if (frame == null && credits > 0) {
+                int count = fillBatch(encoder);
+                if (count > 0) {
+                    int bodyLength = encoder.bodyLength();
+                    frame = encoder.finishBatch();
+                    counters.batch(count, frame.remaining(), bodyLength);
+                    credits--;
+                }
+            }
+            if (frame != null) {
+                channel.write(frame);
+                if (!frame.hasRemaining()) {
+                    frame = null;
+                }
+            }
+            // Wait for credit, or for the socket to take more of a partly written frame
+            key.interestOps(frame != null ? SelectionKey.OP_READ | SelectionKey.OP_WRITE : SelectionKey.OP_READ);
+            if (frame != null || credits == 0) {
+                selector.select(POLL_MS);
+            } else {
+                selector.selectNow();
+            }
+            selector.selectedKeys().clear();
+            if (decoder.read(channel, creditHandler) < 0) {
+                throw new IOException("Connection closed by importer");
+            }
+        }
+    }
+
+    /**
+     * Moves queued strings into the encoder: waits up to {@link #POLL_MS} for the first one,
+     * then up to the linger time for the batch to fill.
+     * @return the number of strings in the batch
+     */
+    private int fillBatch(FrameEncoder encoder) throws InterruptedException {
+        String value = queue.poll(POLL_MS, TimeUnit.MILLISECONDS);
+        if (value == null) {
+            return 0;
+        }
+        encoder.add(value);
+        long deadline = System.nanoTime() + lingerNanos;
+        while (encoder.count() < batchSize) {
+            value = queue.poll();
+            if (value == null) {
+                long remaining = deadline - System.nanoTime();
+                if (remaining <= 0 || (value = queue.poll(remaining, TimeUnit.NANOSECONDS)) == null) {
+                    break;
+                }
+            }
+            encoder.add(value);
+        }
+        return encoder.count();
+    }
+
+    private static FrameDecoder resetDecoder(FrameDecoder decoder) {
+        // A partial frame from the broken connection must not prefix the next one
+        decoder.close();
+        return new FrameDecoder();
+    }
+
+    @Override
+    public String toString() {
+        return host + ":" + port;
+    }
+}
@@ -0,0 +1,147 @@
+package com.byteliberi.demo.bridge.exporter.impl;
+
+import com.byteliberi.demo.bridge.protocol.BridgeProtocol;
+import com.byteliberi.demo.bridge.protocol.ConnectionStats;
+import com.byteliberi.demo.component.ComponentConfig;
+import com.byteliberi.demo.producer.api.StringProducer;
+import org.osgi.service.component.annotations.Activate;
+import org.osgi.service.component.annotations.Component;
+import org.osgi.service.component.annotations.Deactivate;
+import org.osgi.service.component.annotations.Reference;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.logging.Logger;
+
+/**
+ * Bridge exporter that consumes strings from the local StringProducer and streams them
+ * to bridge importers in other JVMs, which republish them as their own StringProducer.
+ * <p>
+ * Every entry of {@code targets} ({@code host:port}) gets its own {@link BridgeConnection}
+ * with a bounded queue and thread, so a slow or unreachable importer only costs the strings
+ * its own queue cannot hold. Strings are sent in batches of up to {@code batch.size},
+ * optionally deflated ({@code compression=deflate}), under the importer's credit-based
+ * flow control; see {@link BridgeProtocol}.
+ * <p>
+ * Delivery is at most once: a string is only queued when the callback returns, and a full
+ * queue, a stop or a broken connection can still lose it. The exporter therefore registers
+ * as a plain listener rather than a durable one, whose journal offset would run ahead of
+ * what the importers actually received.
+ */
+@Component(immediate = true)
+public class BridgeExporter implements StringProducer.StringListener {
+
+    private static final Logger LOGGER = Logger.getLogger(BridgeExporter.class.getName());
+
+    static final String TARGETS = "targets";
+    static final String BATCH_SIZE = "batch.size";
+    static final String BATCH_LINGER_MS = "batch.linger.ms";
+    static final String COMPRESSION = "compression";
+    static final String QUEUE_CAPACITY = "queue.capacity";
+    static final String RECONNECT_BACKOFF_MS = "reconnect.backoff.ms";
+    private static final String DEFAULT_TARGET = "localhost:" + BridgeProtocol.DEFAULT_PORT;
+
+    // Never export strings that were themselves imported over a bridge
+    @Reference(target = "(!(bridge.imported=true))")
+    private StringProducer stringProducer;
+
+    private volatile List<BridgeConnection> connections = Collections.emptyList();
+
+    /**
+     * Activates the bridge exporter with default configuration.
+     */
+    public void activate() {
+        activate(Collections.emptyMap());
+    }
+
+    /**
+     * Activates the bridge exporter, connects to the importers and registers as a listener.
+     * @param properties the component configuration
+     */
+    @Activate
+    public void activate(Map<String, Object> properties) {
+        try {
+            connections = createConnections(new ComponentConfig(properties));
+            for (BridgeConnection connection : connections) {
+                connection.start();
+            }
+            stringProducer.addListener(this);
+            LOGGER.info("Bridge exporter activated with targets " + connections + " and registered with string producer");
+        } catch (IllegalArgumentException e) {
+            LOGGER.severe("Invalid bridge exporter configuration: " + e.getMessage());
+            throw e;
+        }
+    }
+
+    /**
+     * Deactivates the bridge exporter and closes its connections.
+     */
+    @Deactivate
+    public void deactivate() {
+        try {
+            if (stringProducer != null) {
+                stringProducer.removeListener(this);
+            }
+            for (BridgeConnection connection : connections) {
+                connection.stop();
+            }
+            LOGGER.info("Bridge exporter deactivated and unregistered from string producer");
+        } catch (Exception e) {
+            LOGGER.warning("Error during bridge exporter deactivation: " + e.getMessage());
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void onStringGenerated(String value) {
+        for (BridgeConnection connection : connections) {
+            connection.offer(value);
+        }
+    }
+
+    /**
+     * @return traffic figures of every connection
+     */
+    public List<ConnectionStats> getConnectionStats() {
+        List<ConnectionStats> stats = new ArrayList<>();
+        for (BridgeConnection connection : connections) {
+            stats.add(connection.getStats());
+        }
+        return stats;
+    }
+
+    /**
+     * @return the number of strings dropped because a connection queue was full
+     */
+    public long getDroppedCount() {
+        return connections.stream().mapToLong(BridgeConnection::getDroppedCount).sum();
+    }
+
+    private static List<BridgeConnection> createConnections(ComponentConfig config) {
+        int queueCapacity = config.getInt(QUEUE_CAPACITY, 65_536);
+        int batchSize = config.getInt(BATCH_SIZE, 256);
+        long lingerMs = config.getLong(BATCH_LINGER_MS, 5);
+        long backoffMs = config.getLong(RECONNECT_BACKOFF_MS, 1000);
+        String compression = config.getString(COMPRESSION, "none");
+        boolean compress;
+        switch (compression) {
+            case "none":
+                compress = false;
+                break;
+            case "deflate":
+                compress = true;
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown compression '" + compression + "', expected none or deflate");
+        }
+        List<BridgeConnection> connections = new ArrayList<>();
+        for (String target : config.getStringArray(TARGETS, new String[] {DEFAULT_TARGET})) {
+            connections.add(BridgeConnection.parse(target, queueCapacity, batchSize, lingerMs, compress, backoffMs));
+        }
+        return Collections.unmodifiableList(connections);
+    }
+}
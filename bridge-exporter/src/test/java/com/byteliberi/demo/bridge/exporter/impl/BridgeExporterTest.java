@@ -0,0 +1,75 @@
+package com.byteliberi.demo.bridge.exporter.impl;
+
+import com.byteliberi.demo.producer.api.StringProducer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.net.ServerSocket;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for BridgeExporter.
+ */
+@ExtendWith(MockitoExtension.class)
+class BridgeExporterTest {
+
+    @Mock
+    private StringProducer mockStringProducer;
+
+    private BridgeExporter exporter;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        exporter = new BridgeExporter();
+        java.lang.reflect.Field field = BridgeExporter.class.getDeclaredField("stringProducer");
+        field.setAccessible(true);
+        field.set(exporter, mockStringProducer);
+    }
+
+    @AfterEach
+    void tearDown() {
+        exporter.deactivate();
+    }
+
+    @Test
+    void testActivate_registersAsPlainListener() {
+        exporter.activate(Map.of(BridgeExporter.TARGETS, "localhost:" + unusedPort()));
+        verify(mockStringProducer).addListener(exporter);
+        verify(mockStringProducer, never()).addDurableListener(anyString(), any());
+    }
+
+    @Test
+    void testUnreachableImporter_fullQueueDropsStrings() {
+        exporter.activate(Map.of(
+                BridgeExporter.TARGETS, "localhost:" + unusedPort(),
+                BridgeExporter.QUEUE_CAPACITY, 2));
+        for (int i = 0; i < 5; i++) {
+            exporter.onStringGenerated("String" + i);
+        }
+        assertEquals(3, exporter.getDroppedCount());
+    }
+
+    @Test
+    void testInvalidConfiguration_isRejected() {
+        assertThrows(IllegalArgumentException.class,
+                () -> exporter.activate(Map.of(BridgeExporter.COMPRESSION, "zstd")));
+        assertThrows(IllegalArgumentException.class,
+                () -> exporter.activate(Map.of(BridgeExporter.TARGETS, "no-port")));
+        verifyNoInteractions(mockStringProducer);
+    }
+
+    private static int unusedPort() {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
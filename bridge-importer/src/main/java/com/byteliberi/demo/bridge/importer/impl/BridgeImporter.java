@@ -0,0 +1,305 @@
+package com.byteliberi.demo.bridge.importer.impl;
+
+import com.byteliberi.demo.bridge.protocol.BridgeProtocol;
+import com.byteliberi.demo.bridge.protocol.ConnectionStats;
+import com.byteliberi.demo.bridge.protocol.FrameDecoder;
+import com.byteliberi.demo.bridge.protocol.FrameEncoder;
+import com.byteliberi.demo.component.ComponentConfig;
+import com.byteliberi.demo.producer.api.StringProducer;
+import org.osgi.service.component.annotations.Activate;
+import org.osgi.service.component.annotations.Component;
+import org.osgi.service.component.annotations.Deactivate;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.StandardSocketOptions;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.logging.Logger;
+
+/**
+ * Bridge importer that accepts connections from bridge exporters in other JVMs and
+ * republishes the strings they send as a local StringProducer service.
+ * <p>
+ * One selector thread serves every connection and calls the listeners directly, in the
+ * order the strings arrive on each connection. Credit for the next batch is only granted
+ * once a batch has been delivered, so slow listeners slow the exporters down instead of
+ * letting data pile up here; see {@link BridgeProtocol}.
+ * <p>
+ * The service carries {@code bridge.imported=true}; a bridge exporter in the same framework
+ * ignores it, so a node can relay strings onwards without sending them back.
+ */
+@Component(immediate = true, service = StringProducer.class, property = BridgeImporter.IMPORTED_PROPERTY + ":Boolean=true")
+public class BridgeImporter implements StringProducer {
+
+    private static final Logger LOGGER = Logger.getLogger(BridgeImporter.class.getName());
+
+    /** Service property marking the imported producer, so that a bridge exporter does not loop it back. */
+    static final String IMPORTED_PROPERTY = "bridge.imported";
+
+    static final String BIND_ADDRESS = "bind.address";
+    static final String PORT = "port";
+    static final String CREDIT_WINDOW = "credit.window";
+
+    private final List<StringListener> listeners = new CopyOnWriteArrayList<>();
+    private final List<InboundConnection> connections = new CopyOnWriteArrayList<>();
+    private volatile boolean running;
+    private ServerSocketChannel server;
+    private Selector selector;
+    private Thread selectorThread;
+    private int creditWindow;
+
+    /**
+     * Activates the bridge importer with default configuration.
+     */
+    public void activate() {
+        activate(Collections.emptyMap());
+    }
+
+    /**
+     * Activates the bridge importer and starts listening for exporters.
+     * @param properties the component configuration
+     */
+    @Activate
+    public void activate(Map<String, Object> properties) {
+        ComponentConfig config = new ComponentConfig(properties);
+        creditWindow = Math.max(1, config.getInt(CREDIT_WINDOW, 16));
+        InetSocketAddress address = new InetSocketAddress(config.getString(BIND_ADDRESS, "localhost"),
+                config.getInt(PORT, BridgeProtocol.DEFAULT_PORT));
+        try {
+            selector = Selector.open();
+            server = ServerSocketChannel.open();
+            server.bind(address);
+            server.configureBlocking(false);
+            server.register(selector, SelectionKey.OP_ACCEPT);
+        } catch (IOException e) {
+            closeQuietly();
+            LOGGER.severe("Failed to listen for bridge exporters on " + address + ": " + e.getMessage());
+            throw new RuntimeException("Cannot start bridge importer", e);
+        }
+        running = true;
+        selectorThread = new Thread(this::serve, "BridgeImporter");
+        selectorThread.start();
+        LOGGER.info("Bridge importer activated, listening on " + server.socket().getLocalSocketAddress());
+    }
+
+    /**
+     * Deactivates the bridge importer and closes every connection.
+     */
+    @Deactivate
+    public void deactivate() {
+        running = false;
+        if (selector != null) {
+            selector.wakeup();
+        }
+        if (selectorThread != null) {
+            try {
+                selectorThread.join(1000);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        closeQuietly();
+        listeners.clear();
+        LOGGER.info("Bridge importer deactivated");
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void addListener(StringListener listener) {
+        if (listener != null) {
+            listeners.add(listener);
+            LOGGER.info("Added string listener: " + listener.getClass().getSimpleName());
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void removeListener(StringListener listener) {
+        if (listener != null && listeners.remove(listener)) {
+            LOGGER.info("Removed string listener: " + listener.getClass().getSimpleName());
+        }
+    }
+
+    /**
+     * @return the port the importer listens on, useful when configured with port 0
+     */
+    public int getLocalPort() {
+        return server.socket().getLocalPort();
+    }
+
+    /**
+     * @return traffic figures of every open connection
+     */
+    public List<ConnectionStats> getConnectionStats() {
+        List<ConnectionStats> stats = new ArrayList<>();
+        for (InboundConnection connection : connections) {
+            stats.add(connection.counters.snapshot(connection.remote, "UP"));
+        }
+        return stats;
+    }
+
+    private void serve() {
+        try {
+            while (running) {
+                selector.select();
+                for (SelectionKey key : selector.selectedKeys()) {
+                    if (!key.isValid()) {
+                        continue;
+                    }
+                    if (key.isAcceptable()) {
+                        accept();
+                    } else {
+                        InboundConnection connection = (InboundConnection) key.attachment();
+                        try {
+                            connection.service(key);
+                        } catch (IOException e) {
+                            LOGGER.warning("Bridge connection from " + connection.remote + " closed: " + e.getMessage());
+                            connection.close();
+                        }
+                    }
+                }
+                selector.selectedKeys().clear();
+            }
+        } catch (IOException | RuntimeException e) {
+            if (running) {
+                LOGGER.severe("Bridge importer stopped: " + e.getMessage());
+            }
+        } finally {
+            for (InboundConnection connection : connections) {
+                connection.close();
+            }
+        }
+    }
+
+    private void accept() throws IOException {
+        SocketChannel channel = server.accept();
+        if (channel == null) {
+            return;
+        }
+        channel.configureBlocking(false);
+        channel.setOption(StandardSocketOptions.TCP_NODELAY, true);
+        InboundConnection connection = new InboundConnection(channel);
+        SelectionKey key = channel.register(selector, SelectionKey.OP_READ, connection);
+        connections.add(connection);
+        connection.counters.connected();
+        connection.grant(key, creditWindow);
+        LOGGER.info("Accepted bridge connection from " + connection.remote);
+    }
+
+    private void deliver(String value) {
+        for (StringListener listener : listeners) {
+            try {
+                listener.onStringGenerated(value);
+            } catch (Exception e) {
+                LOGGER.warning("Error notifying listener " + listener.getClass().getSimpleName() + ": " + e.getMessage());
+            }
+        }
+    }
+
+    private void closeQuietly() {
+        try {
+            if (server != null) {
+                server.close();
+            }
+            if (selector != null) {
+                selector.close();
+            }
+        } catch (IOException e) {
+            LOGGER.warning("Error closing bridge importer: " + e.getMessage());
+        }
+    }
+
+    /**
+     * One exporter connection: decodes its batches and returns credit for them.
+     */
+    private final class InboundConnection implements FrameDecoder.Handler {
+        private final SocketChannel channel;
+        private final String remote;
+        private final FrameDecoder decoder = new FrameDecoder();
+        private final ConnectionStats.Counters counters = new ConnectionStats.Counters();
+        private ByteBuffer pendingCredit;
+        private int batchesDelivered;
+
+        InboundConnection(SocketChannel channel) throws IOException {
+            this.channel = channel;
+            this.remote = String.valueOf(channel.getRemoteAddress());
+        }
+
+        void service(SelectionKey key) throws IOException {
+            if (key.isReadable()) {
+                if (decoder.read(channel, this) < 0) {
+                    throw new IOException("closed by exporter");
+                }
+            }
+            if (batchesDelivered > 0) {
+                int frames = batchesDelivered;
+                batchesDelivered = 0;
+                grant(key, frames);
+            } else if (key.isWritable()) {
+                flushCredit(key);
+            }
+        }
+
+        void grant(SelectionKey key, int frames) throws IOException {
+            if (pendingCredit != null) {
+                // Merge with the credit still waiting to go out
+                flushCredit(key);
+                if (pendingCredit != null) {
+                    batchesDelivered += frames;
+                    return;
+                }
+            }
+            pendingCredit = FrameEncoder.credit(frames);
+            flushCredit(key);
+        }
+
+        private void flushCredit(SelectionKey key) throws IOException {
+            if (pendingCredit != null) {
+                channel.write(pendingCredit);
+                if (!pendingCredit.hasRemaining()) {
+                    pendingCredit = null;
+                }
+            }
+            key.interestOps(pendingCredit != null ? SelectionKey.OP_READ | SelectionKey.OP_WRITE : SelectionKey.OP_READ);
+        }
+
+        @Override
+        public void onString(String value) {
+            deliver(value);
+        }
+
+        @Override
+        public void onBatchEnd(int count, int wireBytes, int bodyBytes) {
+            counters.batch(count, wireBytes, bodyBytes);
+            batchesDelivered++;
+        }
+
+        @Override
+        public void onCredit(int frames) {
+            // only the importer grants credit
+        }
+
+        void close() {
+            connections.remove(this);
+            decoder.close();
+            try {
+                channel.close();
+            } catch (IOException e) {
+                LOGGER.warning("Error closing bridge connection from " + remote + ": " + e.getMessage());
+            }
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package com.byteliberi.demo.bridge.protocol;
+
+/**
+ * Wire format of the TCP bridge between a {@code StringProducer} in one JVM and its
+ * listeners in another.
+ * <p>
+ * Every frame is {@code [int length][byte type][payload]}, where the length counts the type
+ * byte and the payload. The exporter sends {@link #BATCH} frames; the importer answers with
+ * {@link #CREDIT} frames:
+ * <pre>
+ * BATCH  payload: [byte flags][int count][int body length][body]
+ *        body:    count x ([varint length][UTF-8 bytes]), deflated if flags has {@link #FLAG_DEFLATE};
+ *                 the body length is the length before compression
+ * CREDIT payload: [int frames]
+ * </pre>
+ * Flow control is credit based: on connect the importer grants a window of batch frames and
+ * grants one more each time it has delivered a batch to its listeners. An exporter without
+ * credit stops sending and lets its own queue absorb the backlog, so a slow consumer never
+ * makes either side buffer without bound.
+ */
+public final class BridgeProtocol {
+
+    /** Frame carrying a batch of strings. */
+    public static final byte BATCH = 1;
+    /** Frame granting the exporter permission to send more batch frames. */
+    public static final byte CREDIT = 2;
+    /** Batch flag: the body is compressed with {@link java.util.zip.Deflater}. */
+    public static final byte FLAG_DEFLATE = 1;
+
+    /** Size of the frame length field. */
+    public static final int LENGTH_SIZE = Integer.BYTES;
+    /** Size of the fixed part of a batch frame after the length field. */
+    public static final int BATCH_HEADER_SIZE = 1 + 1 + Integer.BYTES + Integer.BYTES;
+    /** Largest frame either side accepts, guarding against a corrupt or hostile length field. */
+    public static final int MAX_FRAME_SIZE = 16 * 1024 * 1024;
+
+    /** Port the importer listens on unless configured otherwise. */
+    public static final int DEFAULT_PORT = 7540;
+
+    private BridgeProtocol() {
+    }
+}
@@ -0,0 +1,131 @@
+package com.byteliberi.demo.bridge.protocol;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Point-in-time traffic figures of one bridge connection, taken with {@link Counters#snapshot(String, String)}.
+ */
+public final class ConnectionStats {
+
+    private final String connection;
+    private final String state;
+    private final long strings;
+    private final long frames;
+    private final long wireBytes;
+    private final long bodyBytes;
+    private final long connects;
+    private final double stringsPerSecond;
+
+    private ConnectionStats(String connection, String state, long strings, long frames, long wireBytes,
+                            long bodyBytes, long connects, double stringsPerSecond) {
+        this.connection = connection;
+        this.state = state;
+        this.strings = strings;
+        this.frames = frames;
+        this.wireBytes = wireBytes;
+        this.bodyBytes = bodyBytes;
+        this.connects = connects;
+        this.stringsPerSecond = stringsPerSecond;
+    }
+
+    /**
+     * @return the remote address of the connection
+     */
+    public String getConnection() {
+        return connection;
+    }
+
+    /**
+     * @return the connection state as reported by its owner
+     */
+    public String getState() {
+        return state;
+    }
+
+    public long getStrings() {
+        return strings;
+    }
+
+    public long getFrames() {
+        return frames;
+    }
+
+    /**
+     * @return bytes sent or received on the socket, frame headers included
+     */
+    public long getWireBytes() {
+        return wireBytes;
+    }
+
+    /**
+     * @return the uncompressed size of the batch bodies
+     */
+    public long getBodyBytes() {
+        return bodyBytes;
+    }
+
+    /**
+     * @return how many times the connection has been established
+     */
+    public long getConnects() {
+        return connects;
+    }
+
+    /**
+     * @return strings per second since the counters were created
+     */
+    public double getStringsPerSecond() {
+        return stringsPerSecond;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s %s: %d strings in %d frames, %.0f strings/s, %d wire bytes for %d body bytes, %d connect(s)",
+                connection, state, strings, frames, stringsPerSecond, wireBytes, bodyBytes, connects);
+    }
+
+    /**
+     * Live counters of one connection, updated by its I/O thread and read by anyone.
+     */
+    public static final class Counters {
+        private final long createdNanos = System.nanoTime();
+        private final AtomicLong strings = new AtomicLong();
+        private final AtomicLong frames = new AtomicLong();
+        private final AtomicLong wireBytes = new AtomicLong();
+        private final AtomicLong bodyBytes = new AtomicLong();
+        private final AtomicLong connects = new AtomicLong();
+
+        /**
+         * Records one batch frame.
+         * @param count strings in the batch
+         * @param wire size of the frame on the wire
+         * @param body uncompressed size of the batch body
+         */
+        public void batch(int count, int wire, int body) {
+            strings.addAndGet(count);
+            frames.incrementAndGet();
+            wireBytes.addAndGet(wire);
+            bodyBytes.addAndGet(body);
+        }
+
+        /**
+         * Records that the connection has been (re-)established.
+         */
+        public void connected() {
+            connects.incrementAndGet();
+        }
+
+        /**
+         * @param connection the remote address of the connection
+         * @param state the connection state to report
+         * @return the current figures
+         */
+        public ConnectionStats snapshot(String connection, String state) {
+            long elapsed = System.nanoTime() - createdNanos;
+            long count = strings.get();
+            return new ConnectionStats(connection, state, count, frames.get(), wireBytes.get(), bodyBytes.get(),
+                    connects.get(), elapsed > 0 ? count * (double) TimeUnit.SECONDS.toNanos(1) / elapsed : 0);
+        }
+    }
+}
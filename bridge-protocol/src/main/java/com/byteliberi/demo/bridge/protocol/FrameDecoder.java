@@ -0,0 +1,160 @@
+package com.byteliberi.demo.bridge.protocol;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+
+/**
+ * Reassembles frames from a non-blocking channel and hands their contents to a {@link Handler}.
+ * Partial frames are kept until the rest arrives. A decoder is not thread-safe.
+ */
+public final class FrameDecoder {
+
+    /**
+     * Receives the contents of decoded frames.
+     */
+    public interface Handler {
+        /**
+         * Called for every string of a batch, in order.
+         * @param value the string
+         */
+        void onString(String value);
+
+        /**
+         * Called after the last string of a batch.
+         * @param count the number of strings in the batch
+         * @param wireBytes the size of the frame on the wire
+         * @param bodyBytes the uncompressed size of the batch body
+         */
+        void onBatchEnd(int count, int wireBytes, int bodyBytes);
+
+        /**
+         * Called for a credit frame.
+         * @param frames the number of batch frames granted
+         */
+        void onCredit(int frames);
+    }
+
+    private final Inflater inflater = new Inflater();
+    private ByteBuffer input = ByteBuffer.allocate(64 * 1024);
+    private byte[] body = new byte[4096];
+
+    /**
+     * Reads whatever the channel has available and decodes every complete frame.
+     * @param channel the channel, typically in non-blocking mode
+     * @param handler receives the decoded contents
+     * @return the number of bytes read, or -1 at end of stream
+     * @throws IOException if reading fails or a frame is malformed
+     */
+    public int read(ReadableByteChannel channel, Handler handler) throws IOException {
+        int read = channel.read(input);
+        if (read > 0) {
+            input.flip();
+            try {
+                decodeFrames(handler);
+            } finally {
+                input.compact();
+            }
+        }
+        return read;
+    }
+
+    /**
+     * Releases the native memory held by the inflater.
+     */
+    public void close() {
+        inflater.end();
+    }
+
+    private void decodeFrames(Handler handler) throws IOException {
+        while (input.remaining() >= BridgeProtocol.LENGTH_SIZE) {
+            int start = input.position();
+            int length = input.getInt(start);
+            if (length <= 0 || length > BridgeProtocol.MAX_FRAME_SIZE) {
+                throw new IOException("Invalid frame length " + length);
+            }
+            if (input.remaining() < BridgeProtocol.LENGTH_SIZE + length) {
+                if (input.capacity() < BridgeProtocol.LENGTH_SIZE + length) {
+                    grow(BridgeProtocol.LENGTH_SIZE + length);
+                }
+                return;
+            }
+            input.position(start + BridgeProtocol.LENGTH_SIZE);
+            byte type = input.get();
+            if (type == BridgeProtocol.BATCH) {
+                decodeBatch(handler, length - 1);
+            } else if (type == BridgeProtocol.CREDIT) {
+                handler.onCredit(input.getInt());
+            } else {
+                throw new IOException("Unknown frame type " + type);
+            }
+            input.position(start + BridgeProtocol.LENGTH_SIZE + length);
+        }
+    }
+
+    private void decodeBatch(Handler handler, int payloadLength) throws IOException {
+        byte flags = input.get();
+        int count = input.getInt();
+        int bodyLength = input.getInt();
+        int dataLength = payloadLength - (BridgeProtocol.BATCH_HEADER_SIZE - 1);
+        if (bodyLength < 0 || bodyLength > BridgeProtocol.MAX_FRAME_SIZE || dataLength < 0) {
+            throw new IOException("Invalid batch header");
+        }
+        if (body.length < bodyLength) {
+            body = new byte[Math.max(bodyLength, body.length * 2)];
+        }
+        if ((flags & BridgeProtocol.FLAG_DEFLATE) != 0) {
+            inflater.reset();
+            inflater.setInput(input.array(), input.arrayOffset() + input.position(), dataLength);
+            try {
+                int inflated = 0;
+                while (inflated < bodyLength && !inflater.finished()) {
+                    int n = inflater.inflate(body, inflated, bodyLength - inflated);
+                    if (n == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+                        break;
+                    }
+                    inflated += n;
+                }
+                if (inflated != bodyLength) {
+                    throw new IOException("Batch inflated to " + inflated + " bytes, expected " + bodyLength);
+                }
+            } catch (DataFormatException e) {
+                throw new IOException("Corrupt compressed batch: " + e.getMessage(), e);
+            }
+        } else if (dataLength == bodyLength) {
+            input.get(body, 0, bodyLength);
+        } else {
+            throw new IOException("Batch body of " + dataLength + " bytes, expected " + bodyLength);
+        }
+        int position = 0;
+        for (int i = 0; i < count; i++) {
+            int length = 0;
+            int shift = 0;
+            byte b;
+            do {
+                if (position >= bodyLength || shift > 28) {
+                    throw new IOException("Truncated batch body");
+                }
+                b = body[position++];
+                length |= (b & 0x7F) << shift;
+                shift += 7;
+            } while ((b & 0x80) != 0);
+            if (length < 0 || position + length > bodyLength) {
+                throw new IOException("Truncated batch body");
+            }
+            handler.onString(new String(body, position, length, StandardCharsets.UTF_8));
+            position += length;
+        }
+        handler.onBatchEnd(count, BridgeProtocol.LENGTH_SIZE + 1 + payloadLength, bodyLength);
+    }
+
+    private void grow(int size) {
+        ByteBuffer larger = ByteBuffer.allocate(Math.max(size, input.capacity() * 2));
+        larger.put(input);
+        larger.flip();
+        input = larger;
+    }
+}
@@ -0,0 +1,133 @@
+package com.byteliberi.demo.bridge.protocol;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.zip.Deflater;
+
+/**
+ * Collects strings into a batch and encodes it as a {@link BridgeProtocol#BATCH} frame.
+ * Buffers and the deflater are reused from batch to batch; an encoder is not thread-safe.
+ */
+public final class FrameEncoder {
+
+    private final Deflater deflater;
+    private byte[] body = new byte[4096];
+    private byte[] compressed = new byte[0];
+    private int bodyLength;
+    private int count;
+    private ByteBuffer frame = ByteBuffer.allocate(4096);
+
+    /**
+     * @param compress whether batch bodies are deflated
+     */
+    public FrameEncoder(boolean compress) {
+        this.deflater = compress ? new Deflater(Deflater.BEST_SPEED) : null;
+    }
+
+    /**
+     * Appends a string to the current batch.
+     * @param value the string
+     */
+    public void add(String value) {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        ensureBody(bodyLength + 5 + bytes.length);
+        int length = bytes.length;
+        while ((length & ~0x7F) != 0) {
+            body[bodyLength++] = (byte) ((length & 0x7F) | 0x80);
+            length >>>= 7;
+        }
+        body[bodyLength++] = (byte) length;
+        System.arraycopy(bytes, 0, body, bodyLength, bytes.length);
+        bodyLength += bytes.length;
+        count++;
+    }
+
+    /**
+     * @return the number of strings in the current batch
+     */
+    public int count() {
+        return count;
+    }
+
+    /**
+     * @return the uncompressed size in bytes of the current batch body
+     */
+    public int bodyLength() {
+        return bodyLength;
+    }
+
+    /**
+     * Encodes the current batch and starts a new one.
+     * @return the frame, ready to be written; valid until the next call
+     */
+    public ByteBuffer finishBatch() {
+        byte flags = 0;
+        byte[] payload = body;
+        int payloadLength = bodyLength;
+        if (deflater != null) {
+            payloadLength = deflate();
+            payload = compressed;
+            flags = BridgeProtocol.FLAG_DEFLATE;
+        }
+        int frameSize = BridgeProtocol.LENGTH_SIZE + BridgeProtocol.BATCH_HEADER_SIZE + payloadLength;
+        if (frame.capacity() < frameSize) {
+            frame = ByteBuffer.allocate(Math.max(frameSize, frame.capacity() * 2));
+        }
+        frame.clear();
+        frame.putInt(frameSize - BridgeProtocol.LENGTH_SIZE)
+                .put(BridgeProtocol.BATCH)
+                .put(flags)
+                .putInt(count)
+                .putInt(bodyLength)
+                .put(payload, 0, payloadLength)
+                .flip();
+        bodyLength = 0;
+        count = 0;
+        return frame;
+    }
+
+    /**
+     * Encodes a {@link BridgeProtocol#CREDIT} frame.
+     * @param frames the number of batch frames granted
+     * @return the frame, ready to be written
+     */
+    public static ByteBuffer credit(int frames) {
+        ByteBuffer credit = ByteBuffer.allocate(BridgeProtocol.LENGTH_SIZE + 1 + Integer.BYTES);
+        credit.putInt(1 + Integer.BYTES).put(BridgeProtocol.CREDIT).putInt(frames).flip();
+        return credit;
+    }
+
+    /**
+     * Releases the native memory held by the deflater.
+     */
+    public void close() {
+        if (deflater != null) {
+            deflater.end();
+        }
+    }
+
+    private int deflate() {
+        deflater.reset();
+        deflater.setInput(body, 0, bodyLength);
+        deflater.finish();
+        if (compressed.length < bodyLength + 64) {
+            // deflate output never grows much beyond its input
+            compressed = new byte[bodyLength + bodyLength / 8 + 64];
+        }
+        int length = 0;
+        while (!deflater.finished()) {
+            if (length == compressed.length) {
+                compressed = Arrays.copyOf(compressed, compressed.length * 2);
+            }
+            length += deflater.deflate(compressed, length, compressed.length - length);
+        }
+        return length;
+    }
+
+    private void ensureBody(int size) {
+        if (body.length < size) {
+            body = Arrays.copyOf(body, Math.max(size, body.length * 2));
+        }
+    }
+}
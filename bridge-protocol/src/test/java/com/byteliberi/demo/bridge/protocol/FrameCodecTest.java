@@ -0,0 +1,147 @@
+package com.byteliberi.demo.bridge.protocol;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for FrameEncoder and FrameDecoder.
+ */
+class FrameCodecTest {
+
+    @Test
+    void testBatchRoundTrip_uncompressed() throws IOException {
+        assertRoundTrip(false, Integer.MAX_VALUE);
+    }
+
+    @Test
+    void testBatchRoundTrip_deflated() throws IOException {
+        assertRoundTrip(true, Integer.MAX_VALUE);
+    }
+
+    @Test
+    void testFramesSplitAcrossReads_areReassembled() throws IOException {
+        assertRoundTrip(true, 7);
+    }
+
+    @Test
+    void testDeflate_shrinksRepetitiveBatches() {
+        FrameEncoder encoder = new FrameEncoder(true);
+        for (int i = 0; i < 1000; i++) {
+            encoder.add("AAAAAAAAAAAAAAAA");
+        }
+        int bodyLength = encoder.bodyLength();
+        assertTrue(encoder.finishBatch().remaining() < bodyLength / 10);
+        encoder.close();
+    }
+
+    @Test
+    void testCreditFrame() throws IOException {
+        Recorder recorder = new Recorder();
+        FrameDecoder decoder = new FrameDecoder();
+        decoder.read(new ChunkedChannel(copy(FrameEncoder.credit(16)), Integer.MAX_VALUE), recorder);
+        assertEquals(List.of(16), recorder.credits);
+        decoder.close();
+    }
+
+    @Test
+    void testInvalidFrameLength_isRejected() {
+        ByteBuffer garbage = ByteBuffer.allocate(8).putInt(-1).putInt(0).flip();
+        FrameDecoder decoder = new FrameDecoder();
+        assertThrows(IOException.class, () -> decoder.read(new ChunkedChannel(garbage, 8), new Recorder()));
+        decoder.close();
+    }
+
+    private static void assertRoundTrip(boolean compress, int chunkSize) throws IOException {
+        FrameEncoder encoder = new FrameEncoder(compress);
+        ByteBuffer stream = ByteBuffer.allocate(1 << 20);
+        List<String> expected = new ArrayList<>();
+        for (int batch = 0; batch < 3; batch++) {
+            for (int i = 0; i < 100 * (batch + 1); i++) {
+                String value = "value-" + batch + "-" + i + (i % 10 == 0 ? "-é中".repeat(50) : "");
+                expected.add(value);
+                encoder.add(value);
+            }
+            stream.put(encoder.finishBatch());
+        }
+        stream.put(FrameEncoder.credit(2)).flip();
+        encoder.close();
+
+        Recorder recorder = new Recorder();
+        FrameDecoder decoder = new FrameDecoder();
+        ChunkedChannel channel = new ChunkedChannel(stream, chunkSize);
+        while (decoder.read(channel, recorder) >= 0) {
+            // keep reading
+        }
+        decoder.close();
+        assertEquals(expected, recorder.values);
+        assertEquals(List.of(100, 200, 300), recorder.batches);
+        assertEquals(List.of(2), recorder.credits);
+    }
+
+    private static ByteBuffer copy(ByteBuffer buffer) {
+        return ByteBuffer.allocate(buffer.remaining()).put(buffer).flip();
+    }
+
+    private static final class Recorder implements FrameDecoder.Handler {
+        final List<String> values = new ArrayList<>();
+        final List<Integer> batches = new ArrayList<>();
+        final List<Integer> credits = new ArrayList<>();
+
+        @Override
+        public void onString(String value) {
+            values.add(value);
+        }
+
+        @Override
+        public void onBatchEnd(int count, int wireBytes, int bodyBytes) {
+            batches.add(count);
+        }
+
+        @Override
+        public void onCredit(int frames) {
+            credits.add(frames);
+        }
+    }
+
+    /**
+     * Hands out a buffer at most {@code chunkSize} bytes per read, like a slow socket.
+     */
+    private static final class ChunkedChannel implements ReadableByteChannel {
+        private final ByteBuffer data;
+        private final int chunkSize;
+
+        ChunkedChannel(ByteBuffer data, int chunkSize) {
+            this.data = data;
+            this.chunkSize = chunkSize;
+        }
+
+        @Override
+        public int read(ByteBuffer target) {
+            if (!data.hasRemaining()) {
+                return -1;
+            }
+            int n = Math.min(Math.min(chunkSize, data.remaining()), target.remaining());
+            ByteBuffer slice = data.duplicate();
+            slice.limit(slice.position() + n);
+            target.put(slice);
+            data.position(data.position() + n);
+            return n;
+        }
+
+        @Override
+        public boolean isOpen() {
+            return true;
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+}
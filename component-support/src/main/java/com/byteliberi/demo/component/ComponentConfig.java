@@ -0,0 +1,93 @@
+package com.byteliberi.demo.component;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Map;
+
+/**
+ * Typed, defaulting view over the component properties handed to a
+ * Declarative Services activate method.
+ * Values may arrive as their native type (from Configuration Admin) or as strings
+ * (from property files), so every getter accepts both.
+ * <p>
+ * Shared by every component bundle and embedded in each as a private package.
+ */
+public final class ComponentConfig {
+
+    private final Map<String, ?> properties;
+
+    /**
+     * @param properties the properties passed to the activate method, or {@code null} for none
+     */
+    public ComponentConfig(Map<String, ?> properties) {
+        this.properties = properties != null ? properties : Collections.emptyMap();
+    }
+
+    public String getString(String key, String defaultValue) {
+        Object value = properties.get(key);
+        if (value == null) {
+            return defaultValue;
+        }
+        String text = value.toString().trim();
+        return text.isEmpty() ? defaultValue : text;
+    }
+
+    public int getInt(String key, int defaultValue) {
+        Object value = properties.get(key);
+        if (value instanceof Number) {
+            return ((Number) value).intValue();
+        }
+        String text = getString(key, null);
+        return text != null ? Integer.parseInt(text) : defaultValue;
+    }
+
+    public long getLong(String key, long defaultValue) {
+        Object value = properties.get(key);
+        if (value instanceof Number) {
+            return ((Number) value).longValue();
+        }
+        String text = getString(key, null);
+        return text != null ? Long.parseLong(text) : defaultValue;
+    }
+
+    public double getDouble(String key, double defaultValue) {
+        Object value = properties.get(key);
+        if (value instanceof Number) {
+            return ((Number) value).doubleValue();
+        }
+        String text = getString(key, null);
+        return text != null ? Double.parseDouble(text) : defaultValue;
+    }
+
+    public boolean getBoolean(String key, boolean defaultValue) {
+        Object value = properties.get(key);
+        if (value instanceof Boolean) {
+            return (Boolean) value;
+        }
+        String text = getString(key, null);
+        return text != null ? Boolean.parseBoolean(text) : defaultValue;
+    }
+
+    /**
+     * Reads a multi-valued property given as an array, a collection or a comma-separated string.
+     */
+    public String[] getStringArray(String key, String[] defaultValue) {
+        Object value = properties.get(key);
+        if (value instanceof String[]) {
+            return ((String[]) value).length > 0 ? (String[]) value : defaultValue;
+        }
+        if (value instanceof Collection) {
+            Collection<?> values = (Collection<?>) value;
+            return values.isEmpty() ? defaultValue : values.stream().map(String::valueOf).toArray(String[]::new);
+        }
+        String text = getString(key, null);
+        if (text == null) {
+            return defaultValue;
+        }
+        return Arrays.stream(text.split(","))
+                .map(String::trim)
+                .filter(s -> !s.isEmpty())
+                .toArray(String[]::new);
+    }
+}
@@ -0,0 +1,113 @@
+package com.byteliberi.demo.component;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Keeps per-event log lines off the hot path: only one event in {@code sampleEvery} is logged
+ * individually, and a summary line such as {@code "Generated 120000 string(s) in the last 10.0 s"}
+ * is logged once per interval instead.
+ * <p>
+ * Callers guard the per-event message with {@link #event()}, so it is only concatenated when
+ * it will actually be logged:
+ * <pre>{@code
+ * if (sampledLog.event()) {
+ *     LOGGER.info("Generated string: " + value);
+ * }
+ * }</pre>
+ * <p>
+ * Summaries are logged by a daemon thread started with the first event, so a burst is reported
+ * when its interval ends rather than when the next event arrives; intervals without events log
+ * nothing. {@link #close()} stops the thread and logs what the last, partial interval counted,
+ * so a component should close its log on deactivation.
+ */
+public final class SampledLog implements AutoCloseable {
+
+    private final Logger logger;
+    private final String action;
+    private final long sampleEvery;
+    private final long summaryNanos;
+    private final AtomicLong events = new AtomicLong();
+    private ScheduledExecutorService summaries;
+    private boolean closed;
+    private long summaryStart;
+    private long summarizedEvents;
+
+    /**
+     * @param logger the logger to write to, at {@code INFO}
+     * @param action the past-tense verb of the summary line, e.g. {@code "Generated"}
+     * @param sampleEvery log one event in this many individually; 0 logs none
+     * @param summaryInterval seconds between summary lines; 0 disables them
+     */
+    public SampledLog(Logger logger, String action, long sampleEvery, long summaryInterval) {
+        this.logger = logger;
+        this.action = action;
+        this.sampleEvery = Math.max(0, sampleEvery);
+        this.summaryNanos = TimeUnit.SECONDS.toNanos(Math.max(0, summaryInterval));
+        this.summaryStart = System.nanoTime();
+    }
+
+    /**
+     * Counts an event.
+     * @return {@code true} if the caller should log this event individually
+     */
+    public boolean event() {
+        long count = events.incrementAndGet();
+        if (count == 1 && summaryNanos > 0) {
+            startSummaries();
+        }
+        return sampleEvery > 0 && (count - 1) % sampleEvery == 0 && logger.isLoggable(Level.INFO);
+    }
+
+    /**
+     * @return the number of events counted so far
+     */
+    public long getEvents() {
+        return events.get();
+    }
+
+    /**
+     * Stops the summary thread and logs the events counted since the last summary line.
+     * Events counted afterwards are no longer summarized.
+     */
+    @Override
+    public synchronized void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        if (summaries != null) {
+            summaries.shutdownNow();
+            summaries = null;
+            summarize();
+        }
+    }
+
+    private synchronized void startSummaries() {
+        if (closed) {
+            return;
+        }
+        summaries = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "SampledLog-" + action);
+            thread.setDaemon(true);
+            return thread;
+        });
+        long delay = Math.max(0, summaryStart + summaryNanos - System.nanoTime());
+        summaries.scheduleAtFixedRate(this::summarize, delay, summaryNanos, TimeUnit.NANOSECONDS);
+    }
+
+    private synchronized void summarize() {
+        long now = System.nanoTime();
+        long total = events.get();
+        if (total > summarizedEvents && logger.isLoggable(Level.INFO)) {
+            logger.info(String.format("%s %d string(s) in the last %.1f s, %d in total",
+                    action, total - summarizedEvents, (now - summaryStart) / 1e9, total));
+        }
+        summarizedEvents = total;
+        summaryStart = now;
+    }
+}
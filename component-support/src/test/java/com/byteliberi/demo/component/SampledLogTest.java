@@ -0,0 +1,98 @@
+package com.byteliberi.demo.component;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Handler;
+import java.util.logging.Level;
+import java.util.logging.LogRecord;
+import java.util.logging.Logger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for SampledLog.
+ */
+class SampledLogTest {
+
+    @Test
+    void testSamplesOneEventInN() {
+        SampledLog log = new SampledLog(Logger.getAnonymousLogger(), "Generated", 3, 0);
+        int sampled = 0;
+        for (int i = 0; i < 10; i++) {
+            if (log.event()) {
+                sampled++;
+            }
+        }
+        assertEquals(4, sampled, "Events 1, 4, 7 and 10 should be sampled");
+        assertEquals(10, log.getEvents());
+    }
+
+    @Test
+    void testSamplingDisabledAndBelowLevel() {
+        assertFalse(new SampledLog(Logger.getAnonymousLogger(), "Generated", 0, 0).event());
+
+        Logger quiet = Logger.getAnonymousLogger();
+        quiet.setLevel(Level.WARNING);
+        assertFalse(new SampledLog(quiet, "Generated", 1, 0).event(), "Nothing to build if INFO is off");
+    }
+
+    @Test
+    void testSummaryLineIsLoggedWithoutFurtherEvents() throws InterruptedException {
+        List<String> messages = new CopyOnWriteArrayList<>();
+        SampledLog log = new SampledLog(capturing(messages), "Wrote", 0, 1);
+        log.event();
+        log.event();
+        assertEquals(List.of(), messages);
+
+        // The interval ends with no event to carry the summary
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (messages.isEmpty() && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        assertEquals(1, messages.size());
+        assertTrue(messages.get(0).startsWith("Wrote 2 string(s) in the last "), messages.get(0));
+        assertTrue(messages.get(0).endsWith(", 2 in total"), messages.get(0));
+
+        Thread.sleep(1100);
+        assertEquals(1, messages.size(), "An idle interval should log nothing");
+        log.close();
+    }
+
+    @Test
+    void testClose_logsTheLastPartialInterval() {
+        List<String> messages = new CopyOnWriteArrayList<>();
+        SampledLog log = new SampledLog(capturing(messages), "Queued", 0, 3600);
+        log.event();
+        log.event();
+        log.event();
+        log.close();
+
+        assertEquals(1, messages.size());
+        assertTrue(messages.get(0).startsWith("Queued 3 string(s) in the last "), messages.get(0));
+        log.close();
+        assertEquals(1, messages.size(), "Closing twice should not log again");
+    }
+
+    private static Logger capturing(List<String> messages) {
+        Logger logger = Logger.getAnonymousLogger();
+        logger.setUseParentHandlers(false);
+        logger.addHandler(new Handler() {
+            @Override
+            public void publish(LogRecord record) {
+                messages.add(record.getMessage());
+            }
+
+            @Override
+            public void flush() {
+            }
+
+            @Override
+            public void close() {
+            }
+        });
+        return logger;
+    }
+}
@@ -0,0 +1,82 @@
+package com.byteliberi.demo.writer.api;
+
+/**
+ * Point-in-time statistics of one output partition.
+ */
+public final class PartitionStats {
+
+    private final int partition;
+    private final String directory;
+    private final long written;
+    private final long bytesWritten;
+    private final long failed;
+    private final long dropped;
+    private final int queueDepth;
+    private final double writesPerSecond;
+
+    /**
+     * @param partition the partition number
+     * @param directory the directory the partition writes to
+     * @param written strings written
+     * @param bytesWritten payload bytes written
+     * @param failed strings whose write failed
+     * @param dropped strings dropped because the queue stayed full for the whole enqueue timeout
+     * @param queueDepth strings waiting in the queue
+     * @param writesPerSecond strings written per second over the last few seconds
+     */
+    public PartitionStats(int partition, String directory, long written, long bytesWritten, long failed, long dropped,
+                          int queueDepth, double writesPerSecond) {
+        this.partition = partition;
+        this.directory = directory;
+        this.written = written;
+        this.bytesWritten = bytesWritten;
+        this.failed = failed;
+        this.dropped = dropped;
+        this.queueDepth = queueDepth;
+        this.writesPerSecond = writesPerSecond;
+    }
+
+    public int getPartition() {
+        return partition;
+    }
+
+    public String getDirectory() {
+        return directory;
+    }
+
+    public long getWritten() {
+        return written;
+    }
+
+    public long getBytesWritten() {
+        return bytesWritten;
+    }
+
+    public long getFailed() {
+        return failed;
+    }
+
+    /**
+     * @return strings dropped because the queue stayed full for the whole enqueue timeout
+     */
+    public long getDropped() {
+        return dropped;
+    }
+
+    public int getQueueDepth() {
+        return queueDepth;
+    }
+
+    /**
+     * @return strings written per second over the last few seconds
+     */
+    public double getWritesPerSecond() {
+        return writesPerSecond;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("partition %d (%s): %d written, %.1f/s, %d bytes, %d failed, %d dropped, queue depth %d",
+                partition, directory, written, writesPerSecond, bytesWritten, failed, dropped, queueDepth);
+    }
+}
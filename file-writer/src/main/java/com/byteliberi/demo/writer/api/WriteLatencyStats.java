@@ -0,0 +1,73 @@
+package com.byteliberi.demo.writer.api;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Point-in-time completion latency of asynchronous writes, measured from submission
+ * to the completion handler. Percentiles are upper bounds of power-of-two buckets.
+ */
+public final class WriteLatencyStats {
+
+    private final long completed;
+    private final long failed;
+    private final int inFlight;
+    private final long meanNanos;
+    private final long p50Nanos;
+    private final long p99Nanos;
+    private final long maxNanos;
+
+    /**
+     * @param completed writes that completed
+     * @param failed writes that failed
+     * @param inFlight writes submitted but not yet completed
+     * @param meanNanos mean completion latency in nanoseconds
+     * @param p50Nanos upper bound of the median latency in nanoseconds
+     * @param p99Nanos upper bound of the 99th percentile latency in nanoseconds
+     * @param maxNanos longest completion latency in nanoseconds
+     */
+    public WriteLatencyStats(long completed, long failed, int inFlight, long meanNanos,
+                             long p50Nanos, long p99Nanos, long maxNanos) {
+        this.completed = completed;
+        this.failed = failed;
+        this.inFlight = inFlight;
+        this.meanNanos = meanNanos;
+        this.p50Nanos = p50Nanos;
+        this.p99Nanos = p99Nanos;
+        this.maxNanos = maxNanos;
+    }
+
+    public long getCompleted() {
+        return completed;
+    }
+
+    public long getFailed() {
+        return failed;
+    }
+
+    public int getInFlight() {
+        return inFlight;
+    }
+
+    public long getMean(TimeUnit unit) {
+        return unit.convert(meanNanos, TimeUnit.NANOSECONDS);
+    }
+
+    public long getP50(TimeUnit unit) {
+        return unit.convert(p50Nanos, TimeUnit.NANOSECONDS);
+    }
+
+    public long getP99(TimeUnit unit) {
+        return unit.convert(p99Nanos, TimeUnit.NANOSECONDS);
+    }
+
+    public long getMax(TimeUnit unit) {
+        return unit.convert(maxNanos, TimeUnit.NANOSECONDS);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%d completed, %d failed, %d in flight, latency mean %d us, p50 <= %d us, p99 <= %d us, max %d us",
+                completed, failed, inFlight, getMean(TimeUnit.MICROSECONDS), getP50(TimeUnit.MICROSECONDS),
+                getP99(TimeUnit.MICROSECONDS), getMax(TimeUnit.MICROSECONDS));
+    }
+}
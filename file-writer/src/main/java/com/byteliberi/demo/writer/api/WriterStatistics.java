@@ -0,0 +1,23 @@
+package com.byteliberi.demo.writer.api;
+
+import java.util.List;
+
+/**
+ * Service interface for the throughput of the file writer's output. The writer registers it
+ * alongside its listener; all methods return immutable snapshots and may be called from any thread.
+ */
+public interface WriterStatistics {
+
+    /**
+     * Reports throughput and queue depth of every partition when the writer runs partitioned,
+     * including the writer threads of {@code text.writer.threads}.
+     * @return one entry per partition, in partition order, or an empty list if not partitioned
+     */
+    List<PartitionStats> getPartitionStats();
+
+    /**
+     * Reports completion latency of asynchronous writes when {@code io.mode=async}.
+     * @return the write statistics, or {@code null} if writes are synchronous or partitioned
+     */
+    WriteLatencyStats getWriteLatencyStats();
+}
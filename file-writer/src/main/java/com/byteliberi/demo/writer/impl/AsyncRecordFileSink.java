@@ -0,0 +1,304 @@
+package com.byteliberi.demo.writer.impl;
+
+import com.byteliberi.demo.writer.api.WriteLatencyStats;
+import com.byteliberi.demo.writer.record.RecordFormat;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.AsynchronousFileChannel;
+import java.nio.channels.CompletionHandler;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.logging.Logger;
+import java.util.zip.CRC32C;
+
+/**
+ * Appends {@link RecordFormat} records to the same segment files as {@link RecordFileSink},
+ * but through an {@link AsynchronousFileChannel} so that the caller only encodes the record
+ * and reserves its file position; the write itself completes on the channel's thread pool.
+ * <p>
+ * At most {@code window} writes are in flight. Each one borrows a direct buffer from a pool
+ * of the same size, so steady-state writing allocates nothing; when the window is full,
+ * {@link #write(String)} waits for a completion. Because writes may complete out of order,
+ * a crash can leave a gap before later records; recovery truncates the segment at the gap.
+ * <p>
+ * A write that fails leaves the same kind of gap, so the segment takes no further records:
+ * once the writes already in flight have completed it is truncated where the failed record
+ * began, and the next record starts a new segment. Those in-flight records are lost along with
+ * the failed one, which shows up as a gap in the sequence numbers rather than as a corrupt
+ * segment that would cut off everything after it. Failures are tracked per segment, and those
+ * reported after a segment was closed, e.g. because closing it timed out, are only counted.
+ */
+class AsyncRecordFileSink implements OutputSink {
+
+    private static final Logger LOGGER = Logger.getLogger(AsyncRecordFileSink.class.getName());
+    private static final long CLOSE_TIMEOUT_MS = 5000;
+
+    private final Path directory;
+    private final long segmentSize;
+    private final int window;
+    private final Semaphore permits;
+    private final BlockingQueue<ByteBuffer> bufferPool;
+    private final CRC32C crc = new CRC32C();
+    private final AtomicLong completed = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+    private final AtomicLong totalLatencyNanos = new AtomicLong();
+    private final AtomicLong maxLatencyNanos = new AtomicLong();
+    private final AtomicLongArray latencyBuckets = new AtomicLongArray(Long.SIZE);
+    private OpenSegment current;
+    private long writePosition;
+    private long nextSequence;
+
+    /**
+     * @param directory directory holding the segment files
+     * @param segmentSize size in bytes after which a new segment is started
+     * @param window maximum number of writes in flight
+     * @param bufferSize size of each pooled buffer; larger records get a one-off buffer
+     * @throws IOException if the newest segment cannot be recovered or opened
+     */
+    AsyncRecordFileSink(Path directory, long segmentSize, int window, int bufferSize) throws IOException {
+        if (window < 1) {
+            throw new IllegalArgumentException("In-flight window must be at least 1: " + window);
+        }
+        this.directory = directory;
+        this.segmentSize = segmentSize;
+        this.window = window;
+        this.permits = new Semaphore(window);
+        this.bufferPool = new ArrayBlockingQueue<>(window);
+        for (int i = 0; i < window; i++) {
+            bufferPool.add(ByteBuffer.allocateDirect(bufferSize));
+        }
+        Files.createDirectories(directory);
+        SegmentTail tail = SegmentTail.recover(directory);
+        nextSequence = tail.nextSequence;
+        if (tail.segment != null) {
+            current = new OpenSegment(tail.segment, AsynchronousFileChannel.open(tail.segment, StandardOpenOption.WRITE));
+            writePosition = tail.validLength;
+            LOGGER.info("Resuming record segment " + tail.segment.getFileName() + " at sequence " + nextSequence);
+        }
+    }
+
+    @Override
+    public synchronized String write(String value) throws IOException {
+        ByteBuffer payload = ByteBuffer.wrap(value.getBytes(StandardCharsets.UTF_8));
+        int recordSize = RecordFormat.HEADER_SIZE + payload.remaining();
+        if (current == null || current.failedAt.get() >= 0
+                || (writePosition > 0 && writePosition + recordSize > segmentSize)) {
+            roll();
+        }
+        try {
+            permits.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while waiting for an in-flight write to complete", e);
+        }
+        ByteBuffer buffer = bufferPool.poll();
+        boolean pooled = buffer != null && buffer.capacity() >= recordSize;
+        if (!pooled) {
+            if (buffer != null) {
+                bufferPool.add(buffer);
+            }
+            buffer = ByteBuffer.allocateDirect(recordSize);
+        }
+        long sequence = nextSequence++;
+        buffer.clear();
+        RecordFormat.encode(buffer, sequence, System.currentTimeMillis(), payload, crc);
+        buffer.flip();
+        PendingWrite pending = new PendingWrite(current, buffer, pooled, writePosition);
+        writePosition += recordSize;
+        pending.submit();
+        return current.path.getFileName() + "#" + sequence;
+    }
+
+    @Override
+    public synchronized void close() {
+        if (current != null) {
+            awaitInFlight();
+            current.close();
+            truncateAtFailure(current);
+            current = null;
+            LOGGER.info("Asynchronous writes to " + directory + ": " + getStats());
+        }
+    }
+
+    /**
+     * @return completion counts and latency of the writes issued so far
+     */
+    WriteLatencyStats getStats() {
+        long count = completed.get();
+        return new WriteLatencyStats(count, failed.get(), window - permits.availablePermits(),
+                count > 0 ? totalLatencyNanos.get() / count : 0,
+                percentile(count, 0.50), percentile(count, 0.99), maxLatencyNanos.get());
+    }
+
+    private void roll() throws IOException {
+        close();
+        Path segment = directory.resolve(SegmentTail.segmentName(nextSequence));
+        current = new OpenSegment(segment,
+                AsynchronousFileChannel.open(segment, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE));
+        writePosition = 0;
+    }
+
+    /**
+     * Cuts a segment that had a write fail back to the records before the failed one, so it
+     * reads as complete instead of ending in a gap.
+     * @param segment the segment, already closed
+     */
+    private static void truncateAtFailure(OpenSegment segment) {
+        long position = segment.failedAt.get();
+        if (position < 0) {
+            return;
+        }
+        LOGGER.warning("Truncating segment " + segment.path.getFileName() + " at failed write at byte " + position);
+        try (FileChannel truncating = FileChannel.open(segment.path, StandardOpenOption.WRITE)) {
+            truncating.truncate(position);
+        } catch (IOException e) {
+            LOGGER.warning("Failed to truncate segment " + segment.path + ": " + e.getMessage());
+        }
+    }
+
+    /**
+     * Waits until every write issued so far has completed, so the channel can be closed.
+     */
+    private void awaitInFlight() {
+        try {
+            if (permits.tryAcquire(window, CLOSE_TIMEOUT_MS, TimeUnit.MILLISECONDS)) {
+                permits.release(window);
+            } else {
+                LOGGER.warning("Timed out waiting for in-flight writes to " + current.path);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void recordLatency(long nanos) {
+        completed.incrementAndGet();
+        totalLatencyNanos.addAndGet(nanos);
+        maxLatencyNanos.accumulateAndGet(nanos, Math::max);
+        latencyBuckets.incrementAndGet(Long.SIZE - 1 - Long.numberOfLeadingZeros(Math.max(nanos, 1)));
+    }
+
+    private long percentile(long count, double fraction) {
+        long threshold = (long) Math.ceil(count * fraction);
+        long seen = 0;
+        for (int bucket = 0; bucket < Long.SIZE && count > 0; bucket++) {
+            seen += latencyBuckets.get(bucket);
+            if (seen >= threshold) {
+                return bucket >= Long.SIZE - 2 ? Long.MAX_VALUE : (1L << (bucket + 1)) - 1;
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * A segment file and its channel. Only writes issued while it is open may record a failure,
+     * so a write that fails late can never truncate a segment opened after it.
+     */
+    private static final class OpenSegment {
+
+        private final Path path;
+        private final AsynchronousFileChannel channel;
+        /** Start of the earliest failed record, or -1 if none failed. */
+        private final AtomicLong failedAt = new AtomicLong(-1);
+        private volatile boolean closed;
+
+        OpenSegment(Path path, AsynchronousFileChannel channel) {
+            this.path = path;
+            this.channel = channel;
+        }
+
+        /**
+         * Records a failed write unless the segment has already been closed.
+         * @param start where the failed record began
+         * @return {@code false} if the segment was closed and the failure is ignored
+         */
+        boolean recordFailure(long start) {
+            if (closed) {
+                return false;
+            }
+            failedAt.accumulateAndGet(start, (earliest, update) -> earliest < 0 ? update : Math.min(earliest, update));
+            return true;
+        }
+
+        void close() {
+            // Writes still in flight fail once the channel closes; they must not record a position
+            closed = true;
+            try {
+                channel.force(false);
+                channel.close();
+            } catch (IOException e) {
+                LOGGER.warning("Failed to close segment " + path + ": " + e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * One record on its way to disk; re-submits itself until the whole buffer is written,
+     * then returns the buffer to the pool and frees its slot in the window.
+     */
+    private final class PendingWrite implements CompletionHandler<Integer, Void> {
+
+        private final OpenSegment target;
+        private final ByteBuffer buffer;
+        private final boolean pooled;
+        private final long submitNanos = System.nanoTime();
+        private final long start;
+        private long position;
+
+        PendingWrite(OpenSegment target, ByteBuffer buffer, boolean pooled, long position) {
+            this.target = target;
+            this.buffer = buffer;
+            this.pooled = pooled;
+            this.start = position;
+            this.position = position;
+        }
+
+        void submit() {
+            try {
+                target.channel.write(buffer, position, null, this);
+            } catch (RuntimeException e) {
+                failed(e, null);
+            }
+        }
+
+        @Override
+        public void completed(Integer written, Void attachment) {
+            position += written;
+            if (buffer.hasRemaining()) {
+                submit();
+                return;
+            }
+            recordLatency(System.nanoTime() - submitNanos);
+            release();
+        }
+
+        @Override
+        public void failed(Throwable e, Void attachment) {
+            failed.incrementAndGet();
+            if (target.recordFailure(start)) {
+                LOGGER.warning("Asynchronous write at byte " + position + " failed: " + e.getMessage());
+            } else {
+                LOGGER.warning("Asynchronous write at byte " + position + " of closed segment "
+                        + target.path.getFileName() + " failed: " + e.getMessage());
+            }
+            release();
+        }
+
+        private void release() {
+            if (pooled) {
+                bufferPool.add(buffer);
+            }
+            permits.release();
+        }
+    }
+}
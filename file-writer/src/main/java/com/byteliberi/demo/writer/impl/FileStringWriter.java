@@ -1,46 +1,130 @@
 package com.byteliberi.demo.writer.impl;
 
+import com.byteliberi.demo.component.ComponentConfig;
+import com.byteliberi.demo.component.SampledLog;
+import com.byteliberi.demo.producer.api.Readiness;
 import com.byteliberi.demo.producer.api.StringProducer;
+import com.byteliberi.demo.writer.api.PartitionStats;
+import com.byteliberi.demo.writer.api.WriteLatencyStats;
+import com.byteliberi.demo.writer.api.WriterStatistics;
 import org.osgi.service.component.annotations.Activate;
 import org.osgi.service.component.annotations.Component;
 import org.osgi.service.component.annotations.Deactivate;
 import org.osgi.service.component.annotations.Reference;
 
 import java.io.IOException;
-import java.nio.charset.StandardCharsets;
+import java.io.UncheckedIOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
-import java.time.LocalDateTime;
-import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
 import java.util.logging.Logger;
 
 /**
  * File string writer implementation that consumes strings from the StringProducer
  * and writes them to individual files in the /tmp/osgi-demo/ directory.
+ * <p>
+ * With {@code format=binary} strings are instead appended as length-prefixed, checksummed
+ * records to segment files, which can be scanned with
+ * {@link com.byteliberi.demo.writer.record.RecordReader}. Adding {@code io.mode=async} keeps
+ * a window of writes in flight on an asynchronous channel instead of blocking the producer
+ * thread for each one; see {@link AsyncRecordFileSink}.
+ * <p>
+ * With {@code text.layout=hash} or {@code text.layout=time}, text files are spread over
+ * subdirectories under collision-free names, optionally created by {@code text.writer.threads}
+ * threads in parallel; see {@link ShardedTextFileSink}.
+ * <p>
+ * With {@code partition.dirs} set, strings are hashed or round-robined over one partition
+ * per directory, each with its own writer thread and output files; see {@link PartitionedSink}.
+ * <p>
+ * With a synchronous sink the writer registers as durable consumer {@code file-writer}: a
+ * string is on disk when {@link #onStringGenerated(String)} returns, and a failed write is
+ * rethrown so that the producer keeps its offset and replays the string later. Partitioned,
+ * parallel and {@code io.mode=async} sinks return before the bytes are written and may still
+ * drop or fail a string afterwards, so in those modes the writer registers as a plain listener
+ * and delivery is at most once.
+ * <p>
+ * Activation does no blocking work: creating directories and recovering the newest segment
+ * happen on a startup thread, which registers with the producer once the output is open.
+ * The writer registers a {@link Readiness} service that reports when that is done.
+ * <p>
+ * The per-string log line can be sampled with {@code log.sample.every} and is complemented by
+ * a throughput summary every {@code log.summary.interval.s} seconds; see {@link SampledLog}.
+ * Partition throughput and asynchronous write latency are published through the
+ * {@link WriterStatistics} service.
+ * Every write is also visible to Java Flight Recorder as a {@link FileWriteEvent}.
  */
-@Component(immediate = true)
-public class FileStringWriter implements StringProducer.StringListener {
+@Component(immediate = true, service = {StringProducer.StringListener.class, Readiness.class, WriterStatistics.class},
+        property = Readiness.COMPONENT + "=file-writer")
+public class FileStringWriter implements StringProducer.StringListener, Readiness, WriterStatistics {
 
     private static final Logger LOGGER = Logger.getLogger(FileStringWriter.class.getName());
+    private static final String CONSUMER_ID = "file-writer";
     private static final String OUTPUT_DIR = "/tmp/osgi-demo/";
-    private static final DateTimeFormatter FILE_TIMESTAMP_FORMAT = DateTimeFormatter.ofPattern("yyyyMMdd_HHmmss_SSS");
+
+    static final String OUTPUT_DIR_PROPERTY = "output.dir";
+    static final String FORMAT = "format";
+    static final String TEXT_LAYOUT = "text.layout";
+    static final String TEXT_HASH_LEVELS = "text.hash.levels";
+    static final String TEXT_TIME_PATTERN = "text.time.pattern";
+    static final String TEXT_WRITER_THREADS = "text.writer.threads";
+    static final String SEGMENT_SIZE = "segment.size";
+    static final String PARTITION_DIRS = "partition.dirs";
+    static final String PARTITION_STRATEGY = "partition.strategy";
+    static final String PARTITION_QUEUE_CAPACITY = "partition.queue.capacity";
+    static final String PARTITION_REPORT_INTERVAL = "partition.report.interval.s";
+    static final String PARTITION_ENQUEUE_TIMEOUT = "partition.enqueue.timeout.ms";
+    static final String IO_MODE = "io.mode";
+    static final String IO_WINDOW = "io.window";
+    static final String IO_BUFFER_SIZE = "io.buffer.size";
+    static final String LOG_SAMPLE_EVERY = "log.sample.every";
+    static final String LOG_SUMMARY_INTERVAL = "log.summary.interval.s";
+    private static final long DEFAULT_SEGMENT_SIZE = 64L * 1024 * 1024;
 
     @Reference
     private StringProducer stringProducer;
 
+    private volatile OutputSink sink = new TextFileSink(Paths.get(OUTPUT_DIR));
+    private volatile SampledLog writeLog = new SampledLog(LOGGER, "Wrote", 1, 10);
+    private volatile long activationNanos;
+    private volatile boolean firstDeliveryLogged;
+    private volatile CountDownLatch ready = new CountDownLatch(1);
+    /** Guards {@link #startupThread} and the registration it makes. */
+    private final Object lifecycle = new Object();
+    private Thread startupThread;
+
     /**
-     * Activates the file writer service and registers as a listener.
+     * Activates the file writer service with default configuration.
      */
-    @Activate
     public void activate() {
-        try {
-            createOutputDirectory();
-            stringProducer.addListener(this);
-            LOGGER.info("File writer activated and registered with string producer");
-        } catch (Exception e) {
-            LOGGER.severe("Failed to activate file writer: " + e.getMessage());
+        activate(Collections.emptyMap());
+    }
+
+    /**
+     * Activates the file writer service. Opening the output, which may scan and recover the
+     * newest segment, happens on a background thread that registers as a listener once done.
+     * @param properties the component configuration
+     */
+    @Activate
+    public void activate(Map<String, Object> properties) {
+        activationNanos = System.nanoTime();
+        ComponentConfig config = new ComponentConfig(properties);
+        writeLog.close();
+        writeLog = new SampledLog(LOGGER, "Wrote", config.getLong(LOG_SAMPLE_EVERY, 1),
+                config.getLong(LOG_SUMMARY_INTERVAL, 10));
+        ready = new CountDownLatch(1);
+        Thread thread = new Thread(() -> open(config), "FileStringWriter-startup");
+        thread.setDaemon(true);
+        synchronized (lifecycle) {
+            startupThread = thread;
         }
+        thread.start();
+        LOGGER.info("File writer activated");
     }
 
     /**
@@ -49,55 +133,250 @@ public class FileStringWriter implements StringProducer.StringListener {
     @Deactivate
     public void deactivate() {
         try {
+            Thread thread;
+            synchronized (lifecycle) {
+                // A startup still in progress sees this and closes what it opened
+                thread = startupThread;
+                startupThread = null;
+            }
+            if (thread != null) {
+                thread.join(1000);
+            }
             if (stringProducer != null) {
                 stringProducer.removeListener(this);
             }
+            sink.close();
+            writeLog.close();
             LOGGER.info("File writer deactivated and unregistered from string producer");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            LOGGER.warning("Interrupted while waiting for file writer startup to finish");
         } catch (Exception e) {
             LOGGER.warning("Error during file writer deactivation: " + e.getMessage());
         }
     }
 
+    /**
+     * {@inheritDoc}
+     * <p>
+     * The writer is ready once its output is open and it is registered with the producer.
+     */
+    @Override
+    public boolean isReady() {
+        return ready.getCount() == 0;
+    }
+
     /**
      * {@inheritDoc}
      */
     @Override
+    public boolean awaitReady(long timeout, TimeUnit unit) throws InterruptedException {
+        return ready.await(timeout, unit);
+    }
+
+    /**
+     * {@inheritDoc}
+     * @throws UncheckedIOException if the string could not be written or queued
+     */
+    @Override
     public void onStringGenerated(String value) {
+        OutputSink current = sink;
+        // A partitioned sink records each string on the partition thread that writes it
+        FileWriteEvent write = current instanceof PartitionedSink ? null : new FileWriteEvent();
+        if (write != null) {
+            write.begin();
+        }
         try {
-            String filename = generateFilename();
-            Path filePath = Paths.get(OUTPUT_DIR, filename);
-
-            Files.write(filePath, value.getBytes(StandardCharsets.UTF_8));
+            String filename = current.write(value);
+            if (write != null) {
+                write.complete(filename, value, FileWriteEvent.WRITTEN);
+            }
 
-            LOGGER.info("Successfully wrote string '" + value + "' to file: " + filename);
+            if (writeLog.event()) {
+                LOGGER.info("Successfully wrote string '" + value + "' to file: " + filename);
+            }
+            if (!firstDeliveryLogged) {
+                firstDeliveryLogged = true;
+                LOGGER.info("First string delivered " + TimeUnit.NANOSECONDS.toMillis(
+                        System.nanoTime() - activationNanos) + " ms after activation");
+            }
         } catch (IOException e) {
+            if (write != null) {
+                write.complete(null, value, FileWriteEvent.FAILED);
+            }
             LOGGER.warning("Failed to write string '" + value + "' to file: " + e.getMessage());
-        } catch (Exception e) {
+            throw new UncheckedIOException(e);
+        } catch (RuntimeException e) {
+            if (write != null) {
+                write.complete(null, value, FileWriteEvent.FAILED);
+            }
             LOGGER.severe("Unexpected error writing string to file: " + e.getMessage());
+            throw e;
         }
     }
 
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public List<PartitionStats> getPartitionStats() {
+        OutputSink current = sink;
+        return current instanceof PartitionedSink
+                ? ((PartitionedSink) current).getStats()
+                : Collections.emptyList();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public WriteLatencyStats getWriteLatencyStats() {
+        OutputSink current = sink;
+        return current instanceof AsyncRecordFileSink ? ((AsyncRecordFileSink) current).getStats() : null;
+    }
+
+    /**
+     * Opens the configured output and registers with the producer; runs on the startup thread.
+     * @param config the component configuration
+     */
+    private void open(ComponentConfig config) {
+        long start = System.nanoTime();
+        try {
+            OutputSink created;
+            String[] partitionDirs = config.getStringArray(PARTITION_DIRS, new String[0]);
+            if (partitionDirs.length > 0) {
+                created = createPartitionedSink(config, partitionDirs);
+            } else {
+                Path outputDir = Paths.get(config.getString(OUTPUT_DIR_PROPERTY, OUTPUT_DIR));
+                createOutputDirectory(outputDir);
+                created = createSink(config, outputDir);
+                int writerThreads = config.getInt(TEXT_WRITER_THREADS, 1);
+                created = writerThreads > 1 ? createParallelSink(config, outputDir, created, writerThreads) : created;
+            }
+            synchronized (lifecycle) {
+                if (startupThread != Thread.currentThread()) {
+                    // Deactivated while opening
+                    created.close();
+                    return;
+                }
+                sink = created;
+                if (isSynchronous(created)) {
+                    stringProducer.addDurableListener(CONSUMER_ID, this);
+                    LOGGER.info("File writer registered with string producer as durable consumer " + CONSUMER_ID);
+                } else {
+                    stringProducer.addListener(this);
+                    LOGGER.info("File writer registered with string producer");
+                }
+            }
+            ready.countDown();
+            LOGGER.info("File writer ready after " + TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) + " ms");
+        } catch (Exception e) {
+            LOGGER.severe("Failed to activate file writer: " + e.getMessage());
+        }
+    }
+
+    /**
+     * @param sink the configured sink
+     * @return {@code true} if a string is on disk once {@link OutputSink#write(String)} returns
+     */
+    private static boolean isSynchronous(OutputSink sink) {
+        return !(sink instanceof PartitionedSink) && !(sink instanceof AsyncRecordFileSink);
+    }
+
     /**
      * Creates the output directory if it doesn't exist.
+     * @param outputPath the output directory
      * @throws IOException if directory creation fails
      */
-    private void createOutputDirectory() throws IOException {
-        Path outputPath = Paths.get(OUTPUT_DIR);
+    private void createOutputDirectory(Path outputPath) throws IOException {
         if (!Files.exists(outputPath)) {
             Files.createDirectories(outputPath);
-            LOGGER.info("Created output directory: " + OUTPUT_DIR);
+            LOGGER.info("Created output directory: " + outputPath);
         } else {
-            LOGGER.info("Output directory already exists: " + OUTPUT_DIR);
+            LOGGER.info("Output directory already exists: " + outputPath);
+        }
+    }
+
+    /**
+     * Creates one partition per directory, each with its own sink of the configured format.
+     * @param config the component configuration
+     * @param directories the partition directories
+     * @return the partitioned sink
+     * @throws IOException if a partition directory or its sink cannot be opened
+     */
+    private PartitionedSink createPartitionedSink(ComponentConfig config, String[] directories) throws IOException {
+        PartitionedSink.Strategy strategy = PartitionedSink.Strategy.parse(config.getString(PARTITION_STRATEGY, "hash"));
+        int queueCapacity = config.getInt(PARTITION_QUEUE_CAPACITY, 1024);
+        long enqueueTimeoutMs = config.getLong(PARTITION_ENQUEUE_TIMEOUT, 1000);
+        List<Partition> partitions = new ArrayList<>(directories.length);
+        try {
+            for (int i = 0; i < directories.length; i++) {
+                Path directory = Paths.get(directories[i]);
+                createOutputDirectory(directory);
+                partitions.add(new Partition(i, directory, createSink(config, directory), queueCapacity, enqueueTimeoutMs));
+            }
+        } catch (IOException | RuntimeException e) {
+            partitions.forEach(partition -> partition.close(1000));
+            throw e;
         }
+        LOGGER.info("Writing to " + partitions.size() + " partition(s) using " + strategy + " assignment");
+        return new PartitionedSink(partitions, strategy, config.getLong(PARTITION_REPORT_INTERVAL, 10));
     }
 
     /**
-     * Generates a timestamp-based filename in the format: string_YYYYMMDD_HHmmss_SSS.txt
-     * @return the generated filename
+     * Shares one sharded text sink between several writer threads, which take strings in turns.
+     * @param config the component configuration
+     * @param outputDir the output directory
+     * @param sink the sink created for the configured format
+     * @param threads the number of writer threads
+     * @return a partitioned sink over the shared sink, or {@code sink} itself if it cannot be shared
      */
-    private String generateFilename() {
-        LocalDateTime now = LocalDateTime.now();
-        String timestamp = now.format(FILE_TIMESTAMP_FORMAT);
-        return "string_" + timestamp + ".txt";
+    private static OutputSink createParallelSink(ComponentConfig config, Path outputDir, OutputSink sink, int threads) {
+        if (!(sink instanceof ShardedTextFileSink)) {
+            LOGGER.warning("Parallel writer threads require text.layout=hash or time, writing from one thread");
+            return sink;
+        }
+        int queueCapacity = config.getInt(PARTITION_QUEUE_CAPACITY, 1024);
+        long enqueueTimeoutMs = config.getLong(PARTITION_ENQUEUE_TIMEOUT, 1000);
+        List<Partition> partitions = new ArrayList<>(threads);
+        for (int i = 0; i < threads; i++) {
+            partitions.add(new Partition(i, outputDir, sink, queueCapacity, enqueueTimeoutMs));
+        }
+        LOGGER.info("Creating text files from " + threads + " writer threads");
+        return new PartitionedSink(partitions, PartitionedSink.Strategy.ROUND_ROBIN,
+                config.getLong(PARTITION_REPORT_INTERVAL, 10));
+    }
+
+    /**
+     * Creates the sink selected by the {@code format} and {@code io.mode} properties.
+     * @param config the component configuration
+     * @param outputDir the output directory
+     * @return the configured sink
+     * @throws IOException if the sink cannot open its files
+     */
+    private static OutputSink createSink(ComponentConfig config, Path outputDir) throws IOException {
+        String format = config.getString(FORMAT, "text");
+        boolean async = "async".equals(config.getString(IO_MODE, "sync"));
+        switch (format) {
+            case "text":
+                if (async) {
+                    LOGGER.warning("Asynchronous I/O requires format=binary, writing text files synchronously");
+                }
+                String layout = config.getString(TEXT_LAYOUT, "flat");
+                if ("flat".equals(layout)) {
+                    return new TextFileSink(outputDir);
+                }
+                return new ShardedTextFileSink(outputDir, ShardedTextFileSink.Layout.parse(layout),
+                        config.getInt(TEXT_HASH_LEVELS, 1), config.getString(TEXT_TIME_PATTERN, "yyyyMMdd/HH"));
+            case "binary":
+                long segmentSize = config.getLong(SEGMENT_SIZE, DEFAULT_SEGMENT_SIZE);
+                if (async) {
+                    return new AsyncRecordFileSink(outputDir, segmentSize,
+                            config.getInt(IO_WINDOW, 64), config.getInt(IO_BUFFER_SIZE, 4096));
+                }
+                return new RecordFileSink(outputDir, segmentSize);
+            default:
+                throw new IllegalArgumentException("Unknown output format: " + format);
+        }
     }
 }
\ No newline at end of file
@@ -0,0 +1,58 @@
+package com.byteliberi.demo.writer.impl;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Flight recorder event for writing one string to an {@link OutputSink}.
+ * <p>
+ * Each string is recorded once: by the file writer on the producer thread, or, when
+ * partitioned, by the partition thread that writes it to disk (or by the producer thread
+ * if the partition's queue stayed full and the string was dropped). By default only writes
+ * of 10 ms or more are recorded; the pipeline profile records all of them.
+ */
+@Name("com.byteliberi.demo.writer.FileWrite")
+@Label("File Write")
+@Description("Write of one string by the file writer")
+@Category({"OSGi Demo", "File Writer"})
+@StackTrace(false)
+@Threshold("10 ms")
+final class FileWriteEvent extends jdk.jfr.Event {
+
+    static final String WRITTEN = "written";
+    static final String FAILED = "failed";
+
+    @Label("Destination")
+    @Description("The file, record or partition the string went to")
+    String destination;
+
+    @Label("Payload Size")
+    @DataAmount
+    int payloadBytes;
+
+    @Label("Outcome")
+    String outcome;
+
+    /**
+     * Ends the event and commits it if the recorder wants it; the payload size is only
+     * computed then, so a disabled event costs no encoding.
+     * @param destination where the string went, or {@code null} if the write failed
+     * @param value the string written
+     * @param outcome {@link #WRITTEN} or {@link #FAILED}
+     */
+    void complete(String destination, String value, String outcome) {
+        if (shouldCommit()) {
+            this.destination = destination;
+            this.payloadBytes = value.getBytes(StandardCharsets.UTF_8).length;
+            this.outcome = outcome;
+            commit();
+        }
+    }
+}
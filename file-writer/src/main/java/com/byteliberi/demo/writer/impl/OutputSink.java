@@ -0,0 +1,23 @@
+package com.byteliberi.demo.writer.impl;
+
+import java.io.IOException;
+
+/**
+ * Destination of the strings consumed by the {@link FileStringWriter}.
+ */
+interface OutputSink extends AutoCloseable {
+
+    /**
+     * Persists one string.
+     * @param value the string to persist
+     * @return a short description of where the string went, for logging
+     * @throws IOException if the string could not be written
+     */
+    String write(String value) throws IOException;
+
+    /**
+     * Flushes and releases any open files.
+     */
+    @Override
+    void close();
+}
@@ -0,0 +1,173 @@
+package com.byteliberi.demo.writer.impl;
+
+import com.byteliberi.demo.writer.api.PartitionStats;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.logging.Logger;
+
+/**
+ * One partition of the {@link PartitionedSink}: a bounded queue drained in FIFO order
+ * by a dedicated writer thread into the partition's own {@link OutputSink}.
+ * A single writer per partition is what keeps per-partition ordering.
+ * <p>
+ * A failed write, checked or not, is counted and the writer moves on to the next string,
+ * and a caller never waits longer than the enqueue timeout for space: a partition whose
+ * sink has stalled drops strings rather than holding back the producer thread.
+ * <p>
+ * The write rate is computed whenever statistics are taken, from per-second counts of the
+ * last {@value #RATE_WINDOW_SECONDS} seconds kept by the writer thread.
+ */
+class Partition {
+
+    private static final Logger LOGGER = Logger.getLogger(Partition.class.getName());
+    private static final String END_OF_STREAM = new String("end-of-stream");
+    static final int RATE_WINDOW_SECONDS = 10;
+
+    private final int index;
+    private final Path directory;
+    private final OutputSink sink;
+    private final BlockingQueue<String> queue;
+    private final AtomicLong written = new AtomicLong();
+    private final AtomicLong bytesWritten = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+    private final long enqueueTimeoutMs;
+    private final Thread writerThread;
+    private final long startNanos = System.nanoTime();
+    /** Strings written in each second since start, at index second % RATE_WINDOW_SECONDS. */
+    private final AtomicLongArray writesInSecond = new AtomicLongArray(RATE_WINDOW_SECONDS);
+    /** The second since start that each slot of {@link #writesInSecond} currently counts. */
+    private final AtomicLongArray slotSecond = new AtomicLongArray(RATE_WINDOW_SECONDS);
+
+    /**
+     * @param index the partition number
+     * @param directory the directory the partition writes to, for statistics
+     * @param sink the sink the writer thread writes to
+     * @param queueCapacity strings queued before callers wait
+     * @param enqueueTimeoutMs how long a caller waits for space before the string is dropped
+     */
+    Partition(int index, Path directory, OutputSink sink, int queueCapacity, long enqueueTimeoutMs) {
+        this.index = index;
+        this.directory = directory;
+        this.sink = sink;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.enqueueTimeoutMs = enqueueTimeoutMs;
+        this.writerThread = new Thread(this::drain, "FileStringWriter-partition-" + index);
+        this.writerThread.setDaemon(true);
+        this.writerThread.start();
+    }
+
+    /**
+     * Queues a string, waiting up to the enqueue timeout for space if the partition is behind.
+     * @param value the string to write
+     * @return {@code false} if the queue stayed full and the string was dropped
+     * @throws InterruptedException if interrupted while waiting for space
+     */
+    boolean enqueue(String value) throws InterruptedException {
+        FileWriteEvent write = new FileWriteEvent();
+        write.begin();
+        if (queue.offer(value, enqueueTimeoutMs, TimeUnit.MILLISECONDS)) {
+            // The writer thread records the write itself
+            return true;
+        }
+        write.complete(null, value, FileWriteEvent.FAILED);
+        dropped.incrementAndGet();
+        return false;
+    }
+
+    /**
+     * Writes whatever is still queued, then stops the writer thread and closes the sink.
+     * @param timeoutMs how long to wait for the queue to drain
+     */
+    void close(long timeoutMs) {
+        try {
+            if (queue.offer(END_OF_STREAM, timeoutMs, TimeUnit.MILLISECONDS)) {
+                writerThread.join(timeoutMs);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (writerThread.isAlive()) {
+            LOGGER.warning("Partition " + index + " did not drain in time, " + queue.size() + " string(s) lost");
+            writerThread.interrupt();
+        }
+        sink.close();
+    }
+
+    PartitionStats stats() {
+        return new PartitionStats(index, directory.toString(), written.get(), bytesWritten.get(),
+                failed.get(), dropped.get(), queue.size(), writesPerSecond());
+    }
+
+    /**
+     * @return strings written per second over the complete seconds of the rate window, or
+     *         since start during the first second
+     */
+    private double writesPerSecond() {
+        long elapsedNanos = System.nanoTime() - startNanos;
+        long current = TimeUnit.NANOSECONDS.toSeconds(elapsedNanos);
+        if (current == 0) {
+            return elapsedNanos > 0 ? written.get() / (elapsedNanos / 1e9) : 0;
+        }
+        long oldest = Math.max(0, current - (RATE_WINDOW_SECONDS - 1));
+        long count = 0;
+        for (int slot = 0; slot < RATE_WINDOW_SECONDS; slot++) {
+            long second = slotSecond.get(slot);
+            if (second >= oldest && second < current) {
+                count += writesInSecond.get(slot);
+            }
+        }
+        return (double) count / (current - oldest);
+    }
+
+    /**
+     * Counts a write in the current second; called by the writer thread only.
+     */
+    private void countWrite() {
+        long second = TimeUnit.NANOSECONDS.toSeconds(System.nanoTime() - startNanos);
+        int slot = (int) (second % RATE_WINDOW_SECONDS);
+        if (slotSecond.get(slot) != second) {
+            writesInSecond.set(slot, 0);
+            slotSecond.set(slot, second);
+        }
+        writesInSecond.incrementAndGet(slot);
+    }
+
+    private void drain() {
+        try {
+            while (true) {
+                String value = queue.take();
+                if (value == END_OF_STREAM) {
+                    return;
+                }
+                FileWriteEvent write = new FileWriteEvent();
+                write.begin();
+                try {
+                    String destination = sink.write(value);
+                    write.complete(destination, value, FileWriteEvent.WRITTEN);
+                    written.incrementAndGet();
+                    countWrite();
+                    bytesWritten.addAndGet(value.getBytes(StandardCharsets.UTF_8).length);
+                } catch (IOException e) {
+                    write.complete(null, value, FileWriteEvent.FAILED);
+                    failed.incrementAndGet();
+                    LOGGER.warning("Partition " + index + " failed to write string '" + value + "': " + e.getMessage());
+                } catch (RuntimeException e) {
+                    // A broken sink must not kill the writer thread, or the queue would never drain again
+                    write.complete(null, value, FileWriteEvent.FAILED);
+                    failed.incrementAndGet();
+                    LOGGER.severe("Partition " + index + " hit an unexpected error writing string '" + value + "': " + e);
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
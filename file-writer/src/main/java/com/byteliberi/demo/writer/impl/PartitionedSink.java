@@ -0,0 +1,120 @@
+package com.byteliberi.demo.writer.impl;
+
+import com.byteliberi.demo.writer.api.PartitionStats;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Logger;
+
+/**
+ * Spreads strings over several {@link Partition}s, each writing to its own directory
+ * from its own thread, so that throughput scales with the number of devices behind
+ * those directories.
+ * <p>
+ * Strings that land in the same partition are written in arrival order. When a
+ * partition falls behind, its queue fills up and {@link #write(String)} holds the
+ * caller back for up to the partition's enqueue timeout, then drops the string and
+ * fails with an {@link IOException} rather than stalling the producer indefinitely.
+ */
+class PartitionedSink implements OutputSink {
+
+    private static final Logger LOGGER = Logger.getLogger(PartitionedSink.class.getName());
+    private static final long CLOSE_TIMEOUT_MS = 5000;
+
+    /**
+     * How a string is assigned to a partition.
+     */
+    enum Strategy {
+        /** Equal strings always go to the same partition. */
+        HASH,
+        /** Partitions take turns. */
+        ROUND_ROBIN;
+
+        static Strategy parse(String value) {
+            return valueOf(value.trim().toUpperCase().replace('-', '_'));
+        }
+    }
+
+    private final Partition[] partitions;
+    private final Strategy strategy;
+    private final AtomicLong cursor = new AtomicLong();
+    private final ScheduledExecutorService reporter;
+
+    /**
+     * @param partitions the partitions, already started
+     * @param strategy how strings are assigned to partitions
+     * @param reportIntervalSeconds how often per-partition statistics are logged, 0 to disable
+     */
+    PartitionedSink(List<Partition> partitions, Strategy strategy, long reportIntervalSeconds) {
+        if (partitions.isEmpty()) {
+            throw new IllegalArgumentException("At least one partition is required");
+        }
+        this.partitions = partitions.toArray(new Partition[0]);
+        this.strategy = strategy;
+        if (reportIntervalSeconds > 0) {
+            reporter = Executors.newSingleThreadScheduledExecutor(r -> {
+                Thread thread = new Thread(r, "FileStringWriter-partition-reporter");
+                thread.setDaemon(true);
+                return thread;
+            });
+            reporter.scheduleAtFixedRate(this::report, reportIntervalSeconds, reportIntervalSeconds, TimeUnit.SECONDS);
+        } else {
+            reporter = null;
+        }
+    }
+
+    @Override
+    public String write(String value) throws IOException {
+        int index = partitionOf(value);
+        try {
+            if (!partitions[index].enqueue(value)) {
+                throw new IOException("Partition " + index + " queue is full, string dropped");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while queueing for partition " + index, e);
+        }
+        return "partition-" + index;
+    }
+
+    @Override
+    public void close() {
+        if (reporter != null) {
+            reporter.shutdownNow();
+        }
+        for (Partition partition : partitions) {
+            partition.close(CLOSE_TIMEOUT_MS);
+        }
+    }
+
+    /**
+     * @return current statistics of every partition, in partition order
+     */
+    List<PartitionStats> getStats() {
+        List<PartitionStats> stats = new ArrayList<>(partitions.length);
+        for (Partition partition : partitions) {
+            stats.add(partition.stats());
+        }
+        return stats;
+    }
+
+    int partitionOf(String value) {
+        int n = partitions.length;
+        if (strategy == Strategy.HASH) {
+            int h = value.hashCode();
+            return Math.floorMod(h ^ (h >>> 16), n);
+        }
+        return (int) Math.floorMod(cursor.getAndIncrement(), (long) n);
+    }
+
+    private void report() {
+        for (Partition partition : partitions) {
+            LOGGER.info(partition.stats().toString());
+        }
+    }
+}
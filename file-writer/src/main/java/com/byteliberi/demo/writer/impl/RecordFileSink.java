@@ -0,0 +1,135 @@
+package com.byteliberi.demo.writer.impl;
+
+import com.byteliberi.demo.writer.record.RecordFormat;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.logging.Logger;
+import java.util.zip.CRC32C;
+
+/**
+ * Appends strings as {@link RecordFormat} records to segment files named
+ * {@code segment_<first sequence>.rec}, rolling to a new segment once the current
+ * one reaches the configured size.
+ * <p>
+ * On start-up the newest segment is scanned; a torn or corrupt tail left by a crash is
+ * truncated away and numbering continues after the last intact record.
+ * <p>
+ * A write that fails part-way is cut off the segment again and its sequence number is reused
+ * by the next record, so later records never land behind a torn one. If the segment cannot be
+ * truncated, e.g. because its channel was closed, the next write rolls to a new segment instead.
+ */
+class RecordFileSink implements OutputSink {
+
+    private static final Logger LOGGER = Logger.getLogger(RecordFileSink.class.getName());
+    private static final int INITIAL_BUFFER_SIZE = 4096;
+
+    private final Path directory;
+    private final long segmentSize;
+    private final CRC32C crc = new CRC32C();
+    private ByteBuffer buffer = ByteBuffer.allocateDirect(INITIAL_BUFFER_SIZE);
+    private FileChannel channel;
+    private Path segment;
+    private long nextSequence = 1;
+
+    /**
+     * @param directory directory holding the segment files
+     * @param segmentSize size in bytes after which a new segment is started
+     * @throws IOException if the newest segment cannot be recovered or opened
+     */
+    RecordFileSink(Path directory, long segmentSize) throws IOException {
+        this.directory = directory;
+        this.segmentSize = segmentSize;
+        Files.createDirectories(directory);
+        recover();
+    }
+
+    @Override
+    public synchronized String write(String value) throws IOException {
+        ByteBuffer payload = ByteBuffer.wrap(value.getBytes(StandardCharsets.UTF_8));
+        int recordSize = RecordFormat.HEADER_SIZE + payload.remaining();
+        if (buffer.capacity() < recordSize) {
+            buffer = ByteBuffer.allocateDirect(Math.max(recordSize, buffer.capacity() * 2));
+        }
+        long sequence = nextSequence;
+        long start = -1;
+        try {
+            if (channel == null || (channel.position() > 0 && channel.position() + recordSize > segmentSize)) {
+                roll();
+            }
+            start = channel.position();
+            buffer.clear();
+            RecordFormat.encode(buffer, sequence, System.currentTimeMillis(), payload, crc);
+            buffer.flip();
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+        } catch (IOException | RuntimeException e) {
+            discardTornRecord(start, e);
+            throw e;
+        }
+        nextSequence++;
+        return segment.getFileName() + "#" + sequence;
+    }
+
+    @Override
+    public synchronized void close() {
+        if (channel != null) {
+            try {
+                channel.force(false);
+                channel.close();
+            } catch (IOException e) {
+                LOGGER.warning("Failed to close segment " + segment + ": " + e.getMessage());
+            }
+            channel = null;
+        }
+    }
+
+    /**
+     * Cuts a partly written record off the segment, or gives up on the segment if that fails.
+     * @param start where the record began, or -1 if the channel could not tell
+     * @param failure the write failure, to which a failure to truncate is added
+     */
+    private void discardTornRecord(long start, Exception failure) {
+        if (channel == null) {
+            // No segment could be opened; the next write tries again
+            return;
+        }
+        if (start >= 0) {
+            try {
+                channel.truncate(start);
+                channel.position(start);
+                return;
+            } catch (IOException | RuntimeException e) {
+                failure.addSuppressed(e);
+            }
+        }
+        LOGGER.warning("Cannot cut a failed write off segment " + segment + ", continuing in a new segment");
+        close();
+    }
+
+    private void roll() throws IOException {
+        close();
+        segment = directory.resolve(SegmentTail.segmentName(nextSequence));
+        // A segment named after the next sequence can only hold a torn first record, see discardTornRecord
+        channel = FileChannel.open(segment, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+                StandardOpenOption.WRITE);
+    }
+
+    private void recover() throws IOException {
+        SegmentTail tail = SegmentTail.recover(directory);
+        nextSequence = tail.nextSequence;
+        if (tail.segment == null) {
+            return;
+        }
+        segment = tail.segment;
+        channel = FileChannel.open(segment, StandardOpenOption.WRITE);
+        channel.position(tail.validLength);
+        LOGGER.info("Resuming record segment " + segment.getFileName() + " at sequence " + nextSequence);
+    }
+}
@@ -0,0 +1,84 @@
+package com.byteliberi.demo.writer.impl;
+
+import com.byteliberi.demo.writer.record.RecordFormat;
+import com.byteliberi.demo.writer.record.RecordReader;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.logging.Logger;
+
+/**
+ * Where appending resumes in a directory of record segments: the newest segment, the
+ * length of its intact prefix and the next sequence number.
+ */
+final class SegmentTail {
+
+    private static final Logger LOGGER = Logger.getLogger(SegmentTail.class.getName());
+
+    /** The newest segment, or {@code null} if the directory holds none. */
+    final Path segment;
+    /** Bytes of intact records at the start of {@link #segment}. */
+    final long validLength;
+    /** Sequence number for the next record. */
+    final long nextSequence;
+
+    private SegmentTail(Path segment, long validLength, long nextSequence) {
+        this.segment = segment;
+        this.validLength = validLength;
+        this.nextSequence = nextSequence;
+    }
+
+    /**
+     * Scans the newest segment of a directory and truncates a torn or corrupt tail left by a crash.
+     * @param directory directory holding the segment files
+     * @return the position to resume appending at
+     * @throws IOException if the newest segment cannot be read or truncated
+     */
+    static SegmentTail recover(Path directory) throws IOException {
+        List<Path> segments = RecordReader.listSegments(directory);
+        if (segments.isEmpty()) {
+            return new SegmentTail(null, 0, 1);
+        }
+        Path newest = segments.get(segments.size() - 1);
+        long lastSequence = 0;
+        long validLength;
+        RecordReader.TailState tail;
+        try (RecordReader reader = RecordReader.open(newest)) {
+            while (reader.next()) {
+                lastSequence = reader.sequence();
+            }
+            validLength = reader.validLength();
+            tail = reader.tailState();
+        }
+        if (lastSequence == 0) {
+            lastSequence = parseFirstSequence(newest) - 1;
+        }
+        if (tail != RecordReader.TailState.CLEAN) {
+            LOGGER.warning("Truncating " + tail + " tail of " + newest.getFileName() + " at byte " + validLength);
+            try (FileChannel channel = FileChannel.open(newest, StandardOpenOption.WRITE)) {
+                channel.truncate(validLength);
+            }
+        }
+        return new SegmentTail(newest, validLength, lastSequence + 1);
+    }
+
+    /**
+     * @param nextSequence sequence number of the segment's first record
+     * @return the file name of a segment starting at that sequence
+     */
+    static String segmentName(long nextSequence) {
+        return String.format("segment_%020d%s", nextSequence, RecordFormat.SEGMENT_SUFFIX);
+    }
+
+    private static long parseFirstSequence(Path segment) {
+        String name = segment.getFileName().toString();
+        try {
+            return Long.parseLong(name.substring("segment_".length(), name.length() - RecordFormat.SEGMENT_SUFFIX.length()));
+        } catch (RuntimeException e) {
+            return 1;
+        }
+    }
+}
@@ -0,0 +1,150 @@
+package com.byteliberi.demo.writer.impl;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Writes every string to its own file, like {@link TextFileSink}, but spreads the files over
+ * subdirectories so that no single directory grows to millions of entries.
+ * <p>
+ * Files are named {@code string_YYYYMMDD_HHmmss_SSS_<sequence>.txt}; the sequence makes names
+ * unique however many strings arrive per millisecond, and files are created with
+ * {@code CREATE_NEW} so a name left over from an earlier run is skipped rather than overwritten.
+ * <p>
+ * With {@link Layout#HASH} the sequence is hashed into {@code levels} nested directories of
+ * 256 entries each ({@code 3f/a0/}), which keeps every directory small and evenly filled.
+ * With {@link Layout#TIME} the directories follow a date pattern ({@code 20240131/17/}), which
+ * keeps related files together and makes old ones easy to delete. Directories known to exist
+ * are cached, so the common case is a single file creation.
+ * <p>
+ * The sink is thread-safe; the {@link FileStringWriter} runs several of its writer threads
+ * against one instance to keep file creation throughput up.
+ */
+class ShardedTextFileSink implements OutputSink {
+
+    private static final DateTimeFormatter FILE_TIMESTAMP_FORMAT = DateTimeFormatter.ofPattern("yyyyMMdd_HHmmss_SSS");
+    private static final int MAX_CACHED_DIRECTORIES = 100_000;
+
+    /**
+     * How files are assigned to subdirectories.
+     */
+    enum Layout {
+        /** Nested directories picked by a hash of the sequence. */
+        HASH,
+        /** Directories named after the write time. */
+        TIME;
+
+        static Layout parse(String value) {
+            return valueOf(value.trim().toUpperCase());
+        }
+    }
+
+    private final Path directory;
+    private final Layout layout;
+    private final int levels;
+    private final DateTimeFormatter bucketFormat;
+    private final AtomicLong sequence = new AtomicLong();
+    private final Set<Path> knownDirectories = ConcurrentHashMap.newKeySet();
+
+    /**
+     * @param directory the root output directory
+     * @param layout how files are assigned to subdirectories
+     * @param levels number of nested hash directories, 1 to 4; ignored for {@link Layout#TIME}
+     * @param bucketPattern {@link DateTimeFormatter} pattern of the time directories, may contain
+     *        {@code /}; ignored for {@link Layout#HASH}
+     */
+    ShardedTextFileSink(Path directory, Layout layout, int levels, String bucketPattern) {
+        if (levels < 1 || levels > 4) {
+            throw new IllegalArgumentException("Hash directory levels must be between 1 and 4: " + levels);
+        }
+        this.directory = directory;
+        this.layout = layout;
+        this.levels = levels;
+        this.bucketFormat = DateTimeFormatter.ofPattern(bucketPattern);
+    }
+
+    @Override
+    public String write(String value) throws IOException {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        LocalDateTime now = LocalDateTime.now();
+        String timestamp = "string_" + now.format(FILE_TIMESTAMP_FORMAT) + "_";
+        while (true) {
+            long next = sequence.incrementAndGet();
+            Path shard = shardOf(next, now);
+            Path file = shard.resolve(timestamp + next + ".txt");
+            try {
+                create(shard, file, bytes);
+                return directory.relativize(file).toString();
+            } catch (FileAlreadyExistsException e) {
+                // Left over from an earlier run that reached the same sequence in the same millisecond
+            }
+        }
+    }
+
+    @Override
+    public void close() {
+        knownDirectories.clear();
+    }
+
+    /**
+     * @return the number of subdirectories currently cached as existing
+     */
+    int getKnownDirectoryCount() {
+        return knownDirectories.size();
+    }
+
+    Path shardOf(long sequence, LocalDateTime time) {
+        if (layout == Layout.TIME) {
+            return directory.resolve(time.format(bucketFormat));
+        }
+        long hash = mix(sequence);
+        Path shard = directory;
+        for (int level = 0; level < levels; level++) {
+            int bucket = (int) (hash >>> (56 - 8 * level)) & 0xff;
+            shard = shard.resolve(Character.forDigit(bucket >>> 4, 16) + "" + Character.forDigit(bucket & 0xf, 16));
+        }
+        return shard;
+    }
+
+    private void create(Path shard, Path file, byte[] bytes) throws IOException {
+        if (!knownDirectories.contains(shard)) {
+            Files.createDirectories(shard);
+            if (knownDirectories.size() >= MAX_CACHED_DIRECTORIES) {
+                knownDirectories.clear();
+            }
+            knownDirectories.add(shard);
+        }
+        try {
+            Files.write(file, bytes, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE);
+        } catch (NoSuchFileException e) {
+            // The directory was removed behind our back, e.g. by a clean-up job
+            knownDirectories.remove(shard);
+            Files.createDirectories(shard);
+            Files.write(file, bytes, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE);
+            knownDirectories.add(shard);
+        }
+    }
+
+    /**
+     * Finalisation step of MurmurHash3: consecutive sequences land in unrelated directories.
+     */
+    private static long mix(long value) {
+        long h = value;
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+}
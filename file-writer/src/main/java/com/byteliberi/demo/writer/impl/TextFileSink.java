@@ -0,0 +1,44 @@
+package com.byteliberi.demo.writer.impl;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * Writes every string to its own file named {@code string_YYYYMMDD_HHmmss_SSS.txt}.
+ */
+class TextFileSink implements OutputSink {
+
+    private static final DateTimeFormatter FILE_TIMESTAMP_FORMAT = DateTimeFormatter.ofPattern("yyyyMMdd_HHmmss_SSS");
+
+    private final Path directory;
+
+    TextFileSink(Path directory) {
+        this.directory = directory;
+    }
+
+    @Override
+    public String write(String value) throws IOException {
+        String filename = generateFilename();
+        Files.write(directory.resolve(filename), value.getBytes(StandardCharsets.UTF_8));
+        return filename;
+    }
+
+    @Override
+    public void close() {
+        // Every write opens and closes its own file
+    }
+
+    /**
+     * Generates a timestamp-based filename in the format: string_YYYYMMDD_HHmmss_SSS.txt
+     * @return the generated filename
+     */
+    private String generateFilename() {
+        LocalDateTime now = LocalDateTime.now();
+        String timestamp = now.format(FILE_TIMESTAMP_FORMAT);
+        return "string_" + timestamp + ".txt";
+    }
+}
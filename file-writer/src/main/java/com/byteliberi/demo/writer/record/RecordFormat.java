@@ -0,0 +1,66 @@
+package com.byteliberi.demo.writer.record;
+
+import java.nio.ByteBuffer;
+import java.util.zip.CRC32C;
+
+/**
+ * Binary layout of a record in a segment file. All integers are big-endian.
+ * <pre>
+ * offset  size  field
+ *      0     4  payload length in bytes
+ *      4     8  sequence number
+ *     12     8  timestamp, milliseconds since the epoch
+ *     20     4  CRC32C of bytes 4..19 followed by the payload
+ *     24     n  payload (UTF-8)
+ * </pre>
+ * The checksum covers everything but the length and itself, so a record whose length
+ * field was torn is caught by the bounds check and one whose body was torn by the CRC.
+ */
+public final class RecordFormat {
+
+    /** Size of the fixed record header. */
+    public static final int HEADER_SIZE = 24;
+    /** Largest payload a record may carry. */
+    public static final int MAX_PAYLOAD_SIZE = 16 * 1024 * 1024;
+    /** File name suffix of segment files. */
+    public static final String SEGMENT_SUFFIX = ".rec";
+
+    static final int LENGTH_OFFSET = 0;
+    static final int SEQUENCE_OFFSET = 4;
+    static final int TIMESTAMP_OFFSET = 12;
+    static final int CRC_OFFSET = 20;
+
+    private RecordFormat() {
+    }
+
+    /**
+     * Appends one record at the target's position.
+     * @param target buffer with at least {@code HEADER_SIZE + payload.remaining()} bytes remaining
+     * @param sequence the record sequence number
+     * @param timestamp the record timestamp in milliseconds since the epoch
+     * @param payload the payload; its position is left unchanged
+     * @param crc a checksum instance to reuse; it is reset before use
+     * @return the number of bytes written
+     */
+    public static int encode(ByteBuffer target, long sequence, long timestamp, ByteBuffer payload, CRC32C crc) {
+        int start = target.position();
+        int length = payload.remaining();
+        if (length > MAX_PAYLOAD_SIZE) {
+            throw new IllegalArgumentException("Payload of " + length + " bytes exceeds " + MAX_PAYLOAD_SIZE);
+        }
+        target.putInt(length);
+        target.putLong(sequence);
+        target.putLong(timestamp);
+        target.putInt(0); // checksum placeholder
+        target.put(payload.duplicate());
+
+        crc.reset();
+        ByteBuffer covered = target.duplicate();
+        covered.position(start + SEQUENCE_OFFSET).limit(start + CRC_OFFSET);
+        crc.update(covered);
+        covered.limit(start + HEADER_SIZE + length).position(start + HEADER_SIZE);
+        crc.update(covered);
+        target.putInt(start + CRC_OFFSET, (int) crc.getValue());
+        return HEADER_SIZE + length;
+    }
+}
@@ -0,0 +1,227 @@
+package com.byteliberi.demo.writer.record;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.zip.CRC32C;
+
+/**
+ * Sequential, zero-copy reader over one segment file written in {@link RecordFormat}.
+ * <p>
+ * The segment is memory-mapped read-only and walked record by record. Accessors describe
+ * the current record; {@link #payload()} is a read-only view into the mapping that stays
+ * valid until the next call to {@link #next()}, so a full scan allocates nothing per record.
+ * <pre>
+ * try (RecordReader reader = RecordReader.open(segment)) {
+ *     while (reader.next()) {
+ *         process(reader.sequence(), reader.payload());
+ *     }
+ *     if (reader.tailState() != RecordReader.TailState.CLEAN) {
+ *         // the last reader.validLength() bytes are intact, the rest is damaged
+ *     }
+ * }
+ * </pre>
+ * Instances are not thread-safe.
+ */
+public final class RecordReader implements AutoCloseable {
+
+    /**
+     * What the reader found after the last intact record.
+     */
+    public enum TailState {
+        /** The segment ends exactly after the last record. */
+        CLEAN,
+        /** The segment ends inside a record, typically a crash during a write. */
+        TORN,
+        /** A complete record failed its checksum or has an impossible length. */
+        CORRUPT
+    }
+
+    private final MappedByteBuffer mapping;
+    private final ByteBuffer payloadView;
+    private final ByteBuffer checksumView;
+    private final CRC32C crc = new CRC32C();
+    private final boolean verifyChecksums;
+    private final int size;
+    private int position;
+    private int recordStart = -1;
+    private TailState tailState;
+    private boolean closed;
+
+    private RecordReader(MappedByteBuffer mapping, boolean verifyChecksums) {
+        this.mapping = mapping;
+        this.size = mapping.capacity();
+        this.payloadView = mapping.asReadOnlyBuffer();
+        this.checksumView = mapping.duplicate();
+        this.verifyChecksums = verifyChecksums;
+    }
+
+    /**
+     * Opens a segment and verifies every record's checksum while reading.
+     * @param segment the segment file
+     * @return a reader positioned before the first record
+     * @throws IOException if the file cannot be mapped
+     */
+    public static RecordReader open(Path segment) throws IOException {
+        return open(segment, true);
+    }
+
+    /**
+     * Opens a segment.
+     * @param segment the segment file
+     * @param verifyChecksums {@code false} to skip CRC verification for trusted, already-verified files
+     * @return a reader positioned before the first record
+     * @throws IOException if the file cannot be mapped or is larger than 2 GiB
+     */
+    public static RecordReader open(Path segment, boolean verifyChecksums) throws IOException {
+        try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size > Integer.MAX_VALUE) {
+                throw new IOException("Segment larger than 2 GiB: " + segment);
+            }
+            return new RecordReader(channel.map(FileChannel.MapMode.READ_ONLY, 0, size), verifyChecksums);
+        }
+    }
+
+    /**
+     * Lists the segment files of a directory in write order.
+     * @param directory the directory holding the segments
+     * @return the segment paths, oldest first
+     * @throws IOException if the directory cannot be listed
+     */
+    public static List<Path> listSegments(Path directory) throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(p -> p.getFileName().toString().endsWith(RecordFormat.SEGMENT_SUFFIX))
+                    .sorted()
+                    .collect(Collectors.toList());
+        }
+    }
+
+    /**
+     * Advances to the next record.
+     * @return {@code true} if an intact record is available, {@code false} at the end of the
+     *         valid data, after which {@link #tailState()} tells why reading stopped
+     */
+    public boolean next() {
+        if (closed || tailState != null) {
+            return false;
+        }
+        int remaining = size - position;
+        if (remaining == 0) {
+            return end(TailState.CLEAN);
+        }
+        if (remaining < RecordFormat.HEADER_SIZE) {
+            return end(TailState.TORN);
+        }
+        int length = mapping.getInt(position + RecordFormat.LENGTH_OFFSET);
+        if (length < 0 || length > RecordFormat.MAX_PAYLOAD_SIZE) {
+            return end(TailState.CORRUPT);
+        }
+        if (length > remaining - RecordFormat.HEADER_SIZE) {
+            return end(TailState.TORN);
+        }
+        int payloadStart = position + RecordFormat.HEADER_SIZE;
+        if (verifyChecksums && !checksumMatches(position, payloadStart, length)) {
+            return end(TailState.CORRUPT);
+        }
+        recordStart = position;
+        position = payloadStart + length;
+        payloadView.limit(position).position(payloadStart);
+        return true;
+    }
+
+    /**
+     * @return the sequence number of the current record
+     */
+    public long sequence() {
+        return mapping.getLong(current() + RecordFormat.SEQUENCE_OFFSET);
+    }
+
+    /**
+     * @return the timestamp of the current record in milliseconds since the epoch
+     */
+    public long timestamp() {
+        return mapping.getLong(current() + RecordFormat.TIMESTAMP_OFFSET);
+    }
+
+    /**
+     * @return the payload length of the current record
+     */
+    public int payloadLength() {
+        return mapping.getInt(current() + RecordFormat.LENGTH_OFFSET);
+    }
+
+    /**
+     * Returns a read-only view of the current payload without copying it.
+     * The view is reused: its contents change on the next call to {@link #next()}.
+     * @return the payload view, positioned at the first payload byte
+     */
+    public ByteBuffer payload() {
+        current();
+        return payloadView;
+    }
+
+    /**
+     * @return the current payload decoded as UTF-8; this copies
+     */
+    public String payloadAsString() {
+        int length = payloadLength();
+        byte[] bytes = new byte[length];
+        payloadView.duplicate().get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * @return the number of leading bytes holding intact records read so far
+     */
+    public long validLength() {
+        return position;
+    }
+
+    /**
+     * @return why reading stopped, or {@code null} while records remain
+     */
+    public TailState tailState() {
+        return tailState;
+    }
+
+    /**
+     * Releases the reader; {@link #next()} returns {@code false} afterwards.
+     * The mapping itself is released by the garbage collector.
+     */
+    @Override
+    public void close() {
+        closed = true;
+        recordStart = -1;
+    }
+
+    private boolean checksumMatches(int start, int payloadStart, int length) {
+        crc.reset();
+        checksumView.limit(start + RecordFormat.CRC_OFFSET).position(start + RecordFormat.SEQUENCE_OFFSET);
+        crc.update(checksumView);
+        checksumView.limit(payloadStart + length).position(payloadStart);
+        crc.update(checksumView);
+        return (int) crc.getValue() == mapping.getInt(start + RecordFormat.CRC_OFFSET);
+    }
+
+    private boolean end(TailState state) {
+        tailState = state;
+        recordStart = -1;
+        return false;
+    }
+
+    private int current() {
+        if (recordStart < 0) {
+            throw new IllegalStateException("No current record, call next() first");
+        }
+        return recordStart;
+    }
+}
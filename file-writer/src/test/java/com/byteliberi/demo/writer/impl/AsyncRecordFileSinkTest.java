@@ -0,0 +1,184 @@
+package com.byteliberi.demo.writer.impl;
+
+import com.byteliberi.demo.writer.api.WriteLatencyStats;
+import com.byteliberi.demo.writer.record.RecordReader;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.nio.ByteBuffer;
+import java.nio.channels.AsynchronousFileChannel;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for AsyncRecordFileSink.
+ */
+class AsyncRecordFileSinkTest {
+
+    @TempDir
+    private Path tempDir;
+
+    @Test
+    void testWrite_manyInFlightWritesReadBackInOrder() throws IOException {
+        AsyncRecordFileSink sink = new AsyncRecordFileSink(tempDir, 1024 * 1024, 8, 256);
+        List<String> expected = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            String value = "value" + i;
+            expected.add(value);
+            sink.write(value);
+        }
+        sink.close();
+
+        assertEquals(expected, readAll());
+        WriteLatencyStats stats = sink.getStats();
+        assertEquals(1000, stats.getCompleted());
+        assertEquals(0, stats.getFailed());
+        assertEquals(0, stats.getInFlight());
+    }
+
+    @Test
+    void testWrite_recordLargerThanPooledBuffer() throws IOException {
+        String large = "x".repeat(1000);
+        try (AsyncRecordFileSink sink = new AsyncRecordFileSink(tempDir, 1024 * 1024, 2, 64)) {
+            sink.write("small");
+            sink.write(large);
+            sink.write("small-again");
+        }
+        assertEquals(List.of("small", large, "small-again"), readAll());
+    }
+
+    @Test
+    void testWrite_rollsSegmentsAndResumesLikeSynchronousSink() throws IOException {
+        // 34-byte records, two per 100-byte segment
+        try (AsyncRecordFileSink sink = new AsyncRecordFileSink(tempDir, 100, 4, 64)) {
+            for (int i = 0; i < 3; i++) {
+                sink.write(String.format("value%05d", i));
+            }
+        }
+        try (RecordFileSink sink = new RecordFileSink(tempDir, 100)) {
+            sink.write("value00003");
+        }
+
+        assertEquals(2, RecordReader.listSegments(tempDir).size());
+        assertEquals(List.of("value00000", "value00001", "value00002", "value00003"), readAll());
+    }
+
+    @Test
+    void testWrite_failedWriteRollsToNewSegment() throws Exception {
+        try (AsyncRecordFileSink sink = new AsyncRecordFileSink(tempDir, 1024 * 1024, 1, 64)) {
+            sink.write("before-1");
+            sink.write("before-2");
+            awaitStats(sink, stats -> stats.getCompleted() == 2);
+            // Makes the next write to the current segment fail
+            channelOf(currentSegment(sink)).close();
+            sink.write("lost");
+            // Writes issued before the failure completes are in flight alongside it and lost too
+            awaitStats(sink, stats -> stats.getFailed() == 1);
+            sink.write("after-1");
+            sink.write("after-2");
+            assertEquals(1, sink.getStats().getFailed());
+        }
+
+        List<Path> segments = RecordReader.listSegments(tempDir);
+        assertEquals(2, segments.size());
+        assertEquals(List.of("before-1", "before-2"), read(segments.get(0)));
+        assertEquals(List.of("after-1", "after-2"), read(segments.get(1)));
+
+        // The failed record's sequence number is skipped, and the sink resumes cleanly
+        try (AsyncRecordFileSink sink = new AsyncRecordFileSink(tempDir, 1024 * 1024, 1, 64)) {
+            assertTrue(sink.write("resumed").endsWith("#6"));
+        }
+    }
+
+    @Test
+    void testWrite_lateFailureOfClosedSegmentLeavesNewSegmentIntact() throws Exception {
+        try (AsyncRecordFileSink sink = new AsyncRecordFileSink(tempDir, 1024 * 1024, 2, 64)) {
+            sink.write("old-1");
+            Object oldSegment = currentSegment(sink);
+            Method roll = AsyncRecordFileSink.class.getDeclaredMethod("roll");
+            roll.setAccessible(true);
+            roll.invoke(sink);
+            sink.write("new-1");
+            sink.write("new-2");
+            awaitStats(sink, stats -> stats.getCompleted() == 3);
+
+            // A write to the old segment that only fails now, as after a close that timed out
+            Field permits = AsyncRecordFileSink.class.getDeclaredField("permits");
+            permits.setAccessible(true);
+            ((Semaphore) permits.get(sink)).acquire();
+            Class<?> pendingWrite = Class.forName(AsyncRecordFileSink.class.getName() + "$PendingWrite");
+            Constructor<?> constructor = pendingWrite.getDeclaredConstructor(AsyncRecordFileSink.class,
+                    oldSegment.getClass(), ByteBuffer.class, boolean.class, long.class);
+            constructor.setAccessible(true);
+            Object late = constructor.newInstance(sink, oldSegment, ByteBuffer.allocate(16), false, 0L);
+            Method submit = pendingWrite.getDeclaredMethod("submit");
+            submit.setAccessible(true);
+            submit.invoke(late);
+            awaitStats(sink, stats -> stats.getFailed() == 1);
+            assertEquals(1, sink.getStats().getFailed(), "The late write should have failed on the closed channel");
+
+            sink.write("new-3");
+        }
+
+        List<Path> segments = RecordReader.listSegments(tempDir);
+        assertEquals(2, segments.size(), "A failure of the closed segment must not roll the new one");
+        assertEquals(List.of("old-1"), read(segments.get(0)));
+        assertEquals(List.of("new-1", "new-2", "new-3"), read(segments.get(1)));
+    }
+
+    private static Object currentSegment(AsyncRecordFileSink sink) throws ReflectiveOperationException {
+        Field current = AsyncRecordFileSink.class.getDeclaredField("current");
+        current.setAccessible(true);
+        return current.get(sink);
+    }
+
+    private static AsynchronousFileChannel channelOf(Object segment) throws ReflectiveOperationException {
+        Field channel = segment.getClass().getDeclaredField("channel");
+        channel.setAccessible(true);
+        return (AsynchronousFileChannel) channel.get(segment);
+    }
+
+    private static void awaitStats(AsyncRecordFileSink sink, Predicate<WriteLatencyStats> condition)
+            throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!condition.test(sink.getStats()) && System.nanoTime() < deadline) {
+            Thread.sleep(1);
+        }
+    }
+
+    private List<String> read(Path segment) throws IOException {
+        List<String> values = new ArrayList<>();
+        try (RecordReader reader = RecordReader.open(segment)) {
+            while (reader.next()) {
+                values.add(reader.payloadAsString());
+            }
+            assertEquals(RecordReader.TailState.CLEAN, reader.tailState());
+        }
+        return values;
+    }
+
+    private List<String> readAll() throws IOException {
+        List<String> values = new ArrayList<>();
+        long expectedSequence = 1;
+        for (Path segment : RecordReader.listSegments(tempDir)) {
+            try (RecordReader reader = RecordReader.open(segment)) {
+                while (reader.next()) {
+                    assertEquals(expectedSequence++, reader.sequence());
+                    values.add(reader.payloadAsString());
+                }
+                assertEquals(RecordReader.TailState.CLEAN, reader.tailState());
+            }
+        }
+        return values;
+    }
+}
@@ -1,6 +1,9 @@
 package com.byteliberi.demo.writer.impl;
 
+import com.byteliberi.demo.producer.api.Readiness;
 import com.byteliberi.demo.producer.api.StringProducer;
+import com.byteliberi.demo.writer.api.PartitionStats;
+import com.byteliberi.demo.writer.record.RecordReader;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -8,14 +11,23 @@ import org.junit.jupiter.api.io.TempDir;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+
 import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
 import java.util.logging.Logger;
 import java.util.regex.Pattern;
 import java.util.stream.Collectors;
@@ -54,13 +66,41 @@ class FileStringWriterTest {
 
     @Test
     void testActivate_registersWithProducer() {
-        fileWriter.activate();
-        verify(mockStringProducer).addListener(fileWriter);
+        activate(Map.of());
+        verify(mockStringProducer).addDurableListener("file-writer", fileWriter);
+    }
+
+    @Test
+    void testActivate_registersQueuedSinksAsPlainListener() {
+        activate(Map.of(
+                FileStringWriter.OUTPUT_DIR_PROPERTY, tempDir.toString(),
+                FileStringWriter.FORMAT, "binary",
+                FileStringWriter.IO_MODE, "async"));
+        fileWriter.deactivate();
+        activate(Map.of(FileStringWriter.PARTITION_DIRS, new String[] {tempDir.resolve("disk0").toString()}));
+        fileWriter.deactivate();
+
+        verify(mockStringProducer, times(2)).addListener(fileWriter);
+        verify(mockStringProducer, never()).addDurableListener(anyString(), any());
+    }
+
+    @Test
+    void testOnStringGenerated_rethrowsWriteFailureOfDurableWriter() throws IOException {
+        Path outputDir = tempDir.resolve("output");
+        activate(Map.of(FileStringWriter.OUTPUT_DIR_PROPERTY, outputDir.toString()));
+        verify(mockStringProducer).addDurableListener("file-writer", fileWriter);
+        // Replace the output directory with a plain file so that the next write fails
+        Files.delete(outputDir);
+        Files.createFile(outputDir);
+
+        assertThrows(UncheckedIOException.class, () -> fileWriter.onStringGenerated("Lost"),
+                "A failed write must reach the producer so that it does not commit the offset");
+        fileWriter.deactivate();
     }
 
     @Test
     void testDeactivate_unregistersFromProducer() {
-        fileWriter.activate();
+        activate(Map.of());
         fileWriter.deactivate();
         verify(mockStringProducer).removeListener(fileWriter);
     }
@@ -171,6 +211,136 @@ class FileStringWriterTest {
         }
     }
 
+    @Test
+    void testBinaryFormat_appendsRecordsToSegment() throws IOException {
+        activate(Map.of(
+                FileStringWriter.OUTPUT_DIR_PROPERTY, tempDir.toString(),
+                FileStringWriter.FORMAT, "binary"));
+        fileWriter.onStringGenerated("Binary1");
+        fileWriter.onStringGenerated("Binary2");
+        fileWriter.deactivate();
+
+        List<Path> segments = RecordReader.listSegments(tempDir);
+        assertEquals(1, segments.size(), "Both strings should go to one segment file");
+        try (RecordReader reader = RecordReader.open(segments.get(0))) {
+            assertTrue(reader.next());
+            assertEquals("Binary1", reader.payloadAsString());
+            assertTrue(reader.next());
+            assertEquals("Binary2", reader.payloadAsString());
+            assertFalse(reader.next());
+        }
+    }
+
+    @Test
+    void testPartitionedRoundRobin_keepsOrderWithinEachPartition() throws IOException {
+        Path first = tempDir.resolve("disk0");
+        Path second = tempDir.resolve("disk1");
+        activate(Map.of(
+                FileStringWriter.PARTITION_DIRS, new String[] {first.toString(), second.toString()},
+                FileStringWriter.PARTITION_STRATEGY, "round-robin",
+                FileStringWriter.FORMAT, "binary"));
+        for (int i = 0; i < 10; i++) {
+            fileWriter.onStringGenerated("Value" + i);
+        }
+        fileWriter.deactivate();
+
+        assertEquals(List.of("Value0", "Value2", "Value4", "Value6", "Value8"), readRecords(first));
+        assertEquals(List.of("Value1", "Value3", "Value5", "Value7", "Value9"), readRecords(second));
+        List<PartitionStats> stats = fileWriter.getPartitionStats();
+        assertEquals(2, stats.size());
+        for (PartitionStats partition : stats) {
+            assertEquals(5, partition.getWritten());
+            assertEquals(0, partition.getQueueDepth());
+        }
+    }
+
+    @Test
+    void testHashedTextLayout_withParallelWriters() throws IOException {
+        activate(Map.of(
+                FileStringWriter.OUTPUT_DIR_PROPERTY, tempDir.toString(),
+                FileStringWriter.TEXT_LAYOUT, "hash",
+                FileStringWriter.TEXT_HASH_LEVELS, 2,
+                FileStringWriter.TEXT_WRITER_THREADS, 3));
+        for (int i = 0; i < 30; i++) {
+            fileWriter.onStringGenerated("Value" + i);
+        }
+        fileWriter.deactivate();
+
+        try (Stream<Path> files = Files.walk(tempDir)) {
+            List<String> contents = new ArrayList<>();
+            for (Path file : files.filter(Files::isRegularFile).collect(Collectors.toList())) {
+                assertEquals(tempDir, file.getParent().getParent().getParent(), "Files go two hash levels deep");
+                contents.add(Files.readString(file, StandardCharsets.UTF_8));
+            }
+            assertEquals(30, contents.size());
+        }
+        assertEquals(3, fileWriter.getPartitionStats().size(), "One set of statistics per writer thread");
+    }
+
+    @Test
+    void testFlightRecorder_recordsEveryWrite() throws IOException {
+        Path outputDir = tempDir.resolve("output");
+        List<RecordedEvent> events;
+        try (Recording recording = new Recording()) {
+            recording.enable("com.byteliberi.demo.writer.FileWrite").withThreshold(Duration.ZERO);
+            recording.start();
+            activate(Map.of(FileStringWriter.OUTPUT_DIR_PROPERTY, outputDir.toString()));
+            fileWriter.onStringGenerated("Recorded1");
+            fileWriter.onStringGenerated("Recorded22");
+            fileWriter.deactivate();
+            recording.stop();
+            Path dump = tempDir.resolve("writer.jfr");
+            recording.dump(dump);
+            events = RecordingFile.readAllEvents(dump);
+        }
+
+        assertEquals(2, events.size());
+        assertEquals(List.of(9, 10), events.stream().map(event -> event.getInt("payloadBytes")).collect(Collectors.toList()));
+        for (RecordedEvent event : events) {
+            assertEquals("written", event.getString("outcome"));
+            assertTrue(event.getString("destination").startsWith("string_"));
+        }
+    }
+
+    @Test
+    void testFlightRecorder_partitionedWritesRecordedOnce() throws IOException {
+        List<RecordedEvent> events;
+        try (Recording recording = new Recording()) {
+            recording.enable("com.byteliberi.demo.writer.FileWrite").withThreshold(Duration.ZERO);
+            recording.start();
+            activate(Map.of(
+                    FileStringWriter.PARTITION_DIRS, new String[] {tempDir.resolve("disk0").toString(),
+                            tempDir.resolve("disk1").toString()},
+                    FileStringWriter.PARTITION_STRATEGY, "round-robin"));
+            for (int i = 0; i < 6; i++) {
+                fileWriter.onStringGenerated("Value" + i);
+            }
+            fileWriter.deactivate();
+            recording.stop();
+            Path dump = tempDir.resolve("partitioned.jfr");
+            recording.dump(dump);
+            events = RecordingFile.readAllEvents(dump);
+        }
+
+        assertEquals(6, events.size(), "One event per string, from the partition thread that wrote it");
+        for (RecordedEvent event : events) {
+            assertEquals("written", event.getString("outcome"));
+            assertTrue(event.getThread().getJavaName().startsWith("FileStringWriter-partition-"));
+        }
+    }
+
+    private static List<String> readRecords(Path directory) throws IOException {
+        List<String> values = new ArrayList<>();
+        for (Path segment : RecordReader.listSegments(directory)) {
+            try (RecordReader reader = RecordReader.open(segment)) {
+                while (reader.next()) {
+                    values.add(reader.payloadAsString());
+                }
+            }
+        }
+        return values;
+    }
+
     @Test
     void testDeactivateWithNullProducer_handledGracefully() {
         // Set producer to null to simulate an edge case
@@ -187,12 +357,38 @@ class FileStringWriterTest {
     }
 
     @Test
-    void testActivationFailure_handlesException() {
+    void testActivationFailure_handlesException() throws InterruptedException {
         // Create a mock that throws an exception
-        doThrow(new RuntimeException("Mock exception")).when(mockStringProducer).addListener(any());
+        doThrow(new RuntimeException("Mock exception")).when(mockStringProducer).addDurableListener(anyString(), any());
 
         assertDoesNotThrow(() -> fileWriter.activate(),
                 "Activation should handle producer exceptions gracefully");
+        assertFalse(fileWriter.awaitReady(500, TimeUnit.MILLISECONDS), "A writer that failed to register is not ready");
+    }
+
+    @Test
+    void testActivate_opensOutputInBackgroundAndReportsReadiness() throws InterruptedException {
+        Path outputDir = tempDir.resolve("created-at-startup");
+        fileWriter.activate(Map.of(FileStringWriter.OUTPUT_DIR_PROPERTY, outputDir.toString()));
+
+        Readiness readiness = fileWriter;
+        assertTrue(readiness.awaitReady(5, TimeUnit.SECONDS), "The writer should open its output shortly after activation");
+        assertTrue(readiness.isReady());
+        assertTrue(Files.isDirectory(outputDir));
+        verify(mockStringProducer).addDurableListener("file-writer", fileWriter);
+    }
+
+    /**
+     * Activates the writer and waits for its startup thread to open the output and register.
+     */
+    private void activate(Map<String, Object> properties) {
+        fileWriter.activate(properties);
+        try {
+            assertTrue(fileWriter.awaitReady(5, TimeUnit.SECONDS), "File writer should become ready");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            fail("Interrupted while waiting for the file writer");
+        }
     }
 
     /**
@@ -0,0 +1,125 @@
+package com.byteliberi.demo.writer.impl;
+
+import com.byteliberi.demo.writer.api.PartitionStats;
+import org.junit.jupiter.api.Test;
+
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for Partition.
+ */
+class PartitionTest {
+
+    @Test
+    void testUncheckedSinkFailure_writerKeepsDraining() throws Exception {
+        List<String> writtenValues = new CopyOnWriteArrayList<>();
+        OutputSink sink = new OutputSink() {
+            @Override
+            public String write(String value) {
+                if (value.equals("Poison")) {
+                    throw new IllegalStateException("channel closed");
+                }
+                writtenValues.add(value);
+                return value;
+            }
+
+            @Override
+            public void close() {
+            }
+        };
+        Partition partition = new Partition(0, Paths.get("unused"), sink, 4, 1000);
+        try {
+            // Far more strings than the queue holds: a dead writer thread would make enqueue fail
+            for (int i = 0; i < 20; i++) {
+                assertTrue(partition.enqueue(i == 3 ? "Poison" : "Value" + i), "String " + i + " was dropped");
+            }
+        } finally {
+            partition.close(5000);
+        }
+
+        assertEquals(19, writtenValues.size());
+        assertEquals("Value4", writtenValues.get(3), "Strings after the failure are still written in order");
+        PartitionStats stats = partition.stats();
+        assertEquals(19, stats.getWritten());
+        assertEquals(1, stats.getFailed());
+        assertEquals(0, stats.getDropped());
+    }
+
+    @Test
+    void testStalledSink_dropsInsteadOfBlockingCaller() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        OutputSink sink = new OutputSink() {
+            @Override
+            public String write(String value) throws java.io.IOException {
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new java.io.IOException("interrupted", e);
+                }
+                return value;
+            }
+
+            @Override
+            public void close() {
+            }
+        };
+        Partition partition = new Partition(0, Paths.get("unused"), sink, 2, 50);
+        try {
+            int accepted = 0;
+            long start = System.nanoTime();
+            for (int i = 0; i < 6; i++) {
+                if (partition.enqueue("Value" + i)) {
+                    accepted++;
+                }
+            }
+            long elapsedMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+            // One string is stuck in the sink, two wait in the queue, the rest time out
+            assertTrue(accepted <= 3, "Accepted " + accepted);
+            assertEquals(6 - accepted, partition.stats().getDropped());
+            assertTrue(elapsedMs < 2000, "Caller was held back for " + elapsedMs + " ms");
+        } finally {
+            release.countDown();
+            partition.close(5000);
+        }
+    }
+
+    @Test
+    void testStats_reportWriteRateWithoutReporter() throws Exception {
+        OutputSink sink = new OutputSink() {
+            @Override
+            public String write(String value) {
+                return value;
+            }
+
+            @Override
+            public void close() {
+            }
+        };
+        Partition partition = new Partition(0, Paths.get("unused"), sink, 16, 1000);
+        try {
+            for (int i = 0; i < 10; i++) {
+                assertTrue(partition.enqueue("Value" + i));
+            }
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+            while (partition.stats().getWritten() < 10 && System.nanoTime() < deadline) {
+                Thread.sleep(10);
+            }
+
+            // The rate is computed when the statistics are taken, no periodic report needed
+            assertEquals(10, partition.stats().getWritten());
+            assertTrue(partition.stats().getWritesPerSecond() > 0);
+            Thread.sleep(1100);
+            assertTrue(partition.stats().getWritesPerSecond() > 0, "Writes of the last complete second count");
+        } finally {
+            partition.close(5000);
+        }
+    }
+}
@@ -0,0 +1,313 @@
+package com.byteliberi.demo.writer.impl;
+
+import com.byteliberi.demo.writer.record.RecordFormat;
+import com.byteliberi.demo.writer.record.RecordReader;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.lang.reflect.Field;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for RecordFileSink and the RecordReader it is read back with.
+ */
+class RecordFileSinkTest {
+
+    @TempDir
+    private Path tempDir;
+
+    @Test
+    void testWrite_recordsReadBackInOrder() throws IOException {
+        long before = System.currentTimeMillis();
+        try (RecordFileSink sink = new RecordFileSink(tempDir, 1024 * 1024)) {
+            sink.write("alpha");
+            sink.write("beta");
+            sink.write("gamma");
+        }
+
+        List<Path> segments = RecordReader.listSegments(tempDir);
+        assertEquals(1, segments.size());
+        try (RecordReader reader = RecordReader.open(segments.get(0))) {
+            List<String> values = new ArrayList<>();
+            long expectedSequence = 1;
+            while (reader.next()) {
+                assertEquals(expectedSequence++, reader.sequence());
+                assertTrue(reader.timestamp() >= before, "Timestamp should be set at write time");
+                values.add(reader.payloadAsString());
+            }
+            assertEquals(List.of("alpha", "beta", "gamma"), values);
+            assertEquals(RecordReader.TailState.CLEAN, reader.tailState());
+        }
+    }
+
+    @Test
+    void testPayload_isReadOnlyViewWithoutCopy() throws IOException {
+        try (RecordFileSink sink = new RecordFileSink(tempDir, 1024 * 1024)) {
+            sink.write("zero-copy");
+        }
+        try (RecordReader reader = RecordReader.open(RecordReader.listSegments(tempDir).get(0))) {
+            assertTrue(reader.next());
+            ByteBuffer payload = reader.payload();
+            assertTrue(payload.isReadOnly());
+            assertEquals(9, payload.remaining());
+            assertEquals('z', payload.get(payload.position()));
+        }
+    }
+
+    @Test
+    void testWrite_rollsSegmentsAtConfiguredSize() throws IOException {
+        // Each 10-byte payload makes a 34-byte record, so 100-byte segments hold two records
+        try (RecordFileSink sink = new RecordFileSink(tempDir, 100)) {
+            for (int i = 0; i < 5; i++) {
+                sink.write(String.format("value%05d", i));
+            }
+        }
+        List<Path> segments = RecordReader.listSegments(tempDir);
+        assertEquals(3, segments.size());
+        assertTrue(segments.get(2).getFileName().toString().startsWith("segment_00000000000000000005"));
+    }
+
+    @Test
+    void testReader_detectsTornTail() throws IOException {
+        try (RecordFileSink sink = new RecordFileSink(tempDir, 1024 * 1024)) {
+            sink.write("complete");
+            sink.write("will-be-torn");
+        }
+        Path segment = RecordReader.listSegments(tempDir).get(0);
+        long intact = RecordFormat.HEADER_SIZE + "complete".length();
+        truncate(segment, intact + 10);
+
+        try (RecordReader reader = RecordReader.open(segment)) {
+            assertTrue(reader.next());
+            assertFalse(reader.next());
+            assertEquals(RecordReader.TailState.TORN, reader.tailState());
+            assertEquals(intact, reader.validLength());
+        }
+    }
+
+    @Test
+    void testReader_detectsCorruptPayload() throws IOException {
+        try (RecordFileSink sink = new RecordFileSink(tempDir, 1024 * 1024)) {
+            sink.write("payload");
+        }
+        Path segment = RecordReader.listSegments(tempDir).get(0);
+        try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.WRITE)) {
+            channel.write(ByteBuffer.wrap(new byte[] {'X'}), RecordFormat.HEADER_SIZE + 2);
+        }
+
+        try (RecordReader reader = RecordReader.open(segment)) {
+            assertFalse(reader.next());
+            assertEquals(RecordReader.TailState.CORRUPT, reader.tailState());
+            assertEquals(0, reader.validLength());
+        }
+    }
+
+    @Test
+    void testRestart_truncatesTornTailAndContinuesSequence() throws IOException {
+        try (RecordFileSink sink = new RecordFileSink(tempDir, 1024 * 1024)) {
+            sink.write("first");
+            sink.write("second");
+        }
+        Path segment = RecordReader.listSegments(tempDir).get(0);
+        truncate(segment, RecordFormat.HEADER_SIZE + "first".length() + 3);
+
+        try (RecordFileSink sink = new RecordFileSink(tempDir, 1024 * 1024)) {
+            sink.write("after-crash");
+        }
+
+        try (RecordReader reader = RecordReader.open(segment)) {
+            List<String> values = new ArrayList<>();
+            List<Long> sequences = new ArrayList<>();
+            while (reader.next()) {
+                values.add(reader.payloadAsString());
+                sequences.add(reader.sequence());
+            }
+            assertEquals(RecordReader.TailState.CLEAN, reader.tailState());
+            assertEquals(List.of("first", "after-crash"), values);
+            assertEquals(List.of(1L, 2L), sequences);
+        }
+    }
+
+    @Test
+    void testWrite_failedPartWayIsCutOffAndSequenceReused() throws Exception {
+        try (RecordFileSink sink = new RecordFileSink(tempDir, 1024 * 1024)) {
+            sink.write("alpha");
+            FileChannel channel = (FileChannel) channelField().get(sink);
+            channelField().set(sink, new TornWriteChannel(channel, 7));
+            assertThrows(IOException.class, () -> sink.write("torn"));
+            assertEquals("segment_00000000000000000001.rec#2", sink.write("gamma"));
+        }
+
+        List<Path> segments = RecordReader.listSegments(tempDir);
+        assertEquals(1, segments.size());
+        assertRecords(segments.get(0), List.of("alpha", "gamma"), List.of(1L, 2L));
+    }
+
+    @Test
+    void testWrite_rollsToNewSegmentWhenTheTornRecordCannotBeCutOff() throws Exception {
+        try (RecordFileSink sink = new RecordFileSink(tempDir, 1024 * 1024)) {
+            sink.write("alpha");
+            ((FileChannel) channelField().get(sink)).close();
+            assertThrows(IOException.class, () -> sink.write("lost"));
+            assertEquals("segment_00000000000000000002.rec#2", sink.write("gamma"));
+        }
+
+        List<Path> segments = RecordReader.listSegments(tempDir);
+        assertEquals(2, segments.size());
+        assertRecords(segments.get(0), List.of("alpha"), List.of(1L));
+        assertRecords(segments.get(1), List.of("gamma"), List.of(2L));
+    }
+
+    private static Field channelField() throws NoSuchFieldException {
+        Field field = RecordFileSink.class.getDeclaredField("channel");
+        field.setAccessible(true);
+        return field;
+    }
+
+    private static void assertRecords(Path segment, List<String> expectedValues, List<Long> expectedSequences)
+            throws IOException {
+        try (RecordReader reader = RecordReader.open(segment)) {
+            List<String> values = new ArrayList<>();
+            List<Long> sequences = new ArrayList<>();
+            while (reader.next()) {
+                values.add(reader.payloadAsString());
+                sequences.add(reader.sequence());
+            }
+            assertEquals(RecordReader.TailState.CLEAN, reader.tailState());
+            assertEquals(expectedValues, values);
+            assertEquals(expectedSequences, sequences);
+        }
+    }
+
+    private static void truncate(Path file, long size) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+            channel.truncate(size);
+        }
+    }
+
+    /**
+     * Passes everything to a real channel, but fails the first write after writing only part of it,
+     * as a full disk would.
+     */
+    private static final class TornWriteChannel extends FileChannel {
+        private final FileChannel delegate;
+        private int bytesBeforeFailure;
+        private boolean failed;
+
+        TornWriteChannel(FileChannel delegate, int bytesBeforeFailure) {
+            this.delegate = delegate;
+            this.bytesBeforeFailure = bytesBeforeFailure;
+        }
+
+        @Override
+        public int write(ByteBuffer src) throws IOException {
+            if (failed) {
+                return delegate.write(src);
+            }
+            if (bytesBeforeFailure == 0) {
+                failed = true;
+                throw new IOException("No space left on device");
+            }
+            ByteBuffer part = src.duplicate();
+            part.limit(part.position() + Math.min(part.remaining(), bytesBeforeFailure));
+            int written = delegate.write(part);
+            src.position(src.position() + written);
+            bytesBeforeFailure -= written;
+            return written;
+        }
+
+        @Override
+        public int read(ByteBuffer dst) throws IOException {
+            return delegate.read(dst);
+        }
+
+        @Override
+        public long read(ByteBuffer[] dsts, int offset, int length) throws IOException {
+            return delegate.read(dsts, offset, length);
+        }
+
+        @Override
+        public long write(ByteBuffer[] srcs, int offset, int length) throws IOException {
+            return delegate.write(srcs, offset, length);
+        }
+
+        @Override
+        public long position() throws IOException {
+            return delegate.position();
+        }
+
+        @Override
+        public FileChannel position(long newPosition) throws IOException {
+            delegate.position(newPosition);
+            return this;
+        }
+
+        @Override
+        public long size() throws IOException {
+            return delegate.size();
+        }
+
+        @Override
+        public FileChannel truncate(long size) throws IOException {
+            delegate.truncate(size);
+            return this;
+        }
+
+        @Override
+        public void force(boolean metaData) throws IOException {
+            delegate.force(metaData);
+        }
+
+        @Override
+        public long transferTo(long position, long count, WritableByteChannel target) throws IOException {
+            return delegate.transferTo(position, count, target);
+        }
+
+        @Override
+        public long transferFrom(ReadableByteChannel src, long position, long count) throws IOException {
+            return delegate.transferFrom(src, position, count);
+        }
+
+        @Override
+        public int read(ByteBuffer dst, long position) throws IOException {
+            return delegate.read(dst, position);
+        }
+
+        @Override
+        public int write(ByteBuffer src, long position) throws IOException {
+            return delegate.write(src, position);
+        }
+
+        @Override
+        public MappedByteBuffer map(MapMode mode, long position, long size) throws IOException {
+            return delegate.map(mode, position, size);
+        }
+
+        @Override
+        public FileLock lock(long position, long size, boolean shared) throws IOException {
+            return delegate.lock(position, size, shared);
+        }
+
+        @Override
+        public FileLock tryLock(long position, long size, boolean shared) throws IOException {
+            return delegate.tryLock(position, size, shared);
+        }
+
+        @Override
+        protected void implCloseChannel() throws IOException {
+            delegate.close();
+        }
+    }
+}
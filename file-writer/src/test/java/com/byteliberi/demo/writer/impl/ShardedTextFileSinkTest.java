@@ -0,0 +1,118 @@
+package com.byteliberi.demo.writer.impl;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for ShardedTextFileSink.
+ */
+class ShardedTextFileSinkTest {
+
+    private static final Pattern HASHED_NAME =
+            Pattern.compile("^[0-9a-f]{2}/[0-9a-f]{2}/string_\\d{8}_\\d{6}_\\d{3}_\\d+\\.txt$");
+
+    @TempDir
+    private Path tempDir;
+
+    @Test
+    void testHashLayout_namesAreUniqueWithinOneMillisecond() throws IOException {
+        ShardedTextFileSink sink = new ShardedTextFileSink(tempDir, ShardedTextFileSink.Layout.HASH, 2, "yyyyMMdd/HH");
+        Set<String> names = new HashSet<>();
+        for (int i = 0; i < 1000; i++) {
+            String name = sink.write("value" + i).replace(tempDir.getFileSystem().getSeparator(), "/");
+            assertTrue(HASHED_NAME.matcher(name).matches(), "Unexpected file name " + name);
+            assertTrue(names.add(name), "Duplicate file name " + name);
+        }
+        assertEquals(1000, listFiles().size(), "No file may overwrite another");
+        assertTrue(sink.getKnownDirectoryCount() > 500, "Consecutive strings should spread over directories");
+    }
+
+    @Test
+    void testTimeLayout_groupsFilesByBucket() throws IOException {
+        ShardedTextFileSink sink = new ShardedTextFileSink(tempDir, ShardedTextFileSink.Layout.TIME, 2, "yyyy/MM");
+        String name = sink.write("Hello");
+
+        LocalDateTime now = LocalDateTime.now();
+        Path file = tempDir.resolve(name);
+        assertEquals(tempDir.resolve(String.format("%d/%02d", now.getYear(), now.getMonthValue())), file.getParent());
+        assertEquals("Hello", Files.readString(file, StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void testExistingFile_isSkippedNotOverwritten() throws IOException {
+        ShardedTextFileSink first = new ShardedTextFileSink(tempDir, ShardedTextFileSink.Layout.TIME, 1, "'bucket'");
+        ShardedTextFileSink second = new ShardedTextFileSink(tempDir, ShardedTextFileSink.Layout.TIME, 1, "'bucket'");
+        for (int i = 0; i < 50; i++) {
+            first.write("first" + i);
+            second.write("second" + i); // same sequences, often the same millisecond
+        }
+        List<Path> files = listFiles();
+        assertEquals(100, files.size());
+        long fromFirst = 0;
+        for (Path file : files) {
+            if (Files.readString(file, StandardCharsets.UTF_8).startsWith("first")) {
+                fromFirst++;
+            }
+        }
+        assertEquals(50, fromFirst, "The second sink must not have overwritten any file of the first");
+    }
+
+    @Test
+    void testRemovedDirectory_isRecreated() throws IOException {
+        ShardedTextFileSink sink = new ShardedTextFileSink(tempDir, ShardedTextFileSink.Layout.TIME, 1, "'bucket'");
+        Path file = tempDir.resolve(sink.write("before"));
+        Files.delete(file);
+        Files.delete(file.getParent());
+
+        Path recreated = tempDir.resolve(sink.write("after"));
+        assertEquals("after", Files.readString(recreated, StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void testConcurrentWriters_createEveryFile() throws Exception {
+        ShardedTextFileSink sink = new ShardedTextFileSink(tempDir, ShardedTextFileSink.Layout.HASH, 1, "yyyyMMdd/HH");
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < 4; t++) {
+                int thread = t;
+                futures.add(executor.submit(() -> {
+                    for (int i = 0; i < 250; i++) {
+                        sink.write("thread" + thread + "-" + i);
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+        assertEquals(1000, listFiles().size());
+    }
+
+    private List<Path> listFiles() throws IOException {
+        try (Stream<Path> files = Files.walk(tempDir)) {
+            return files.filter(Files::isRegularFile).collect(Collectors.toList());
+        }
+    }
+}
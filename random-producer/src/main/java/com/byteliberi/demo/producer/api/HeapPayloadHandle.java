@@ -0,0 +1,62 @@
+package com.byteliberi.demo.producer.api;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A payload encoded into a heap array. Reference counting is kept so listeners cannot tell
+ * it from a pooled payload, but nothing is pooled: the last release only invalidates the handle.
+ */
+final class HeapPayloadHandle implements PayloadHandle {
+
+    private final String value;
+    private final ByteBuffer readable;
+    private final AtomicInteger references = new AtomicInteger(1);
+
+    HeapPayloadHandle(String value) {
+        this.value = value;
+        this.readable = ByteBuffer.wrap(value.getBytes(StandardCharsets.UTF_8)).asReadOnlyBuffer();
+    }
+
+    @Override
+    public ByteBuffer payload() {
+        checkReferenced();
+        readable.clear();
+        return readable;
+    }
+
+    @Override
+    public int length() {
+        checkReferenced();
+        return readable.capacity();
+    }
+
+    @Override
+    public String asString() {
+        checkReferenced();
+        return value;
+    }
+
+    @Override
+    public void retain() {
+        if (references.getAndIncrement() <= 0) {
+            references.decrementAndGet();
+            throw new IllegalStateException("Payload was already released");
+        }
+    }
+
+    @Override
+    public void release() {
+        if (references.decrementAndGet() < 0) {
+            references.incrementAndGet();
+            throw new IllegalStateException("Payload released more often than retained");
+        }
+    }
+
+    private void checkReferenced() {
+        if (references.get() <= 0) {
+            throw new IllegalStateException("Payload was already released");
+        }
+    }
+}
@@ -0,0 +1,88 @@
+package com.byteliberi.demo.producer.api;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Point-in-time health of one registered listener, as seen by the circuit breaker the
+ * producer keeps in front of it.
+ */
+public final class ListenerStats {
+
+    private final String name;
+    private final String state;
+    private final long calls;
+    private final long failures;
+    private final long slowCalls;
+    private final long rejected;
+    private final long trips;
+    private final long maxLatencyNanos;
+
+    /**
+     * @param name the listener's class name or, for a durable listener, its consumer id
+     * @param state the circuit breaker state: {@code CLOSED}, {@code OPEN} or {@code HALF_OPEN}
+     * @param calls calls made to the listener
+     * @param failures calls that threw
+     * @param slowCalls calls that took longer than the slow-call threshold
+     * @param rejected strings the listener was skipped for while its circuit was open
+     * @param trips how often the circuit has opened
+     * @param maxLatencyNanos longest call in nanoseconds
+     */
+    public ListenerStats(String name, String state, long calls, long failures, long slowCalls, long rejected,
+                  long trips, long maxLatencyNanos) {
+        this.name = name;
+        this.state = state;
+        this.calls = calls;
+        this.failures = failures;
+        this.slowCalls = slowCalls;
+        this.rejected = rejected;
+        this.trips = trips;
+        this.maxLatencyNanos = maxLatencyNanos;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * @return the circuit breaker state: {@code CLOSED}, {@code OPEN} or {@code HALF_OPEN}
+     */
+    public String getState() {
+        return state;
+    }
+
+    public long getCalls() {
+        return calls;
+    }
+
+    public long getFailures() {
+        return failures;
+    }
+
+    public long getSlowCalls() {
+        return slowCalls;
+    }
+
+    /**
+     * @return strings the listener was skipped for while its circuit was open
+     */
+    public long getRejected() {
+        return rejected;
+    }
+
+    /**
+     * @return how often the circuit has opened
+     */
+    public long getTrips() {
+        return trips;
+    }
+
+    public long getMaxLatency(TimeUnit unit) {
+        return unit.convert(maxLatencyNanos, TimeUnit.NANOSECONDS);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s: %s, %d call(s), %d failed, %d slow, %d skipped, %d trip(s), max %d ms",
+                name, state, calls, failures, slowCalls, rejected, trips, getMaxLatency(TimeUnit.MILLISECONDS));
+    }
+}
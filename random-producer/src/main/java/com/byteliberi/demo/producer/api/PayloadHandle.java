@@ -0,0 +1,57 @@
+package com.byteliberi.demo.producer.api;
+
+import java.nio.ByteBuffer;
+
+/**
+ * A reference-counted, UTF-8 encoded string payload that may live off-heap in a pooled slab.
+ * <p>
+ * A handle passed to {@link StringProducer.PayloadListener#onPayload(PayloadHandle)} is valid
+ * for the duration of the call. A listener that keeps it longer, for example to hand it to
+ * another thread, must call {@link #retain()} before returning and {@link #release()} when
+ * done; once every reference is released the memory is reused for another payload.
+ */
+public interface PayloadHandle {
+
+    /**
+     * Encodes a string into a handle on the heap, holding one reference.
+     * @param value the string
+     * @return a new handle that pools nothing
+     */
+    static PayloadHandle of(String value) {
+        return new HeapPayloadHandle(value);
+    }
+
+    /**
+     * Returns a read-only view of the payload bytes, positioned at the first byte.
+     * The view may be shared: each call resets its position and limit, so use
+     * {@link ByteBuffer#duplicate()} before handing it to another thread.
+     * @return the payload view
+     * @throws IllegalStateException if the handle has already been fully released
+     */
+    ByteBuffer payload();
+
+    /**
+     * @return the payload length in bytes
+     * @throws IllegalStateException if the handle has already been fully released
+     */
+    int length();
+
+    /**
+     * Decodes the payload; this allocates a new string.
+     * @return the payload as a string
+     * @throws IllegalStateException if the handle has already been fully released
+     */
+    String asString();
+
+    /**
+     * Adds a reference, keeping the payload valid until a matching {@link #release()}.
+     * @throws IllegalStateException if the handle has already been fully released
+     */
+    void retain();
+
+    /**
+     * Drops a reference; the last release returns the memory to its pool.
+     * @throws IllegalStateException if there is no reference left to release
+     */
+    void release();
+}
@@ -0,0 +1,41 @@
+package com.byteliberi.demo.producer.api;
+
+/**
+ * Delivers strings to a {@link StringProducer.PayloadListener} as heap payloads, for producers
+ * that only implement plain listeners. Adapters over the same payload listener are equal, so
+ * a producer that matches listeners by {@link Object#equals(Object)} removes the adapter it
+ * was given when passed a new one.
+ */
+final class PayloadListenerAdapter implements StringProducer.StringListener {
+
+    private final StringProducer.PayloadListener delegate;
+
+    PayloadListenerAdapter(StringProducer.PayloadListener delegate) {
+        this.delegate = delegate;
+    }
+
+    @Override
+    public void onStringGenerated(String value) {
+        PayloadHandle payload = PayloadHandle.of(value);
+        try {
+            delegate.onPayload(payload);
+        } finally {
+            payload.release();
+        }
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        return other instanceof PayloadListenerAdapter && ((PayloadListenerAdapter) other).delegate == delegate;
+    }
+
+    @Override
+    public int hashCode() {
+        return System.identityHashCode(delegate);
+    }
+
+    @Override
+    public String toString() {
+        return delegate.getClass().getSimpleName();
+    }
+}
@@ -0,0 +1,17 @@
+package com.byteliberi.demo.producer.api;
+
+import java.util.List;
+
+/**
+ * Service interface for the health of a producer's listeners. Producers that guard their
+ * listeners with circuit breakers register it alongside {@link StringProducer}.
+ * All methods return immutable snapshots and may be called from any thread.
+ */
+public interface ProducerStatistics {
+
+    /**
+     * Reports the health of every registered listener.
+     * @return one entry per listener, in registration order within plain, durable and payload listeners
+     */
+    List<ListenerStats> getListenerStats();
+}
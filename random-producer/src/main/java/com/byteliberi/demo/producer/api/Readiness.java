@@ -0,0 +1,31 @@
+package com.byteliberi.demo.producer.api;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Service interface for components that finish starting up after activation. Activation does
+ * no blocking work, so such a component is registered before it can do its job; this service
+ * tells a caller when it can. Both methods may be called from any thread.
+ */
+public interface Readiness {
+
+    /**
+     * Service property naming the component a registration reports on, so that a caller can
+     * select it with a filter such as {@code (readiness.component=file-writer)}.
+     */
+    String COMPONENT = "readiness.component";
+
+    /**
+     * @return {@code true} if the component is ready to do its job
+     */
+    boolean isReady();
+
+    /**
+     * Waits until the component is ready.
+     * @param timeout the maximum time to wait
+     * @param unit the unit of the timeout
+     * @return {@code true} if the component is ready, {@code false} if the timeout elapsed first
+     * @throws InterruptedException if interrupted while waiting
+     */
+    boolean awaitReady(long timeout, TimeUnit unit) throws InterruptedException;
+}
@@ -18,6 +18,43 @@ public interface StringProducer {
      */
     void removeListener(StringListener listener);
 
+    /**
+     * Register a listener under a stable consumer identifier.
+     * Producers that journal their output first replay every string the consumer
+     * missed since its last delivered offset, then continue with live strings.
+     * Producers without a journal treat this as {@link #addListener(StringListener)}.
+     * Use {@link #removeListener(StringListener)} to unregister.
+     * @param consumerId identifier that survives restarts of the consumer
+     * @param listener the listener to register
+     */
+    default void addDurableListener(String consumerId, StringListener listener) {
+        addListener(listener);
+    }
+
+    /**
+     * Register a listener that receives payloads as reference-counted handles instead of strings.
+     * Producers that pool payloads off-heap can then deliver without allocating per string.
+     * By default the listener is registered through {@link #addListener(StringListener)} and each
+     * string is encoded into a heap handle, which relies on {@link #removeListener(StringListener)}
+     * matching listeners by {@link Object#equals(Object)}.
+     * @param listener the listener to register
+     */
+    default void addPayloadListener(PayloadListener listener) {
+        if (listener != null) {
+            addListener(new PayloadListenerAdapter(listener));
+        }
+    }
+
+    /**
+     * Unregister a payload listener.
+     * @param listener the listener to remove
+     */
+    default void removePayloadListener(PayloadListener listener) {
+        if (listener != null) {
+            removeListener(new PayloadListenerAdapter(listener));
+        }
+    }
+
     /**
      * Listener interface for string consumers.
      */
@@ -29,4 +66,17 @@ public interface StringProducer {
          */
         void onStringGenerated(String value);
     }
-}
\ No newline at end of file
+
+    /**
+     * Listener interface for consumers that work on encoded payloads.
+     */
+    @FunctionalInterface
+    interface PayloadListener {
+        /**
+         * Called when a new string is generated.
+         * The handle is valid until this method returns unless the listener retains it.
+         * @param payload the generated string, UTF-8 encoded
+         */
+        void onPayload(PayloadHandle payload);
+    }
+}
@@ -0,0 +1,152 @@
+package com.byteliberi.demo.producer.impl;
+
+import java.io.IOException;
+import java.util.Random;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Decides when the producer emits its next string, as a sequence of inter-arrival delays.
+ * <p>
+ * The producer schedules each string at the previous scheduled time plus the next delay,
+ * not at "now plus delay", so a consumer that holds the producer thread up makes the
+ * following strings due immediately instead of silently thinning the load.
+ */
+interface ArrivalProcess extends AutoCloseable {
+
+    /**
+     * @return nanoseconds until the next string, or a negative value once the process is exhausted
+     * @throws IOException if a trace cannot be read
+     */
+    long nextDelayNanos() throws IOException;
+
+    @Override
+    default void close() {
+    }
+
+    /**
+     * @param rate strings per second
+     * @return the delay between strings at that rate
+     */
+    static long intervalNanos(double rate) {
+        if (!(rate > 0)) {
+            throw new IllegalArgumentException("Rate must be positive: " + rate);
+        }
+        return Math.max(1, (long) (TimeUnit.SECONDS.toNanos(1) / rate));
+    }
+
+    /**
+     * Delays drawn uniformly from a range; the producer's original behavior.
+     */
+    final class Uniform implements ArrivalProcess {
+        private final Random random;
+        private final int minMillis;
+        private final int maxMillis;
+
+        Uniform(Random random, int minMillis, int maxMillis) {
+            this.random = random;
+            this.minMillis = minMillis;
+            this.maxMillis = maxMillis;
+        }
+
+        @Override
+        public long nextDelayNanos() {
+            return TimeUnit.MILLISECONDS.toNanos(minMillis + random.nextInt(maxMillis - minMillis + 1));
+        }
+    }
+
+    /**
+     * A fixed delay: a steady rate.
+     */
+    final class Constant implements ArrivalProcess {
+        private final long intervalNanos;
+
+        Constant(double rate) {
+            this.intervalNanos = intervalNanos(rate);
+        }
+
+        @Override
+        public long nextDelayNanos() {
+            return intervalNanos;
+        }
+    }
+
+    /**
+     * Exponentially distributed delays: independent arrivals at a mean rate.
+     */
+    final class Poisson implements ArrivalProcess {
+        private final double meanNanos;
+        private final SplittableRandom random;
+
+        Poisson(double rate, SplittableRandom random) {
+            this.meanNanos = intervalNanos(rate);
+            this.random = random;
+        }
+
+        @Override
+        public long nextDelayNanos() {
+            return (long) (-Math.log(1.0 - random.nextDouble()) * meanNanos);
+        }
+    }
+
+    /**
+     * Bursts of {@code size} strings at a high rate, each followed by an idle gap.
+     */
+    final class Burst implements ArrivalProcess {
+        private final int size;
+        private final long burstInterval;
+        private final long idleNanos;
+        private int position;
+
+        Burst(int size, double burstRate, long idleNanos) {
+            if (size < 1) {
+                throw new IllegalArgumentException("Burst size must be positive: " + size);
+            }
+            this.size = size;
+            this.burstInterval = intervalNanos(burstRate);
+            this.idleNanos = idleNanos;
+        }
+
+        @Override
+        public long nextDelayNanos() {
+            position = (position + 1) % size;
+            return position == 0 ? idleNanos : burstInterval;
+        }
+    }
+
+    /**
+     * Rate rising linearly from the start rate to the end rate over half a period and falling
+     * back over the other half, repeating: a compressed diurnal cycle.
+     * Time is the sum of the delays handed out, so the shape does not depend on scheduling jitter.
+     */
+    final class Ramp implements ArrivalProcess {
+        private final double startRate;
+        private final double endRate;
+        private final long periodNanos;
+        private long elapsedNanos;
+
+        Ramp(double startRate, double endRate, long periodNanos) {
+            intervalNanos(startRate);
+            intervalNanos(endRate);
+            if (periodNanos <= 0) {
+                throw new IllegalArgumentException("Ramp period must be positive");
+            }
+            this.startRate = startRate;
+            this.endRate = endRate;
+            this.periodNanos = periodNanos;
+        }
+
+        @Override
+        public long nextDelayNanos() {
+            long delay = intervalNanos(rateAt(elapsedNanos));
+            elapsedNanos += delay;
+            return delay;
+        }
+
+        double rateAt(long nanos) {
+            double phase = (double) (nanos % periodNanos) / periodNanos;
+            double rising = phase < 0.5 ? phase * 2 : (1 - phase) * 2;
+            return startRate + (endRate - startRate) * rising;
+        }
+    }
+}
@@ -0,0 +1,164 @@
+package com.byteliberi.demo.producer.impl;
+
+import com.byteliberi.demo.producer.api.ListenerStats;
+
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Logger;
+
+/**
+ * Health of one registered listener, as a circuit breaker.
+ * <p>
+ * The breaker is {@code CLOSED} while the listener behaves. After {@code failureThreshold}
+ * consecutive bad calls, where a call is bad if it throws or takes longer than the slow-call
+ * threshold, it opens and the listener is skipped without being called. Once the open period
+ * has passed, and no earlier call is still stuck inside the listener, a single probe call is
+ * let through ({@code HALF_OPEN}); a good probe closes the breaker and a bad one re-opens it.
+ * <p>
+ * A breaker can also be tripped from outside, which is how the producer's watchdog sidelines
+ * a listener that has hung.
+ */
+final class CircuitBreaker {
+
+    private static final Logger LOGGER = Logger.getLogger(CircuitBreaker.class.getName());
+
+    enum State {
+        CLOSED,
+        OPEN,
+        HALF_OPEN
+    }
+
+    private final String name;
+    private int failureThreshold;
+    private long slowCallNanos;
+    private long openNanos;
+    private State state = State.CLOSED;
+    private int consecutiveFailures;
+    private int callsInProgress;
+    private long openUntil;
+    private long calls;
+    private long failures;
+    private long slowCalls;
+    private long rejected;
+    private long trips;
+    private long maxLatencyNanos;
+
+    /**
+     * @param name the listener name used in log messages and statistics
+     * @param failureThreshold consecutive bad calls that open the breaker
+     * @param slowCallNanos latency above which a call counts as bad
+     * @param openNanos how long the breaker stays open before a probe call
+     */
+    CircuitBreaker(String name, int failureThreshold, long slowCallNanos, long openNanos) {
+        this.name = name;
+        configure(failureThreshold, slowCallNanos, openNanos);
+    }
+
+    /**
+     * Replaces the thresholds, keeping the current state and counters.
+     * @param failureThreshold consecutive bad calls that open the breaker
+     * @param slowCallNanos latency above which a call counts as bad
+     * @param openNanos how long the breaker stays open before a probe call
+     */
+    synchronized void configure(int failureThreshold, long slowCallNanos, long openNanos) {
+        this.failureThreshold = Math.max(1, failureThreshold);
+        this.slowCallNanos = slowCallNanos;
+        this.openNanos = openNanos;
+    }
+
+    /**
+     * Decides whether the listener may be called now; a {@code true} result must be followed
+     * by {@link #callEnded(long, long, boolean)} once the call returns.
+     * @param now the current {@link System#nanoTime()}
+     * @return {@code true} if the call may go ahead
+     */
+    synchronized boolean tryAcquire(long now) {
+        switch (state) {
+            case CLOSED:
+                break;
+            case OPEN:
+                if (now - openUntil < 0 || callsInProgress > 0) {
+                    rejected++;
+                    return false;
+                }
+                state = State.HALF_OPEN;
+                break;
+            default:
+                if (callsInProgress > 0) {
+                    rejected++;
+                    return false;
+                }
+        }
+        callsInProgress++;
+        return true;
+    }
+
+    /**
+     * @param now the current {@link System#nanoTime()}
+     * @return {@code true} if the breaker is open and {@link #tryAcquire(long)} would let a probe through
+     */
+    synchronized boolean isProbeDue(long now) {
+        return state == State.OPEN && now - openUntil >= 0 && callsInProgress == 0;
+    }
+
+    /**
+     * Records the outcome of a call admitted by {@link #tryAcquire(long)}.
+     * @param now the current {@link System#nanoTime()}
+     * @param latencyNanos how long the call took
+     * @param failed whether the call threw
+     */
+    synchronized void callEnded(long now, long latencyNanos, boolean failed) {
+        callsInProgress--;
+        calls++;
+        maxLatencyNanos = Math.max(maxLatencyNanos, latencyNanos);
+        boolean slow = latencyNanos > slowCallNanos;
+        if (failed) {
+            failures++;
+        }
+        if (slow) {
+            slowCalls++;
+        }
+        if (state == State.OPEN) {
+            // tripped while this call was running, e.g. by the watchdog
+            return;
+        }
+        if (failed || slow) {
+            consecutiveFailures++;
+            if (state == State.HALF_OPEN || consecutiveFailures >= failureThreshold) {
+                trip(now, state == State.HALF_OPEN ? "probe call failed"
+                        : consecutiveFailures + " consecutive " + (failed ? "failures" : "slow calls"));
+            }
+        } else {
+            consecutiveFailures = 0;
+            if (state == State.HALF_OPEN) {
+                state = State.CLOSED;
+                LOGGER.info("Listener " + name + " recovered, circuit closed");
+            }
+        }
+    }
+
+    /**
+     * Opens the breaker, skipping the listener until the open period has passed.
+     * @param now the current {@link System#nanoTime()}
+     * @param reason why, for the log
+     */
+    synchronized void trip(long now, String reason) {
+        state = State.OPEN;
+        openUntil = now + openNanos;
+        consecutiveFailures = 0;
+        trips++;
+        LOGGER.warning("Listener " + name + " circuit opened (" + reason + "), skipping it for "
+                + TimeUnit.NANOSECONDS.toMillis(openNanos) + " ms");
+    }
+
+    String getName() {
+        return name;
+    }
+
+    synchronized State getState() {
+        return state;
+    }
+
+    synchronized ListenerStats snapshot() {
+        return new ListenerStats(name, state.name(), calls, failures, slowCalls, rejected, trips, maxLatencyNanos);
+    }
+}
@@ -0,0 +1,93 @@
+package com.byteliberi.demo.producer.impl;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.logging.Logger;
+
+/**
+ * Durable per-consumer journal offsets.
+ * Every consumer owns a tiny memory-mapped file {@code <consumerId>.offset} holding the
+ * sequence of the last event delivered to it, so a commit is a single 8-byte store
+ * rather than a file rewrite.
+ */
+class ConsumerOffsetStore implements AutoCloseable {
+
+    private static final Logger LOGGER = Logger.getLogger(ConsumerOffsetStore.class.getName());
+    private static final String OFFSET_SUFFIX = ".offset";
+
+    private final Path directory;
+    private final Map<String, MappedByteBuffer> offsets = new ConcurrentHashMap<>();
+
+    /**
+     * @param directory directory holding the offset files
+     * @throws IOException if the directory cannot be created
+     */
+    ConsumerOffsetStore(Path directory) throws IOException {
+        this.directory = directory;
+        Files.createDirectories(directory);
+    }
+
+    /**
+     * @param consumerId the consumer identifier
+     * @return the last committed sequence, or 0 if the consumer has never committed
+     * @throws IOException if the offset file cannot be mapped
+     */
+    long get(String consumerId) throws IOException {
+        return slot(consumerId).getLong(0);
+    }
+
+    /**
+     * Records that every event up to and including {@code sequence} reached the consumer.
+     * @param consumerId the consumer identifier
+     * @param sequence the last delivered sequence
+     * @throws IOException if the offset file cannot be mapped
+     */
+    void commit(String consumerId, long sequence) throws IOException {
+        slot(consumerId).putLong(0, sequence);
+    }
+
+    /**
+     * Flushes all offset files to the storage device.
+     */
+    @Override
+    public void close() {
+        for (Map.Entry<String, MappedByteBuffer> entry : offsets.entrySet()) {
+            try {
+                entry.getValue().force();
+            } catch (Exception e) {
+                LOGGER.warning("Failed to flush offset of consumer " + entry.getKey() + ": " + e.getMessage());
+            }
+        }
+        offsets.clear();
+    }
+
+    private MappedByteBuffer slot(String consumerId) throws IOException {
+        MappedByteBuffer slot = offsets.get(consumerId);
+        if (slot == null) {
+            slot = map(consumerId);
+            MappedByteBuffer existing = offsets.putIfAbsent(consumerId, slot);
+            if (existing != null) {
+                slot = existing;
+            }
+        }
+        return slot;
+    }
+
+    private MappedByteBuffer map(String consumerId) throws IOException {
+        Path file = directory.resolve(sanitize(consumerId) + OFFSET_SUFFIX);
+        try (FileChannel channel = FileChannel.open(file,
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            return channel.map(FileChannel.MapMode.READ_WRITE, 0, Long.BYTES);
+        }
+    }
+
+    private static String sanitize(String consumerId) {
+        return consumerId.replaceAll("[^A-Za-z0-9._-]", "_");
+    }
+}
@@ -0,0 +1,61 @@
+package com.byteliberi.demo.producer.impl;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+
+/**
+ * Flight recorder event for handing one string to one listener. Its duration is the time
+ * spent inside the listener, which is what the circuit breakers judge listeners by.
+ * <p>
+ * By default only calls of 10 ms or more are recorded; skipped calls take no time and
+ * show up only with a threshold of 0, as in the pipeline profile.
+ */
+@Name("com.byteliberi.demo.producer.Dispatch")
+@Label("Listener Dispatch")
+@Description("Delivery of one string to one registered listener")
+@Category({"OSGi Demo", "Producer"})
+@StackTrace(false)
+@Threshold("10 ms")
+final class DispatchEvent extends jdk.jfr.Event {
+
+    static final String DELIVERED = "delivered";
+    static final String FAILED = "failed";
+    static final String SKIPPED = "skipped";
+
+    @Label("Listener")
+    String listener;
+
+    @Label("Kind")
+    @Description("string, payload or durable")
+    String kind;
+
+    @Label("Payload Size")
+    @DataAmount
+    int payloadBytes;
+
+    @Label("Outcome")
+    @Description("delivered, failed (the listener threw) or skipped (its circuit breaker is open)")
+    String outcome;
+
+    /**
+     * Ends the event and commits it if the recorder wants it.
+     * @param listener the listener name
+     * @param kind the kind of listener
+     * @param payloadBytes the size of the string handed over
+     * @param outcome {@link #DELIVERED}, {@link #FAILED} or {@link #SKIPPED}
+     */
+    void complete(String listener, String kind, int payloadBytes, String outcome) {
+        if (shouldCommit()) {
+            this.listener = listener;
+            this.kind = kind;
+            this.payloadBytes = payloadBytes;
+            this.outcome = outcome;
+            commit();
+        }
+    }
+}
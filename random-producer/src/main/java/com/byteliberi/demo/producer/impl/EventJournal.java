@@ -0,0 +1,284 @@
+package com.byteliberi.demo.producer.impl;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.logging.Logger;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Append-only journal of produced strings backed by memory-mapped segment files.
+ * <p>
+ * Each segment is a pre-sized file named {@code journal-<first sequence>.log} holding
+ * records laid out as {@code [int record length][long sequence][payload bytes]}, where
+ * the record length includes the header. A zero length marks the end of the written
+ * region, which is what lets a reopened journal find its tail without an index. Sequences start at 1, so an offset of 0
+ * means "nothing consumed yet".
+ * <p>
+ * The journal is written by the producer thread only; readers replay it sequentially
+ * through their own views of the same mappings, so catch-up is a plain scan over
+ * page-cache memory.
+ */
+class EventJournal implements AutoCloseable {
+
+    private static final Logger LOGGER = Logger.getLogger(EventJournal.class.getName());
+    static final int RECORD_HEADER_SIZE = Integer.BYTES + Long.BYTES;
+    private static final String SEGMENT_PREFIX = "journal-";
+    private static final String SEGMENT_SUFFIX = ".log";
+
+    /**
+     * Receives journaled events during a replay.
+     */
+    @FunctionalInterface
+    interface RecordConsumer {
+        void accept(long sequence, String value);
+    }
+
+    private final Path directory;
+    private final int segmentSize;
+    private final int maxSegments;
+    private final List<Segment> segments = new ArrayList<>();
+    private long nextSequence = 1;
+
+    /**
+     * Opens (or creates) a journal in the given directory and recovers its tail.
+     * @param directory directory holding the segment files
+     * @param segmentSize size in bytes of each segment file
+     * @param maxSegments number of segments retained before the oldest is deleted
+     * @throws IOException if the directory or segments cannot be opened
+     */
+    EventJournal(Path directory, int segmentSize, int maxSegments) throws IOException {
+        if (segmentSize < RECORD_HEADER_SIZE * 2) {
+            throw new IllegalArgumentException("Segment size too small: " + segmentSize);
+        }
+        this.directory = directory;
+        this.segmentSize = segmentSize;
+        this.maxSegments = Math.max(1, maxSegments);
+        Files.createDirectories(directory);
+        recover();
+    }
+
+    /**
+     * Appends a value to the journal.
+     * @param value the value to append
+     * @return the sequence number assigned to the value
+     * @throws IOException if a new segment cannot be created
+     */
+    long append(String value) throws IOException {
+        return append(ByteBuffer.wrap(value.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    /**
+     * Appends UTF-8 encoded bytes to the journal without decoding them.
+     * @param payload the bytes between position and limit; the buffer's position is not changed
+     * @return the sequence number assigned to the value
+     * @throws IOException if a new segment cannot be created
+     */
+    synchronized long append(ByteBuffer payload) throws IOException {
+        int length = payload.remaining();
+        int recordSize = RECORD_HEADER_SIZE + length;
+        if (recordSize > segmentSize - Integer.BYTES) {
+            throw new IOException("Record of " + length + " bytes exceeds journal segment size");
+        }
+        Segment active = activeSegment();
+        if (active == null || active.writePosition + recordSize > active.buffer.capacity() - Integer.BYTES) {
+            active = roll();
+        }
+        long sequence = nextSequence++;
+        MappedByteBuffer buffer = active.buffer;
+        int position = active.writePosition;
+        // Payload and sequence go first so a concurrent reader never sees a length without its record
+        buffer.putLong(position + Integer.BYTES, sequence);
+        buffer.position(position + RECORD_HEADER_SIZE);
+        int payloadPosition = payload.position();
+        buffer.put(payload);
+        payload.position(payloadPosition);
+        buffer.putInt(position, recordSize);
+        active.writePosition += recordSize;
+        active.lastSequence = sequence;
+        return sequence;
+    }
+
+    /**
+     * Replays every record with a sequence greater than {@code afterSequence}, in order.
+     * Records older than the retained segments are silently skipped.
+     * <p>
+     * The retained segments are snapshotted under the lock and read outside it, so a consumer
+     * that is slow, or never returns, does not hold up {@link #append(ByteBuffer)}.
+     * @param afterSequence the last sequence the caller has already seen
+     * @param consumer receives each replayed record
+     * @return the number of records replayed
+     */
+    long replay(long afterSequence, RecordConsumer consumer) {
+        List<Segment> retained;
+        int[] limits;
+        synchronized (this) {
+            retained = new ArrayList<>(segments.size());
+            for (Segment segment : segments) {
+                if (segment.lastSequence > afterSequence) {
+                    retained.add(segment);
+                }
+            }
+            limits = new int[retained.size()];
+            for (int i = 0; i < limits.length; i++) {
+                limits[i] = retained.get(i).writePosition;
+            }
+        }
+        long replayed = 0;
+        byte[] bytes = new byte[256];
+        for (int i = 0; i < limits.length; i++) {
+            // Own view per replay: the mapping outlives a deleted file, and positions are not shared
+            ByteBuffer view = retained.get(i).buffer.duplicate();
+            int position = 0;
+            while (position < limits[i]) {
+                int recordSize = view.getInt(position);
+                long sequence = view.getLong(position + Integer.BYTES);
+                if (sequence > afterSequence) {
+                    int length = recordSize - RECORD_HEADER_SIZE;
+                    if (bytes.length < length) {
+                        bytes = new byte[Math.max(length, bytes.length * 2)];
+                    }
+                    view.position(position + RECORD_HEADER_SIZE);
+                    view.get(bytes, 0, length);
+                    consumer.accept(sequence, new String(bytes, 0, length, StandardCharsets.UTF_8));
+                    replayed++;
+                }
+                position += recordSize;
+            }
+        }
+        return replayed;
+    }
+
+    /**
+     * @return the sequence of the most recently appended record, or 0 if the journal is empty
+     */
+    synchronized long lastSequence() {
+        return nextSequence - 1;
+    }
+
+    /**
+     * @return the sequence of the oldest retained record, or the next sequence if the journal is empty
+     */
+    synchronized long firstSequence() {
+        return segments.isEmpty() ? nextSequence : segments.get(0).baseSequence;
+    }
+
+    /**
+     * Flushes all segments to the storage device and releases them.
+     */
+    @Override
+    public synchronized void close() {
+        for (Segment segment : segments) {
+            try {
+                segment.buffer.force();
+            } catch (Exception e) {
+                LOGGER.warning("Failed to flush journal segment " + segment.path + ": " + e.getMessage());
+            }
+        }
+        segments.clear();
+    }
+
+    private Segment activeSegment() {
+        return segments.isEmpty() ? null : segments.get(segments.size() - 1);
+    }
+
+    private Segment roll() throws IOException {
+        Segment previous = activeSegment();
+        if (previous != null) {
+            previous.buffer.force();
+        }
+        Segment segment = Segment.open(directory.resolve(segmentName(nextSequence)), nextSequence, segmentSize);
+        segments.add(segment);
+        while (segments.size() > maxSegments) {
+            Segment oldest = segments.remove(0);
+            Files.deleteIfExists(oldest.path);
+            LOGGER.info("Deleted journal segment " + oldest.path.getFileName());
+        }
+        return segment;
+    }
+
+    private void recover() throws IOException {
+        List<Path> files;
+        try (Stream<Path> listing = Files.list(directory)) {
+            files = listing
+                    .filter(p -> p.getFileName().toString().startsWith(SEGMENT_PREFIX)
+                            && p.getFileName().toString().endsWith(SEGMENT_SUFFIX))
+                    .sorted()
+                    .collect(Collectors.toList());
+        }
+        for (Path file : files) {
+            long baseSequence = parseBaseSequence(file);
+            Segment segment = Segment.open(file, baseSequence, (int) Math.max(segmentSize, Files.size(file)));
+            segment.scanTail();
+            segments.add(segment);
+            if (segment.lastSequence >= nextSequence) {
+                nextSequence = segment.lastSequence + 1;
+            } else if (segment.baseSequence > nextSequence) {
+                nextSequence = segment.baseSequence;
+            }
+        }
+        if (!segments.isEmpty()) {
+            LOGGER.info("Recovered journal with " + segments.size() + " segment(s), last sequence " + lastSequence());
+        }
+    }
+
+    private static String segmentName(long baseSequence) {
+        return String.format("%s%020d%s", SEGMENT_PREFIX, baseSequence, SEGMENT_SUFFIX);
+    }
+
+    private static long parseBaseSequence(Path file) {
+        String name = file.getFileName().toString();
+        return Long.parseLong(name.substring(SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length()));
+    }
+
+    /**
+     * A single mapped segment file.
+     */
+    private static final class Segment {
+        private final Path path;
+        private final long baseSequence;
+        private final MappedByteBuffer buffer;
+        private int writePosition;
+        private long lastSequence;
+
+        private Segment(Path path, long baseSequence, MappedByteBuffer buffer) {
+            this.path = path;
+            this.baseSequence = baseSequence;
+            this.buffer = buffer;
+            this.lastSequence = baseSequence - 1;
+        }
+
+        static Segment open(Path path, long baseSequence, int size) throws IOException {
+            try (FileChannel channel = FileChannel.open(path,
+                    StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+                // The mapping stays valid after the channel is closed
+                return new Segment(path, baseSequence, channel.map(FileChannel.MapMode.READ_WRITE, 0, size));
+            }
+        }
+
+        /**
+         * Walks the records from the start of the segment until the first empty or torn slot.
+         */
+        void scanTail() {
+            int position = 0;
+            int limit = buffer.capacity();
+            while (position + RECORD_HEADER_SIZE <= limit) {
+                int recordSize = buffer.getInt(position);
+                if (recordSize < RECORD_HEADER_SIZE || position + recordSize > limit) {
+                    break;
+                }
+                lastSequence = buffer.getLong(position + Integer.BYTES);
+                position += recordSize;
+            }
+            writePosition = position;
+        }
+    }
+}
@@ -0,0 +1,46 @@
+package com.byteliberi.demo.producer.impl;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Flight recorder event for generating one string, from drawing its characters to having
+ * it ready for the listeners. Dispatch is covered by {@link DispatchEvent}.
+ * <p>
+ * One event per string is too many for an always-on recording, so the event is off unless a
+ * recording's settings turn it on, as the pipeline profile does.
+ */
+@Name("com.byteliberi.demo.producer.Generation")
+@Label("String Generation")
+@Description("Generation of one random string by the producer")
+@Category({"OSGi Demo", "Producer"})
+@StackTrace(false)
+@Enabled(false)
+final class GenerationEvent extends jdk.jfr.Event {
+
+    @Label("Payload Size")
+    @DataAmount
+    int payloadBytes;
+
+    @Label("Pooled")
+    @Description("Whether the string was generated into an off-heap slab slot")
+    boolean pooled;
+
+    /**
+     * Ends the event and commits it if the recorder wants it.
+     * @param payloadBytes the length of the generated string
+     * @param pooled whether it went into a slab slot
+     */
+    void complete(int payloadBytes, boolean pooled) {
+        if (shouldCommit()) {
+            this.payloadBytes = payloadBytes;
+            this.pooled = pooled;
+            commit();
+        }
+    }
+}
@@ -0,0 +1,211 @@
+package com.byteliberi.demo.producer.impl;
+
+import com.byteliberi.demo.producer.api.PayloadHandle;
+
+import java.lang.invoke.VarHandle;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A pre-allocated direct buffer cut into fixed-size slots, each wrapped by a reusable
+ * {@link PayloadHandle}. Acquiring and releasing a slot allocates nothing, so payloads
+ * that fit a slot create no garbage however fast they are produced.
+ * <p>
+ * When every slot is held, or a payload is larger than a slot, {@link #acquire(int)}
+ * returns {@code null} and the caller falls back to a heap handle; {@link #getExhaustedCount()}
+ * counts these misses.
+ * <p>
+ * Each slot carries a generation stamp that moves on every time the slot is freed. Its accessors
+ * refuse to read a slot that is free, and a read that finds the stamp moved on by the time it has
+ * copied the bytes fails rather than return another payload's content. With leak detection on, each acquisition records its call site
+ * so that {@link #findLeaks()} can tell which payload was never released.
+ */
+final class PayloadSlab {
+
+    private final int slotSize;
+    private final Slot[] slots;
+    private final int[] free;
+    private final boolean leakDetection;
+    private final AtomicLong exhausted = new AtomicLong();
+    private int freeCount;
+
+    /**
+     * @param slotCount number of slots
+     * @param slotSize bytes per slot, the largest payload served from the slab
+     * @param leakDetection whether to record where each slot was acquired
+     */
+    PayloadSlab(int slotCount, int slotSize, boolean leakDetection) {
+        if (slotCount < 1 || slotSize < 1) {
+            throw new IllegalArgumentException("Slab needs at least one slot of at least one byte");
+        }
+        this.slotSize = slotSize;
+        this.leakDetection = leakDetection;
+        this.slots = new Slot[slotCount];
+        this.free = new int[slotCount];
+        ByteBuffer memory = ByteBuffer.allocateDirect(Math.multiplyExact(slotCount, slotSize));
+        for (int i = 0; i < slotCount; i++) {
+            memory.limit((i + 1) * slotSize).position(i * slotSize);
+            slots[i] = new Slot(i, memory.slice());
+            free[i] = slotCount - 1 - i;
+        }
+        freeCount = slotCount;
+    }
+
+    /**
+     * Takes a free slot holding one reference, for the caller to fill through {@link Slot#buffer()}.
+     * @param length the payload length in bytes
+     * @return the slot, or {@code null} if the payload does not fit or no slot is free
+     */
+    Slot acquire(int length) {
+        if (length > slotSize) {
+            exhausted.incrementAndGet();
+            return null;
+        }
+        int index;
+        synchronized (this) {
+            if (freeCount == 0) {
+                exhausted.incrementAndGet();
+                return null;
+            }
+            index = free[--freeCount];
+        }
+        Slot slot = slots[index];
+        slot.length = length;
+        slot.acquiredAt = leakDetection ? new Throwable("Payload acquired here") : null;
+        slot.references.set(1);
+        return slot;
+    }
+
+    /**
+     * @return the number of slots currently held
+     */
+    synchronized int getInUseCount() {
+        return slots.length - freeCount;
+    }
+
+    /**
+     * @return how often a payload could not be served from the slab
+     */
+    long getExhaustedCount() {
+        return exhausted.get();
+    }
+
+    /**
+     * Describes every slot that is still referenced. Call it once all listeners are expected
+     * to have released their payloads; with leak detection on, each entry includes the
+     * stack that acquired the slot.
+     * @return one description per unreleased slot
+     */
+    List<String> findLeaks() {
+        List<String> leaks = new ArrayList<>();
+        for (Slot slot : slots) {
+            int references = slot.references.get();
+            if (references > 0) {
+                Throwable site = slot.acquiredAt;
+                leaks.add("slot " + slot.index + " (" + references + " reference(s))"
+                        + (site != null ? " acquired at " + Arrays.toString(site.getStackTrace()) : ""));
+            }
+        }
+        return leaks;
+    }
+
+    private synchronized void free(Slot slot) {
+        slot.acquiredAt = null;
+        slot.generation++;
+        free[freeCount++] = slot.index;
+    }
+
+    /**
+     * One slot of the slab. The handle object is reused for every payload stored in the slot.
+     */
+    final class Slot implements PayloadHandle {
+
+        private final int index;
+        private final ByteBuffer writable;
+        private final ByteBuffer readable;
+        private final AtomicInteger references = new AtomicInteger();
+        private volatile int length;
+        private volatile Throwable acquiredAt;
+        /** Changes only under the slab lock, before the slot can be acquired again. */
+        private volatile int generation;
+
+        private Slot(int index, ByteBuffer memory) {
+            this.index = index;
+            this.writable = memory;
+            this.readable = memory.asReadOnlyBuffer();
+        }
+
+        /**
+         * @return the writable slot memory, for the owner to fill right after {@link #acquire(int)}
+         */
+        ByteBuffer buffer() {
+            return writable;
+        }
+
+        @Override
+        public ByteBuffer payload() {
+            checkReferenced();
+            readable.limit(length).position(0);
+            return readable;
+        }
+
+        @Override
+        public int length() {
+            checkReferenced();
+            return length;
+        }
+
+        @Override
+        public String asString() {
+            int stamp = checkReferenced();
+            byte[] bytes = new byte[length];
+            ByteBuffer view = readable.duplicate();
+            view.limit(bytes.length).position(0);
+            view.get(bytes);
+            VarHandle.loadLoadFence();
+            if (generation != stamp) {
+                throw new IllegalStateException("Payload in slot " + index + " was released while being read");
+            }
+            return new String(bytes, StandardCharsets.UTF_8);
+        }
+
+        @Override
+        public void retain() {
+            int current;
+            do {
+                current = references.get();
+                if (current <= 0) {
+                    throw new IllegalStateException("Payload in slot " + index + " was already released");
+                }
+            } while (!references.compareAndSet(current, current + 1));
+        }
+
+        /**
+         * @return the generation the slot is in, which is held
+         * @throws IllegalStateException if the slot has been freed
+         */
+        private int checkReferenced() {
+            int stamp = generation;
+            if (references.get() <= 0) {
+                throw new IllegalStateException("Payload in slot " + index + " was already released");
+            }
+            return stamp;
+        }
+
+        @Override
+        public void release() {
+            int remaining = references.decrementAndGet();
+            if (remaining == 0) {
+                free(this);
+            } else if (remaining < 0) {
+                references.incrementAndGet();
+                throw new IllegalStateException("Payload in slot " + index + " released more often than retained");
+            }
+        }
+    }
+}
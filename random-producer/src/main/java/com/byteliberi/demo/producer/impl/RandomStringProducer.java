@@ -1,21 +1,73 @@
 package com.byteliberi.demo.producer.impl;
 
+import com.byteliberi.demo.component.ComponentConfig;
+import com.byteliberi.demo.component.SampledLog;
+import com.byteliberi.demo.producer.api.ListenerStats;
+import com.byteliberi.demo.producer.api.PayloadHandle;
+import com.byteliberi.demo.producer.api.ProducerStatistics;
+import com.byteliberi.demo.producer.api.Readiness;
 import com.byteliberi.demo.producer.api.StringProducer;
 import org.osgi.service.component.annotations.Activate;
 import org.osgi.service.component.annotations.Component;
 import org.osgi.service.component.annotations.Deactivate;
 
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.security.SecureRandom;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.SplittableRandom;
+import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
 import java.util.logging.Logger;
 
 /**
  * Random string producer implementation that generates random alphanumeric strings
  * at random intervals and notifies registered listeners.
+ * <p>
+ * With {@code journal.enabled=true} every string is also appended to an {@link EventJournal},
+ * and listeners registered through {@link #addDurableListener(String, StringListener)} get
+ * whatever they missed while they were stopped before receiving live strings again.
+ * Catch-up runs on the producer thread, so replayed and live strings never interleave.
+ * <p>
+ * Activation does no blocking work: seeding the random source and opening the journal
+ * happen on the producer thread, and the {@link Readiness} service reports when that warm-up is done.
+ * <p>
+ * With {@code slab.enabled=true} strings are generated straight into a pooled off-heap
+ * {@link PayloadSlab} and handed to {@link PayloadListener}s as reference-counted handles;
+ * a string object is only created for plain listeners or the per-string log line.
+ * That line can be sampled with {@code log.sample.every}, and a throughput summary is logged
+ * every {@code log.summary.interval.s} seconds; see {@link SampledLog}.
+ * <p>
+ * The {@code profile} property shapes the traffic: {@code uniform} (the default 1-5 s
+ * random interval), {@code constant}, {@code poisson}, {@code burst}, {@code ramp} or
+ * {@code trace}, which replays recorded inter-arrival times; see {@link ArrivalProcess}.
+ * <p>
+ * Every listener sits behind a {@link CircuitBreaker}: one that keeps throwing or is too slow
+ * is skipped for a while and then probed. A watchdog sidelines a listener that does not return
+ * within {@code listener.watchdog.ms} by tripping its breaker and abandoning the stuck producer
+ * thread to a replacement; durable listeners then resume from their committed offsets. At most
+ * {@code listener.watchdog.max.abandoned} abandoned threads may still be stuck at a time; past
+ * that the listener is left running and production waits for it.
+ * Breaker states and trip counts are published through the {@link ProducerStatistics} service.
+ * <p>
+ * Generating a string and every listener call are visible to Java Flight Recorder as
+ * {@link GenerationEvent} and {@link DispatchEvent}.
  */
-@Component(immediate = true, service = StringProducer.class)
-public class RandomStringProducer implements StringProducer {
+@Component(immediate = true, service = {StringProducer.class, ProducerStatistics.class, Readiness.class},
+        property = Readiness.COMPONENT + "=random-producer")
+public class RandomStringProducer implements StringProducer, ProducerStatistics, Readiness {
 
     private static final Logger LOGGER = Logger.getLogger(RandomStringProducer.class.getName());
     private static final String ALPHANUMERIC_CHARS = "ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789";
@@ -24,19 +76,109 @@ public class RandomStringProducer implements StringProducer {
     private static final int MIN_INTERVAL_MS = 1000; // 1 second
     private static final int MAX_INTERVAL_MS = 5000; // 5 seconds
 
-    private final List<StringListener> listeners = new CopyOnWriteArrayList<>();
-    private final SecureRandom random = new SecureRandom();
+    static final String JOURNAL_ENABLED = "journal.enabled";
+    static final String JOURNAL_DIR = "journal.dir";
+    static final String JOURNAL_SEGMENT_SIZE = "journal.segment.size";
+    static final String JOURNAL_MAX_SEGMENTS = "journal.max.segments";
+    private static final String DEFAULT_JOURNAL_DIR = "/tmp/osgi-demo-journal/";
+    private static final int DEFAULT_JOURNAL_SEGMENT_SIZE = 64 * 1024 * 1024;
+    private static final int DEFAULT_JOURNAL_MAX_SEGMENTS = 16;
+
+    static final String PROFILE = "profile";
+    static final String PROFILE_RATE = "profile.rate";
+    static final String PROFILE_SEED = "profile.seed";
+    static final String BURST_SIZE = "burst.size";
+    static final String BURST_RATE = "burst.rate";
+    static final String BURST_IDLE_MS = "burst.idle.ms";
+    static final String RAMP_START_RATE = "ramp.start.rate";
+    static final String RAMP_END_RATE = "ramp.end.rate";
+    static final String RAMP_PERIOD_MS = "ramp.period.ms";
+    static final String TRACE_FILE = "trace.file";
+    static final String TRACE_LOOP = "trace.loop";
+
+    static final String SLAB_ENABLED = "slab.enabled";
+    static final String SLAB_SLOTS = "slab.slots";
+    static final String SLAB_SLOT_SIZE = "slab.slot.size";
+    static final String SLAB_LEAK_DETECTION = "slab.leak.detection";
+
+    static final String LISTENER_FAILURE_THRESHOLD = "listener.failure.threshold";
+    static final String LISTENER_SLOW_CALL_MS = "listener.slow.call.ms";
+    static final String LISTENER_OPEN_MS = "listener.open.ms";
+    static final String LISTENER_WATCHDOG_MS = "listener.watchdog.ms";
+    static final String LISTENER_WATCHDOG_MAX_ABANDONED = "listener.watchdog.max.abandoned";
+
+    static final String LOG_SAMPLE_EVERY = "log.sample.every";
+    static final String LOG_SUMMARY_INTERVAL = "log.summary.interval.s";
+
+    /** Thrown, without a stack trace, out of a listener call that the watchdog gave up on. */
+    private static final AbandonedException ABANDONED = new AbandonedException();
+
+    private final List<Guarded<StringListener>> listeners = new CopyOnWriteArrayList<>();
+    private final List<DurableListener> durableListeners = new CopyOnWriteArrayList<>();
+    private final Queue<DurableListener> pendingCatchUps = new ConcurrentLinkedQueue<>();
+    private final List<Guarded<PayloadListener>> payloadListeners = new CopyOnWriteArrayList<>();
+    private final List<Thread> abandonedThreads = new CopyOnWriteArrayList<>();
+    private final AtomicLong callIds = new AtomicLong();
+    /** Id of the listener call in progress, 0 if none, or -1 once the watchdog abandoned it. */
+    private final AtomicLong activeCall = new AtomicLong();
+    private volatile CircuitBreaker activeBreaker;
+    private volatile int failureThreshold = 5;
+    private volatile long slowCallNanos = TimeUnit.SECONDS.toNanos(1);
+    private volatile long openNanos = TimeUnit.SECONDS.toNanos(30);
+    private long watchdogNanos;
+    private int maxAbandonedThreads;
+    private int replacements;
+    private long watchedCall;
+    private long watchedSince;
+    /** A call the watchdog left running because too many abandoned threads are still stuck. */
+    private long keptCall;
+    private ScheduledExecutorService watchdog;
+    private volatile SampledLog generatedLog = new SampledLog(LOGGER, "Generated", 1, 10);
+    private SecureRandom random;
+    private ArrivalProcess arrivals;
+    private volatile CountDownLatch ready = new CountDownLatch(1);
+    private volatile boolean journalEnabled;
     private volatile boolean running = false;
-    private Thread producerThread;
+    private volatile Thread producerThread;
+    private volatile EventJournal journal;
+    private volatile ConsumerOffsetStore offsets;
+    private volatile PayloadSlab slab;
+
+    /**
+     * Activates the producer service with default configuration.
+     */
+    public void activate() {
+        activate(Collections.emptyMap());
+    }
 
     /**
      * Activates the producer service and starts the background thread.
+     * @param properties the component configuration
      */
     @Activate
-    public void activate() {
+    public void activate(Map<String, Object> properties) {
+        ComponentConfig config = new ComponentConfig(properties);
+        journalEnabled = config.getBoolean(JOURNAL_ENABLED, false);
+        configureBreakers(config);
+        generatedLog.close();
+        generatedLog = new SampledLog(LOGGER, "Generated", config.getLong(LOG_SAMPLE_EVERY, 1),
+                config.getLong(LOG_SUMMARY_INTERVAL, 10));
+        ready = new CountDownLatch(1);
         running = true;
-        producerThread = new Thread(this::generateStrings, "RandomStringProducer");
+        producerThread = new Thread(() -> generateStrings(config), "RandomStringProducer");
         producerThread.start();
+        watchdogNanos = TimeUnit.MILLISECONDS.toNanos(config.getLong(LISTENER_WATCHDOG_MS, 10_000));
+        maxAbandonedThreads = config.getInt(LISTENER_WATCHDOG_MAX_ABANDONED, 8);
+        replacements = 0;
+        if (watchdogNanos > 0) {
+            long tick = Math.max(TimeUnit.MILLISECONDS.toNanos(10), watchdogNanos / 4);
+            watchdog = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "RandomStringProducer-watchdog");
+                thread.setDaemon(true);
+                return thread;
+            });
+            watchdog.scheduleWithFixedDelay(this::checkForHungListener, tick, tick, TimeUnit.NANOSECONDS);
+        }
         LOGGER.info("Random string producer activated");
     }
 
@@ -45,27 +187,64 @@ public class RandomStringProducer implements StringProducer {
      */
     @Deactivate
     public void deactivate() {
+        // Stop the watchdog first so it cannot start a replacement thread behind our back
+        if (watchdog != null) {
+            watchdog.shutdownNow();
+            watchdog = null;
+        }
         running = false;
-        if (producerThread != null) {
-            producerThread.interrupt();
+        Thread thread = producerThread;
+        if (thread != null) {
+            thread.interrupt();
             try {
-                producerThread.join(1000); // Wait up to 1 second for the thread to finish
+                thread.join(1000); // Wait up to 1 second for the thread to finish
             } catch (InterruptedException e) {
                 Thread.currentThread().interrupt();
                 LOGGER.warning("Interrupted while waiting for producer thread to finish");
             }
         }
+        for (Thread abandoned : abandonedThreads) {
+            abandoned.interrupt();
+        }
+        abandonedThreads.clear();
         listeners.clear();
+        durableListeners.clear();
+        pendingCatchUps.clear();
+        payloadListeners.clear();
+        PayloadSlab currentSlab = slab;
+        if (currentSlab != null && currentSlab.getInUseCount() > 0) {
+            LOGGER.warning(currentSlab.getInUseCount() + " pooled payload(s) were never released: "
+                    + currentSlab.findLeaks());
+        }
+        generatedLog.close();
         LOGGER.info("Random string producer deactivated");
     }
 
+    /**
+     * {@inheritDoc}
+     * <p>
+     * The producer is ready once its thread has finished warming up and produces strings.
+     */
+    @Override
+    public boolean isReady() {
+        return ready.getCount() == 0;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean awaitReady(long timeout, TimeUnit unit) throws InterruptedException {
+        return ready.await(timeout, unit);
+    }
+
     /**
      * {@inheritDoc}
      */
     @Override
     public void addListener(StringListener listener) {
         if (listener != null) {
-            listeners.add(listener);
+            listeners.add(new Guarded<>(listener, newBreaker(nameOf(listener))));
             LOGGER.info("Added string listener: " + listener.getClass().getSimpleName());
         }
     }
@@ -76,32 +255,167 @@ public class RandomStringProducer implements StringProducer {
     @Override
     public void removeListener(StringListener listener) {
         if (listener != null) {
-            listeners.remove(listener);
+            listeners.removeIf(guarded -> guarded.delegate == listener);
+            durableListeners.removeIf(durable -> durable.delegate == listener);
+            pendingCatchUps.removeIf(durable -> durable.delegate == listener);
             LOGGER.info("Removed string listener: " + listener.getClass().getSimpleName());
         }
     }
 
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void addPayloadListener(PayloadListener listener) {
+        if (listener != null) {
+            payloadListeners.add(new Guarded<>(listener, newBreaker(nameOf(listener))));
+            LOGGER.info("Added payload listener: " + listener.getClass().getSimpleName());
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void removePayloadListener(PayloadListener listener) {
+        if (listener != null && payloadListeners.removeIf(guarded -> guarded.delegate == listener)) {
+            LOGGER.info("Removed payload listener: " + listener.getClass().getSimpleName());
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Entries are named after the listener's class or, for durable listeners, its consumer id.
+     */
+    @Override
+    public List<ListenerStats> getListenerStats() {
+        List<ListenerStats> stats = new ArrayList<>();
+        for (Guarded<StringListener> listener : listeners) {
+            stats.add(listener.breaker.snapshot());
+        }
+        for (DurableListener listener : durableListeners) {
+            stats.add(listener.breaker.snapshot());
+        }
+        for (Guarded<PayloadListener> listener : payloadListeners) {
+            stats.add(listener.breaker.snapshot());
+        }
+        return stats;
+    }
+
+    /**
+     * @return the payload slab, or {@code null} unless {@code slab.enabled} is set and warm-up has run
+     */
+    PayloadSlab getPayloadSlab() {
+        return slab;
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Without a journal the listener is registered as a plain listener.
+     */
+    @Override
+    public void addDurableListener(String consumerId, StringListener listener) {
+        if (listener == null) {
+            return;
+        }
+        if (!journalEnabled || consumerId == null) {
+            addListener(listener);
+            return;
+        }
+        DurableListener durable = new DurableListener(consumerId, listener, newBreaker(consumerId));
+        durableListeners.add(durable);
+        pendingCatchUps.add(durable);
+        Thread thread = producerThread;
+        if (thread != null) {
+            LockSupport.unpark(thread);
+        }
+        LOGGER.info("Added durable string listener " + consumerId + ": " + listener.getClass().getSimpleName());
+    }
+
     /**
      * Main loop that generates random strings at random intervals.
+     * The thread owns the journal: it opens it while warming up and closes it on exit,
+     * unless it has been abandoned to a replacement thread by the watchdog.
+     * @param config the component configuration, or {@code null} for a replacement thread,
+     *               which takes over the resources of the thread it replaces
      */
-    private void generateStrings() {
-        while (running && !Thread.currentThread().isInterrupted()) {
+    private void generateStrings(ComponentConfig config) {
+        try {
+            if (config != null) {
+                warmUp(config);
+            }
+            produce();
+        } finally {
+            if (Thread.currentThread() == producerThread) {
+                if (arrivals != null) {
+                    arrivals.close();
+                }
+                closeJournal();
+            }
+        }
+        LOGGER.info("String generation loop terminated");
+    }
+
+    /**
+     * Creates the expensive resources that activation must not block on.
+     * @param config the component configuration
+     */
+    private void warmUp(ComponentConfig config) {
+        long start = System.nanoTime();
+        random = new SecureRandom();
+        random.nextInt(); // force seeding now rather than on the first string
+        if (journalEnabled) {
+            openJournal(config);
+        }
+        arrivals = createArrivalProcess(config);
+        slab = config.getBoolean(SLAB_ENABLED, false)
+                ? new PayloadSlab(config.getInt(SLAB_SLOTS, 1024), config.getInt(SLAB_SLOT_SIZE, 64),
+                        config.getBoolean(SLAB_LEAK_DETECTION, false))
+                : null;
+        ready.countDown();
+        LOGGER.info("Random string producer ready after "
+                + TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) + " ms");
+    }
+
+    private void produce() {
+        long nextArrival = System.nanoTime();
+        while (running && !Thread.currentThread().isInterrupted() && Thread.currentThread() == producerThread) {
             try {
-                String randomString = generateRandomString();
-                LOGGER.info("Generated string: " + randomString);
-                notifyListeners(randomString);
+                resumeSuspendedListeners(System.nanoTime());
+                drainPendingCatchUps();
+                PayloadSlab currentSlab = slab;
+                if (currentSlab != null) {
+                    producePooled(currentSlab);
+                } else {
+                    GenerationEvent generation = new GenerationEvent();
+                    generation.begin();
+                    String randomString = generateRandomString();
+                    generation.complete(randomString.length(), false);
+                    if (generatedLog.event()) {
+                        LOGGER.info("Generated string: " + randomString);
+                    }
+                    notifyListeners(randomString, null);
+                }
 
-                int waitTime = MIN_INTERVAL_MS + random.nextInt(MAX_INTERVAL_MS - MIN_INTERVAL_MS + 1);
-                Thread.sleep(waitTime);
+                long delay = nextDelayNanos();
+                if (delay < 0) {
+                    LOGGER.info("Traffic profile ended, no more strings will be produced");
+                    break;
+                }
+                nextArrival += delay;
+                pauseUntil(nextArrival);
             } catch (InterruptedException e) {
                 Thread.currentThread().interrupt();
                 running = false;
                 break;
+            } catch (AbandonedException e) {
+                return;
             } catch (Exception e) {
                 LOGGER.severe("Error in string generation loop: " + e.getMessage());
             }
         }
-        LOGGER.info("String generation loop terminated");
     }
 
     /**
@@ -109,7 +423,10 @@ public class RandomStringProducer implements StringProducer {
      * @return the generated string
      */
     private String generateRandomString() {
-        int length = MIN_LENGTH + random.nextInt(MAX_LENGTH - MIN_LENGTH + 1);
+        return generateRandomString(MIN_LENGTH + random.nextInt(MAX_LENGTH - MIN_LENGTH + 1));
+    }
+
+    private String generateRandomString(int length) {
         StringBuilder sb = new StringBuilder(length);
         for (int i = 0; i < length; i++) {
             int index = random.nextInt(ALPHANUMERIC_CHARS.length());
@@ -118,16 +435,459 @@ public class RandomStringProducer implements StringProducer {
         return sb.toString();
     }
 
+    /**
+     * Generates a string directly into a slab slot and publishes it. If the slab has no
+     * free slot, the string is generated on the heap instead.
+     * @param currentSlab the slab to take the slot from
+     */
+    private void producePooled(PayloadSlab currentSlab) {
+        GenerationEvent generation = new GenerationEvent();
+        generation.begin();
+        int length = MIN_LENGTH + random.nextInt(MAX_LENGTH - MIN_LENGTH + 1);
+        PayloadSlab.Slot slot = currentSlab.acquire(length);
+        if (slot == null) {
+            String randomString = generateRandomString(length);
+            generation.complete(length, false);
+            if (generatedLog.event()) {
+                LOGGER.info("Generated string: " + randomString);
+            }
+            notifyListeners(randomString, null);
+            return;
+        }
+        try {
+            ByteBuffer buffer = slot.buffer();
+            for (int i = 0; i < length; i++) {
+                buffer.put(i, (byte) ALPHANUMERIC_CHARS.charAt(random.nextInt(ALPHANUMERIC_CHARS.length())));
+            }
+            generation.complete(length, true);
+            String value = null;
+            if (generatedLog.event()) {
+                value = slot.asString();
+                LOGGER.info("Generated string: " + value);
+            }
+            notifyListeners(value, slot);
+        } finally {
+            slot.release();
+        }
+    }
+
     /**
      * Notifies all registered listeners about the generated string.
-     * @param value the generated string
+     * @param value the generated string, or {@code null} to decode it from the payload when a listener needs it
+     * @param payload the encoded string, or {@code null} if it only exists as {@code value}
      */
-    private void notifyListeners(String value) {
-        for (StringListener listener : listeners) {
+    private void notifyListeners(String value, PayloadHandle payload) {
+        EventJournal currentJournal = journal;
+        long sequence = 0;
+        if (currentJournal != null) {
+            try {
+                sequence = payload != null ? currentJournal.append(payload.payload()) : currentJournal.append(value);
+            } catch (IOException e) {
+                LOGGER.warning("Failed to journal string: " + e.getMessage());
+            }
+        }
+        if (!payloadListeners.isEmpty()) {
+            if (payload != null) {
+                notifyPayloadListeners(payload);
+            } else {
+                PayloadHandle heap = PayloadHandle.of(value);
+                notifyPayloadListeners(heap);
+                heap.release();
+            }
+        }
+        for (Guarded<StringListener> listener : listeners) {
+            DispatchEvent dispatch = new DispatchEvent();
+            dispatch.begin();
+            long start = System.nanoTime();
+            long call = beginCall(listener.breaker, start);
+            if (call == 0) {
+                dispatch.complete(listener.breaker.getName(), "string", 0, DispatchEvent.SKIPPED);
+                continue;
+            }
+            if (value == null) {
+                value = payload.asString();
+            }
+            boolean failed = false;
             try {
-                listener.onStringGenerated(value);
+                listener.delegate.onStringGenerated(value);
             } catch (Exception e) {
-                LOGGER.warning("Error notifying listener " + listener.getClass().getSimpleName() + ": " + e.getMessage());
+                failed = true;
+                LOGGER.warning("Error notifying listener " + listener.breaker.getName() + ": " + e.getMessage());
+            }
+            endCall(listener.breaker, call, start, failed);
+            dispatch.complete(listener.breaker.getName(), "string", value.length(),
+                    failed ? DispatchEvent.FAILED : DispatchEvent.DELIVERED);
+        }
+        for (DurableListener listener : durableListeners) {
+            if (listener.caughtUp) {
+                if (value == null) {
+                    value = payload.asString();
+                }
+                listener.deliver(sequence, value);
+            }
+        }
+    }
+
+    private void notifyPayloadListeners(PayloadHandle payload) {
+        for (Guarded<PayloadListener> listener : payloadListeners) {
+            DispatchEvent dispatch = new DispatchEvent();
+            dispatch.begin();
+            long start = System.nanoTime();
+            long call = beginCall(listener.breaker, start);
+            if (call == 0) {
+                dispatch.complete(listener.breaker.getName(), "payload", 0, DispatchEvent.SKIPPED);
+                continue;
+            }
+            boolean failed = false;
+            try {
+                listener.delegate.onPayload(payload);
+            } catch (Exception e) {
+                failed = true;
+                LOGGER.warning("Error notifying payload listener " + listener.breaker.getName() + ": " + e.getMessage());
+            }
+            endCall(listener.breaker, call, start, failed);
+            dispatch.complete(listener.breaker.getName(), "payload", payload.length(),
+                    failed ? DispatchEvent.FAILED : DispatchEvent.DELIVERED);
+        }
+    }
+
+    /**
+     * Admits a listener call through its breaker and marks it as the call the watchdog watches.
+     * @param breaker the breaker of the listener about to be called
+     * @param now the current {@link System#nanoTime()}
+     * @return the id to pass to {@link #endCall(CircuitBreaker, long, long, boolean)},
+     *         or 0 if the breaker is open and the listener must be skipped
+     */
+    private long beginCall(CircuitBreaker breaker, long now) {
+        if (!breaker.tryAcquire(now)) {
+            return 0;
+        }
+        activeBreaker = breaker;
+        long call = callIds.incrementAndGet();
+        activeCall.set(call);
+        return call;
+    }
+
+    /**
+     * Records the outcome of a listener call. If the watchdog gave up on the call while it
+     * was running, this thread has been replaced and leaves through {@link AbandonedException}.
+     * @param breaker the breaker the call was admitted by
+     * @param call the id returned by {@link #beginCall(CircuitBreaker, long)}
+     * @param start the {@link System#nanoTime()} the call started at
+     * @param failed whether the listener threw
+     */
+    private void endCall(CircuitBreaker breaker, long call, long start, boolean failed) {
+        long end = System.nanoTime();
+        breaker.callEnded(end, end - start, failed);
+        if (!activeCall.compareAndSet(call, 0)) {
+            throw ABANDONED;
+        }
+    }
+
+    /**
+     * Runs on the watchdog thread: trips the breaker of a listener call that has been running
+     * for longer than the watchdog budget and hands production over to a new thread, unless
+     * {@link #maxAbandonedThreads} earlier threads are still stuck; then the call is left running.
+     */
+    private void checkForHungListener() {
+        long call = activeCall.get();
+        long now = System.nanoTime();
+        if (call <= 0 || call != watchedCall) {
+            watchedCall = call;
+            watchedSince = now;
+            return;
+        }
+        if (now - watchedSince < watchdogNanos || call == keptCall) {
+            return;
+        }
+        abandonedThreads.removeIf(thread -> !thread.isAlive());
+        if (abandonedThreads.size() >= maxAbandonedThreads) {
+            keptCall = call;
+            activeBreaker.trip(now, "no return within " + TimeUnit.NANOSECONDS.toMillis(watchdogNanos) + " ms");
+            LOGGER.severe(abandonedThreads.size() + " abandoned producer thread(s) are still stuck in listeners,"
+                    + " waiting for " + producerThread.getName() + " instead of replacing it");
+            return;
+        }
+        // The compare-and-set also tells endCall that its thread has been abandoned
+        if (!activeCall.compareAndSet(call, -1)) {
+            return;
+        }
+        activeBreaker.trip(now, "no return within " + TimeUnit.NANOSECONDS.toMillis(watchdogNanos) + " ms");
+        replaceProducerThread();
+    }
+
+    /**
+     * Abandons the producer thread, which is stuck inside a listener, and starts a new one.
+     * The string being delivered is lost for plain listeners; durable listeners are replayed
+     * from their committed offsets, so they miss nothing.
+     */
+    private synchronized void replaceProducerThread() {
+        if (!running) {
+            return;
+        }
+        Thread stuck = producerThread;
+        abandonedThreads.add(stuck);
+        for (DurableListener listener : durableListeners) {
+            listener.caughtUp = false;
+            if (!pendingCatchUps.contains(listener)) {
+                pendingCatchUps.add(listener);
+            }
+        }
+        Thread replacement = new Thread(() -> generateStrings(null),
+                "RandomStringProducer-" + ++replacements);
+        producerThread = replacement;
+        replacement.start();
+        // The listener may be waiting interruptibly; if not, the thread leaves once it returns
+        stuck.interrupt();
+        LOGGER.warning("Producer thread " + stuck.getName() + " is stuck in a listener, continuing on "
+                + replacement.getName() + "; " + abandonedThreads.size() + " abandoned thread(s) still stuck");
+    }
+
+    /**
+     * Puts suspended durable listeners back in the catch-up queue once their breaker lets calls
+     * through again: at once after a failure that did not open it, otherwise when a probe is due.
+     * The first replayed string is the retried or probe call.
+     * @param now the current {@link System#nanoTime()}
+     */
+    private void resumeSuspendedListeners(long now) {
+        for (DurableListener listener : durableListeners) {
+            if (listener.suspended && (listener.breaker.getState() == CircuitBreaker.State.CLOSED
+                    || listener.breaker.isProbeDue(now))) {
+                listener.suspended = false;
+                pendingCatchUps.add(listener);
+            }
+        }
+    }
+
+    private void configureBreakers(ComponentConfig config) {
+        failureThreshold = config.getInt(LISTENER_FAILURE_THRESHOLD, 5);
+        slowCallNanos = TimeUnit.MILLISECONDS.toNanos(config.getLong(LISTENER_SLOW_CALL_MS, 1000));
+        openNanos = TimeUnit.MILLISECONDS.toNanos(config.getLong(LISTENER_OPEN_MS, 30_000));
+        // Listeners may have registered before activation
+        for (Guarded<StringListener> listener : listeners) {
+            listener.breaker.configure(failureThreshold, slowCallNanos, openNanos);
+        }
+        for (DurableListener listener : durableListeners) {
+            listener.breaker.configure(failureThreshold, slowCallNanos, openNanos);
+        }
+        for (Guarded<PayloadListener> listener : payloadListeners) {
+            listener.breaker.configure(failureThreshold, slowCallNanos, openNanos);
+        }
+    }
+
+    private CircuitBreaker newBreaker(String name) {
+        return new CircuitBreaker(name, failureThreshold, slowCallNanos, openNanos);
+    }
+
+    private static String nameOf(Object listener) {
+        String name = listener.getClass().getSimpleName();
+        return name.isEmpty() ? listener.getClass().getName() : name;
+    }
+
+    /**
+     * @return nanoseconds until the next string, or a negative value if the traffic profile
+     *         is exhausted or its trace cannot be read
+     */
+    private long nextDelayNanos() {
+        try {
+            return arrivals.nextDelayNanos();
+        } catch (IOException e) {
+            LOGGER.severe("Failed to read traffic profile: " + e.getMessage());
+            return -1;
+        }
+    }
+
+    /**
+     * Sleeps until the given time, waking early to serve durable listeners waiting for catch-up.
+     * Returns at once if the deadline has already passed, i.e. the producer is running behind.
+     * @param deadline the {@link System#nanoTime()} to wait for
+     * @throws InterruptedException if the producer thread is interrupted
+     */
+    private void pauseUntil(long deadline) throws InterruptedException {
+        long remaining;
+        while ((remaining = deadline - System.nanoTime()) > 0) {
+            LockSupport.parkNanos(this, remaining);
+            if (Thread.interrupted()) {
+                throw new InterruptedException();
+            }
+            drainPendingCatchUps();
+        }
+    }
+
+    /**
+     * Replays the journal to newly registered durable listeners and then makes them live.
+     * Runs on the producer thread, so no string can be appended while a replay is in progress.
+     */
+    private void drainPendingCatchUps() {
+        DurableListener listener;
+        while ((listener = pendingCatchUps.poll()) != null) {
+            EventJournal currentJournal = journal;
+            // Without an open journal (disabled or failed to open) the listener simply goes live
+            if (currentJournal != null && durableListeners.contains(listener)) {
+                try {
+                    long offset = offsets.get(listener.consumerId);
+                    if (offset + 1 < currentJournal.firstSequence()) {
+                        LOGGER.warning("Consumer " + listener.consumerId + " is behind the journal retention, "
+                                + "strings " + (offset + 1) + "-" + (currentJournal.firstSequence() - 1) + " are lost");
+                    }
+                    long replayed = currentJournal.replay(offset, listener::deliver);
+                    LOGGER.info("Replayed " + replayed + " string(s) to consumer " + listener.consumerId);
+                } catch (IOException e) {
+                    LOGGER.warning("Failed to replay journal to consumer " + listener.consumerId + ": " + e.getMessage());
+                }
+            }
+            // A listener whose breaker opened during the replay waits in resumeSuspendedListeners
+            listener.caughtUp = !listener.suspended;
+        }
+    }
+
+    /**
+     * Creates the arrival process selected by the {@code profile} property.
+     * An invalid profile falls back to the default uniform interval rather than stopping production.
+     * @param config the component configuration
+     * @return the arrival process
+     */
+    private ArrivalProcess createArrivalProcess(ComponentConfig config) {
+        String profile = config.getString(PROFILE, "uniform");
+        try {
+            SplittableRandom seeded = new SplittableRandom(config.getLong(PROFILE_SEED, random.nextLong()));
+            double rate = config.getDouble(PROFILE_RATE, 1.0);
+            switch (profile) {
+                case "uniform":
+                    return new ArrivalProcess.Uniform(random, MIN_INTERVAL_MS, MAX_INTERVAL_MS);
+                case "constant":
+                    return new ArrivalProcess.Constant(rate);
+                case "poisson":
+                    return new ArrivalProcess.Poisson(rate, seeded);
+                case "burst":
+                    return new ArrivalProcess.Burst(config.getInt(BURST_SIZE, 100), config.getDouble(BURST_RATE, 1000.0),
+                            TimeUnit.MILLISECONDS.toNanos(config.getLong(BURST_IDLE_MS, 10_000)));
+                case "ramp":
+                    return new ArrivalProcess.Ramp(config.getDouble(RAMP_START_RATE, 1.0),
+                            config.getDouble(RAMP_END_RATE, 100.0),
+                            TimeUnit.MILLISECONDS.toNanos(config.getLong(RAMP_PERIOD_MS, 60_000)));
+                case "trace":
+                    String file = config.getString(TRACE_FILE, null);
+                    if (file == null) {
+                        throw new IllegalArgumentException("profile 'trace' requires " + TRACE_FILE);
+                    }
+                    return new TraceReplay(Paths.get(file), config.getBoolean(TRACE_LOOP, false));
+                default:
+                    throw new IllegalArgumentException("unknown profile");
+            }
+        } catch (IOException | RuntimeException e) {
+            LOGGER.severe("Invalid traffic profile '" + profile + "', using the default interval: " + e.getMessage());
+            return new ArrivalProcess.Uniform(random, MIN_INTERVAL_MS, MAX_INTERVAL_MS);
+        }
+    }
+
+    private void openJournal(ComponentConfig config) {
+        Path directory = Paths.get(config.getString(JOURNAL_DIR, DEFAULT_JOURNAL_DIR));
+        try {
+            journal = new EventJournal(directory.resolve("segments"),
+                    config.getInt(JOURNAL_SEGMENT_SIZE, DEFAULT_JOURNAL_SEGMENT_SIZE),
+                    config.getInt(JOURNAL_MAX_SEGMENTS, DEFAULT_JOURNAL_MAX_SEGMENTS));
+            offsets = new ConsumerOffsetStore(directory.resolve("offsets"));
+            LOGGER.info("Event journal opened in " + directory);
+        } catch (IOException | RuntimeException e) {
+            LOGGER.severe("Failed to open event journal, continuing without it: " + e.getMessage());
+            closeJournal();
+        }
+    }
+
+    private void closeJournal() {
+        if (journal != null) {
+            journal.close();
+            journal = null;
+        }
+        if (offsets != null) {
+            offsets.close();
+            offsets = null;
+        }
+    }
+
+    /**
+     * A listener together with the breaker guarding calls to it.
+     */
+    private static final class Guarded<L> {
+        private final L delegate;
+        private final CircuitBreaker breaker;
+
+        Guarded(L delegate, CircuitBreaker breaker) {
+            this.delegate = delegate;
+            this.breaker = breaker;
+        }
+    }
+
+    /**
+     * Unwinds a producer thread that the watchdog has replaced.
+     */
+    private static final class AbandonedException extends RuntimeException {
+        private static final long serialVersionUID = 1L;
+
+        AbandonedException() {
+            super("producer thread abandoned", null, false, false);
+        }
+    }
+
+    /**
+     * A listener whose journal offset is committed after every successful delivery.
+     * It only receives live strings once its journal replay has completed.
+     * <p>
+     * After a failed call, and while its breaker is open, the listener is suspended rather than
+     * skipped: nothing is committed, and once its breaker lets calls through again it catches up
+     * from its last committed offset, starting with the string it failed on.
+     */
+    private final class DurableListener {
+        private final String consumerId;
+        private final StringListener delegate;
+        private final CircuitBreaker breaker;
+        private volatile boolean caughtUp;
+        private volatile boolean suspended;
+
+        DurableListener(String consumerId, StringListener delegate, CircuitBreaker breaker) {
+            this.consumerId = consumerId;
+            this.delegate = delegate;
+            this.breaker = breaker;
+        }
+
+        void deliver(long sequence, String value) {
+            if (suspended) {
+                return;
+            }
+            DispatchEvent dispatch = new DispatchEvent();
+            dispatch.begin();
+            long start = System.nanoTime();
+            long call = beginCall(breaker, start);
+            if (call == 0) {
+                suspended = true;
+                caughtUp = false;
+                dispatch.complete(consumerId, "durable", 0, DispatchEvent.SKIPPED);
+                return;
+            }
+            boolean failed = false;
+            try {
+                delegate.onStringGenerated(value);
+            } catch (Exception e) {
+                failed = true;
+                LOGGER.warning("Error notifying listener " + consumerId + ": " + e.getMessage());
+            }
+            endCall(breaker, call, start, failed);
+            dispatch.complete(consumerId, "durable", value.length(),
+                    failed ? DispatchEvent.FAILED : DispatchEvent.DELIVERED);
+            if (failed) {
+                // Keep the offset before this string so that the next catch-up replays it
+                suspended = true;
+                caughtUp = false;
+                return;
+            }
+            ConsumerOffsetStore store = offsets;
+            if (sequence > 0 && store != null) {
+                try {
+                    store.commit(consumerId, sequence);
+                } catch (IOException e) {
+                    LOGGER.warning("Failed to commit offset of consumer " + consumerId + ": " + e.getMessage());
+                }
             }
         }
     }
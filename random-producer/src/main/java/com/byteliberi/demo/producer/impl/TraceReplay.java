@@ -0,0 +1,78 @@
+package com.byteliberi.demo.producer.impl;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.logging.Logger;
+
+/**
+ * Replays inter-arrival times recorded in a text file, one delay in milliseconds per line
+ * (fractions allowed, blank lines and lines starting with {@code #} ignored).
+ * <p>
+ * The file is streamed, never loaded whole, so traces may be arbitrarily long. At the end
+ * of the file the replay either starts over or reports exhaustion, which stops production.
+ */
+final class TraceReplay implements ArrivalProcess {
+
+    private static final Logger LOGGER = Logger.getLogger(TraceReplay.class.getName());
+
+    private final Path file;
+    private final boolean loop;
+    private BufferedReader reader;
+    private long lineNumber;
+
+    /**
+     * @param file the trace file
+     * @param loop whether to start over at the end of the file
+     * @throws IOException if the file cannot be opened
+     */
+    TraceReplay(Path file, boolean loop) throws IOException {
+        this.file = file;
+        this.loop = loop;
+        this.reader = Files.newBufferedReader(file, StandardCharsets.UTF_8);
+    }
+
+    @Override
+    public long nextDelayNanos() throws IOException {
+        boolean restarted = false;
+        while (true) {
+            String line = reader.readLine();
+            if (line == null) {
+                if (!loop || restarted) {
+                    LOGGER.info("Trace " + file + " exhausted after " + lineNumber + " line(s)");
+                    return -1;
+                }
+                reader.close();
+                reader = Files.newBufferedReader(file, StandardCharsets.UTF_8);
+                lineNumber = 0;
+                restarted = true;
+                continue;
+            }
+            lineNumber++;
+            line = line.trim();
+            if (line.isEmpty() || line.startsWith("#")) {
+                continue;
+            }
+            try {
+                double millis = Double.parseDouble(line);
+                if (millis < 0) {
+                    throw new NumberFormatException("negative delay");
+                }
+                return (long) (millis * 1_000_000);
+            } catch (NumberFormatException e) {
+                throw new IOException("Invalid delay '" + line + "' at " + file + ":" + lineNumber, e);
+            }
+        }
+    }
+
+    @Override
+    public void close() {
+        try {
+            reader.close();
+        } catch (IOException e) {
+            LOGGER.warning("Failed to close trace " + file + ": " + e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package com.byteliberi.demo.producer.api;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the default methods of StringProducer.
+ */
+class StringProducerTest {
+
+    @Test
+    void testAddPayloadListener_defaultDeliversHeapPayloadsThroughPlainListener() {
+        ListProducer producer = new ListProducer();
+        List<String> received = new ArrayList<>();
+        List<PayloadHandle> handles = new ArrayList<>();
+        StringProducer.PayloadListener listener = payload -> {
+            received.add(StandardCharsets.UTF_8.decode(payload.payload()).toString());
+            handles.add(payload);
+        };
+        producer.addPayloadListener(listener);
+        producer.publish("Hello123");
+
+        assertEquals(List.of("Hello123"), received);
+        assertThrows(IllegalStateException.class, handles.get(0)::asString,
+                "The handle is only valid during the callback");
+
+        producer.removePayloadListener(listener);
+        assertTrue(producer.listeners.isEmpty(), "Removal should find the adapter it registered");
+    }
+
+    @Test
+    void testAddPayloadListener_retainedHandleOutlivesTheCallback() {
+        ListProducer producer = new ListProducer();
+        List<PayloadHandle> retained = new ArrayList<>();
+        producer.addPayloadListener(payload -> {
+            payload.retain();
+            retained.add(payload);
+        });
+        producer.publish("World456");
+
+        assertEquals("World456", retained.get(0).asString());
+        retained.get(0).release();
+        assertThrows(IllegalStateException.class, retained.get(0)::release);
+    }
+
+    /**
+     * A producer implementing only plain listeners, as the bridge importer does.
+     */
+    private static final class ListProducer implements StringProducer {
+
+        final List<StringListener> listeners = new CopyOnWriteArrayList<>();
+
+        @Override
+        public void addListener(StringListener listener) {
+            listeners.add(listener);
+        }
+
+        @Override
+        public void removeListener(StringListener listener) {
+            listeners.remove(listener);
+        }
+
+        void publish(String value) {
+            for (StringListener listener : listeners) {
+                listener.onStringGenerated(value);
+            }
+        }
+    }
+}
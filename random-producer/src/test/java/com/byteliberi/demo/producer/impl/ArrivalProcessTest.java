@@ -0,0 +1,91 @@
+package com.byteliberi.demo.producer.impl;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the ArrivalProcess implementations and TraceReplay.
+ */
+class ArrivalProcessTest {
+
+    private static final long MS = TimeUnit.MILLISECONDS.toNanos(1);
+
+    @TempDir
+    private Path tempDir;
+
+    @Test
+    void testConstant_fixedIntervalFromRate() throws IOException {
+        ArrivalProcess process = new ArrivalProcess.Constant(200);
+        assertEquals(5 * MS, process.nextDelayNanos());
+        assertEquals(5 * MS, process.nextDelayNanos());
+        assertThrows(IllegalArgumentException.class, () -> new ArrivalProcess.Constant(0));
+    }
+
+    @Test
+    void testPoisson_meanDelayMatchesRate() throws IOException {
+        ArrivalProcess process = new ArrivalProcess.Poisson(1000, new SplittableRandom(42));
+        long total = 0;
+        int samples = 100_000;
+        for (int i = 0; i < samples; i++) {
+            total += process.nextDelayNanos();
+        }
+        assertEquals(1.0, total / (double) samples / MS, 0.02, "Mean delay should be 1 ms at 1000/s");
+    }
+
+    @Test
+    void testBurst_fastDelaysThenIdleGap() throws IOException {
+        ArrivalProcess process = new ArrivalProcess.Burst(3, 1000, 500 * MS);
+        long[] delays = new long[6];
+        for (int i = 0; i < delays.length; i++) {
+            delays[i] = process.nextDelayNanos();
+        }
+        assertArrayEquals(new long[] {MS, MS, 500 * MS, MS, MS, 500 * MS}, delays);
+    }
+
+    @Test
+    void testRamp_rateRisesAndFallsOverPeriod() {
+        ArrivalProcess.Ramp ramp = new ArrivalProcess.Ramp(10, 110, 1000 * MS);
+        assertEquals(10, ramp.rateAt(0), 1e-9);
+        assertEquals(60, ramp.rateAt(250 * MS), 1e-9);
+        assertEquals(110, ramp.rateAt(500 * MS), 1e-9);
+        assertEquals(60, ramp.rateAt(750 * MS), 1e-9);
+        assertEquals(10, ramp.rateAt(1000 * MS), 1e-9);
+    }
+
+    @Test
+    void testTraceReplay_streamsDelaysAndEnds() throws IOException {
+        Path trace = Files.writeString(tempDir.resolve("trace.txt"), "# recorded gaps\n10\n\n0.5\n250\n");
+        try (TraceReplay replay = new TraceReplay(trace, false)) {
+            assertEquals(10 * MS, replay.nextDelayNanos());
+            assertEquals(MS / 2, replay.nextDelayNanos());
+            assertEquals(250 * MS, replay.nextDelayNanos());
+            assertTrue(replay.nextDelayNanos() < 0, "The replay should end with the file");
+        }
+    }
+
+    @Test
+    void testTraceReplay_loopsAndRejectsInvalidLines() throws IOException {
+        Path trace = Files.writeString(tempDir.resolve("trace.txt"), "1\n2\n");
+        try (TraceReplay replay = new TraceReplay(trace, true)) {
+            for (int i = 0; i < 3; i++) {
+                assertEquals(MS, replay.nextDelayNanos());
+                assertEquals(2 * MS, replay.nextDelayNanos());
+            }
+        }
+
+        Path invalid = Files.writeString(tempDir.resolve("invalid.txt"), "1\nsoon\n");
+        try (TraceReplay replay = new TraceReplay(invalid, false)) {
+            replay.nextDelayNanos();
+            IOException e = assertThrows(IOException.class, replay::nextDelayNanos);
+            assertTrue(e.getMessage().contains(":2"), "The error should name the line: " + e.getMessage());
+        }
+    }
+}
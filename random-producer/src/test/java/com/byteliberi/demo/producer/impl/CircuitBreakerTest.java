@@ -0,0 +1,88 @@
+package com.byteliberi.demo.producer.impl;
+
+import com.byteliberi.demo.producer.api.ListenerStats;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for CircuitBreaker, driven with explicit timestamps.
+ */
+class CircuitBreakerTest {
+
+    private static final long SLOW = TimeUnit.MILLISECONDS.toNanos(100);
+    private static final long OPEN = TimeUnit.SECONDS.toNanos(1);
+
+    private final CircuitBreaker breaker = new CircuitBreaker("test", 3, SLOW, OPEN);
+
+    @Test
+    void testOpensAfterConsecutiveFailures() {
+        call(0, 1, true);
+        call(0, 1, true);
+        call(0, 1, false); // a good call resets the count
+        call(0, 1, true);
+        call(0, 1, true);
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+        call(0, 1, true);
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+
+        assertFalse(breaker.tryAcquire(OPEN - 1), "An open breaker should reject calls");
+        ListenerStats stats = breaker.snapshot();
+        assertEquals(6, stats.getCalls());
+        assertEquals(5, stats.getFailures());
+        assertEquals(1, stats.getRejected());
+        assertEquals(1, stats.getTrips());
+    }
+
+    @Test
+    void testSlowCallsCountAsFailures() {
+        for (int i = 0; i < 3; i++) {
+            call(0, SLOW + 1, false);
+        }
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+        assertEquals(3, breaker.snapshot().getSlowCalls());
+        assertEquals(TimeUnit.NANOSECONDS.toMillis(SLOW + 1), breaker.snapshot().getMaxLatency(TimeUnit.MILLISECONDS));
+    }
+
+    @Test
+    void testHalfOpenProbeClosesOnSuccess() {
+        breaker.trip(0, "test");
+        assertFalse(breaker.isProbeDue(OPEN - 1));
+        assertTrue(breaker.isProbeDue(OPEN));
+
+        assertTrue(breaker.tryAcquire(OPEN));
+        assertEquals(CircuitBreaker.State.HALF_OPEN, breaker.getState());
+        assertFalse(breaker.tryAcquire(OPEN), "Only one probe at a time");
+        breaker.callEnded(OPEN, 1, false);
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+    }
+
+    @Test
+    void testHalfOpenProbeReopensOnFailure() {
+        breaker.trip(0, "test");
+        assertTrue(breaker.tryAcquire(OPEN));
+        breaker.callEnded(OPEN, 1, true);
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+        assertFalse(breaker.tryAcquire(2 * OPEN - 1), "The open period should restart after a failed probe");
+        assertEquals(2, breaker.snapshot().getTrips());
+    }
+
+    @Test
+    void testNoProbeWhileATrippedCallIsStillRunning() {
+        assertTrue(breaker.tryAcquire(0));
+        breaker.trip(0, "hung"); // what the watchdog does
+        assertFalse(breaker.isProbeDue(OPEN));
+        assertFalse(breaker.tryAcquire(OPEN));
+
+        breaker.callEnded(OPEN, OPEN, false);
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState(), "A late return must not close the breaker");
+        assertTrue(breaker.isProbeDue(OPEN));
+    }
+
+    private void call(long now, long latency, boolean failed) {
+        assertTrue(breaker.tryAcquire(now));
+        breaker.callEnded(now + latency, latency, failed);
+    }
+}
@@ -0,0 +1,100 @@
+package com.byteliberi.demo.producer.impl;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for EventJournal and ConsumerOffsetStore.
+ */
+class EventJournalTest {
+
+    @TempDir
+    private Path tempDir;
+
+    @Test
+    void testAppend_assignsIncreasingSequences() throws IOException {
+        try (EventJournal journal = new EventJournal(tempDir, 4096, 4)) {
+            assertEquals(0, journal.lastSequence(), "Empty journal should have no last sequence");
+            assertEquals(1, journal.append("first"));
+            assertEquals(2, journal.append("second"));
+            assertEquals(2, journal.lastSequence());
+        }
+    }
+
+    @Test
+    void testReplay_deliversOnlyRecordsAfterOffset() throws IOException {
+        try (EventJournal journal = new EventJournal(tempDir, 4096, 4)) {
+            for (int i = 1; i <= 5; i++) {
+                journal.append("value" + i);
+            }
+            List<String> replayed = new ArrayList<>();
+            long count = journal.replay(3, (sequence, value) -> replayed.add(sequence + ":" + value));
+
+            assertEquals(2, count);
+            assertEquals(List.of("4:value4", "5:value5"), replayed);
+        }
+    }
+
+    @Test
+    void testReopen_recoversTail() throws IOException {
+        try (EventJournal journal = new EventJournal(tempDir, 4096, 4)) {
+            journal.append("before-restart-1");
+            journal.append("before-restart-2");
+        }
+        try (EventJournal journal = new EventJournal(tempDir, 4096, 4)) {
+            assertEquals(2, journal.lastSequence(), "Reopened journal should continue after the last record");
+            assertEquals(3, journal.append("after-restart"));
+
+            List<String> replayed = new ArrayList<>();
+            journal.replay(0, (sequence, value) -> replayed.add(value));
+            assertEquals(List.of("before-restart-1", "before-restart-2", "after-restart"), replayed);
+        }
+    }
+
+    @Test
+    void testRoll_retainsOnlyMaxSegments() throws IOException {
+        // 64-byte segments hold two 29-byte records each
+        try (EventJournal journal = new EventJournal(tempDir, 64, 2)) {
+            for (int i = 0; i < 10; i++) {
+                journal.append(String.format("record-%010d", i));
+            }
+            try (Stream<Path> files = Files.list(tempDir)) {
+                assertEquals(2, files.count(), "Old segments should be deleted");
+            }
+            assertEquals(7, journal.firstSequence());
+
+            List<Long> sequences = new ArrayList<>();
+            journal.replay(0, (sequence, value) -> sequences.add(sequence));
+            assertEquals(List.of(7L, 8L, 9L, 10L), sequences);
+        }
+    }
+
+    @Test
+    void testAppend_rejectsRecordLargerThanSegment() throws IOException {
+        try (EventJournal journal = new EventJournal(tempDir, 64, 2)) {
+            assertThrows(IOException.class, () -> journal.append("x".repeat(100)));
+        }
+    }
+
+    @Test
+    void testOffsetStore_persistsCommits() throws IOException {
+        try (ConsumerOffsetStore store = new ConsumerOffsetStore(tempDir)) {
+            assertEquals(0, store.get("file-writer"), "Unknown consumer should start at offset 0");
+            store.commit("file-writer", 42);
+            store.commit("syslog/sender", 7);
+        }
+        try (ConsumerOffsetStore store = new ConsumerOffsetStore(tempDir)) {
+            assertEquals(42, store.get("file-writer"));
+            assertEquals(7, store.get("syslog/sender"));
+        }
+    }
+}
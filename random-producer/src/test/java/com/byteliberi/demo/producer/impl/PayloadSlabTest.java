@@ -0,0 +1,113 @@
+package com.byteliberi.demo.producer.impl;
+
+import com.byteliberi.demo.producer.api.PayloadHandle;
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for PayloadSlab.
+ */
+class PayloadSlabTest {
+
+    @Test
+    void testAcquire_reusesSlotOnceAllReferencesAreReleased() {
+        PayloadSlab slab = new PayloadSlab(1, 16, false);
+        PayloadSlab.Slot slot = fill(slab, "first");
+        slot.retain();
+        slot.release();
+        assertNull(slab.acquire(5), "A retained slot must not be handed out again");
+
+        slot.release();
+        PayloadSlab.Slot reused = fill(slab, "second");
+        assertSame(slot, reused, "Handles are reused rather than allocated");
+        assertEquals("second", reused.asString());
+        assertEquals(1, slab.getExhaustedCount());
+    }
+
+    @Test
+    void testPayload_isReadOnlyViewOfTheBytes() {
+        PayloadSlab slab = new PayloadSlab(2, 16, false);
+        PayloadHandle handle = fill(slab, "payload");
+        ByteBuffer view = handle.payload();
+        assertTrue(view.isReadOnly());
+        assertEquals(7, view.remaining());
+        view.get();
+        assertEquals(0, handle.payload().position(), "Each call should return the view rewound");
+    }
+
+    @Test
+    void testAcquire_payloadLargerThanSlotIsRefused() {
+        PayloadSlab slab = new PayloadSlab(2, 8, false);
+        assertNull(slab.acquire(9));
+        assertEquals(1, slab.getExhaustedCount());
+    }
+
+    @Test
+    void testRelease_misuseIsDetected() {
+        PayloadSlab slab = new PayloadSlab(1, 16, false);
+        PayloadHandle handle = fill(slab, "once");
+        handle.release();
+        assertThrows(IllegalStateException.class, handle::release);
+        assertThrows(IllegalStateException.class, handle::retain);
+
+        PayloadHandle heap = PayloadHandle.of("heap");
+        heap.release();
+        assertThrows(IllegalStateException.class, heap::release);
+    }
+
+    @Test
+    void testAccessors_failOnceTheSlotIsReleased() {
+        PayloadSlab slab = new PayloadSlab(1, 16, false);
+        PayloadHandle stale = fill(slab, "stale");
+        stale.release();
+        assertThrows(IllegalStateException.class, stale::asString);
+        assertThrows(IllegalStateException.class, stale::payload);
+        assertThrows(IllegalStateException.class, stale::length);
+
+        PayloadHandle heap = PayloadHandle.of("heap");
+        heap.release();
+        assertThrows(IllegalStateException.class, heap::asString);
+    }
+
+    @Test
+    void testRelease_movesTheGenerationStampOn() throws Exception {
+        PayloadSlab slab = new PayloadSlab(1, 16, false);
+        PayloadSlab.Slot slot = fill(slab, "first");
+        // A read that spans a release and re-acquire sees the stamp move on and fails
+        java.lang.reflect.Field generation = PayloadSlab.Slot.class.getDeclaredField("generation");
+        generation.setAccessible(true);
+        int before = generation.getInt(slot);
+        slot.release();
+        assertSame(slot, fill(slab, "second"));
+        assertEquals(before + 1, generation.getInt(slot));
+        assertEquals("second", slot.asString(), "The current holder reads its own payload");
+    }
+
+    @Test
+    void testFindLeaks_reportsWhereUnreleasedPayloadWasAcquired() {
+        PayloadSlab slab = new PayloadSlab(4, 16, true);
+        fill(slab, "released").release();
+        fill(slab, "leaked");
+
+        List<String> leaks = slab.findLeaks();
+        assertEquals(1, leaks.size());
+        assertTrue(leaks.get(0).contains("testFindLeaks_reportsWhereUnreleasedPayloadWasAcquired"),
+                "The leak report should include the acquiring stack: " + leaks.get(0));
+        assertEquals(1, slab.getInUseCount());
+    }
+
+    private static PayloadSlab.Slot fill(PayloadSlab slab, String value) {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        PayloadSlab.Slot slot = slab.acquire(bytes.length);
+        assertNotNull(slot);
+        for (int i = 0; i < bytes.length; i++) {
+            slot.buffer().put(i, bytes[i]);
+        }
+        return slot;
+    }
+}
@@ -1,16 +1,30 @@
 package com.byteliberi.demo.producer.impl;
 
+import com.byteliberi.demo.producer.api.ListenerStats;
+import com.byteliberi.demo.producer.api.ProducerStatistics;
 import com.byteliberi.demo.producer.api.StringProducer;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
 import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicReference;
 import java.util.regex.Pattern;
@@ -52,6 +66,14 @@ class RandomStringProducerTest {
         assertTrue(latch.await(6, TimeUnit.SECONDS), "String should be generated within 6 seconds");
     }
 
+    @Test
+    void testActivate_becomesReadyAfterWarmUp() throws InterruptedException {
+        producer.activate();
+
+        assertTrue(producer.awaitReady(5, TimeUnit.SECONDS), "Producer should finish warming up within 5 seconds");
+        assertTrue(producer.isReady());
+    }
+
     @Test
     void testDeactivate_stopsProduction() throws InterruptedException {
         AtomicInteger callCount = new AtomicInteger(0);
@@ -205,6 +227,282 @@ class RandomStringProducerTest {
         assertEquals(NUM_LISTENERS, successfulOperations.get(), "All operations should succeed");
     }
 
+    @Test
+    void testDurableListener_catchesUpAfterReRegistration(@TempDir Path journalDir) throws InterruptedException {
+        List<String> produced = new CopyOnWriteArrayList<>();
+        List<String> consumed = new CopyOnWriteArrayList<>();
+        StringProducer.StringListener durable = consumed::add;
+
+        producer.addListener(produced::add);
+        producer.activate(Map.of(
+                RandomStringProducer.JOURNAL_ENABLED, true,
+                RandomStringProducer.JOURNAL_DIR, journalDir.toString()));
+        producer.addDurableListener("test-consumer", durable);
+
+        // Wait for the first string, then stop the consumer and let at least one more string go by
+        waitForSize(produced, 1, 6);
+        producer.removeListener(durable);
+        int producedWhileRegistered = produced.size();
+        waitForSize(produced, producedWhileRegistered + 1, 6);
+        assertTrue(consumed.size() < produced.size(), "Strings should be missed while the consumer is stopped");
+
+        producer.addDurableListener("test-consumer", durable);
+        waitForSize(consumed, produced.size(), 2);
+
+        assertEquals(produced.subList(0, consumed.size()), consumed,
+                "Re-registered consumer should receive the missed strings in order, exactly once");
+    }
+
+    @Test
+    void testDurableListener_getsAFailedStringAgainAfterRecovery(@TempDir Path journalDir) throws InterruptedException {
+        List<String> produced = new CopyOnWriteArrayList<>();
+        List<String> failed = new CopyOnWriteArrayList<>();
+        List<String> consumed = new CopyOnWriteArrayList<>();
+        producer.addListener(produced::add);
+        producer.activate(Map.of(
+                RandomStringProducer.JOURNAL_ENABLED, true,
+                RandomStringProducer.JOURNAL_DIR, journalDir.toString(),
+                RandomStringProducer.PROFILE, "constant",
+                RandomStringProducer.PROFILE_RATE, 100,
+                RandomStringProducer.LISTENER_FAILURE_THRESHOLD, 2,
+                RandomStringProducer.LISTENER_OPEN_MS, 200));
+        // Fails once below the threshold, then once to open the breaker and once more as its probe
+        producer.addDurableListener("test-consumer", value -> {
+            if (failed.size() < 3) {
+                failed.add(value);
+                throw new IllegalStateException("broken");
+            }
+            consumed.add(value);
+        });
+
+        waitForSize(consumed, 10, 5);
+        assertEquals(1, failed.stream().distinct().count(), "Every retry should be the string that failed first");
+        assertEquals(failed.get(0), consumed.get(0), "The failed string should be delivered once the listener recovers");
+        int first = produced.indexOf(consumed.get(0));
+        assertEquals(produced.subList(first, first + consumed.size()), consumed,
+                "The listener should then receive the following strings in order, exactly once");
+    }
+
+    @Test
+    void testPayloadListener_receivesPooledPayloadsThatAreReleased() throws InterruptedException {
+        List<String> strings = new CopyOnWriteArrayList<>();
+        List<String> payloads = new CopyOnWriteArrayList<>();
+        producer.addListener(strings::add);
+        producer.addPayloadListener(payload -> payloads.add(payload.asString()));
+        producer.activate(Map.of(
+                RandomStringProducer.SLAB_ENABLED, true,
+                RandomStringProducer.SLAB_SLOTS, 4,
+                RandomStringProducer.SLAB_LEAK_DETECTION, true));
+
+        waitForSize(payloads, 1, 6);
+        waitForSize(strings, 1, 1);
+        assertEquals(strings.get(0), payloads.get(0), "Both listener kinds should see the same string");
+        assertTrue(Pattern.matches("[A-Za-z0-9]{8,16}", payloads.get(0)));
+
+        producer.deactivate();
+        PayloadSlab slab = producer.getPayloadSlab();
+        assertNotNull(slab);
+        assertEquals(0, slab.getExhaustedCount(), "Payloads should be served from the slab");
+        assertEquals(List.of(), slab.findLeaks(), "The producer should release every payload after delivery");
+    }
+
+    @Test
+    void testConstantProfile_producesAtConfiguredRate() throws InterruptedException {
+        List<String> produced = new CopyOnWriteArrayList<>();
+        producer.addListener(produced::add);
+        producer.activate(Map.of(RandomStringProducer.PROFILE, "constant", RandomStringProducer.PROFILE_RATE, 100));
+
+        waitForSize(produced, 20, 2);
+    }
+
+    @Test
+    void testTraceProfile_replaysDelaysThenStops(@TempDir Path traceDir) throws Exception {
+        Path trace = Files.writeString(traceDir.resolve("trace.txt"), "20\n20\n20\n");
+        List<String> produced = new CopyOnWriteArrayList<>();
+        producer.addListener(produced::add);
+        producer.activate(Map.of(RandomStringProducer.PROFILE, "trace", RandomStringProducer.TRACE_FILE, trace.toString()));
+
+        waitForSize(produced, 4, 2);
+        Thread.sleep(200);
+        assertEquals(4, produced.size(), "One string up front plus one per recorded delay");
+    }
+
+    @Test
+    void testFailingListener_isSkippedOnceItsBreakerOpens() throws InterruptedException {
+        AtomicInteger failingCalls = new AtomicInteger();
+        List<String> healthy = new CopyOnWriteArrayList<>();
+        producer.addListener(value -> {
+            failingCalls.incrementAndGet();
+            throw new IllegalStateException("broken");
+        });
+        producer.addListener(healthy::add);
+        producer.activate(Map.of(
+                RandomStringProducer.PROFILE, "constant",
+                RandomStringProducer.PROFILE_RATE, 200,
+                RandomStringProducer.LISTENER_FAILURE_THRESHOLD, 3,
+                RandomStringProducer.LISTENER_OPEN_MS, 60_000));
+
+        waitForSize(healthy, 20, 2);
+        assertEquals(3, failingCalls.get(), "The breaker should stop calls after the failure threshold");
+        ProducerStatistics statistics = producer;
+        ListenerStats failing = statistics.getListenerStats().get(0);
+        assertEquals("OPEN", failing.getState());
+        assertEquals(1, failing.getTrips());
+        assertEquals(3, failing.getFailures());
+        assertTrue(failing.getRejected() > 0);
+        assertEquals("CLOSED", statistics.getListenerStats().get(1).getState());
+    }
+
+    @Test
+    void testFlightRecorder_recordsGenerationAndDispatchOutcomes(@TempDir Path dumpDir) throws Exception {
+        List<String> healthy = new CopyOnWriteArrayList<>();
+        producer.addListener(value -> {
+            throw new IllegalStateException("broken");
+        });
+        producer.addListener(healthy::add);
+        List<RecordedEvent> events;
+        try (Recording recording = new Recording()) {
+            recording.enable("com.byteliberi.demo.producer.Generation").withThreshold(Duration.ZERO);
+            recording.enable("com.byteliberi.demo.producer.Dispatch").withThreshold(Duration.ZERO);
+            recording.start();
+            producer.activate(Map.of(
+                    RandomStringProducer.PROFILE, "constant",
+                    RandomStringProducer.PROFILE_RATE, 200,
+                    RandomStringProducer.LISTENER_FAILURE_THRESHOLD, 1,
+                    RandomStringProducer.LISTENER_OPEN_MS, 60_000));
+            waitForSize(healthy, 5, 2);
+            producer.deactivate();
+            recording.stop();
+            Path dump = dumpDir.resolve("producer.jfr");
+            recording.dump(dump);
+            events = RecordingFile.readAllEvents(dump);
+        }
+
+        long generated = events.stream()
+                .filter(event -> event.getEventType().getName().endsWith(".Generation"))
+                .peek(event -> assertTrue(event.getInt("payloadBytes") >= 8))
+                .count();
+        assertTrue(generated >= 5, "One generation event per string");
+        List<String> outcomes = events.stream()
+                .filter(event -> event.getEventType().getName().endsWith(".Dispatch"))
+                .map(event -> event.getString("outcome"))
+                .collect(java.util.stream.Collectors.toList());
+        assertEquals(1, outcomes.stream().filter("failed"::equals).count());
+        assertTrue(outcomes.contains("skipped"), "Calls to the open breaker should be recorded as skipped");
+        assertTrue(outcomes.stream().filter("delivered"::equals).count() >= 5);
+    }
+
+    @Test
+    void testHungListener_isSidelinedByTheWatchdog() throws InterruptedException {
+        CountDownLatch release = new CountDownLatch(1);
+        List<String> healthy = new CopyOnWriteArrayList<>();
+        producer.addListener(healthy::add);
+        producer.addListener(value -> {
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                // keep hanging: the watchdog must not rely on interruption
+                awaitUninterruptibly(release);
+            }
+        });
+        producer.activate(Map.of(
+                RandomStringProducer.PROFILE, "constant",
+                RandomStringProducer.PROFILE_RATE, 100,
+                RandomStringProducer.LISTENER_WATCHDOG_MS, 100,
+                RandomStringProducer.LISTENER_OPEN_MS, 60_000));
+
+        waitForSize(healthy, 20, 3);
+        release.countDown();
+        ListenerStats hung = producer.getListenerStats().get(1);
+        assertEquals("OPEN", hung.getState());
+        assertEquals(1, hung.getTrips());
+    }
+
+    @Test
+    void testWatchdog_prunesAbandonedThreadsThatHaveLeft() throws InterruptedException {
+        List<String> healthy = new CopyOnWriteArrayList<>();
+        producer.addListener(healthy::add);
+        producer.addListener(value -> {
+            try {
+                Thread.sleep(60_000);
+            } catch (InterruptedException e) {
+                // the abandoned thread returns and leaves once interrupted
+            }
+        });
+        producer.activate(Map.of(
+                RandomStringProducer.PROFILE, "constant",
+                RandomStringProducer.PROFILE_RATE, 100,
+                RandomStringProducer.LISTENER_WATCHDOG_MS, 100,
+                RandomStringProducer.LISTENER_OPEN_MS, 100,
+                RandomStringProducer.LISTENER_WATCHDOG_MAX_ABANDONED, 1));
+
+        // Each probe hangs again; only pruning the threads that left makes room for a new one
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (producer.getListenerStats().get(1).getTrips() < 3 && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        assertTrue(producer.getListenerStats().get(1).getTrips() >= 3);
+        int delivered = healthy.size();
+        waitForSize(healthy, delivered + 5, 3);
+    }
+
+    @Test
+    void testWatchdog_waitsForHungCallOnceTooManyThreadsAreStuck() throws InterruptedException {
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicBoolean secondHangs = new AtomicBoolean();
+        List<String> healthy = new CopyOnWriteArrayList<>();
+        producer.addListener(healthy::add);
+        producer.addListener(value -> awaitUninterruptibly(release));
+        producer.addListener(value -> {
+            if (secondHangs.get()) {
+                awaitUninterruptibly(release);
+            }
+        });
+        producer.activate(Map.of(
+                RandomStringProducer.PROFILE, "constant",
+                RandomStringProducer.PROFILE_RATE, 100,
+                RandomStringProducer.LISTENER_WATCHDOG_MS, 100,
+                RandomStringProducer.LISTENER_OPEN_MS, 60_000,
+                RandomStringProducer.LISTENER_WATCHDOG_MAX_ABANDONED, 1));
+
+        // The first hung listener uses up the only abandoned thread allowed
+        waitForSize(healthy, 20, 3);
+        assertEquals(1, producer.getListenerStats().get(1).getTrips());
+        secondHangs.set(true);
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (producer.getListenerStats().get(2).getTrips() < 1 && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        assertEquals("OPEN", producer.getListenerStats().get(2).getState());
+
+        // The second hung call keeps its thread, so production waits for the listener to return
+        int delivered = healthy.size();
+        Thread.sleep(300);
+        assertEquals(delivered, healthy.size());
+        assertEquals(1, producer.getListenerStats().get(2).getTrips(), "A call left running is tripped once");
+
+        release.countDown();
+        waitForSize(healthy, delivered + 5, 3);
+    }
+
+    private static void awaitUninterruptibly(CountDownLatch latch) {
+        while (latch.getCount() > 0) {
+            try {
+                latch.await();
+            } catch (InterruptedException ignored) {
+                // retry
+            }
+        }
+    }
+
+    private static void waitForSize(List<String> list, int size, int timeoutSeconds) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(timeoutSeconds);
+        while (list.size() < size && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        assertTrue(list.size() >= size, "Expected at least " + size + " strings but got " + list.size());
+    }
+
     @Test
     void testAddNullListener_handledGracefully() {
         assertDoesNotThrow(() -> producer.addListener(null));
@@ -0,0 +1,39 @@
+package com.byteliberi.demo.recent.api;
+
+/**
+ * Immutable record of one received string.
+ */
+public final class RecentEntry {
+
+    private final String value;
+    private final long sequence;
+    private final long timestampMillis;
+
+    /**
+     * @param value the string
+     * @param sequence position of the string in the order received, starting at 1
+     * @param timestampMillis when the string was received, in milliseconds since the epoch
+     */
+    public RecentEntry(String value, long sequence, long timestampMillis) {
+        this.value = value;
+        this.sequence = sequence;
+        this.timestampMillis = timestampMillis;
+    }
+
+    public String getValue() {
+        return value;
+    }
+
+    public long getSequence() {
+        return sequence;
+    }
+
+    public long getTimestampMillis() {
+        return timestampMillis;
+    }
+
+    @Override
+    public String toString() {
+        return "#" + sequence + " '" + value + "' at " + timestampMillis;
+    }
+}
@@ -0,0 +1,39 @@
+package com.byteliberi.demo.recent.api;
+
+import java.util.List;
+
+/**
+ * Service interface for looking up recently produced strings.
+ * Results are immutable, newest first, and all methods may be called from any thread.
+ */
+public interface RecentStrings {
+
+    /**
+     * Finds the most recent occurrence of a string.
+     * @param value the exact string
+     * @return the newest entry holding {@code value}, or {@code null} if it is not retained
+     */
+    RecentEntry find(String value);
+
+    /**
+     * Finds retained strings that start with a prefix.
+     * @param prefix the prefix; an empty prefix matches every string
+     * @param limit the maximum number of entries to return
+     * @return the matching entries, newest first
+     */
+    List<RecentEntry> findByPrefix(String prefix, int limit);
+
+    /**
+     * Finds the strings received in a time range.
+     * @param fromMillis start of the range in milliseconds since the epoch, inclusive
+     * @param toMillis end of the range in milliseconds since the epoch, exclusive
+     * @param limit the maximum number of entries to return
+     * @return the entries in the range, newest first
+     */
+    List<RecentEntry> findBetween(long fromMillis, long toMillis, int limit);
+
+    /**
+     * @return the number of strings currently retained
+     */
+    int size();
+}
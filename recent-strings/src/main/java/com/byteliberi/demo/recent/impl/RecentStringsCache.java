@@ -0,0 +1,124 @@
+package com.byteliberi.demo.recent.impl;
+
+import com.byteliberi.demo.component.ComponentConfig;
+import com.byteliberi.demo.producer.api.StringProducer;
+import com.byteliberi.demo.recent.api.RecentEntry;
+import com.byteliberi.demo.recent.api.RecentStrings;
+import org.osgi.service.component.annotations.Activate;
+import org.osgi.service.component.annotations.Component;
+import org.osgi.service.component.annotations.Deactivate;
+import org.osgi.service.component.annotations.Reference;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.logging.Logger;
+
+/**
+ * Recent strings cache that consumes strings from the StringProducer and keeps the latest
+ * ones in memory, published as a {@link RecentStrings} lookup service.
+ * <p>
+ * It registers as a plain listener rather than a durable one: the cache answers what was
+ * produced recently, and a replayed backlog would be stamped with the wrong times.
+ * See {@link RecentStringsIndex} for the data structure and its eviction rules.
+ */
+@Component(immediate = true, service = RecentStrings.class)
+public class RecentStringsCache implements RecentStrings, StringProducer.StringListener {
+
+    private static final Logger LOGGER = Logger.getLogger(RecentStringsCache.class.getName());
+
+    static final String CAPACITY = "cache.capacity";
+    static final String MAX_BYTES = "cache.max.bytes";
+    static final String MAX_AGE_SECONDS = "cache.max.age.s";
+
+    @Reference
+    private StringProducer stringProducer;
+
+    private volatile RecentStringsIndex index;
+
+    /**
+     * Activates the cache with default configuration.
+     */
+    public void activate() {
+        activate(Collections.emptyMap());
+    }
+
+    /**
+     * Activates the cache and registers as a listener.
+     * @param properties the component configuration
+     */
+    @Activate
+    public void activate(Map<String, Object> properties) {
+        ComponentConfig config = new ComponentConfig(properties);
+        index = new RecentStringsIndex(
+                config.getInt(CAPACITY, 100_000),
+                config.getLong(MAX_BYTES, 16L * 1024 * 1024),
+                config.getLong(MAX_AGE_SECONDS, 0) * 1000);
+        stringProducer.addListener(this);
+        LOGGER.info("Recent strings cache activated and registered with string producer");
+    }
+
+    /**
+     * Deactivates the cache and unregisters as a listener.
+     */
+    @Deactivate
+    public void deactivate() {
+        try {
+            if (stringProducer != null) {
+                stringProducer.removeListener(this);
+            }
+            RecentStringsIndex current = index;
+            LOGGER.info("Recent strings cache deactivated holding " + (current == null ? 0 : current.size())
+                    + " string(s), " + (current == null ? 0 : current.getEvictedCount()) + " evicted");
+        } catch (Exception e) {
+            LOGGER.warning("Error during recent strings cache deactivation: " + e.getMessage());
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void onStringGenerated(String value) {
+        index.add(value, System.currentTimeMillis());
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public RecentEntry find(String value) {
+        return index.find(value, System.currentTimeMillis());
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public List<RecentEntry> findByPrefix(String prefix, int limit) {
+        return index.findByPrefix(prefix, limit, System.currentTimeMillis());
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public List<RecentEntry> findBetween(long fromMillis, long toMillis, int limit) {
+        return index.findBetween(fromMillis, toMillis, limit, System.currentTimeMillis());
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int size() {
+        return index.size();
+    }
+
+    /**
+     * @return the estimated heap footprint of the retained strings, in bytes
+     */
+    public long getRetainedBytes() {
+        return index.getRetainedBytes();
+    }
+}
@@ -0,0 +1,287 @@
+package com.byteliberi.demo.recent.impl;
+
+import com.byteliberi.demo.recent.api.RecentEntry;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Keeps the most recent strings in a ring, indexed by their first two characters.
+ * <p>
+ * The ring holds each string with its receive time in parallel arrays, addressed by sequence
+ * number modulo the capacity. The index is one FIFO queue of sequence numbers per pair of
+ * leading characters over the alphanumeric alphabet, plus one symbol for any other character
+ * or for a missing second character: 63 x 63 queues. Since strings are evicted oldest first,
+ * an evicted string is always at the head of its queue, so keeping the index in step costs
+ * no search and, in a steady stream, no allocation.
+ * <p>
+ * An exact or prefix lookup scans one queue, newest first; with the producer's evenly spread
+ * characters that is about {@code capacity / 3969} strings. A one-character prefix merges
+ * the 63 queues it heads. Time-range lookups binary-search the ring, whose timestamps never decrease.
+ * <p>
+ * Strings are evicted oldest first once the ring is full, once the estimated heap footprint
+ * would exceed {@code maxBytes}, or once they are older than {@code maxAgeMillis}.
+ * All methods take the current time so that tests can drive the clock.
+ */
+final class RecentStringsIndex {
+
+    static final int SYMBOLS = 63;
+    /** String object, its byte array header and this index's own slots, per entry. */
+    static final int ENTRY_OVERHEAD_BYTES = 64;
+
+    private final int capacity;
+    private final long maxBytes;
+    private final long maxAgeMillis;
+    private final String[] values;
+    private final long[] timestamps;
+    private final PositionQueue[] buckets = new PositionQueue[SYMBOLS * SYMBOLS];
+    private long first = 1;
+    private long next = 1;
+    private long lastTimestamp = Long.MIN_VALUE;
+    private long retainedBytes;
+    private long evicted;
+
+    /**
+     * @param capacity the maximum number of strings retained
+     * @param maxBytes the maximum estimated heap footprint of the retained strings
+     * @param maxAgeMillis how long a string is retained, 0 for no age limit
+     */
+    RecentStringsIndex(int capacity, long maxBytes, long maxAgeMillis) {
+        if (capacity <= 0 || maxBytes <= 0 || maxAgeMillis < 0) {
+            throw new IllegalArgumentException("Capacity and byte limit must be positive, age limit not negative");
+        }
+        this.capacity = capacity;
+        this.maxBytes = maxBytes;
+        this.maxAgeMillis = maxAgeMillis;
+        this.values = new String[capacity];
+        this.timestamps = new long[capacity];
+    }
+
+    synchronized void add(String value, long nowMillis) {
+        long timestamp = Math.max(nowMillis, lastTimestamp);
+        lastTimestamp = timestamp;
+        long bytes = footprint(value);
+        expire(nowMillis);
+        while (next > first && (next - first >= capacity || retainedBytes + bytes > maxBytes)) {
+            evictOldest();
+        }
+        int slot = slot(next);
+        values[slot] = value;
+        timestamps[slot] = timestamp;
+        bucket(symbol(value, 0) * SYMBOLS + symbol(value, 1)).add(next);
+        retainedBytes += bytes;
+        next++;
+    }
+
+    synchronized RecentEntry find(String value, long nowMillis) {
+        expire(nowMillis);
+        PositionQueue queue = buckets[symbol(value, 0) * SYMBOLS + symbol(value, 1)];
+        if (queue != null) {
+            for (int i = 0; i < queue.size; i++) {
+                long position = queue.newest(i);
+                if (values[slot(position)].equals(value)) {
+                    return entry(position);
+                }
+            }
+        }
+        return null;
+    }
+
+    synchronized List<RecentEntry> findByPrefix(String prefix, int limit, long nowMillis) {
+        expire(nowMillis);
+        if (limit <= 0) {
+            return Collections.emptyList();
+        }
+        if (prefix.isEmpty()) {
+            List<RecentEntry> result = new ArrayList<>(Math.min(limit, size()));
+            for (long position = next - 1; position >= first && result.size() < limit; position--) {
+                result.add(entry(position));
+            }
+            return result;
+        }
+        int firstSymbol = symbol(prefix, 0);
+        if (prefix.length() >= 2) {
+            List<RecentEntry> result = new ArrayList<>();
+            collect(buckets[firstSymbol * SYMBOLS + symbol(prefix, 1)], prefix, limit, result);
+            return result;
+        }
+        // One character: merge the 63 queues it heads, repeatedly taking the newest head
+        int[] cursors = new int[SYMBOLS];
+        List<RecentEntry> result = new ArrayList<>(Math.min(limit, 64));
+        while (result.size() < limit) {
+            int newestQueue = -1;
+            long newestPosition = 0;
+            for (int second = 0; second < SYMBOLS; second++) {
+                PositionQueue queue = buckets[firstSymbol * SYMBOLS + second];
+                if (queue != null && cursors[second] < queue.size) {
+                    long position = queue.newest(cursors[second]);
+                    if (position > newestPosition) {
+                        newestQueue = second;
+                        newestPosition = position;
+                    }
+                }
+            }
+            if (newestQueue < 0) {
+                break;
+            }
+            cursors[newestQueue]++;
+            if (values[slot(newestPosition)].startsWith(prefix)) {
+                result.add(entry(newestPosition));
+            }
+        }
+        return result;
+    }
+
+    synchronized List<RecentEntry> findBetween(long fromMillis, long toMillis, int limit, long nowMillis) {
+        expire(nowMillis);
+        List<RecentEntry> result = new ArrayList<>();
+        // Newest position received before toMillis
+        long low = first;
+        long high = next;
+        while (low < high) {
+            long middle = (low + high) >>> 1;
+            if (timestamps[slot(middle)] < toMillis) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        for (long position = low - 1; position >= first && result.size() < limit; position--) {
+            if (timestamps[slot(position)] < fromMillis) {
+                break;
+            }
+            result.add(entry(position));
+        }
+        return result;
+    }
+
+    synchronized int size() {
+        return (int) (next - first);
+    }
+
+    synchronized long getRetainedBytes() {
+        return retainedBytes;
+    }
+
+    synchronized long getEvictedCount() {
+        return evicted;
+    }
+
+    private void collect(PositionQueue queue, String prefix, int limit, List<RecentEntry> result) {
+        if (queue == null) {
+            return;
+        }
+        for (int i = 0; i < queue.size && result.size() < limit; i++) {
+            long position = queue.newest(i);
+            if (values[slot(position)].startsWith(prefix)) {
+                result.add(entry(position));
+            }
+        }
+    }
+
+    private void expire(long nowMillis) {
+        if (maxAgeMillis == 0) {
+            return;
+        }
+        long oldestKept = nowMillis - maxAgeMillis;
+        while (next > first && timestamps[slot(first)] < oldestKept) {
+            evictOldest();
+        }
+    }
+
+    private void evictOldest() {
+        int slot = slot(first);
+        String value = values[slot];
+        buckets[symbol(value, 0) * SYMBOLS + symbol(value, 1)].removeOldest();
+        values[slot] = null;
+        retainedBytes -= footprint(value);
+        first++;
+        evicted++;
+    }
+
+    private RecentEntry entry(long position) {
+        int slot = slot(position);
+        return new RecentEntry(values[slot], position, timestamps[slot]);
+    }
+
+    private PositionQueue bucket(int index) {
+        PositionQueue queue = buckets[index];
+        if (queue == null) {
+            queue = new PositionQueue();
+            buckets[index] = queue;
+        }
+        return queue;
+    }
+
+    private int slot(long position) {
+        return (int) (position % capacity);
+    }
+
+    private static long footprint(String value) {
+        return ENTRY_OVERHEAD_BYTES + value.length();
+    }
+
+    /**
+     * Maps the character at {@code index} to 0-61 for {@code 0-9A-Za-z}, or 62 for anything
+     * else, including a string too short to have one.
+     */
+    static int symbol(String value, int index) {
+        if (index >= value.length()) {
+            return SYMBOLS - 1;
+        }
+        char c = value.charAt(index);
+        if (c >= '0' && c <= '9') {
+            return c - '0';
+        }
+        if (c >= 'A' && c <= 'Z') {
+            return 10 + c - 'A';
+        }
+        if (c >= 'a' && c <= 'z') {
+            return 36 + c - 'a';
+        }
+        return SYMBOLS - 1;
+    }
+
+    /**
+     * Growable FIFO of sequence numbers, oldest at the head.
+     */
+    private static final class PositionQueue {
+        private long[] items = new long[8];
+        private int head;
+        private int size;
+
+        void add(long position) {
+            if (size == items.length) {
+                resize(items.length * 2);
+            }
+            items[(head + size) & (items.length - 1)] = position;
+            size++;
+        }
+
+        void removeOldest() {
+            head = (head + 1) & (items.length - 1);
+            size--;
+            // Shrinks a queue that a burst of similar strings had grown
+            if (items.length > 8 && size < items.length / 4) {
+                resize(items.length / 2);
+            }
+        }
+
+        private void resize(int length) {
+            long[] resized = new long[length];
+            for (int i = 0; i < size; i++) {
+                resized[i] = items[(head + i) & (items.length - 1)];
+            }
+            items = resized;
+            head = 0;
+        }
+
+        /**
+         * @param i 0 for the newest position, 1 for the one before, and so on
+         */
+        long newest(int i) {
+            return items[(head + size - 1 - i) & (items.length - 1)];
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package com.byteliberi.demo.recent.impl;
+
+import com.byteliberi.demo.producer.api.StringProducer;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for RecentStringsCache.
+ */
+@ExtendWith(MockitoExtension.class)
+class RecentStringsCacheTest {
+
+    @Mock
+    private StringProducer mockStringProducer;
+
+    private RecentStringsCache cache;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        cache = new RecentStringsCache();
+        java.lang.reflect.Field field = RecentStringsCache.class.getDeclaredField("stringProducer");
+        field.setAccessible(true);
+        field.set(cache, mockStringProducer);
+    }
+
+    @Test
+    void testActivate_registersWithProducer() {
+        cache.activate();
+        verify(mockStringProducer).addListener(cache);
+        cache.deactivate();
+        verify(mockStringProducer).removeListener(cache);
+    }
+
+    @Test
+    void testOnStringGenerated_isVisibleToLookups() {
+        cache.activate(Map.of(RecentStringsCache.CAPACITY, 2));
+        long before = System.currentTimeMillis();
+        cache.onStringGenerated("Hello123");
+        cache.onStringGenerated("Help4567");
+        cache.onStringGenerated("World890");
+
+        assertEquals(2, cache.size());
+        assertNull(cache.find("Hello123"), "Evicted once the capacity is reached");
+        assertEquals("World890", cache.find("World890").getValue());
+        assertEquals(1, cache.findByPrefix("He", 10).size());
+        assertEquals(2, cache.findBetween(before, System.currentTimeMillis() + 1, 10).size());
+    }
+}
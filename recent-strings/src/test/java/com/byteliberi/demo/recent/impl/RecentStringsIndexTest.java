@@ -0,0 +1,120 @@
+package com.byteliberi.demo.recent.impl;
+
+import com.byteliberi.demo.recent.api.RecentEntry;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for RecentStringsIndex.
+ */
+class RecentStringsIndexTest {
+
+    private static final long T0 = 1_700_000_000_000L;
+
+    @Test
+    void testFind_returnsNewestOccurrence() {
+        RecentStringsIndex index = new RecentStringsIndex(100, 1 << 20, 0);
+        index.add("Hello123", T0);
+        index.add("World456", T0 + 1);
+        index.add("Hello123", T0 + 2);
+
+        RecentEntry entry = index.find("Hello123", T0 + 3);
+        assertEquals("Hello123", entry.getValue());
+        assertEquals(3, entry.getSequence());
+        assertEquals(T0 + 2, entry.getTimestampMillis());
+        assertNull(index.find("Hello12", T0 + 3), "Only exact matches");
+        assertNull(index.find("Missing1", T0 + 3));
+    }
+
+    @Test
+    void testFindByPrefix_newestFirstAcrossPrefixLengths() {
+        RecentStringsIndex index = new RecentStringsIndex(100, 1 << 20, 0);
+        for (String value : new String[] {"Abc1", "Abd2", "Axy3", "B", "A", "Abc4", "A-z5", "Qrs6"}) {
+            index.add(value, T0);
+        }
+
+        assertEquals(List.of("Abc4", "Abc1"), values(index.findByPrefix("Abc", 10, T0)));
+        assertEquals(List.of("Abc4", "Abd2", "Abc1"), values(index.findByPrefix("Ab", 10, T0)));
+        assertEquals(List.of("A-z5", "Abc4", "A", "Axy3", "Abd2", "Abc1"), values(index.findByPrefix("A", 10, T0)));
+        assertEquals(List.of("A-z5", "Abc4"), values(index.findByPrefix("A", 2, T0)));
+        assertEquals(List.of("A-z5"), values(index.findByPrefix("A-", 10, T0)));
+        assertEquals(List.of("Qrs6", "A-z5", "Abc4"), values(index.findByPrefix("", 3, T0)));
+        assertEquals(List.of(), values(index.findByPrefix("Z", 10, T0)));
+    }
+
+    @Test
+    void testFindBetween_usesHalfOpenRange() {
+        RecentStringsIndex index = new RecentStringsIndex(100, 1 << 20, 0);
+        for (int i = 0; i < 10; i++) {
+            index.add("Value" + i, T0 + i * 100);
+        }
+
+        assertEquals(List.of("Value5", "Value4", "Value3"), values(index.findBetween(T0 + 300, T0 + 600, 10, T0 + 1000)));
+        assertEquals(List.of("Value5", "Value4"), values(index.findBetween(T0 + 300, T0 + 600, 2, T0 + 1000)));
+        assertEquals(List.of(), values(index.findBetween(T0 + 2000, T0 + 3000, 10, T0 + 1000)));
+        assertEquals(10, index.findBetween(0, Long.MAX_VALUE, 100, T0 + 1000).size());
+    }
+
+    @Test
+    void testCapacity_evictsOldestAndKeepsIndexInStep() {
+        RecentStringsIndex index = new RecentStringsIndex(3, 1 << 20, 0);
+        for (int i = 1; i <= 5; i++) {
+            index.add("Ab" + i, T0 + i);
+        }
+
+        assertEquals(3, index.size());
+        assertEquals(2, index.getEvictedCount());
+        assertNull(index.find("Ab2", T0 + 10));
+        assertNotNull(index.find("Ab3", T0 + 10));
+        assertEquals(List.of("Ab5", "Ab4", "Ab3"), values(index.findByPrefix("Ab", 10, T0 + 10)));
+        assertEquals(List.of("Ab5", "Ab4", "Ab3"), values(index.findBetween(0, Long.MAX_VALUE, 10, T0 + 10)));
+    }
+
+    @Test
+    void testByteLimitAndAge_evictOldest() {
+        long entryBytes = RecentStringsIndex.ENTRY_OVERHEAD_BYTES + 8;
+        RecentStringsIndex bySize = new RecentStringsIndex(100, entryBytes * 4, 0);
+        for (int i = 0; i < 10; i++) {
+            bySize.add("Value00" + i, T0);
+        }
+        assertEquals(4, bySize.size());
+        assertEquals(entryBytes * 4, bySize.getRetainedBytes());
+
+        RecentStringsIndex byAge = new RecentStringsIndex(100, 1 << 20, 1000);
+        byAge.add("Old", T0);
+        byAge.add("New", T0 + 900);
+        assertEquals(2, byAge.size());
+        assertEquals(List.of("New"), values(byAge.findByPrefix("", 10, T0 + 1500)));
+        assertNull(byAge.find("Old", T0 + 1500));
+    }
+
+    @Test
+    void testLongRun_indexStaysConsistentWithRing() {
+        RecentStringsIndex index = new RecentStringsIndex(1000, 1 << 30, 0);
+        String alphabet = "ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789";
+        java.util.Random random = new java.util.Random(42);
+        for (int i = 0; i < 50_000; i++) {
+            // Skewed towards a few leading characters so that some queues grow and shrink
+            char first = alphabet.charAt(i % 7 == 0 ? random.nextInt(alphabet.length()) : random.nextInt(3));
+            index.add(first + "" + alphabet.charAt(random.nextInt(alphabet.length())) + i, T0 + i);
+        }
+        List<RecentEntry> all = index.findByPrefix("", Integer.MAX_VALUE, T0 + 50_000);
+        assertEquals(1000, all.size());
+        int indexed = 0;
+        for (char c : alphabet.toCharArray()) {
+            indexed += index.findByPrefix(String.valueOf(c), Integer.MAX_VALUE, T0 + 50_000).size();
+        }
+        assertEquals(1000, indexed, "Every retained string is indexed exactly once");
+        for (RecentEntry entry : all) {
+            assertEquals(entry.getSequence(), index.find(entry.getValue(), T0 + 50_000).getSequence());
+        }
+    }
+
+    private static List<String> values(List<RecentEntry> entries) {
+        return entries.stream().map(RecentEntry::getValue).collect(Collectors.toList());
+    }
+}
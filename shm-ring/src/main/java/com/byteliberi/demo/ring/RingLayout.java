@@ -0,0 +1,56 @@
+package com.byteliberi.demo.ring;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteOrder;
+import java.nio.file.Path;
+
+/**
+ * Layout of a shared-memory ring file and of its reader cursor files.
+ * <p>
+ * The ring file is {@code [header][data]}. The header holds a magic number, the data
+ * capacity (a power of two) and, on a cache line of their own, the write cursor, the total
+ * number of data bytes ever published, and the claim cursor, where the record being written
+ * ends. The writer advances the claim cursor before it copies a record and the write cursor
+ * after, so a reader that finds the claim cursor more than a capacity ahead of a record it
+ * has just copied knows the copy may be torn. Records in the data region are
+ * {@code [int length][UTF-8 bytes]}, padded to 8 bytes; a record that would straddle the
+ * end of the region is preceded by a {@link #PADDING} marker and starts again at offset 0.
+ * Positions grow forever and are reduced modulo the capacity.
+ * <p>
+ * Every reader owns a cursor file {@code <ring file>.<reader id>.cursor} holding
+ * {@code [long read position][long heartbeat millis]}. The writer never overwrites data a
+ * reader with a recent heartbeat has not read yet; a reader whose heartbeat is older than the
+ * writer's timeout is ignored and finds out from the write cursor that it has been lapped.
+ */
+final class RingLayout {
+
+    static final int MAGIC = 0x52494E47; // "RING"
+    static final int MAGIC_OFFSET = 0;
+    static final int CAPACITY_OFFSET = 4;
+    static final int WRITE_CURSOR_OFFSET = 64;
+    static final int CLAIM_CURSOR_OFFSET = 72;
+    static final int HEADER_SIZE = 128;
+    static final int RECORD_HEADER_SIZE = Integer.BYTES;
+    static final int ALIGNMENT = 8;
+    static final int PADDING = -1;
+
+    static final int CURSOR_POSITION_OFFSET = 0;
+    static final int CURSOR_HEARTBEAT_OFFSET = 8;
+    static final int CURSOR_FILE_SIZE = 16;
+    static final String CURSOR_SUFFIX = ".cursor";
+
+    /** Ordered access to longs in a mapped buffer; offsets must be 8-byte aligned. */
+    static final VarHandle LONG = MethodHandles.byteBufferViewVarHandle(long[].class, ByteOrder.nativeOrder());
+
+    private RingLayout() {
+    }
+
+    static int align(int size) {
+        return (size + ALIGNMENT - 1) & -ALIGNMENT;
+    }
+
+    static Path cursorFile(Path ring, String readerId) {
+        return ring.resolveSibling(ring.getFileName() + "." + readerId + CURSOR_SUFFIX);
+    }
+}
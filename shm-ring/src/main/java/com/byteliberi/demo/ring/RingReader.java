@@ -0,0 +1,191 @@
+package com.byteliberi.demo.ring;
+
+import java.io.IOException;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * One reader of a shared-memory ring, typically in another process than the writer;
+ * see {@link RingLayout} for the file format.
+ * <p>
+ * A reader starts at the writer's current position and publishes its progress in its own
+ * cursor file, which holds the writer back until the reader has caught up. If the reader
+ * stalls for longer than the writer's timeout it may be lapped; it then skips to the newest
+ * record and counts the lap, and never hands out a record that was overwritten while being read.
+ * <p>
+ * {@link #poll(Handler, int)} never waits; {@link #read(Handler, int, long)} waits with the
+ * reader's {@link WaitStrategy}. A reader is not thread-safe.
+ */
+public final class RingReader implements AutoCloseable {
+
+    /**
+     * Receives records read from the ring.
+     */
+    @FunctionalInterface
+    public interface Handler {
+        void onString(String value);
+    }
+
+    private final Path cursorFile;
+    private final MappedByteBuffer ring;
+    private final ByteBuffer payloadView;
+    private final MappedByteBuffer cursor;
+    private final int capacity;
+    private final int mask;
+    private final WaitStrategy waitStrategy;
+    private byte[] scratch = new byte[256];
+    private long position;
+    private long laps;
+    private long read;
+
+    private RingReader(Path cursorFile, MappedByteBuffer ring, MappedByteBuffer cursor, WaitStrategy waitStrategy) {
+        this.cursorFile = cursorFile;
+        this.ring = ring;
+        this.payloadView = ring.duplicate();
+        this.cursor = cursor;
+        this.capacity = ring.getInt(RingLayout.CAPACITY_OFFSET);
+        this.mask = capacity - 1;
+        this.waitStrategy = waitStrategy;
+        this.position = writeCursor();
+        commit();
+    }
+
+    /**
+     * Attaches to an existing ring.
+     * @param ring the ring file created by a {@link RingWriter}
+     * @param readerId identifies this reader's cursor file; must be unique among the ring's readers
+     * @param waitStrategy how {@link #read(Handler, int, long)} waits for records
+     * @return the reader, positioned after the newest record
+     * @throws IOException if the ring is missing or not a ring file
+     */
+    public static RingReader open(Path ring, String readerId, WaitStrategy waitStrategy) throws IOException {
+        MappedByteBuffer mapping;
+        try (FileChannel channel = FileChannel.open(ring, StandardOpenOption.READ)) {
+            if (channel.size() < RingLayout.HEADER_SIZE) {
+                throw new IOException("Not a ring file: " + ring);
+            }
+            mapping = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+        int capacity = mapping.getInt(RingLayout.CAPACITY_OFFSET);
+        if (mapping.getInt(RingLayout.MAGIC_OFFSET) != RingLayout.MAGIC
+                || mapping.capacity() != RingLayout.HEADER_SIZE + capacity) {
+            throw new IOException("Not a ring file: " + ring);
+        }
+        Path cursorFile = RingLayout.cursorFile(ring, readerId);
+        // Created under another name and moved in place, so the writer never maps a short file
+        Path temporary = cursorFile.resolveSibling(cursorFile.getFileName() + ".tmp");
+        Files.write(temporary, new byte[RingLayout.CURSOR_FILE_SIZE]);
+        Files.move(temporary, cursorFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        try (FileChannel channel = FileChannel.open(cursorFile, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            MappedByteBuffer cursor = channel.map(FileChannel.MapMode.READ_WRITE, 0, RingLayout.CURSOR_FILE_SIZE);
+            return new RingReader(cursorFile, mapping, cursor, waitStrategy);
+        }
+    }
+
+    /**
+     * Hands every record available right now to the handler, up to {@code limit}.
+     * @param handler receives the records
+     * @param limit the maximum number of records to deliver
+     * @return the number of records delivered
+     */
+    public int poll(Handler handler, int limit) {
+        long available = writeCursor();
+        int delivered = 0;
+        while (delivered < limit && position < available) {
+            if (available - position > capacity) {
+                lapped(available);
+                break;
+            }
+            int offset = (int) (position & mask);
+            int length = ring.getInt(RingLayout.HEADER_SIZE + offset);
+            if (length == RingLayout.PADDING) {
+                position += capacity - offset;
+                continue;
+            }
+            if (length < 0 || length > capacity / 2) {
+                lapped(writeCursor());
+                break;
+            }
+            if (scratch.length < length) {
+                scratch = new byte[Math.max(length, scratch.length * 2)];
+            }
+            payloadView.position(RingLayout.HEADER_SIZE + offset + RingLayout.RECORD_HEADER_SIZE);
+            payloadView.get(scratch, 0, length);
+            // The copy is only good if the writer has not claimed, let alone published, any byte
+            // of this record's slot on its next lap; a write in progress counts once claimed
+            VarHandle.loadLoadFence();
+            long claimed = (long) RingLayout.LONG.getOpaque(ring, RingLayout.CLAIM_CURSOR_OFFSET);
+            if (claimed - position > capacity) {
+                lapped(writeCursor());
+                break;
+            }
+            position += RingLayout.align(RingLayout.RECORD_HEADER_SIZE + length);
+            delivered++;
+            read++;
+            handler.onString(new String(scratch, 0, length, StandardCharsets.UTF_8));
+        }
+        commit();
+        return delivered;
+    }
+
+    /**
+     * Waits for at least one record and hands over the available ones, up to {@code limit}.
+     * @param handler receives the records
+     * @param limit the maximum number of records to deliver
+     * @param timeoutNanos how long to wait for the first record
+     * @return the number of records delivered, 0 if the timeout elapsed
+     */
+    public int read(Handler handler, int limit, long timeoutNanos) {
+        long deadline = System.nanoTime() + timeoutNanos;
+        for (int attempt = 0; ; attempt++) {
+            int delivered = poll(handler, limit);
+            if (delivered > 0 || System.nanoTime() - deadline >= 0 || Thread.currentThread().isInterrupted()) {
+                return delivered;
+            }
+            waitStrategy.idle(attempt);
+        }
+    }
+
+    /**
+     * @return records delivered by this reader
+     */
+    public long getReadCount() {
+        return read;
+    }
+
+    /**
+     * @return how many times the writer overtook this reader, losing records
+     */
+    public long getLapCount() {
+        return laps;
+    }
+
+    /**
+     * Detaches from the ring and deletes the cursor file, releasing the writer.
+     */
+    @Override
+    public void close() throws IOException {
+        Files.deleteIfExists(cursorFile);
+    }
+
+    private void lapped(long latest) {
+        laps++;
+        position = latest;
+    }
+
+    private long writeCursor() {
+        return (long) RingLayout.LONG.getAcquire(ring, RingLayout.WRITE_CURSOR_OFFSET);
+    }
+
+    private void commit() {
+        RingLayout.LONG.setRelease(cursor, RingLayout.CURSOR_POSITION_OFFSET, position);
+        RingLayout.LONG.setRelease(cursor, RingLayout.CURSOR_HEARTBEAT_OFFSET, System.currentTimeMillis());
+    }
+}
@@ -0,0 +1,262 @@
+package com.byteliberi.demo.ring;
+
+import java.io.IOException;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.logging.Logger;
+
+/**
+ * The single writer of a shared-memory ring; see {@link RingLayout} for the file format.
+ * <p>
+ * {@link #offer(String)} never blocks: when the slowest live reader has not made room for a
+ * record, the record is dropped and counted. Reader cursor files are re-scanned at most every
+ * {@link #RESCAN_INTERVAL_MS} ms, and only while the ring looks full, so the common case costs
+ * a copy into the mapping and one ordered store.
+ * <p>
+ * Reopening an existing ring of the same capacity continues after its last record, so readers
+ * keep their place across a writer restart. A writer is not thread-safe.
+ */
+public final class RingWriter implements AutoCloseable {
+
+    private static final Logger LOGGER = Logger.getLogger(RingWriter.class.getName());
+    static final long RESCAN_INTERVAL_MS = 100;
+
+    private final Path file;
+    private final MappedByteBuffer buffer;
+    private final ByteBuffer payloadView;
+    private final int capacity;
+    private final int mask;
+    private final long readerTimeoutMs;
+    private final List<Cursor> cursors = new ArrayList<>();
+    private long position;
+    private long limit;
+    private long lastScanMillis;
+    private long written;
+    private long dropped;
+
+    private RingWriter(Path file, MappedByteBuffer buffer, int capacity, long readerTimeoutMs) {
+        this.file = file;
+        this.buffer = buffer;
+        this.payloadView = buffer.duplicate();
+        this.capacity = capacity;
+        this.mask = capacity - 1;
+        this.readerTimeoutMs = readerTimeoutMs;
+        this.position = (long) RingLayout.LONG.getAcquire(buffer, RingLayout.WRITE_CURSOR_OFFSET);
+        // A previous writer may have died between claiming and publishing
+        RingLayout.LONG.setRelease(buffer, RingLayout.CLAIM_CURSOR_OFFSET, position);
+        this.limit = position; // forces a scan before the first write
+    }
+
+    /**
+     * Creates a ring file, or reopens one with the same capacity.
+     * @param file the ring file
+     * @param capacity size of the data region in bytes, rounded up to a power of two
+     * @param readerTimeoutMs readers whose heartbeat is older than this no longer hold the writer back
+     * @return the writer
+     * @throws IOException if the file cannot be created or mapped
+     */
+    public static RingWriter open(Path file, int capacity, long readerTimeoutMs) throws IOException {
+        if (capacity < 1024 || capacity > (1 << 30)) {
+            throw new IllegalArgumentException("Ring capacity must be between 1 KiB and 1 GiB: " + capacity);
+        }
+        int rounded = Integer.highestOneBit(capacity - 1) << 1;
+        Path parent = file.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        try (FileChannel channel = FileChannel.open(file,
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            boolean reuse = channel.size() == RingLayout.HEADER_SIZE + rounded;
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, RingLayout.HEADER_SIZE + rounded);
+            if (!reuse || buffer.getInt(RingLayout.MAGIC_OFFSET) != RingLayout.MAGIC
+                    || buffer.getInt(RingLayout.CAPACITY_OFFSET) != rounded) {
+                if (channel.size() > RingLayout.HEADER_SIZE + rounded) {
+                    channel.truncate(RingLayout.HEADER_SIZE + rounded);
+                }
+                RingLayout.LONG.setRelease(buffer, RingLayout.WRITE_CURSOR_OFFSET, 0L);
+                buffer.putInt(RingLayout.CAPACITY_OFFSET, rounded);
+                buffer.putInt(RingLayout.MAGIC_OFFSET, RingLayout.MAGIC);
+            }
+            return new RingWriter(file, buffer, rounded, readerTimeoutMs);
+        }
+    }
+
+    /**
+     * Publishes a string to every reader, unless the ring is full.
+     * @param value the string
+     * @return {@code false} if the record was dropped for lack of room
+     */
+    public boolean offer(String value) {
+        return offer(ByteBuffer.wrap(value.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    /**
+     * Publishes an encoded string to every reader, unless the ring is full. The bytes are
+     * copied straight into the ring, so a caller that already holds them encoded allocates nothing.
+     * @param payload the UTF-8 encoded string, from its position to its limit; consumed if published
+     * @return {@code false} if the record was dropped for lack of room
+     */
+    public boolean offer(ByteBuffer payload) {
+        int length = payload.remaining();
+        int recordSize = RingLayout.align(RingLayout.RECORD_HEADER_SIZE + length);
+        if (recordSize > capacity / 2) {
+            throw new IllegalArgumentException("Record of " + length + " bytes exceeds half the ring capacity");
+        }
+        int offset = (int) (position & mask);
+        int padding = offset + recordSize > capacity ? capacity - offset : 0;
+        long end = position + padding + recordSize;
+        if (end > limit && !makeRoom(end)) {
+            dropped++;
+            return false;
+        }
+        // Claims the bytes before touching them, so a lapped reader can tell its copy was torn
+        RingLayout.LONG.setOpaque(buffer, RingLayout.CLAIM_CURSOR_OFFSET, end);
+        VarHandle.storeStoreFence();
+        if (padding > 0) {
+            buffer.putInt(RingLayout.HEADER_SIZE + offset, RingLayout.PADDING);
+            offset = 0;
+        }
+        int base = RingLayout.HEADER_SIZE + offset;
+        buffer.putInt(base, length);
+        payloadView.position(base + RingLayout.RECORD_HEADER_SIZE);
+        payloadView.put(payload);
+        position = end;
+        // Publishes the record: readers read the cursor with acquire semantics
+        RingLayout.LONG.setRelease(buffer, RingLayout.WRITE_CURSOR_OFFSET, position);
+        written++;
+        return true;
+    }
+
+    /**
+     * @return records published since this writer was opened
+     */
+    public long getWrittenCount() {
+        return written;
+    }
+
+    /**
+     * @return records dropped because a live reader had not made room for them
+     */
+    public long getDroppedCount() {
+        return dropped;
+    }
+
+    /**
+     * @return the number of readers currently holding the writer back
+     */
+    public int getLiveReaderCount() {
+        long now = System.currentTimeMillis();
+        int live = 0;
+        for (Cursor cursor : cursors) {
+            if (cursor.isLive(now, readerTimeoutMs)) {
+                live++;
+            }
+        }
+        return live;
+    }
+
+    /**
+     * @return the ring file
+     */
+    public Path getFile() {
+        return file;
+    }
+
+    /**
+     * Flushes the ring to the storage device. Readers mapping the file are unaffected.
+     */
+    @Override
+    public void close() {
+        buffer.force();
+        cursors.clear();
+    }
+
+    /**
+     * Recomputes how far the writer may go from the cursors of the live readers.
+     * @return {@code true} if {@code end} is now within reach
+     */
+    private boolean makeRoom(long end) {
+        long now = System.currentTimeMillis();
+        if (now - lastScanMillis >= RESCAN_INTERVAL_MS) {
+            lastScanMillis = now;
+            scanCursors();
+        }
+        long slowest = position;
+        for (Cursor cursor : cursors) {
+            if (cursor.isLive(now, readerTimeoutMs)) {
+                slowest = Math.min(slowest, cursor.position());
+            }
+        }
+        limit = slowest + capacity;
+        return end <= limit;
+    }
+
+    private void scanCursors() {
+        String prefix = file.getFileName() + ".";
+        List<Cursor> found = new ArrayList<>();
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(file.toAbsolutePath().getParent(),
+                path -> path.getFileName().toString().startsWith(prefix)
+                        && path.getFileName().toString().endsWith(RingLayout.CURSOR_SUFFIX))) {
+            for (Path path : files) {
+                Cursor known = null;
+                for (Cursor cursor : cursors) {
+                    if (cursor.path.equals(path)) {
+                        known = cursor;
+                    }
+                }
+                if (known == null) {
+                    try {
+                        known = Cursor.map(path);
+                    } catch (IOException e) {
+                        // A reader deleting its cursor file while we look is expected
+                        LOGGER.fine("Skipping ring cursor " + path.getFileName() + ": " + e.getMessage());
+                        continue;
+                    }
+                }
+                found.add(known);
+            }
+        } catch (IOException e) {
+            LOGGER.warning("Failed to scan ring cursors, keeping the ones known: " + e.getMessage());
+            return;
+        }
+        cursors.clear();
+        cursors.addAll(found);
+    }
+
+    /**
+     * A reader's cursor file, mapped read-only.
+     */
+    private static final class Cursor {
+        private final Path path;
+        private final ByteBuffer mapping;
+
+        private Cursor(Path path, ByteBuffer mapping) {
+            this.path = path;
+            this.mapping = mapping;
+        }
+
+        static Cursor map(Path path) throws IOException {
+            try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+                return new Cursor(path, channel.map(FileChannel.MapMode.READ_ONLY, 0, RingLayout.CURSOR_FILE_SIZE));
+            }
+        }
+
+        long position() {
+            return (long) RingLayout.LONG.getAcquire(mapping, RingLayout.CURSOR_POSITION_OFFSET);
+        }
+
+        boolean isLive(long now, long timeoutMs) {
+            long heartbeat = (long) RingLayout.LONG.getAcquire(mapping, RingLayout.CURSOR_HEARTBEAT_OFFSET);
+            return now - heartbeat < timeoutMs;
+        }
+    }
+}
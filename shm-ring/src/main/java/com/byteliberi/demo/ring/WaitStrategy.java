@@ -0,0 +1,54 @@
+package com.byteliberi.demo.ring;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * How a {@link RingReader} waits for the writer when the ring is empty.
+ */
+public enum WaitStrategy {
+
+    /** Spins on the write cursor: lowest latency, one core fully busy. */
+    BUSY_SPIN {
+        @Override
+        void idle(int attempt) {
+            Thread.onSpinWait();
+        }
+    },
+
+    /**
+     * Spins briefly, then yields, then parks for a time that doubles up to 1 ms: near spin
+     * latency under steady traffic, and next to no CPU once the ring stays empty.
+     */
+    SPIN_THEN_PARK {
+        @Override
+        void idle(int attempt) {
+            if (attempt < SPINS) {
+                Thread.onSpinWait();
+            } else if (attempt < SPINS + YIELDS) {
+                Thread.yield();
+            } else {
+                int shift = Math.min(attempt - SPINS - YIELDS, 10);
+                LockSupport.parkNanos(Math.min(MAX_PARK_NANOS, 1_000L << shift));
+            }
+        }
+    },
+
+    /** Checks once per millisecond: cheapest, with latency to match. */
+    POLL {
+        @Override
+        void idle(int attempt) {
+            LockSupport.parkNanos(MAX_PARK_NANOS);
+        }
+    };
+
+    private static final int SPINS = 20_000;
+    private static final int YIELDS = 100;
+    private static final long MAX_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+
+    /**
+     * Waits a little.
+     * @param attempt how many times in a row the ring has been found empty, starting at 0
+     */
+    abstract void idle(int attempt);
+}
@@ -0,0 +1,106 @@
+package com.byteliberi.demo.ring.impl;
+
+import com.byteliberi.demo.component.ComponentConfig;
+import com.byteliberi.demo.producer.api.PayloadHandle;
+import com.byteliberi.demo.producer.api.StringProducer;
+import com.byteliberi.demo.ring.RingReader;
+import com.byteliberi.demo.ring.RingWriter;
+import org.osgi.service.component.annotations.Activate;
+import org.osgi.service.component.annotations.Component;
+import org.osgi.service.component.annotations.Deactivate;
+import org.osgi.service.component.annotations.Reference;
+
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.util.Collections;
+import java.util.Map;
+import java.util.logging.Logger;
+
+/**
+ * Ring publisher that consumes strings from the StringProducer and writes them into a
+ * memory-mapped ring file, from which processes on the same host read them with a
+ * {@link RingReader} without any system call per string.
+ * <p>
+ * Writing happens on the producer thread and never blocks: when the slowest reader has
+ * not made room, the string is dropped and counted. The ring is a live feed, so the publisher
+ * registers as a plain listener rather than a durable one.
+ * <p>
+ * The publisher registers as a payload listener: the encoded bytes go straight from the
+ * producer's payload into the ring, so with the producer's slab enabled publishing allocates nothing.
+ */
+@Component(immediate = true)
+public class RingPublisher implements StringProducer.PayloadListener {
+
+    private static final Logger LOGGER = Logger.getLogger(RingPublisher.class.getName());
+
+    static final String RING_FILE = "ring.file";
+    static final String RING_CAPACITY = "ring.capacity";
+    static final String READER_TIMEOUT_MS = "reader.timeout.ms";
+    private static final String DEFAULT_RING_FILE = "/tmp/osgi-demo-ring/strings.ring";
+
+    @Reference
+    private StringProducer stringProducer;
+
+    private volatile RingWriter writer;
+
+    /**
+     * Activates the ring publisher with default configuration.
+     */
+    public void activate() {
+        activate(Collections.emptyMap());
+    }
+
+    /**
+     * Activates the ring publisher, opens the ring and registers as a listener.
+     * @param properties the component configuration
+     */
+    @Activate
+    public void activate(Map<String, Object> properties) {
+        ComponentConfig config = new ComponentConfig(properties);
+        try {
+            writer = RingWriter.open(Paths.get(config.getString(RING_FILE, DEFAULT_RING_FILE)),
+                    config.getInt(RING_CAPACITY, 4 * 1024 * 1024), config.getLong(READER_TIMEOUT_MS, 5000));
+        } catch (IOException e) {
+            LOGGER.severe("Failed to open ring file: " + e.getMessage());
+            throw new RuntimeException("Cannot start ring publisher", e);
+        }
+        stringProducer.addPayloadListener(this);
+        LOGGER.info("Ring publisher activated, writing to " + writer.getFile() + " and registered with string producer");
+    }
+
+    /**
+     * Deactivates the ring publisher and unregisters as a listener.
+     */
+    @Deactivate
+    public void deactivate() {
+        try {
+            if (stringProducer != null) {
+                stringProducer.removePayloadListener(this);
+            }
+            RingWriter current = writer;
+            if (current != null) {
+                current.close();
+                LOGGER.info("Ring publisher deactivated after writing " + current.getWrittenCount()
+                        + " string(s), dropping " + current.getDroppedCount());
+            }
+        } catch (Exception e) {
+            LOGGER.warning("Error during ring publisher deactivation: " + e.getMessage());
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void onPayload(PayloadHandle payload) {
+        writer.offer(payload.payload());
+    }
+
+    /**
+     * @return the number of strings dropped because a reader had not made room
+     */
+    public long getDroppedCount() {
+        RingWriter current = writer;
+        return current == null ? 0 : current.getDroppedCount();
+    }
+}
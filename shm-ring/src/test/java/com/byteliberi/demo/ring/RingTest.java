@@ -0,0 +1,178 @@
+package com.byteliberi.demo.ring;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for RingWriter and RingReader.
+ */
+class RingTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void testReadersSeeRecordsWrittenAfterTheyAttached() throws IOException {
+        Path file = tempDir.resolve("test.ring");
+        try (RingWriter writer = RingWriter.open(file, 4096, 5000)) {
+            writer.offer("before");
+            try (RingReader first = RingReader.open(file, "first", WaitStrategy.POLL);
+                 RingReader second = RingReader.open(file, "second", WaitStrategy.POLL)) {
+                writer.offer("one");
+                writer.offer("twó");
+                assertEquals(List.of("one", "twó"), drain(first));
+                writer.offer("three");
+                assertEquals(List.of("three"), drain(first));
+                assertEquals(List.of("one", "twó", "three"), drain(second), "Readers should be independent");
+            }
+        }
+    }
+
+    @Test
+    void testRecordsWrapAroundTheEndOfTheRing() throws IOException {
+        Path file = tempDir.resolve("test.ring");
+        try (RingWriter writer = RingWriter.open(file, 1024, 5000);
+             RingReader reader = RingReader.open(file, "reader", WaitStrategy.POLL)) {
+            List<String> expected = new ArrayList<>();
+            List<String> actual = new ArrayList<>();
+            for (int i = 0; i < 500; i++) {
+                String value = "value-" + i + "-" + "x".repeat(i % 40);
+                expected.add(value);
+                assertTrue(writer.offer(value), "A reader that keeps up should never make the writer drop");
+                actual.addAll(drain(reader));
+            }
+            assertEquals(expected, actual);
+            assertEquals(0, reader.getLapCount());
+        }
+    }
+
+    @Test
+    void testWriteInProgressOverRecord_isNotHandedOut() throws IOException {
+        Path file = tempDir.resolve("test.ring");
+        try (RingWriter writer = RingWriter.open(file, 1024, 5000);
+             RingReader reader = RingReader.open(file, "stale", WaitStrategy.POLL)) {
+            writer.offer("about-to-be-overwritten");
+            // A writer that has claimed, but not yet published, bytes of the record's slot a lap later
+            try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+                MappedByteBuffer header = channel.map(FileChannel.MapMode.READ_WRITE, 0, RingLayout.HEADER_SIZE);
+                RingLayout.LONG.setRelease(header, RingLayout.CLAIM_CURSOR_OFFSET, 1024L + 8);
+            }
+
+            assertEquals(List.of(), drain(reader), "A record that may be torn must not be delivered");
+            assertEquals(1, reader.getLapCount());
+        }
+    }
+
+    @Test
+    void testSlowLiveReader_makesTheWriterDrop() throws IOException {
+        Path file = tempDir.resolve("test.ring");
+        try (RingWriter writer = RingWriter.open(file, 1024, 5000);
+             RingReader reader = RingReader.open(file, "slow", WaitStrategy.POLL)) {
+            int accepted = 0;
+            while (writer.offer("0123456789012345678901234567")) {
+                accepted++;
+            }
+            assertEquals(1024 / 32, accepted, "The ring holds capacity / record size records");
+            assertEquals(1, writer.getDroppedCount());
+            assertEquals(accepted, drain(reader).size(), "Nothing the reader had not read may be overwritten");
+            assertEquals(0, reader.getLapCount());
+        }
+    }
+
+    @Test
+    void testClosedReader_releasesTheWriter() throws Exception {
+        Path file = tempDir.resolve("test.ring");
+        try (RingWriter writer = RingWriter.open(file, 1024, 5000)) {
+            RingReader reader = RingReader.open(file, "leaving", WaitStrategy.POLL);
+            while (writer.offer("0123456789012345678901234567")) {
+                // fill the ring
+            }
+            reader.close();
+            assertFalse(Files.exists(tempDir.resolve("test.ring.leaving.cursor")));
+            waitForRescan();
+            assertTrue(writer.offer("after"));
+            assertEquals(0, writer.getLiveReaderCount());
+        }
+    }
+
+    @Test
+    void testStaleReader_isLappedInsteadOfBlockingTheWriter() throws Exception {
+        Path file = tempDir.resolve("test.ring");
+        try (RingWriter writer = RingWriter.open(file, 1024, 50);
+             RingReader reader = RingReader.open(file, "stale", WaitStrategy.POLL)) {
+            Thread.sleep(100); // heartbeat expires
+            waitForRescan();
+            for (int i = 0; i < 100; i++) {
+                assertTrue(writer.offer("0123456789012345678901234567"));
+            }
+            writer.offer("latest");
+            assertEquals(List.of(), drain(reader), "Overwritten records must not be handed out");
+            assertEquals(1, reader.getLapCount());
+            writer.offer("next");
+            assertEquals(List.of("next"), drain(reader));
+        }
+    }
+
+    @Test
+    void testReopenedWriter_continuesWhereItStopped() throws IOException {
+        Path file = tempDir.resolve("test.ring");
+        RingWriter writer = RingWriter.open(file, 4096, 5000);
+        try (RingReader reader = RingReader.open(file, "reader", WaitStrategy.POLL)) {
+            writer.offer("first");
+            writer.close();
+            try (RingWriter reopened = RingWriter.open(file, 4096, 5000)) {
+                reopened.offer("second");
+            }
+            assertEquals(List.of("first", "second"), drain(reader));
+        }
+    }
+
+    @Test
+    void testReaderOnAnotherThread_receivesEverythingInOrder() throws Exception {
+        Path file = tempDir.resolve("test.ring");
+        int count = 200_000;
+        List<String> received = new ArrayList<>();
+        try (RingWriter writer = RingWriter.open(file, 64 * 1024, 5000);
+             RingReader reader = RingReader.open(file, "reader", WaitStrategy.SPIN_THEN_PARK)) {
+            Thread thread = new Thread(() -> {
+                while (received.size() < count && reader.read(received::add, 1024, TimeUnit.SECONDS.toNanos(5)) > 0) {
+                    // keep reading
+                }
+            });
+            thread.start();
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+            for (int i = 0; i < count && System.nanoTime() < deadline; i++) {
+                while (!writer.offer(Integer.toString(i)) && System.nanoTime() < deadline) {
+                    Thread.onSpinWait();
+                }
+            }
+            thread.join(10_000);
+            assertEquals(count, received.size());
+            for (int i = 0; i < count; i++) {
+                assertEquals(Integer.toString(i), received.get(i));
+            }
+        }
+    }
+
+    private static List<String> drain(RingReader reader) {
+        List<String> values = new ArrayList<>();
+        reader.poll(values::add, Integer.MAX_VALUE);
+        return values;
+    }
+
+    private static void waitForRescan() throws InterruptedException {
+        Thread.sleep(RingWriter.RESCAN_INTERVAL_MS + 20);
+    }
+}
@@ -0,0 +1,68 @@
+package com.byteliberi.demo.ring.impl;
+
+import com.byteliberi.demo.producer.api.PayloadHandle;
+import com.byteliberi.demo.producer.api.StringProducer;
+import com.byteliberi.demo.ring.RingReader;
+import com.byteliberi.demo.ring.WaitStrategy;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for RingPublisher.
+ */
+@ExtendWith(MockitoExtension.class)
+class RingPublisherTest {
+
+    @Mock
+    private StringProducer mockStringProducer;
+
+    @TempDir
+    Path tempDir;
+
+    private RingPublisher publisher;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        publisher = new RingPublisher();
+        java.lang.reflect.Field field = RingPublisher.class.getDeclaredField("stringProducer");
+        field.setAccessible(true);
+        field.set(publisher, mockStringProducer);
+    }
+
+    @Test
+    void testActivate_registersWithProducer() {
+        publisher.activate(Map.of(RingPublisher.RING_FILE, tempDir.resolve("strings.ring").toString()));
+        verify(mockStringProducer).addPayloadListener(publisher);
+        publisher.deactivate();
+        verify(mockStringProducer).removePayloadListener(publisher);
+    }
+
+    @Test
+    void testOnPayload_reachesRingReaders() throws Exception {
+        Path ring = tempDir.resolve("strings.ring");
+        publisher.activate(Map.of(RingPublisher.RING_FILE, ring.toString(), RingPublisher.RING_CAPACITY, 4096));
+        try (RingReader reader = RingReader.open(ring, "test", WaitStrategy.POLL)) {
+            publisher.onPayload(PayloadHandle.of("Hello123"));
+            publisher.onPayload(PayloadHandle.of("World456"));
+
+            List<String> received = new ArrayList<>();
+            reader.poll(received::add, 10);
+            assertEquals(List.of("Hello123", "World456"), received);
+            assertEquals(0, publisher.getDroppedCount());
+        } finally {
+            publisher.deactivate();
+        }
+    }
+}
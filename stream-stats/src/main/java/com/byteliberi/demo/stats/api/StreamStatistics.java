@@ -0,0 +1,29 @@
+package com.byteliberi.demo.stats.api;
+
+/**
+ * Service interface for windowed statistics over the produced strings.
+ * All methods return immutable snapshots and may be called from any thread.
+ */
+public interface StreamStatistics {
+
+    /**
+     * Returns the most recently completed tumbling window.
+     * Tumbling windows are aligned to multiples of their length and do not overlap.
+     * @return the last complete window, or {@code null} if none has completed yet
+     */
+    WindowSnapshot getLastTumblingWindow();
+
+    /**
+     * Returns the sliding window ending now.
+     * The window advances in steps of its slide interval, so its start is accurate
+     * to one slide.
+     * @return statistics over the configured sliding window
+     */
+    WindowSnapshot getSlidingWindow();
+
+    /**
+     * Returns statistics accumulated since the component was activated.
+     * @return the running totals
+     */
+    WindowSnapshot getTotals();
+}
@@ -0,0 +1,149 @@
+package com.byteliberi.demo.stats.api;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Immutable statistics over the strings received in one time window.
+ */
+public final class WindowSnapshot {
+
+    private final long startMillis;
+    private final long endMillis;
+    private final long count;
+    private final long totalLength;
+    private final int minLength;
+    private final int maxLength;
+    private final long[] lengthHistogram;
+    private final long[] characterCounts;
+    private final long otherCharacterCount;
+    private final List<PrefixCount> topPrefixes;
+
+    /**
+     * @param startMillis window start in milliseconds since the epoch, inclusive
+     * @param endMillis window end in milliseconds since the epoch, exclusive
+     * @param count number of strings in the window
+     * @param totalLength sum of all string lengths
+     * @param minLength shortest string length, 0 if the window is empty
+     * @param maxLength longest string length, 0 if the window is empty
+     * @param lengthHistogram number of strings per length; the last bucket also counts longer strings
+     * @param characterCounts occurrences of each ASCII character, indexed by code point
+     * @param otherCharacterCount occurrences of non-ASCII characters
+     * @param topPrefixes most frequent prefixes, most frequent first
+     */
+    public WindowSnapshot(long startMillis, long endMillis, long count, long totalLength, int minLength, int maxLength,
+                          long[] lengthHistogram, long[] characterCounts, long otherCharacterCount,
+                          List<PrefixCount> topPrefixes) {
+        this.startMillis = startMillis;
+        this.endMillis = endMillis;
+        this.count = count;
+        this.totalLength = totalLength;
+        this.minLength = minLength;
+        this.maxLength = maxLength;
+        this.lengthHistogram = lengthHistogram.clone();
+        this.characterCounts = characterCounts.clone();
+        this.otherCharacterCount = otherCharacterCount;
+        this.topPrefixes = Collections.unmodifiableList(topPrefixes);
+    }
+
+    public long getStartMillis() {
+        return startMillis;
+    }
+
+    public long getEndMillis() {
+        return endMillis;
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    /**
+     * @return strings per second over the window
+     */
+    public double getEventsPerSecond() {
+        long duration = endMillis - startMillis;
+        return duration > 0 ? count * 1000.0 / duration : 0;
+    }
+
+    public int getMinLength() {
+        return minLength;
+    }
+
+    public int getMaxLength() {
+        return maxLength;
+    }
+
+    public double getMeanLength() {
+        return count > 0 ? (double) totalLength / count : 0;
+    }
+
+    /**
+     * @return a copy of the per-length counts; index {@code n} counts strings of length
+     *         {@code n}, the last index also counts all longer strings
+     */
+    public long[] getLengthHistogram() {
+        return lengthHistogram.clone();
+    }
+
+    /**
+     * @param c the character
+     * @return how often {@code c} occurred, or the count of all non-ASCII characters if
+     *         {@code c} is outside ASCII
+     */
+    public long getCharacterCount(char c) {
+        return c < characterCounts.length ? characterCounts[c] : otherCharacterCount;
+    }
+
+    /**
+     * @return a copy of the ASCII character counts, indexed by code point
+     */
+    public long[] getCharacterCounts() {
+        return characterCounts.clone();
+    }
+
+    public long getOtherCharacterCount() {
+        return otherCharacterCount;
+    }
+
+    /**
+     * Prefix counts are count-min sketch estimates: they may overstate, never understate.
+     * @return the most frequent prefixes, most frequent first
+     */
+    public List<PrefixCount> getTopPrefixes() {
+        return topPrefixes;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%d strings (%.1f/s), length %d..%d mean %.1f, top prefixes %s",
+                count, getEventsPerSecond(), minLength, maxLength, getMeanLength(), topPrefixes);
+    }
+
+    /**
+     * A prefix and its estimated number of occurrences.
+     */
+    public static final class PrefixCount {
+
+        private final String prefix;
+        private final long estimatedCount;
+
+        public PrefixCount(String prefix, long estimatedCount) {
+            this.prefix = prefix;
+            this.estimatedCount = estimatedCount;
+        }
+
+        public String getPrefix() {
+            return prefix;
+        }
+
+        public long getEstimatedCount() {
+            return estimatedCount;
+        }
+
+        @Override
+        public String toString() {
+            return prefix + "=" + estimatedCount;
+        }
+    }
+}
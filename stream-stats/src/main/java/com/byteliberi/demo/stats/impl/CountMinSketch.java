@@ -0,0 +1,103 @@
+package com.byteliberi.demo.stats.impl;
+
+import java.util.Arrays;
+
+/**
+ * Count-min sketch over 64-bit key hashes: fixed memory, estimates that may overstate
+ * a key's count by collisions but never understate it.
+ * <p>
+ * Each of the {@code depth} rows picks its column by double hashing the key hash, so a
+ * key is hashed only once however deep the sketch is.
+ */
+final class CountMinSketch {
+
+    private final int width;
+    private final int depth;
+    private final long[] counts;
+
+    /**
+     * @param width columns per row, rounded up to a power of two
+     * @param depth number of rows
+     */
+    CountMinSketch(int width, int depth) {
+        if (width < 1 || depth < 1) {
+            throw new IllegalArgumentException("Sketch width and depth must be positive: " + width + "x" + depth);
+        }
+        int columns = 1;
+        while (columns < width) {
+            columns <<= 1;
+        }
+        this.width = columns;
+        this.depth = depth;
+        this.counts = new long[this.width * depth];
+    }
+
+    /**
+     * Counts one occurrence of a key.
+     * @param hash the key hash, see {@link #hash(String, int)}
+     * @return the key's estimated count including this occurrence
+     */
+    long add(long hash) {
+        long estimate = Long.MAX_VALUE;
+        for (int row = 0; row < depth; row++) {
+            int index = index(row, hash);
+            estimate = Math.min(estimate, ++counts[index]);
+        }
+        return estimate;
+    }
+
+    /**
+     * @param hash the key hash
+     * @return the key's estimated count
+     */
+    long estimate(long hash) {
+        long estimate = Long.MAX_VALUE;
+        for (int row = 0; row < depth; row++) {
+            estimate = Math.min(estimate, counts[index(row, hash)]);
+        }
+        return estimate;
+    }
+
+    /**
+     * Adds another sketch of the same dimensions into this one.
+     * @param other the sketch to add
+     */
+    void merge(CountMinSketch other) {
+        if (other.width != width || other.depth != depth) {
+            throw new IllegalArgumentException("Cannot merge sketches of different dimensions");
+        }
+        for (int i = 0; i < counts.length; i++) {
+            counts[i] += other.counts[i];
+        }
+    }
+
+    void clear() {
+        Arrays.fill(counts, 0);
+    }
+
+    private int index(int row, long hash) {
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32) | 1;
+        return row * width + ((h1 + row * h2) & (width - 1));
+    }
+
+    /**
+     * 64-bit FNV-1a over the first {@code length} UTF-16 code units of a string, followed
+     * by a finalizer; hashes a prefix without allocating it.
+     * @param value the string
+     * @param length number of leading characters to hash, capped at the string length
+     * @return the hash
+     */
+    static long hash(String value, int length) {
+        int end = Math.min(length, value.length());
+        long h = 0xcbf29ce484222325L;
+        for (int i = 0; i < end; i++) {
+            h ^= value.charAt(i);
+            h *= 0x100000001b3L;
+        }
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        return h;
+    }
+}
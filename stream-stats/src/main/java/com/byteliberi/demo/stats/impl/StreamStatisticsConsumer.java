@@ -0,0 +1,115 @@
+package com.byteliberi.demo.stats.impl;
+
+import com.byteliberi.demo.component.ComponentConfig;
+import com.byteliberi.demo.producer.api.StringProducer;
+import com.byteliberi.demo.stats.api.StreamStatistics;
+import com.byteliberi.demo.stats.api.WindowSnapshot;
+import org.osgi.service.component.annotations.Activate;
+import org.osgi.service.component.annotations.Component;
+import org.osgi.service.component.annotations.Deactivate;
+import org.osgi.service.component.annotations.Reference;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.logging.Logger;
+
+/**
+ * Stream statistics implementation that consumes strings from the StringProducer
+ * and publishes tumbling, sliding and running statistics as a {@link StreamStatistics} service.
+ * <p>
+ * It registers as a plain listener rather than a durable one: replaying a backlog would
+ * crowd historical strings into the current window and distort the rates.
+ */
+@Component(immediate = true, service = StreamStatistics.class)
+public class StreamStatisticsConsumer implements StreamStatistics, StringProducer.StringListener {
+
+    private static final Logger LOGGER = Logger.getLogger(StreamStatisticsConsumer.class.getName());
+
+    static final String TUMBLING_WINDOW_MS = "tumbling.window.ms";
+    static final String SLIDING_WINDOW_MS = "sliding.window.ms";
+    static final String SLIDE_MS = "sliding.slide.ms";
+    static final String TOP_K = "top.k";
+    static final String PREFIX_LENGTH = "prefix.length";
+    static final String SKETCH_WIDTH = "sketch.width";
+    static final String SKETCH_DEPTH = "sketch.depth";
+
+    @Reference
+    private StringProducer stringProducer;
+
+    private volatile WindowedAggregator aggregator;
+
+    /**
+     * Activates the statistics service with default configuration.
+     */
+    public void activate() {
+        activate(Collections.emptyMap());
+    }
+
+    /**
+     * Activates the statistics service and registers as a listener.
+     * @param properties the component configuration
+     */
+    @Activate
+    public void activate(Map<String, Object> properties) {
+        ComponentConfig config = new ComponentConfig(properties);
+        aggregator = new WindowedAggregator(
+                config.getLong(TUMBLING_WINDOW_MS, 60_000),
+                config.getLong(SLIDING_WINDOW_MS, 60_000),
+                config.getLong(SLIDE_MS, 5_000),
+                config.getInt(TOP_K, 10),
+                config.getInt(PREFIX_LENGTH, 2),
+                config.getInt(SKETCH_WIDTH, 1024),
+                config.getInt(SKETCH_DEPTH, 4),
+                System.currentTimeMillis(),
+                window -> LOGGER.info("Tumbling window complete: " + window));
+        stringProducer.addListener(this);
+        LOGGER.info("Stream statistics activated and registered with string producer");
+    }
+
+    /**
+     * Deactivates the statistics service and unregisters as a listener.
+     */
+    @Deactivate
+    public void deactivate() {
+        try {
+            if (stringProducer != null) {
+                stringProducer.removeListener(this);
+            }
+            LOGGER.info("Stream statistics deactivated and unregistered from string producer");
+        } catch (Exception e) {
+            LOGGER.warning("Error during stream statistics deactivation: " + e.getMessage());
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void onStringGenerated(String value) {
+        aggregator.add(value, System.currentTimeMillis());
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public WindowSnapshot getLastTumblingWindow() {
+        return aggregator.getLastTumblingWindow(System.currentTimeMillis());
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public WindowSnapshot getSlidingWindow() {
+        return aggregator.getSlidingWindow(System.currentTimeMillis());
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public WindowSnapshot getTotals() {
+        return aggregator.getTotals(System.currentTimeMillis());
+    }
+}
@@ -0,0 +1,160 @@
+package com.byteliberi.demo.stats.impl;
+
+import com.byteliberi.demo.stats.api.WindowSnapshot;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Statistics of one window, kept in fixed-size primitive arrays so that memory does not
+ * grow with the number of strings and {@link #add(String)} allocates nothing unless a
+ * new prefix enters the top-K.
+ * <p>
+ * Top prefixes are tracked as a small candidate set scored by a {@link CountMinSketch}:
+ * a prefix replaces the weakest candidate once its estimate exceeds that candidate's.
+ * Not thread-safe; {@link WindowedAggregator} serializes access.
+ */
+final class WindowAccumulator {
+
+    /** Strings of this length or longer share the last histogram bucket. */
+    static final int MAX_TRACKED_LENGTH = 64;
+    private static final int ASCII = 128;
+
+    private final int prefixLength;
+    private final CountMinSketch sketch;
+    private final long[] lengthHistogram = new long[MAX_TRACKED_LENGTH + 1];
+    private final long[] characterCounts = new long[ASCII];
+    private final String[] topPrefixes;
+    private final long[] topHashes;
+    private final long[] topCounts;
+    private int topSize;
+    private long otherCharacterCount;
+    private long count;
+    private long totalLength;
+    private int minLength = Integer.MAX_VALUE;
+    private int maxLength;
+    private long startMillis;
+
+    WindowAccumulator(int topK, int prefixLength, int sketchWidth, int sketchDepth) {
+        this.prefixLength = prefixLength;
+        this.sketch = new CountMinSketch(sketchWidth, sketchDepth);
+        this.topPrefixes = new String[topK];
+        this.topHashes = new long[topK];
+        this.topCounts = new long[topK];
+    }
+
+    void add(String value) {
+        int length = value.length();
+        count++;
+        totalLength += length;
+        minLength = Math.min(minLength, length);
+        maxLength = Math.max(maxLength, length);
+        lengthHistogram[Math.min(length, MAX_TRACKED_LENGTH)]++;
+        for (int i = 0; i < length; i++) {
+            char c = value.charAt(i);
+            if (c < ASCII) {
+                characterCounts[c]++;
+            } else {
+                otherCharacterCount++;
+            }
+        }
+        long hash = CountMinSketch.hash(value, prefixLength);
+        offer(value, hash, sketch.add(hash));
+    }
+
+    /**
+     * Adds another window's counts into this one, then re-scores the other window's
+     * prefix candidates against the combined sketch.
+     * @param other the window to add
+     */
+    void merge(WindowAccumulator other) {
+        if (other.count == 0) {
+            return;
+        }
+        count += other.count;
+        totalLength += other.totalLength;
+        minLength = Math.min(minLength, other.minLength);
+        maxLength = Math.max(maxLength, other.maxLength);
+        otherCharacterCount += other.otherCharacterCount;
+        for (int i = 0; i < lengthHistogram.length; i++) {
+            lengthHistogram[i] += other.lengthHistogram[i];
+        }
+        for (int i = 0; i < characterCounts.length; i++) {
+            characterCounts[i] += other.characterCounts[i];
+        }
+        sketch.merge(other.sketch);
+        for (int i = 0; i < topSize; i++) {
+            topCounts[i] = sketch.estimate(topHashes[i]);
+        }
+        for (int i = 0; i < other.topSize; i++) {
+            offer(other.topPrefixes[i], other.topHashes[i], sketch.estimate(other.topHashes[i]));
+        }
+    }
+
+    /**
+     * Empties the window and restarts it.
+     * @param startMillis start of the new window
+     */
+    void reset(long startMillis) {
+        this.startMillis = startMillis;
+        if (count == 0) {
+            return;
+        }
+        Arrays.fill(lengthHistogram, 0);
+        Arrays.fill(characterCounts, 0);
+        Arrays.fill(topPrefixes, null);
+        sketch.clear();
+        topSize = 0;
+        otherCharacterCount = 0;
+        count = 0;
+        totalLength = 0;
+        minLength = Integer.MAX_VALUE;
+        maxLength = 0;
+    }
+
+    long getStartMillis() {
+        return startMillis;
+    }
+
+    long getCount() {
+        return count;
+    }
+
+    WindowSnapshot snapshot(long endMillis) {
+        List<WindowSnapshot.PrefixCount> prefixes = new ArrayList<>(topSize);
+        for (int i = 0; i < topSize; i++) {
+            prefixes.add(new WindowSnapshot.PrefixCount(topPrefixes[i], topCounts[i]));
+        }
+        prefixes.sort((a, b) -> Long.compare(b.getEstimatedCount(), a.getEstimatedCount()));
+        return new WindowSnapshot(startMillis, endMillis, count, totalLength,
+                count > 0 ? minLength : 0, maxLength, lengthHistogram, characterCounts,
+                otherCharacterCount, prefixes);
+    }
+
+    /**
+     * Updates a candidate's count or lets the prefix replace the weakest candidate.
+     * The prefix string is only materialized when it becomes a candidate.
+     */
+    private void offer(String value, long hash, long estimate) {
+        int weakest = -1;
+        for (int i = 0; i < topSize; i++) {
+            if (topHashes[i] == hash && topPrefixes[i].regionMatches(0, value, 0, topPrefixes[i].length())
+                    && topPrefixes[i].length() == Math.min(prefixLength, value.length())) {
+                topCounts[i] = estimate;
+                return;
+            }
+            if (weakest < 0 || topCounts[i] < topCounts[weakest]) {
+                weakest = i;
+            }
+        }
+        if (topSize < topPrefixes.length) {
+            weakest = topSize++;
+        } else if (weakest < 0 || estimate <= topCounts[weakest]) {
+            return;
+        }
+        topPrefixes[weakest] = value.length() > prefixLength ? value.substring(0, prefixLength) : value;
+        topHashes[weakest] = hash;
+        topCounts[weakest] = estimate;
+    }
+}
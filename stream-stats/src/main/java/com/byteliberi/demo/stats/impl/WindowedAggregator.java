@@ -0,0 +1,124 @@
+package com.byteliberi.demo.stats.impl;
+
+import com.byteliberi.demo.stats.api.WindowSnapshot;
+
+import java.util.function.Consumer;
+
+/**
+ * Maintains running totals, a tumbling window and a sliding window over a stream of strings.
+ * <p>
+ * The sliding window is a ring of panes, each one slide long; a snapshot merges the panes
+ * that fall inside the window. Windows roll over lazily when a string arrives or a snapshot
+ * is taken, so no timer thread is needed. Memory is fixed at construction: one accumulator
+ * for the totals, one for the tumbling window and one per pane.
+ * All methods take the current time so that tests can drive the clock.
+ */
+final class WindowedAggregator {
+
+    private final long tumblingMillis;
+    private final long slidingMillis;
+    private final long slideMillis;
+    private final WindowAccumulator totals;
+    private final WindowAccumulator tumbling;
+    private final WindowAccumulator[] panes;
+    private final WindowAccumulator merged;
+    private final Consumer<WindowSnapshot> onTumblingWindowComplete;
+    private WindowSnapshot lastTumbling;
+
+    /**
+     * @param tumblingMillis tumbling window length
+     * @param slidingMillis sliding window length, rounded up to a multiple of the slide
+     * @param slideMillis how far the sliding window advances at a time
+     * @param topK number of prefixes tracked per window
+     * @param prefixLength prefix length in characters
+     * @param sketchWidth count-min sketch columns
+     * @param sketchDepth count-min sketch rows
+     * @param startMillis the current time
+     * @param onTumblingWindowComplete called with each completed, non-empty tumbling window
+     */
+    WindowedAggregator(long tumblingMillis, long slidingMillis, long slideMillis, int topK, int prefixLength,
+                       int sketchWidth, int sketchDepth, long startMillis,
+                       Consumer<WindowSnapshot> onTumblingWindowComplete) {
+        if (tumblingMillis <= 0 || slidingMillis <= 0 || slideMillis <= 0) {
+            throw new IllegalArgumentException("Window lengths must be positive");
+        }
+        this.tumblingMillis = tumblingMillis;
+        this.slideMillis = slideMillis;
+        int paneCount = (int) ((slidingMillis + slideMillis - 1) / slideMillis);
+        this.slidingMillis = paneCount * slideMillis;
+        this.onTumblingWindowComplete = onTumblingWindowComplete;
+        this.totals = new WindowAccumulator(topK, prefixLength, sketchWidth, sketchDepth);
+        this.tumbling = new WindowAccumulator(topK, prefixLength, sketchWidth, sketchDepth);
+        this.merged = new WindowAccumulator(topK, prefixLength, sketchWidth, sketchDepth);
+        this.panes = new WindowAccumulator[paneCount];
+        for (int i = 0; i < paneCount; i++) {
+            panes[i] = new WindowAccumulator(topK, prefixLength, sketchWidth, sketchDepth);
+            panes[i].reset(Long.MIN_VALUE);
+        }
+        totals.reset(startMillis);
+        tumbling.reset(align(startMillis, tumblingMillis));
+    }
+
+    synchronized void add(String value, long nowMillis) {
+        rollTumbling(nowMillis);
+        totals.add(value);
+        tumbling.add(value);
+        pane(nowMillis).add(value);
+    }
+
+    synchronized WindowSnapshot getLastTumblingWindow(long nowMillis) {
+        rollTumbling(nowMillis);
+        return lastTumbling;
+    }
+
+    synchronized WindowSnapshot getSlidingWindow(long nowMillis) {
+        long oldestPaneStart = align(nowMillis, slideMillis) - slidingMillis + slideMillis;
+        merged.reset(oldestPaneStart);
+        for (WindowAccumulator pane : panes) {
+            if (pane.getStartMillis() >= oldestPaneStart && pane.getStartMillis() <= nowMillis) {
+                merged.merge(pane);
+            }
+        }
+        return merged.snapshot(nowMillis);
+    }
+
+    synchronized WindowSnapshot getTotals(long nowMillis) {
+        return totals.snapshot(nowMillis);
+    }
+
+    private WindowAccumulator pane(long nowMillis) {
+        long start = align(nowMillis, slideMillis);
+        WindowAccumulator pane = panes[(int) Math.floorMod(start / slideMillis, (long) panes.length)];
+        if (pane.getStartMillis() != start) {
+            pane.reset(start);
+        }
+        return pane;
+    }
+
+    private void rollTumbling(long nowMillis) {
+        long currentStart = align(nowMillis, tumblingMillis);
+        long heldStart = tumbling.getStartMillis();
+        if (heldStart == currentStart) {
+            return;
+        }
+        // Publish the window the accumulator holds, which is older than the previous one if
+        // nothing arrived since, before it is reset
+        WindowSnapshot held = tumbling.snapshot(heldStart + tumblingMillis);
+        if (held.getCount() > 0) {
+            onTumblingWindowComplete.accept(held);
+        }
+        long previousStart = currentStart - tumblingMillis;
+        if (heldStart == previousStart) {
+            lastTumbling = held;
+        } else {
+            // nothing arrived during the previous window
+            tumbling.reset(previousStart);
+            lastTumbling = tumbling.snapshot(currentStart);
+        }
+        tumbling.reset(currentStart);
+    }
+
+    private static long align(long millis, long length) {
+        return Math.floorDiv(millis, length) * length;
+    }
+}
@@ -0,0 +1,58 @@
+package com.byteliberi.demo.stats.impl;
+
+import com.byteliberi.demo.producer.api.StringProducer;
+import com.byteliberi.demo.stats.api.WindowSnapshot;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for StreamStatisticsConsumer.
+ */
+@ExtendWith(MockitoExtension.class)
+class StreamStatisticsConsumerTest {
+
+    @Mock
+    private StringProducer mockStringProducer;
+
+    private StreamStatisticsConsumer consumer;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        consumer = new StreamStatisticsConsumer();
+        java.lang.reflect.Field field = StreamStatisticsConsumer.class.getDeclaredField("stringProducer");
+        field.setAccessible(true);
+        field.set(consumer, mockStringProducer);
+    }
+
+    @Test
+    void testActivate_registersWithProducer() {
+        consumer.activate();
+        verify(mockStringProducer).addListener(consumer);
+    }
+
+    @Test
+    void testDeactivate_unregistersFromProducer() {
+        consumer.activate();
+        consumer.deactivate();
+        verify(mockStringProducer).removeListener(consumer);
+    }
+
+    @Test
+    void testOnStringGenerated_updatesTotalsAndSlidingWindow() {
+        consumer.activate();
+        consumer.onStringGenerated("Hello123");
+        consumer.onStringGenerated("Help");
+
+        WindowSnapshot totals = consumer.getTotals();
+        assertEquals(2, totals.getCount());
+        assertEquals("He", totals.getTopPrefixes().get(0).getPrefix());
+        assertEquals(2, totals.getTopPrefixes().get(0).getEstimatedCount());
+        assertEquals(2, consumer.getSlidingWindow().getCount());
+    }
+}
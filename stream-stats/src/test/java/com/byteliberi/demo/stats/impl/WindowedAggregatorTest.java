@@ -0,0 +1,147 @@
+package com.byteliberi.demo.stats.impl;
+
+import com.byteliberi.demo.stats.api.WindowSnapshot;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for WindowedAggregator, WindowAccumulator and CountMinSketch.
+ */
+class WindowedAggregatorTest {
+
+    private final List<WindowSnapshot> completed = new ArrayList<>();
+
+    @Test
+    void testTotals_lengthAndCharacterStatistics() {
+        WindowedAggregator aggregator = aggregator(0);
+        aggregator.add("abc", 100);
+        aggregator.add("aaaaa", 200);
+        aggregator.add("xé", 300);
+
+        WindowSnapshot totals = aggregator.getTotals(1000);
+        assertEquals(3, totals.getCount());
+        assertEquals(3.0, totals.getEventsPerSecond(), 1e-9);
+        assertEquals(2, totals.getMinLength());
+        assertEquals(5, totals.getMaxLength());
+        assertEquals(10 / 3.0, totals.getMeanLength(), 1e-9);
+        assertEquals(1, totals.getLengthHistogram()[2]);
+        assertEquals(1, totals.getLengthHistogram()[3]);
+        assertEquals(1, totals.getLengthHistogram()[5]);
+        assertEquals(6, totals.getCharacterCount('a'));
+        assertEquals(1, totals.getCharacterCount('x'));
+        assertEquals(1, totals.getOtherCharacterCount());
+    }
+
+    @Test
+    void testTumblingWindow_publishedWhenNextWindowStarts() {
+        WindowedAggregator aggregator = aggregator(0);
+        aggregator.add("first", 100);
+        aggregator.add("second", 900);
+        assertNull(aggregator.getLastTumblingWindow(999));
+
+        aggregator.add("third", 1500);
+
+        WindowSnapshot window = aggregator.getLastTumblingWindow(1500);
+        assertEquals(0, window.getStartMillis());
+        assertEquals(1000, window.getEndMillis());
+        assertEquals(2, window.getCount());
+        assertEquals(1, completed.size());
+
+        WindowSnapshot idle = aggregator.getLastTumblingWindow(5200);
+        assertEquals(4000, idle.getStartMillis());
+        assertEquals(0, idle.getCount(), "An idle window should be reported as empty");
+    }
+
+    @Test
+    void testTumblingWindow_publishedAfterIdleGap() {
+        WindowedAggregator aggregator = aggregator(0);
+        aggregator.add("first", 100);
+        aggregator.add("second", 900);
+
+        // Windows [1000, 2000) and [2000, 3000) stay idle
+        aggregator.add("third", 3500);
+
+        assertEquals(1, completed.size(), "The window before the gap must still be published");
+        assertEquals(0, completed.get(0).getStartMillis());
+        assertEquals(1000, completed.get(0).getEndMillis());
+        assertEquals(2, completed.get(0).getCount());
+        WindowSnapshot last = aggregator.getLastTumblingWindow(3500);
+        assertEquals(2000, last.getStartMillis());
+        assertEquals(0, last.getCount());
+
+        aggregator.getLastTumblingWindow(7100);
+        assertEquals(2, completed.size());
+        assertEquals(3000, completed.get(1).getStartMillis());
+        assertEquals(1, completed.get(1).getCount());
+    }
+
+    @Test
+    void testSlidingWindow_dropsPanesOlderThanWindow() {
+        // 1 s sliding window in 250 ms panes
+        WindowedAggregator aggregator = aggregator(0);
+        aggregator.add("a", 100);
+        aggregator.add("b", 400);
+        aggregator.add("c", 900);
+
+        assertEquals(3, aggregator.getSlidingWindow(999).getCount());
+        assertEquals(2, aggregator.getSlidingWindow(1100).getCount());
+        assertEquals(1, aggregator.getSlidingWindow(1300).getCount());
+        assertEquals(0, aggregator.getSlidingWindow(2000).getCount());
+    }
+
+    @Test
+    void testTopPrefixes_findsHeavyHittersAmongNoise() {
+        WindowedAggregator aggregator = aggregator(0);
+        for (int i = 0; i < 10_000; i++) {
+            aggregator.add("AB" + i, 10);
+            if (i % 2 == 0) {
+                aggregator.add("CD" + i, 10);
+            }
+            aggregator.add(Integer.toString(i * 7919, 36), 10);
+        }
+
+        List<WindowSnapshot.PrefixCount> top = aggregator.getTotals(20).getTopPrefixes();
+        assertEquals("AB", top.get(0).getPrefix());
+        assertTrue(top.get(0).getEstimatedCount() >= 10_000, "Estimates must never undercount");
+        assertEquals("CD", top.get(1).getPrefix());
+        assertTrue(top.get(1).getEstimatedCount() >= 5_000);
+    }
+
+    @Test
+    void testSlidingWindow_mergesPrefixesAcrossPanes() {
+        WindowedAggregator aggregator = aggregator(0);
+        for (int i = 0; i < 100; i++) {
+            aggregator.add("XY" + i, 100);
+        }
+        for (int i = 0; i < 60; i++) {
+            aggregator.add("ZZ" + i, 600);
+            aggregator.add("XY" + i, 600);
+        }
+
+        List<WindowSnapshot.PrefixCount> top = aggregator.getSlidingWindow(700).getTopPrefixes();
+        assertEquals("XY", top.get(0).getPrefix());
+        assertEquals(160, top.get(0).getEstimatedCount());
+        assertEquals("ZZ", top.get(1).getPrefix());
+    }
+
+    @Test
+    void testCountMinSketch_neverUnderestimates() {
+        CountMinSketch sketch = new CountMinSketch(64, 4);
+        for (int key = 0; key < 1000; key++) {
+            for (int n = 0; n <= key % 5; n++) {
+                sketch.add(CountMinSketch.hash("key" + key, 8));
+            }
+        }
+        for (int key = 0; key < 1000; key++) {
+            assertTrue(sketch.estimate(CountMinSketch.hash("key" + key, 8)) >= key % 5 + 1);
+        }
+    }
+
+    private WindowedAggregator aggregator(long startMillis) {
+        return new WindowedAggregator(1000, 1000, 250, 5, 2, 256, 4, startMillis, completed::add);
+    }
+}
@@ -0,0 +1,224 @@
+package com.byteliberi.demo.syslog.impl;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Logger;
+
+/**
+ * Spreads messages over a fixed set of {@link SyslogEndpoint}s.
+ * <p>
+ * The routing strategy picks a preferred endpoint; if that endpoint is down or its queue
+ * is full, the message fails over to the next endpoints in a strategy-specific order.
+ * Routing never blocks: a message that no endpoint accepts is dropped and counted.
+ */
+class EndpointRouter {
+
+    private static final Logger LOGGER = Logger.getLogger(EndpointRouter.class.getName());
+    private static final int VIRTUAL_NODES_PER_WEIGHT = 64;
+
+    /**
+     * How the preferred endpoint is chosen.
+     */
+    enum Strategy {
+        /** Endpoints take turns. */
+        ROUND_ROBIN,
+        /** Endpoints take turns in proportion to their weight. */
+        WEIGHTED,
+        /** Equal payloads always go to the same endpoint while it is healthy. */
+        CONSISTENT_HASH;
+
+        static Strategy parse(String value) {
+            return valueOf(value.trim().toUpperCase().replace('-', '_'));
+        }
+    }
+
+    private final SyslogEndpoint[] endpoints;
+    private final Strategy strategy;
+    private final int[] weightedSchedule;
+    private final long[] ringHashes;
+    private final int[] ringOwners;
+    private final AtomicLong cursor = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+
+    EndpointRouter(List<SyslogEndpoint> endpoints, Strategy strategy) {
+        if (endpoints.isEmpty()) {
+            throw new IllegalArgumentException("At least one syslog endpoint is required");
+        }
+        this.endpoints = endpoints.toArray(new SyslogEndpoint[0]);
+        this.strategy = strategy;
+        this.weightedSchedule = strategy == Strategy.WEIGHTED ? buildWeightedSchedule(this.endpoints) : null;
+        if (strategy == Strategy.CONSISTENT_HASH) {
+            int size = 0;
+            for (SyslogEndpoint endpoint : this.endpoints) {
+                size += endpoint.getWeight() * VIRTUAL_NODES_PER_WEIGHT;
+            }
+            ringHashes = new long[size];
+            ringOwners = new int[size];
+            buildRing(this.endpoints, ringHashes, ringOwners);
+        } else {
+            ringHashes = null;
+            ringOwners = null;
+        }
+    }
+
+    /**
+     * Starts all endpoints, wiring their failover back into this router.
+     * @param deliveryCallback invoked after every successful send on any endpoint
+     * @param connectCallback invoked whenever an endpoint has connected and is up
+     */
+    void start(Runnable deliveryCallback, Runnable connectCallback) {
+        for (SyslogEndpoint endpoint : endpoints) {
+            endpoint.start(this::failover, deliveryCallback, connectCallback);
+        }
+    }
+
+    /**
+     * Stops all endpoints.
+     */
+    void stop() {
+        for (SyslogEndpoint endpoint : endpoints) {
+            endpoint.stop();
+        }
+    }
+
+    /**
+     * Queues a message on the preferred endpoint or, failing that, on the next healthy one.
+     * @param message the encoded syslog message
+     * @param payload the original string, used as the consistent-hash key
+     * @return {@code true} if an endpoint accepted the message
+     */
+    boolean route(byte[] message, String payload) {
+        return routeExcluding(message, payload, null);
+    }
+
+    private boolean routeExcluding(byte[] message, String payload, SyslogEndpoint excluded) {
+        if (strategy == Strategy.CONSISTENT_HASH) {
+            return routeOnRing(message, payload, excluded);
+        }
+        int n = endpoints.length;
+        long turn = cursor.getAndIncrement();
+        int first = strategy == Strategy.WEIGHTED
+                ? weightedSchedule[(int) Math.floorMod(turn, (long) weightedSchedule.length)]
+                : (int) Math.floorMod(turn, (long) n);
+        for (int i = 0; i < n; i++) {
+            SyslogEndpoint endpoint = endpoints[(first + i) % n];
+            if (endpoint != excluded && endpoint.offer(message)) {
+                return true;
+            }
+        }
+        drop();
+        return false;
+    }
+
+    /**
+     * Walks the ring clockwise from the payload's hash, trying each distinct endpoint once.
+     */
+    private boolean routeOnRing(byte[] message, String payload, SyslogEndpoint excluded) {
+        long hash = hash(payload != null ? payload : new String(message, StandardCharsets.UTF_8));
+        int index = Arrays.binarySearch(ringHashes, hash);
+        if (index < 0) {
+            index = -index - 1;
+        }
+        boolean[] tried = new boolean[endpoints.length];
+        int remaining = endpoints.length;
+        for (int step = 0; step < ringOwners.length && remaining > 0; step++) {
+            int owner = ringOwners[(index + step) % ringOwners.length];
+            if (tried[owner]) {
+                continue;
+            }
+            tried[owner] = true;
+            remaining--;
+            SyslogEndpoint endpoint = endpoints[owner];
+            if (endpoint != excluded && endpoint.offer(message)) {
+                return true;
+            }
+        }
+        drop();
+        return false;
+    }
+
+    private void failover(SyslogEndpoint from, List<byte[]> messages) {
+        int rerouted = 0;
+        for (byte[] message : messages) {
+            if (routeExcluding(message, null, from)) {
+                rerouted++;
+            }
+        }
+        if (!messages.isEmpty()) {
+            LOGGER.info("Failed over " + rerouted + " of " + messages.size() + " message(s) from " + from);
+        }
+    }
+
+    private void drop() {
+        if (dropped.getAndIncrement() % 1000 == 0) {
+            LOGGER.warning("No syslog endpoint accepted the message, " + dropped.get() + " dropped so far");
+        }
+    }
+
+    List<SyslogEndpoint> getEndpoints() {
+        return List.of(endpoints);
+    }
+
+    long getDroppedCount() {
+        return dropped.get();
+    }
+
+    /**
+     * Smooth weighted round-robin: spreads each endpoint's turns evenly over the cycle
+     * instead of sending bursts to the heaviest one.
+     */
+    private static int[] buildWeightedSchedule(SyslogEndpoint[] endpoints) {
+        int total = 0;
+        for (SyslogEndpoint endpoint : endpoints) {
+            total += endpoint.getWeight();
+        }
+        int[] schedule = new int[total];
+        int[] current = new int[endpoints.length];
+        for (int slot = 0; slot < total; slot++) {
+            int best = 0;
+            for (int i = 0; i < endpoints.length; i++) {
+                current[i] += endpoints[i].getWeight();
+                if (current[i] > current[best]) {
+                    best = i;
+                }
+            }
+            current[best] -= total;
+            schedule[slot] = best;
+        }
+        return schedule;
+    }
+
+    private static void buildRing(SyslogEndpoint[] endpoints, long[] hashes, int[] owners) {
+        List<long[]> points = new ArrayList<>(hashes.length);
+        for (int i = 0; i < endpoints.length; i++) {
+            int virtualNodes = endpoints[i].getWeight() * VIRTUAL_NODES_PER_WEIGHT;
+            for (int v = 0; v < virtualNodes; v++) {
+                points.add(new long[] {hash(endpoints[i] + "#" + v), i});
+            }
+        }
+        points.sort((a, b) -> Long.compare(a[0], b[0]));
+        for (int i = 0; i < points.size(); i++) {
+            hashes[i] = points.get(i)[0];
+            owners[i] = (int) points.get(i)[1];
+        }
+    }
+
+    /**
+     * 64-bit FNV-1a over the UTF-16 code units, followed by a finalizer so that
+     * short, similar keys still land far apart on the ring.
+     */
+    static long hash(String key) {
+        long h = 0xcbf29ce484222325L;
+        for (int i = 0; i < key.length(); i++) {
+            h ^= key.charAt(i);
+            h *= 0x100000001b3L;
+        }
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        return h;
+    }
+}
@@ -0,0 +1,250 @@
+package com.byteliberi.demo.syslog.impl;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Logger;
+
+/**
+ * One syslog collector with its own bounded send queue, sender thread and health state.
+ * <p>
+ * Endpoints are specified as {@code udp://host:port} or {@code tcp://host:port}, optionally
+ * followed by {@code ?weight=N} for weighted routing. The sender thread resolves and connects
+ * on its own, so a slow or dead collector never blocks the producer or the other endpoints.
+ * After {@code failureThreshold} consecutive send failures the endpoint goes {@link State#DOWN}:
+ * its queued messages are handed back for failover and it probes the collector again after an
+ * exponentially growing back-off.
+ */
+class SyslogEndpoint {
+
+    private static final Logger LOGGER = Logger.getLogger(SyslogEndpoint.class.getName());
+    private static final long MAX_BACKOFF_MS = 30_000;
+
+    /**
+     * Health of an endpoint as seen by the router.
+     */
+    enum State {
+        /** Resolving or connecting; messages are queued and sent once connected. */
+        CONNECTING,
+        /** Connected and sending. */
+        UP,
+        /** Failing; skipped by the router until a probe succeeds. */
+        DOWN
+    }
+
+    /**
+     * Receives messages an endpoint could not deliver so they can be sent elsewhere.
+     */
+    @FunctionalInterface
+    interface FailoverHandler {
+        void failover(SyslogEndpoint from, List<byte[]> messages);
+    }
+
+    private final String protocol;
+    private final String host;
+    private final int port;
+    private final String name;
+    private final int weight;
+    private final BlockingQueue<byte[]> queue;
+    private final int failureThreshold;
+    private final long baseBackoffMs;
+    private final AtomicLong sent = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+    private final AtomicLong rejected = new AtomicLong();
+    /** Makes the down check and enqueue in {@link #offer} atomic with going down and draining. */
+    private final Object admission = new Object();
+    private volatile State state = State.CONNECTING;
+    private volatile boolean running;
+    private FailoverHandler failoverHandler = (from, messages) -> { };
+    private Runnable deliveryCallback = () -> { };
+    private Runnable connectCallback = () -> { };
+    private Thread senderThread;
+
+    SyslogEndpoint(String protocol, String host, int port, int weight, int queueCapacity,
+                   int failureThreshold, long baseBackoffMs) {
+        this.protocol = protocol;
+        this.host = host;
+        this.port = port;
+        this.name = protocol + "://" + host + ":" + port;
+        this.weight = Math.max(1, weight);
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.failureThreshold = Math.max(1, failureThreshold);
+        this.baseBackoffMs = Math.max(1, baseBackoffMs);
+    }
+
+    /**
+     * Parses an endpoint specification such as {@code tcp://collector:6514?weight=2}.
+     * @param spec the endpoint specification
+     * @param queueCapacity capacity of the send queue
+     * @param failureThreshold consecutive failures before the endpoint is marked down
+     * @param baseBackoffMs first probe delay after going down
+     * @return the parsed endpoint, not yet started
+     * @throws IllegalArgumentException if the specification is malformed
+     */
+    static SyslogEndpoint parse(String spec, int queueCapacity, int failureThreshold, long baseBackoffMs) {
+        URI uri = URI.create(spec.trim());
+        String protocol = uri.getScheme() == null ? "" : uri.getScheme().toLowerCase();
+        if (!protocol.equals("udp") && !protocol.equals("tcp")) {
+            throw new IllegalArgumentException("Endpoint must start with udp:// or tcp://: " + spec);
+        }
+        if (uri.getHost() == null || uri.getPort() < 0) {
+            throw new IllegalArgumentException("Endpoint must specify host and port: " + spec);
+        }
+        int weight = 1;
+        if (uri.getQuery() != null) {
+            for (String parameter : uri.getQuery().split("&")) {
+                if (parameter.startsWith("weight=")) {
+                    weight = Integer.parseInt(parameter.substring("weight=".length()));
+                }
+            }
+        }
+        return new SyslogEndpoint(protocol, uri.getHost(), uri.getPort(), weight,
+                queueCapacity, failureThreshold, baseBackoffMs);
+    }
+
+    /**
+     * Starts the sender thread.
+     * @param failoverHandler receives messages this endpoint gives up on
+     * @param deliveryCallback invoked after every successful send
+     * @param connectCallback invoked whenever the endpoint has connected and is up
+     */
+    void start(FailoverHandler failoverHandler, Runnable deliveryCallback, Runnable connectCallback) {
+        this.failoverHandler = failoverHandler;
+        this.deliveryCallback = deliveryCallback;
+        this.connectCallback = connectCallback;
+        running = true;
+        senderThread = new Thread(this::run, "SyslogEndpoint-" + this);
+        senderThread.setDaemon(true);
+        senderThread.start();
+    }
+
+    /**
+     * Stops the sender thread; messages still queued are discarded.
+     */
+    void stop() {
+        running = false;
+        if (senderThread != null) {
+            senderThread.interrupt();
+            try {
+                senderThread.join(1000);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        queue.clear();
+    }
+
+    /**
+     * Queues a message without blocking.
+     * @param message the encoded message
+     * @return {@code false} if the endpoint is down or its queue is full
+     */
+    boolean offer(byte[] message) {
+        synchronized (admission) {
+            if (state != State.DOWN && queue.offer(message)) {
+                return true;
+            }
+        }
+        rejected.incrementAndGet();
+        return false;
+    }
+
+    private void run() {
+        SyslogTransport transport = SyslogTransport.forProtocol(protocol);
+        long backoffMs = baseBackoffMs;
+        int consecutiveFailures = 0;
+        byte[] message = null;
+        try {
+            while (running) {
+                try {
+                    if (state != State.UP) {
+                        transport.connect(new InetSocketAddress(host, port));
+                        if (state == State.DOWN) {
+                            LOGGER.info("Syslog endpoint " + this + " is back up");
+                        }
+                        state = State.UP;
+                        connectCallback.run();
+                    }
+                    if (message == null) {
+                        message = queue.take();
+                    }
+                    SyslogSendEvent send = new SyslogSendEvent();
+                    send.begin();
+                    try {
+                        transport.send(message);
+                    } catch (IOException | RuntimeException e) {
+                        send.complete(name, message.length, SyslogSendEvent.FAILED);
+                        throw e;
+                    }
+                    send.complete(name, message.length, SyslogSendEvent.SENT);
+                    message = null;
+                    consecutiveFailures = 0;
+                    backoffMs = baseBackoffMs;
+                    sent.incrementAndGet();
+                    deliveryCallback.run();
+                } catch (IOException | RuntimeException e) {
+                    failed.incrementAndGet();
+                    transport.close();
+                    if (++consecutiveFailures < failureThreshold) {
+                        state = State.CONNECTING;
+                        continue;
+                    }
+                    LOGGER.warning("Syslog endpoint " + this + " is down after " + consecutiveFailures
+                            + " failures, retrying in " + backoffMs + " ms: " + e.getMessage());
+                    List<byte[]> orphaned = new ArrayList<>(queue.size() + 1);
+                    if (message != null) {
+                        orphaned.add(message);
+                        message = null;
+                    }
+                    synchronized (admission) {
+                        // No message can slip into the queue between going down and draining it
+                        state = State.DOWN;
+                        queue.drainTo(orphaned);
+                    }
+                    failoverHandler.failover(this, orphaned);
+                    TimeUnit.MILLISECONDS.sleep(backoffMs);
+                    backoffMs = Math.min(backoffMs * 2, MAX_BACKOFF_MS);
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            transport.close();
+        }
+    }
+
+    State getState() {
+        return state;
+    }
+
+    int getWeight() {
+        return weight;
+    }
+
+    int getQueueDepth() {
+        return queue.size();
+    }
+
+    long getSentCount() {
+        return sent.get();
+    }
+
+    long getFailedCount() {
+        return failed.get();
+    }
+
+    long getRejectedCount() {
+        return rejected.get();
+    }
+
+    @Override
+    public String toString() {
+        return name;
+    }
+}
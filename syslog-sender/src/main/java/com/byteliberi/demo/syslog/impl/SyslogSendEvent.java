@@ -0,0 +1,51 @@
+package com.byteliberi.demo.syslog.impl;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+
+/**
+ * Flight recorder event for handing one formatted message to the network, as a datagram
+ * or a TCP frame, on an endpoint's sender thread. By default only sends of 10 ms or more
+ * are recorded; the pipeline profile records all of them.
+ */
+@Name("com.byteliberi.demo.syslog.Send")
+@Label("Syslog Send")
+@Description("Send of one syslog message to one endpoint")
+@Category({"OSGi Demo", "Syslog Sender"})
+@StackTrace(false)
+@Threshold("10 ms")
+final class SyslogSendEvent extends jdk.jfr.Event {
+
+    static final String SENT = "sent";
+    static final String FAILED = "failed";
+
+    @Label("Endpoint")
+    String endpoint;
+
+    @Label("Message Size")
+    @DataAmount
+    int messageBytes;
+
+    @Label("Outcome")
+    String outcome;
+
+    /**
+     * Ends the event and commits it if the recorder wants it.
+     * @param endpoint the endpoint, as {@code protocol://host:port}
+     * @param messageBytes the size of the formatted message
+     * @param outcome {@link #SENT} or {@link #FAILED}
+     */
+    void complete(String endpoint, int messageBytes, String outcome) {
+        if (shouldCommit()) {
+            this.endpoint = endpoint;
+            this.messageBytes = messageBytes;
+            this.outcome = outcome;
+            commit();
+        }
+    }
+}
@@ -1,27 +1,49 @@
 package com.byteliberi.demo.syslog.impl;
 
+import com.byteliberi.demo.component.ComponentConfig;
+import com.byteliberi.demo.component.SampledLog;
+import com.byteliberi.demo.producer.api.Readiness;
 import com.byteliberi.demo.producer.api.StringProducer;
 import org.osgi.service.component.annotations.Activate;
 import org.osgi.service.component.annotations.Component;
 import org.osgi.service.component.annotations.Deactivate;
 import org.osgi.service.component.annotations.Reference;
 
-import java.io.IOException;
-import java.net.DatagramPacket;
-import java.net.DatagramSocket;
-import java.net.InetAddress;
-import java.net.SocketException;
 import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
 import java.util.logging.Logger;
 
 /**
  * Syslog string sender implementation that consumes strings from the StringProducer
- * and sends them to the local syslog server via UDP port 514.
+ * and sends them to one or more syslog collectors, by default {@code udp://localhost:514}.
+ * <p>
+ * The collectors are configurable: {@code endpoints} lists one or more {@code udp://host:port}
+ * or {@code tcp://host:port} specifications (optionally with {@code ?weight=N}), and
+ * {@code routing} selects {@code round-robin}, {@code weighted} or {@code consistent-hash}
+ * distribution. Every endpoint has its own send queue and thread, so host resolution,
+ * connection set-up and failover never block the producer or the other endpoints.
+ * <p>
+ * Delivery is at most once. A string only reaches an endpoint's queue when it is handed over,
+ * and a full queue, a stop or an unreachable collector can still lose it, so the sender
+ * registers as a plain listener rather than a durable one whose journal offset would run
+ * ahead of what was really sent.
+ * <p>
+ * The per-string log line can be sampled with {@code log.sample.every} and is complemented by
+ * a throughput summary every {@code log.summary.interval.s} seconds; see {@link SampledLog}.
+ * Every send is also visible to Java Flight Recorder as a {@link SyslogSendEvent}.
+ * <p>
+ * Connecting happens on the endpoint threads after activation; the sender registers a
+ * {@link Readiness} service that reports when at least one endpoint is connected.
  */
-@Component(immediate = true)
-public class SyslogStringSender implements StringProducer.StringListener {
+@Component(immediate = true, service = {StringProducer.StringListener.class, Readiness.class},
+        property = Readiness.COMPONENT + "=syslog-sender")
+public class SyslogStringSender implements StringProducer.StringListener, Readiness {
 
     private static final Logger LOGGER = Logger.getLogger(SyslogStringSender.class.getName());
     private static final String SYSLOG_HOST = "localhost";
@@ -32,25 +54,55 @@ public class SyslogStringSender implements StringProducer.StringListener {
     private static final String HOSTNAME = "osgi-demo";
     private static final DateTimeFormatter SYSLOG_TIMESTAMP_FORMAT = DateTimeFormatter.ofPattern("MMM dd HH:mm:ss");
 
+    static final String ENDPOINTS = "endpoints";
+    static final String ROUTING = "routing";
+    static final String QUEUE_CAPACITY = "queue.capacity";
+    static final String FAILURE_THRESHOLD = "failure.threshold";
+    static final String RETRY_BACKOFF_MS = "retry.backoff.ms";
+    static final String LOG_SAMPLE_EVERY = "log.sample.every";
+    static final String LOG_SUMMARY_INTERVAL = "log.summary.interval.s";
+    private static final String DEFAULT_ENDPOINT = "udp://" + SYSLOG_HOST + ":" + SYSLOG_PORT;
+    private static final int DEFAULT_QUEUE_CAPACITY = 1024;
+    private static final int DEFAULT_FAILURE_THRESHOLD = 3;
+    private static final long DEFAULT_RETRY_BACKOFF_MS = 1000;
+
     @Reference
     private StringProducer stringProducer;
 
-    private DatagramSocket socket;
-    private InetAddress syslogAddress;
+    private volatile EndpointRouter router;
+    private volatile SampledLog queueLog = new SampledLog(LOGGER, "Queued", 1, 10);
+    private volatile long activationNanos;
+    private volatile boolean firstDeliveryLogged;
+    /** Notified whenever an endpoint connects, for {@link #awaitReady(long, TimeUnit)}. */
+    private final Object connected = new Object();
+
+    /**
+     * Activates the syslog sender service with default configuration.
+     */
+    public void activate() {
+        activate(Collections.emptyMap());
+    }
 
     /**
      * Activates the syslog sender service and registers as a listener.
+     * @param properties the component configuration
      */
     @Activate
-    public void activate() {
+    public void activate(Map<String, Object> properties) {
         try {
-            socket = new DatagramSocket();
-            syslogAddress = InetAddress.getByName(SYSLOG_HOST);
+            activationNanos = System.nanoTime();
+            ComponentConfig config = new ComponentConfig(properties);
+            queueLog.close();
+            queueLog = new SampledLog(LOGGER, "Queued", config.getLong(LOG_SAMPLE_EVERY, 1),
+                    config.getLong(LOG_SUMMARY_INTERVAL, 10));
+            router = createRouter(config);
+            router.start(this::logFirstDelivery, this::signalConnected);
             stringProducer.addListener(this);
-            LOGGER.info("Syslog sender activated and registered with string producer");
-        } catch (SocketException e) {
-            LOGGER.severe("Failed to create DatagramSocket: " + e.getMessage());
-            throw new RuntimeException("Cannot start syslog sender without UDP socket", e);
+            LOGGER.info("Syslog sender activated with endpoints " + router.getEndpoints()
+                    + " and registered with string producer");
+        } catch (IllegalArgumentException e) {
+            LOGGER.severe("Invalid syslog sender configuration: " + e.getMessage());
+            throw e;
         } catch (Exception e) {
             LOGGER.severe("Failed to activate syslog sender: " + e.getMessage());
             throw new RuntimeException("Cannot start syslog sender", e);
@@ -66,15 +118,62 @@ public class SyslogStringSender implements StringProducer.StringListener {
             if (stringProducer != null) {
                 stringProducer.removeListener(this);
             }
-            if (socket != null && !socket.isClosed()) {
-                socket.close();
+            if (router != null) {
+                router.stop();
             }
+            queueLog.close();
             LOGGER.info("Syslog sender deactivated and unregistered from string producer");
         } catch (Exception e) {
             LOGGER.warning("Error during syslog sender deactivation: " + e.getMessage());
         }
     }
 
+    /**
+     * {@inheritDoc}
+     * <p>
+     * The sender is ready while at least one endpoint is connected.
+     */
+    @Override
+    public boolean isReady() {
+        EndpointRouter current = router;
+        return current != null && current.getEndpoints().stream()
+                .anyMatch(endpoint -> endpoint.getState() == SyslogEndpoint.State.UP);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean awaitReady(long timeout, TimeUnit unit) throws InterruptedException {
+        long deadline = System.nanoTime() + unit.toNanos(timeout);
+        synchronized (connected) {
+            while (!isReady()) {
+                long remaining = deadline - System.nanoTime();
+                if (remaining <= 0) {
+                    return false;
+                }
+                TimeUnit.NANOSECONDS.timedWait(connected, remaining);
+            }
+        }
+        return true;
+    }
+
+    /**
+     * @return the number of messages handed to the network by all endpoints
+     */
+    public long getSentCount() {
+        EndpointRouter current = router;
+        return current == null ? 0 : current.getEndpoints().stream().mapToLong(SyslogEndpoint::getSentCount).sum();
+    }
+
+    /**
+     * @return the number of messages no endpoint would accept
+     */
+    public long getDroppedCount() {
+        EndpointRouter current = router;
+        return current == null ? 0 : current.getDroppedCount();
+    }
+
     /**
      * {@inheritDoc}
      */
@@ -84,23 +183,47 @@ public class SyslogStringSender implements StringProducer.StringListener {
             String syslogMessage = formatSyslogMessage(value);
             byte[] messageBytes = syslogMessage.getBytes(StandardCharsets.UTF_8);
 
-            DatagramPacket packet = new DatagramPacket(
-                messageBytes,
-                messageBytes.length,
-                syslogAddress,
-                SYSLOG_PORT
-            );
-
-            socket.send(packet);
-
-            LOGGER.info("Successfully sent string '" + value + "' to syslog");
-        } catch (IOException e) {
-            LOGGER.warning("Failed to send string '" + value + "' to syslog: " + e.getMessage());
+            if (router.route(messageBytes, value)) {
+                if (queueLog.event()) {
+                    LOGGER.info("Successfully queued string '" + value + "' for syslog");
+                }
+            } else {
+                LOGGER.warning("Failed to queue string '" + value + "' for syslog: no endpoint available");
+            }
         } catch (Exception e) {
             LOGGER.severe("Unexpected error sending string to syslog: " + e.getMessage());
         }
     }
 
+    EndpointRouter getRouter() {
+        return router;
+    }
+
+    private static EndpointRouter createRouter(ComponentConfig config) {
+        int queueCapacity = config.getInt(QUEUE_CAPACITY, DEFAULT_QUEUE_CAPACITY);
+        int failureThreshold = config.getInt(FAILURE_THRESHOLD, DEFAULT_FAILURE_THRESHOLD);
+        long backoffMs = config.getLong(RETRY_BACKOFF_MS, DEFAULT_RETRY_BACKOFF_MS);
+        List<SyslogEndpoint> endpoints = new ArrayList<>();
+        for (String spec : config.getStringArray(ENDPOINTS, new String[] {DEFAULT_ENDPOINT})) {
+            endpoints.add(SyslogEndpoint.parse(spec, queueCapacity, failureThreshold, backoffMs));
+        }
+        return new EndpointRouter(endpoints, EndpointRouter.Strategy.parse(config.getString(ROUTING, "round-robin")));
+    }
+
+    private void signalConnected() {
+        synchronized (connected) {
+            connected.notifyAll();
+        }
+    }
+
+    private void logFirstDelivery() {
+        if (!firstDeliveryLogged) {
+            firstDeliveryLogged = true;
+            LOGGER.info("First string delivered " + TimeUnit.NANOSECONDS.toMillis(
+                    System.nanoTime() - activationNanos) + " ms after activation");
+        }
+    }
+
     /**
      * Formats a message in simplified syslog format.
      * Format: &lt;134&gt;MMM dd HH:mm:ss osgi-demo: MESSAGE
@@ -0,0 +1,47 @@
+package com.byteliberi.demo.syslog.impl;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+
+/**
+ * Wire protocol used to deliver formatted syslog messages to one collector.
+ * Implementations are used by a single endpoint thread and need not be thread-safe.
+ */
+interface SyslogTransport extends AutoCloseable {
+
+    /**
+     * Opens the connection to the collector.
+     * @param address the resolved collector address
+     * @throws IOException if the collector cannot be reached
+     */
+    void connect(InetSocketAddress address) throws IOException;
+
+    /**
+     * Sends one formatted message.
+     * @param message the encoded syslog message
+     * @throws IOException if the message could not be handed to the network
+     */
+    void send(byte[] message) throws IOException;
+
+    /**
+     * Releases the connection; the transport may be connected again afterwards.
+     */
+    @Override
+    void close();
+
+    /**
+     * Creates a transport for the given protocol.
+     * @param protocol {@code udp} or {@code tcp}
+     * @return a new, unconnected transport
+     */
+    static SyslogTransport forProtocol(String protocol) {
+        switch (protocol) {
+            case "udp":
+                return new UdpTransport();
+            case "tcp":
+                return new TcpTransport();
+            default:
+                throw new IllegalArgumentException("Unsupported syslog protocol: " + protocol);
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package com.byteliberi.demo.syslog.impl;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+
+/**
+ * Streams messages over TCP using non-transparent framing (RFC 6587 section 3.4.2):
+ * every message is terminated by a line feed. Generated strings are alphanumeric,
+ * so the trailer can never appear inside a message.
+ */
+class TcpTransport implements SyslogTransport {
+
+    private static final int CONNECT_TIMEOUT_MS = 2000;
+    private static final int TRAILER = '\n';
+
+    private Socket socket;
+    private OutputStream out;
+
+    @Override
+    public void connect(InetSocketAddress address) throws IOException {
+        close();
+        Socket newSocket = new Socket();
+        try {
+            newSocket.setTcpNoDelay(true);
+            newSocket.connect(address, CONNECT_TIMEOUT_MS);
+        } catch (IOException e) {
+            newSocket.close();
+            throw e;
+        }
+        socket = newSocket;
+        out = new BufferedOutputStream(socket.getOutputStream());
+    }
+
+    @Override
+    public void send(byte[] message) throws IOException {
+        if (out == null) {
+            throw new IOException("TCP transport is not connected");
+        }
+        out.write(message);
+        out.write(TRAILER);
+        out.flush();
+    }
+
+    @Override
+    public void close() {
+        if (socket != null) {
+            try {
+                socket.close();
+            } catch (IOException e) {
+                // Nothing left to release
+            }
+            socket = null;
+            out = null;
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package com.byteliberi.demo.syslog.impl;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.DatagramChannel;
+
+/**
+ * Sends each message as one datagram over a connected {@link DatagramChannel}.
+ * Connecting the channel lets ICMP "port unreachable" replies surface as send failures,
+ * which is the only health signal UDP offers.
+ */
+class UdpTransport implements SyslogTransport {
+
+    private DatagramChannel channel;
+
+    @Override
+    public void connect(InetSocketAddress address) throws IOException {
+        close();
+        channel = DatagramChannel.open();
+        channel.connect(address);
+    }
+
+    @Override
+    public void send(byte[] message) throws IOException {
+        if (channel == null) {
+            throw new IOException("UDP transport is not connected");
+        }
+        channel.write(ByteBuffer.wrap(message));
+    }
+
+    @Override
+    public void close() {
+        if (channel != null) {
+            try {
+                channel.close();
+            } catch (IOException e) {
+                // Nothing left to release
+            }
+            channel = null;
+        }
+    }
+}
@@ -0,0 +1,262 @@
+package com.byteliberi.demo.syslog.impl;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.net.DatagramPacket;
+import java.net.DatagramSocket;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketTimeoutException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for EndpointRouter and SyslogEndpoint against local UDP and TCP sinks.
+ */
+class EndpointRouterTest {
+
+    private final List<AutoCloseable> resources = new ArrayList<>();
+    private EndpointRouter router;
+
+    @AfterEach
+    void tearDown() throws Exception {
+        if (router != null) {
+            router.stop();
+        }
+        for (AutoCloseable resource : resources) {
+            resource.close();
+        }
+    }
+
+    @Test
+    void testRoundRobin_spreadsEvenly() throws Exception {
+        UdpSink a = udpSink();
+        UdpSink b = udpSink();
+        UdpSink c = udpSink();
+        start(EndpointRouter.Strategy.ROUND_ROBIN, a.spec(), b.spec(), c.spec());
+
+        for (int i = 0; i < 30; i++) {
+            assertTrue(router.route(message(i), "payload" + i));
+        }
+
+        awaitTotal(30, a, b, c);
+        assertEquals(10, a.received.size());
+        assertEquals(10, b.received.size());
+        assertEquals(10, c.received.size());
+    }
+
+    @Test
+    void testWeighted_followsWeights() throws Exception {
+        UdpSink light = udpSink();
+        UdpSink heavy = udpSink();
+        start(EndpointRouter.Strategy.WEIGHTED, light.spec() + "?weight=1", heavy.spec() + "?weight=3");
+
+        for (int i = 0; i < 40; i++) {
+            router.route(message(i), "payload" + i);
+        }
+
+        awaitTotal(40, light, heavy);
+        assertEquals(10, light.received.size());
+        assertEquals(30, heavy.received.size());
+    }
+
+    @Test
+    void testConsistentHash_samePayloadSameEndpoint() throws Exception {
+        UdpSink a = udpSink();
+        UdpSink b = udpSink();
+        start(EndpointRouter.Strategy.CONSISTENT_HASH, a.spec(), b.spec());
+
+        for (int round = 0; round < 3; round++) {
+            for (int i = 0; i < 50; i++) {
+                router.route(("<134>key" + i).getBytes(StandardCharsets.UTF_8), "key" + i);
+            }
+        }
+
+        awaitTotal(150, a, b);
+        Set<String> onA = new HashSet<>(a.received);
+        Set<String> onB = new HashSet<>(b.received);
+        assertFalse(onA.isEmpty(), "Keys should be spread over both endpoints");
+        assertFalse(onB.isEmpty(), "Keys should be spread over both endpoints");
+        onA.retainAll(onB);
+        assertTrue(onA.isEmpty(), "A key must never be sent to two endpoints: " + onA);
+    }
+
+    @Test
+    void testFailover_deadEndpointTrafficMovesToHealthyOne() throws Exception {
+        int deadPort;
+        try (ServerSocket probe = new ServerSocket(0)) {
+            deadPort = probe.getLocalPort();
+        }
+        TcpSink healthy = tcpSink();
+        start(EndpointRouter.Strategy.ROUND_ROBIN, "tcp://127.0.0.1:" + deadPort, healthy.spec());
+
+        for (int i = 0; i < 20; i++) {
+            router.route(message(i), "payload" + i);
+        }
+
+        awaitTotal(20, healthy);
+        SyslogEndpoint dead = router.getEndpoints().get(0);
+        assertEquals(SyslogEndpoint.State.DOWN, dead.getState());
+        assertEquals(0, dead.getSentCount());
+        assertEquals(20, router.getEndpoints().get(1).getSentCount());
+    }
+
+    @Test
+    void testTcpEndpoint_framesMessagesWithLineFeed() throws Exception {
+        TcpSink sink = tcpSink();
+        start(EndpointRouter.Strategy.ROUND_ROBIN, sink.spec());
+
+        router.route(message(1), "payload1");
+        router.route(message(2), "payload2");
+
+        awaitTotal(2, sink);
+        assertEquals(List.of("<134>message-1", "<134>message-2"), sink.received);
+    }
+
+    @Test
+    void testParse_readsProtocolHostPortAndWeight() {
+        SyslogEndpoint endpoint = SyslogEndpoint.parse("tcp://collector.example:6514?weight=5", 16, 3, 100);
+        assertEquals("tcp://collector.example:6514", endpoint.toString());
+        assertEquals(5, endpoint.getWeight());
+    }
+
+    @Test
+    void testParse_rejectsInvalidSpecifications() {
+        assertThrows(IllegalArgumentException.class, () -> SyslogEndpoint.parse("http://host:514", 16, 3, 100));
+        assertThrows(IllegalArgumentException.class, () -> SyslogEndpoint.parse("udp://host", 16, 3, 100));
+    }
+
+    private void start(EndpointRouter.Strategy strategy, String... specs) {
+        List<SyslogEndpoint> endpoints = new ArrayList<>();
+        for (String spec : specs) {
+            endpoints.add(SyslogEndpoint.parse(spec, 1024, 1, 50));
+        }
+        router = new EndpointRouter(endpoints, strategy);
+        router.start(() -> { }, () -> { });
+    }
+
+    private static byte[] message(int i) {
+        return ("<134>message-" + i).getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static void awaitTotal(int expected, Sink... sinks) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        int total = 0;
+        while (System.nanoTime() < deadline) {
+            total = 0;
+            for (Sink sink : sinks) {
+                total += sink.received.size();
+            }
+            if (total >= expected) {
+                return;
+            }
+            Thread.sleep(10);
+        }
+        fail("Expected " + expected + " messages but received " + total);
+    }
+
+    private UdpSink udpSink() throws IOException {
+        UdpSink sink = new UdpSink();
+        resources.add(sink);
+        return sink;
+    }
+
+    private TcpSink tcpSink() throws IOException {
+        TcpSink sink = new TcpSink();
+        resources.add(sink);
+        return sink;
+    }
+
+    private abstract static class Sink implements AutoCloseable {
+        final List<String> received = new CopyOnWriteArrayList<>();
+        volatile boolean open = true;
+
+        abstract String spec();
+
+        @Override
+        public abstract void close() throws IOException;
+    }
+
+    private static final class UdpSink extends Sink {
+        private final DatagramSocket socket;
+
+        UdpSink() throws IOException {
+            socket = new DatagramSocket(0, InetAddress.getLoopbackAddress());
+            socket.setSoTimeout(100);
+            Thread thread = new Thread(() -> {
+                byte[] buffer = new byte[2048];
+                while (open) {
+                    DatagramPacket packet = new DatagramPacket(buffer, buffer.length);
+                    try {
+                        socket.receive(packet);
+                        received.add(new String(packet.getData(), 0, packet.getLength(), StandardCharsets.UTF_8));
+                    } catch (SocketTimeoutException e) {
+                        // poll the open flag
+                    } catch (IOException e) {
+                        return;
+                    }
+                }
+            });
+            thread.setDaemon(true);
+            thread.start();
+        }
+
+        @Override
+        String spec() {
+            return "udp://127.0.0.1:" + socket.getLocalPort();
+        }
+
+        @Override
+        public void close() {
+            open = false;
+            socket.close();
+        }
+    }
+
+    private static final class TcpSink extends Sink {
+        private final ServerSocket server;
+
+        TcpSink() throws IOException {
+            server = new ServerSocket(0, 50, InetAddress.getLoopbackAddress());
+            Thread thread = new Thread(() -> {
+                while (open) {
+                    try (Socket socket = server.accept();
+                         BufferedReader reader = new BufferedReader(
+                                 new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8))) {
+                        String line;
+                        while ((line = reader.readLine()) != null) {
+                            received.add(line);
+                        }
+                    } catch (IOException e) {
+                        return;
+                    }
+                }
+            });
+            thread.setDaemon(true);
+            thread.start();
+        }
+
+        @Override
+        String spec() {
+            return "tcp://127.0.0.1:" + server.getLocalPort();
+        }
+
+        @Override
+        public void close() throws IOException {
+            open = false;
+            server.close();
+        }
+    }
+}
@@ -1,12 +1,30 @@
 package com.byteliberi.demo.syslog.impl;
 
+import com.byteliberi.demo.producer.api.Readiness;
 import com.byteliberi.demo.producer.api.StringProducer;
+import com.byteliberi.demo.syslog.sink.SyslogSink;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+
+import java.io.IOException;
+import java.net.DatagramPacket;
+import java.net.DatagramSocket;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
 import java.util.regex.Pattern;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -41,6 +59,7 @@ class SyslogStringSenderTest {
         try {
             syslogSender.activate();
             verify(mockStringProducer).addListener(syslogSender);
+            verify(mockStringProducer, never()).addDurableListener(anyString(), any());
         } finally {
             syslogSender.deactivate();
         }
@@ -69,6 +88,142 @@ class SyslogStringSenderTest {
         }
     }
 
+    @Test
+    void testActivate_becomesReadyOnceAnEndpointConnects() throws InterruptedException {
+        syslogSender.activate();
+        try {
+            Readiness readiness = syslogSender;
+            assertTrue(readiness.awaitReady(5, TimeUnit.SECONDS), "The default endpoint should connect shortly after activation");
+            assertTrue(readiness.isReady());
+        } finally {
+            syslogSender.deactivate();
+        }
+    }
+
+    @Test
+    void testAwaitReady_timesOutWhileNoEndpointIsConnected() throws IOException, InterruptedException {
+        int closedPort;
+        try (ServerSocket socket = new ServerSocket(0)) {
+            closedPort = socket.getLocalPort();
+        }
+        syslogSender.activate(Map.of("endpoints", "tcp://127.0.0.1:" + closedPort, "retry.backoff.ms", 60_000L));
+        try {
+            assertFalse(syslogSender.awaitReady(300, TimeUnit.MILLISECONDS));
+            assertFalse(syslogSender.isReady());
+        } finally {
+            syslogSender.deactivate();
+        }
+    }
+
+    @Test
+    void testOnStringGenerated_deliversToConfiguredEndpoints() throws Exception {
+        try (DatagramSocket sinkA = new DatagramSocket(0, InetAddress.getLoopbackAddress());
+             DatagramSocket sinkB = new DatagramSocket(0, InetAddress.getLoopbackAddress())) {
+            sinkA.setSoTimeout(5000);
+            sinkB.setSoTimeout(5000);
+            syslogSender.activate(Map.of(
+                    SyslogStringSender.ENDPOINTS, new String[] {
+                            "udp://127.0.0.1:" + sinkA.getLocalPort(),
+                            "udp://127.0.0.1:" + sinkB.getLocalPort()},
+                    SyslogStringSender.ROUTING, "round-robin"));
+            try {
+                syslogSender.onStringGenerated("First");
+                syslogSender.onStringGenerated("Second");
+
+                assertTrue(receive(sinkA).endsWith("osgi-demo: First"));
+                assertTrue(receive(sinkB).endsWith("osgi-demo: Second"));
+            } finally {
+                syslogSender.deactivate();
+            }
+        }
+    }
+
+    @Test
+    void testFlightRecorder_recordsEverySend(@TempDir Path dumpDir) throws Exception {
+        try (DatagramSocket sink = new DatagramSocket(0, InetAddress.getLoopbackAddress());
+             Recording recording = new Recording()) {
+            sink.setSoTimeout(5000);
+            recording.enable("com.byteliberi.demo.syslog.Send").withThreshold(Duration.ZERO);
+            recording.start();
+            String endpoint = "udp://127.0.0.1:" + sink.getLocalPort();
+            syslogSender.activate(Map.of(SyslogStringSender.ENDPOINTS, new String[] {endpoint}));
+            try {
+                syslogSender.onStringGenerated("Recorded");
+                String message = receive(sink);
+                while (syslogSender.getSentCount() < 1) {
+                    Thread.sleep(10);
+                }
+                recording.stop();
+                Path dump = dumpDir.resolve("syslog.jfr");
+                recording.dump(dump);
+
+                List<RecordedEvent> events = RecordingFile.readAllEvents(dump);
+                assertEquals(1, events.size());
+                assertEquals(endpoint, events.get(0).getString("endpoint"));
+                assertEquals("sent", events.get(0).getString("outcome"));
+                assertEquals(message.getBytes(StandardCharsets.UTF_8).length, events.get(0).getInt("messageBytes"));
+            } finally {
+                syslogSender.deactivate();
+            }
+        }
+    }
+
+    @Test
+    void testEndToEnd_tcpDeliversEveryMessageWellFormed() throws Exception {
+        try (SyslogSink sink = SyslogSink.start(2)) {
+            syslogSender.activate(Map.of(SyslogStringSender.ENDPOINTS, new String[] {sink.getTcpEndpoint()},
+                    SyslogStringSender.LOG_SAMPLE_EVERY, 0));
+            try {
+                for (int i = 0; i < 500; i++) {
+                    syslogSender.onStringGenerated("Message" + i);
+                    if (i % 100 == 99) {
+                        // Stay within the endpoint's queue
+                        while (syslogSender.getSentCount() < i + 1) {
+                            Thread.sleep(1);
+                        }
+                    }
+                }
+                assertTrue(sink.awaitChecked(500, 5000), "Received " + sink.getReceivedCount());
+                SyslogSink.Report report = sink.report(syslogSender.getSentCount());
+                assertEquals(500, report.getSent());
+                assertEquals(0, report.getLost(), report.toString());
+                assertEquals(500, report.getValid(), sink.getMalformedSamples().toString());
+            } finally {
+                syslogSender.deactivate();
+            }
+        }
+    }
+
+    @Test
+    void testEndToEnd_udpReportsDeliveredAndLost() throws Exception {
+        try (SyslogSink sink = SyslogSink.start(1)) {
+            syslogSender.activate(Map.of(SyslogStringSender.ENDPOINTS, new String[] {sink.getUdpEndpoint()},
+                    SyslogStringSender.LOG_SAMPLE_EVERY, 0));
+            try {
+                for (int i = 0; i < 50; i++) {
+                    syslogSender.onStringGenerated("Message" + i);
+                }
+                while (syslogSender.getSentCount() < 50) {
+                    Thread.sleep(5);
+                }
+                assertTrue(sink.awaitQuiet(100, 5000));
+                SyslogSink.Report report = sink.report(syslogSender.getSentCount());
+                // A local datagram can still be dropped, so only check that the books balance
+                assertEquals(report.getSent(), report.getReceived() + report.getLost());
+                assertTrue(report.getReceived() > 0);
+                assertEquals(report.getReceived(), report.getValid(), sink.getMalformedSamples().toString());
+            } finally {
+                syslogSender.deactivate();
+            }
+        }
+    }
+
+    private static String receive(DatagramSocket socket) throws IOException {
+        DatagramPacket packet = new DatagramPacket(new byte[2048], 2048);
+        socket.receive(packet);
+        return new String(packet.getData(), 0, packet.getLength(), StandardCharsets.UTF_8);
+    }
+
     @Test
     void testFormatSyslogMessage_correctFormat() throws Exception {
         // Use reflection to access the private formatSyslogMessage method
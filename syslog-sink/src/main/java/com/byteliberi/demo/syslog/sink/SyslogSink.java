@@ -0,0 +1,476 @@
+package com.byteliberi.demo.syslog.sink;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.StandardSocketOptions;
+import java.nio.ByteBuffer;
+import java.nio.channels.DatagramChannel;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * In-process syslog collector for tests and benchmarks, standing in for a daemon on port 514.
+ * <p>
+ * The sink listens on ephemeral loopback ports for UDP datagrams and for TCP streams framed
+ * with a line feed, as sent by the syslog sender's UDP and TCP endpoints. A single selector
+ * thread does all the I/O and hands the raw messages in batches to a pool of parser threads,
+ * which check each one against the sender's format:
+ * {@code <134>MMM dd HH:mm:ss osgi-demo: MESSAGE}. The counters can then be compared with
+ * {@code SyslogStringSender.getSentCount()} through {@link #report(long)}; on UDP the difference
+ * is what the network stack dropped, typically because the receive buffer overflowed.
+ * <p>
+ * Usage:
+ * <pre>
+ * try (SyslogSink sink = SyslogSink.start(2)) {
+ *     sender.activate(Map.of("endpoints", new String[] {sink.getUdpEndpoint()}));
+ *     ...
+ *     sink.awaitQuiet(200, 5000);
+ *     SyslogSink.Report report = sink.report(sender.getSentCount());
+ * }
+ * </pre>
+ */
+public final class SyslogSink implements AutoCloseable {
+
+    private static final int EXPECTED_PRIORITY = 134;
+    private static final String EXPECTED_HOSTNAME = "osgi-demo";
+    private static final DateTimeFormatter TIMESTAMP_FORMAT = DateTimeFormatter.ofPattern("MMM dd HH:mm:ss");
+    private static final int RECEIVE_BUFFER_BYTES = 4 * 1024 * 1024;
+    private static final int MAX_MESSAGE_BYTES = 64 * 1024;
+    private static final int BATCH_SIZE = 256;
+    private static final int MAX_SAMPLES = 10;
+
+    private final Selector selector;
+    private final DatagramChannel udp;
+    private final ServerSocketChannel tcp;
+    private final int udpPort;
+    private final int tcpPort;
+    private final ExecutorService parsers;
+    private final Thread ioThread;
+    private final LongAdder received = new LongAdder();
+    private final LongAdder receivedBytes = new LongAdder();
+    private final LongAdder valid = new LongAdder();
+    private final LongAdder badPriority = new LongAdder();
+    private final LongAdder badTimestamp = new LongAdder();
+    private final LongAdder badHostname = new LongAdder();
+    private final LongAdder unparseable = new LongAdder();
+    private final List<String> malformedSamples = Collections.synchronizedList(new ArrayList<>());
+    private volatile long firstReceiveNanos;
+    private volatile long lastReceiveNanos;
+    private volatile boolean running = true;
+    private List<byte[]> batch = new ArrayList<>(BATCH_SIZE);
+
+    private SyslogSink(int parserThreads) throws IOException {
+        InetAddress loopback = InetAddress.getLoopbackAddress();
+        selector = Selector.open();
+        udp = DatagramChannel.open();
+        udp.setOption(StandardSocketOptions.SO_RCVBUF, RECEIVE_BUFFER_BYTES);
+        udp.bind(new InetSocketAddress(loopback, 0));
+        udpPort = ((InetSocketAddress) udp.getLocalAddress()).getPort();
+        udp.configureBlocking(false);
+        udp.register(selector, SelectionKey.OP_READ);
+        tcp = ServerSocketChannel.open();
+        tcp.bind(new InetSocketAddress(loopback, 0));
+        tcpPort = ((InetSocketAddress) tcp.getLocalAddress()).getPort();
+        tcp.configureBlocking(false);
+        tcp.register(selector, SelectionKey.OP_ACCEPT);
+        parsers = Executors.newFixedThreadPool(parserThreads, runnable -> {
+            Thread thread = new Thread(runnable, "SyslogSink-parser");
+            thread.setDaemon(true);
+            return thread;
+        });
+        ioThread = new Thread(this::run, "SyslogSink-io");
+        ioThread.setDaemon(true);
+    }
+
+    /**
+     * Binds the sink to ephemeral loopback ports and starts receiving.
+     * @param parserThreads number of threads checking the received messages
+     * @return the running sink
+     * @throws IOException if the ports cannot be bound
+     */
+    public static SyslogSink start(int parserThreads) throws IOException {
+        SyslogSink sink = new SyslogSink(Math.max(1, parserThreads));
+        sink.ioThread.start();
+        return sink;
+    }
+
+    /**
+     * @return the UDP endpoint specification, such as {@code udp://127.0.0.1:40123}
+     */
+    public String getUdpEndpoint() {
+        return "udp://127.0.0.1:" + udpPort;
+    }
+
+    /**
+     * @return the TCP endpoint specification, such as {@code tcp://127.0.0.1:40123}
+     */
+    public String getTcpEndpoint() {
+        return "tcp://127.0.0.1:" + tcpPort;
+    }
+
+    /**
+     * Waits until at least {@code count} messages have been received and checked.
+     * @param count the number of messages expected
+     * @param timeoutMillis how long to wait
+     * @return {@code true} if they arrived in time
+     */
+    public boolean awaitChecked(long count, long timeoutMillis) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMillis);
+        while (getCheckedCount() < count) {
+            if (System.nanoTime() - deadline > 0) {
+                return false;
+            }
+            Thread.sleep(5);
+        }
+        return true;
+    }
+
+    /**
+     * Waits until nothing has arrived for {@code quietMillis} and every received message has
+     * been checked, which is how a benchmark knows that whatever was not received is lost.
+     * @param quietMillis how long the sink must have been idle
+     * @param timeoutMillis how long to wait at most
+     * @return {@code true} if the sink went quiet in time
+     */
+    public boolean awaitQuiet(long quietMillis, long timeoutMillis) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMillis);
+        long quietNanos = TimeUnit.MILLISECONDS.toNanos(quietMillis);
+        long observed = -1;
+        long observedSince = System.nanoTime();
+        while (System.nanoTime() - deadline < 0) {
+            long current = received.sum();
+            if (current != observed) {
+                observed = current;
+                observedSince = System.nanoTime();
+            } else if (System.nanoTime() - observedSince >= quietNanos && getCheckedCount() == current) {
+                return true;
+            }
+            Thread.sleep(5);
+        }
+        return false;
+    }
+
+    /**
+     * @return the number of messages received so far
+     */
+    public long getReceivedCount() {
+        return received.sum();
+    }
+
+    /**
+     * @return the number of received messages in the expected format
+     */
+    public long getValidCount() {
+        return valid.sum();
+    }
+
+    /**
+     * @return the number of received messages that failed a format check
+     */
+    public long getMalformedCount() {
+        return badPriority.sum() + badTimestamp.sum() + badHostname.sum() + unparseable.sum();
+    }
+
+    /**
+     * @return up to ten of the malformed messages, with the failed check, for diagnostics
+     */
+    public List<String> getMalformedSamples() {
+        synchronized (malformedSamples) {
+            return new ArrayList<>(malformedSamples);
+        }
+    }
+
+    /**
+     * Compares what arrived with what the sender reports as sent.
+     * @param sentCount the sender's count of messages handed to the network
+     * @return delivered rate, loss and format errors
+     */
+    public Report report(long sentCount) {
+        long first = firstReceiveNanos;
+        long last = lastReceiveNanos;
+        return new Report(sentCount, received.sum(), receivedBytes.sum(), valid.sum(), badPriority.sum(),
+                badTimestamp.sum(), badHostname.sum(), unparseable.sum(), first == 0 ? 0 : last - first);
+    }
+
+    /**
+     * Stops receiving and closes the ports.
+     */
+    @Override
+    public void close() {
+        running = false;
+        selector.wakeup();
+        try {
+            ioThread.join(1000);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        parsers.shutdown();
+        try {
+            parsers.awaitTermination(1, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private long getCheckedCount() {
+        return valid.sum() + getMalformedCount();
+    }
+
+    private void run() {
+        ByteBuffer datagram = ByteBuffer.allocateDirect(MAX_MESSAGE_BYTES);
+        try {
+            while (running) {
+                selector.select(100);
+                for (SelectionKey key : selector.selectedKeys()) {
+                    if (!key.isValid()) {
+                        continue;
+                    }
+                    if (key.isAcceptable()) {
+                        accept();
+                    } else if (key.channel() == udp) {
+                        readDatagrams(datagram);
+                    } else {
+                        readStream(key);
+                    }
+                }
+                selector.selectedKeys().clear();
+                flushBatch();
+            }
+        } catch (IOException e) {
+            if (running) {
+                throw new IllegalStateException("Syslog sink stopped receiving", e);
+            }
+        } finally {
+            for (SelectionKey key : selector.keys()) {
+                try {
+                    key.channel().close();
+                } catch (IOException e) {
+                    // Nothing left to release
+                }
+            }
+            try {
+                selector.close();
+            } catch (IOException e) {
+                // Nothing left to release
+            }
+        }
+    }
+
+    private void accept() throws IOException {
+        SocketChannel connection;
+        while ((connection = tcp.accept()) != null) {
+            connection.configureBlocking(false);
+            connection.register(selector, SelectionKey.OP_READ, ByteBuffer.allocate(MAX_MESSAGE_BYTES));
+        }
+    }
+
+    private void readDatagrams(ByteBuffer buffer) throws IOException {
+        while (true) {
+            buffer.clear();
+            if (udp.receive(buffer) == null) {
+                return;
+            }
+            buffer.flip();
+            byte[] message = new byte[buffer.remaining()];
+            buffer.get(message);
+            accepted(message);
+        }
+    }
+
+    private void readStream(SelectionKey key) {
+        SocketChannel connection = (SocketChannel) key.channel();
+        ByteBuffer buffer = (ByteBuffer) key.attachment();
+        try {
+            int read;
+            while ((read = connection.read(buffer)) > 0) {
+                buffer.flip();
+                int start = buffer.position();
+                for (int i = start; i < buffer.limit(); i++) {
+                    if (buffer.get(i) == '\n') {
+                        accepted(Arrays.copyOfRange(buffer.array(), start, i));
+                        start = i + 1;
+                    }
+                }
+                buffer.position(start);
+                buffer.compact();
+                if (!buffer.hasRemaining()) {
+                    // No line feed within the largest message: count it and resynchronise
+                    accepted(Arrays.copyOf(buffer.array(), buffer.position()));
+                    buffer.clear();
+                }
+            }
+            if (read < 0) {
+                key.cancel();
+                connection.close();
+            }
+        } catch (IOException e) {
+            key.cancel();
+            try {
+                connection.close();
+            } catch (IOException closeFailure) {
+                // Nothing left to release
+            }
+        }
+    }
+
+    private void accepted(byte[] message) {
+        long now = System.nanoTime();
+        if (firstReceiveNanos == 0) {
+            firstReceiveNanos = now;
+        }
+        lastReceiveNanos = now;
+        received.increment();
+        receivedBytes.add(message.length);
+        batch.add(message);
+        if (batch.size() == BATCH_SIZE) {
+            flushBatch();
+        }
+    }
+
+    private void flushBatch() {
+        if (batch.isEmpty()) {
+            return;
+        }
+        List<byte[]> messages = batch;
+        batch = new ArrayList<>(BATCH_SIZE);
+        parsers.execute(() -> {
+            for (byte[] message : messages) {
+                check(new String(message, StandardCharsets.UTF_8));
+            }
+        });
+    }
+
+    /**
+     * Checks one message against {@code <134>MMM dd HH:mm:ss osgi-demo: MESSAGE}.
+     */
+    private void check(String message) {
+        int priorityEnd = message.indexOf('>');
+        int headerEnd = message.indexOf(": ", priorityEnd + 1);
+        int hostnameStart = headerEnd < 0 ? -1 : message.lastIndexOf(' ', headerEnd - 1);
+        if (!message.startsWith("<") || priorityEnd < 2 || hostnameStart <= priorityEnd) {
+            malformed(unparseable, "unparseable", message);
+            return;
+        }
+        int priority;
+        try {
+            priority = Integer.parseInt(message.substring(1, priorityEnd));
+        } catch (NumberFormatException e) {
+            priority = -1;
+        }
+        if (priority != EXPECTED_PRIORITY) {
+            malformed(badPriority, "priority", message);
+            return;
+        }
+        try {
+            TIMESTAMP_FORMAT.parse(message.substring(priorityEnd + 1, hostnameStart));
+        } catch (DateTimeParseException e) {
+            malformed(badTimestamp, "timestamp", message);
+            return;
+        }
+        if (!message.regionMatches(hostnameStart + 1, EXPECTED_HOSTNAME, 0, EXPECTED_HOSTNAME.length())
+                || hostnameStart + 1 + EXPECTED_HOSTNAME.length() != headerEnd) {
+            malformed(badHostname, "hostname", message);
+            return;
+        }
+        valid.increment();
+    }
+
+    private void malformed(LongAdder counter, String check, String message) {
+        if (malformedSamples.size() < MAX_SAMPLES) {
+            synchronized (malformedSamples) {
+                if (malformedSamples.size() < MAX_SAMPLES) {
+                    malformedSamples.add(check + ": " + message);
+                }
+            }
+        }
+        counter.increment();
+    }
+
+    /**
+     * What the sink received compared with what the sender sent.
+     */
+    public static final class Report {
+        private final long sent;
+        private final long received;
+        private final long receivedBytes;
+        private final long valid;
+        private final long badPriority;
+        private final long badTimestamp;
+        private final long badHostname;
+        private final long unparseable;
+        private final long receiveNanos;
+
+        Report(long sent, long received, long receivedBytes, long valid, long badPriority, long badTimestamp,
+               long badHostname, long unparseable, long receiveNanos) {
+            this.sent = sent;
+            this.received = received;
+            this.receivedBytes = receivedBytes;
+            this.valid = valid;
+            this.badPriority = badPriority;
+            this.badTimestamp = badTimestamp;
+            this.badHostname = badHostname;
+            this.unparseable = unparseable;
+            this.receiveNanos = receiveNanos;
+        }
+
+        public long getSent() {
+            return sent;
+        }
+
+        public long getReceived() {
+            return received;
+        }
+
+        public long getValid() {
+            return valid;
+        }
+
+        public long getMalformed() {
+            return badPriority + badTimestamp + badHostname + unparseable;
+        }
+
+        /**
+         * @return messages sent but not received; negative if the sink saw more than was sent
+         */
+        public long getLost() {
+            return sent - received;
+        }
+
+        /**
+         * @return the lost fraction of the sent messages, 0 if nothing was sent
+         */
+        public double getLossRatio() {
+            return sent == 0 ? 0 : (double) getLost() / sent;
+        }
+
+        /**
+         * @return messages received per second, from the first to the last one received
+         */
+        public double getDeliveredRate() {
+            return receiveNanos == 0 ? 0 : received * 1e9 / receiveNanos;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("sent=%d received=%d lost=%d (%.2f%%) valid=%d malformed=%d"
+                            + " [priority=%d timestamp=%d hostname=%d unparseable=%d] %.0f msg/s %.1f MiB/s",
+                    sent, received, getLost(), getLossRatio() * 100, valid, getMalformed(), badPriority,
+                    badTimestamp, badHostname, unparseable, getDeliveredRate(),
+                    receiveNanos == 0 ? 0 : receivedBytes * 1e9 / receiveNanos / (1024 * 1024));
+        }
+    }
+}
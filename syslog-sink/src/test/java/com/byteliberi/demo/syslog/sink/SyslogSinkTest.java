@@ -0,0 +1,67 @@
+package com.byteliberi.demo.syslog.sink;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.OutputStream;
+import java.net.DatagramPacket;
+import java.net.DatagramSocket;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the SyslogSink test collector's framing and format checks.
+ */
+class SyslogSinkTest {
+
+    @Test
+    void testChecks_countEachKindOfMalformedMessage() throws Exception {
+        String timestamp = LocalDateTime.now().format(DateTimeFormatter.ofPattern("MMM dd HH:mm:ss"));
+        String[] messages = {
+                "<134>" + timestamp + " osgi-demo: Valid1",
+                "<13>" + timestamp + " osgi-demo: WrongPriority",
+                "<134>2024-01-31T17:00:00 osgi-demo: WrongTimestamp",
+                "<134>" + timestamp + " other-host: WrongHostname",
+                "no header at all"};
+        try (SyslogSink sink = SyslogSink.start(2);
+             DatagramSocket socket = new DatagramSocket()) {
+            int port = URI.create(sink.getUdpEndpoint()).getPort();
+            for (String message : messages) {
+                byte[] bytes = message.getBytes(StandardCharsets.UTF_8);
+                socket.send(new DatagramPacket(bytes, bytes.length, InetAddress.getLoopbackAddress(), port));
+            }
+            assertTrue(sink.awaitChecked(messages.length, 5000));
+
+            SyslogSink.Report report = sink.report(messages.length);
+            assertEquals(1, report.getValid());
+            assertEquals(4, report.getMalformed());
+            assertEquals(0, report.getLost());
+            assertTrue(report.toString().contains("priority=1 timestamp=1 hostname=1 unparseable=1"), report.toString());
+        }
+    }
+
+    @Test
+    void testTcp_splitsStreamOnLineFeeds() throws Exception {
+        String timestamp = LocalDateTime.now().format(DateTimeFormatter.ofPattern("MMM dd HH:mm:ss"));
+        try (SyslogSink sink = SyslogSink.start(1);
+             Socket socket = new Socket(InetAddress.getLoopbackAddress(), URI.create(sink.getTcpEndpoint()).getPort())) {
+            OutputStream out = socket.getOutputStream();
+            String stream = "<134>" + timestamp + " osgi-demo: First\n<134>" + timestamp + " osgi-demo: Second\n";
+            // Split mid-message so that framing has to carry a partial message over
+            out.write(stream.substring(0, 20).getBytes(StandardCharsets.UTF_8));
+            out.flush();
+            Thread.sleep(50);
+            out.write(stream.substring(20).getBytes(StandardCharsets.UTF_8));
+            out.flush();
+
+            assertTrue(sink.awaitChecked(2, 5000));
+            assertEquals(2, sink.getValidCount());
+            assertEquals(2, sink.getReceivedCount());
+        }
+    }
+}